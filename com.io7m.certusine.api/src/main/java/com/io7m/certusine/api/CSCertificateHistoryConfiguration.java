@@ -0,0 +1,65 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.certusine.api;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The retention configuration for the certificate history.
+ *
+ * @param retainCount The maximum number of history entries retained for each
+ *                    certificate
+ * @param retainAge   The maximum age of retained history entries, if any
+ */
+
+public record CSCertificateHistoryConfiguration(
+  int retainCount,
+  Optional<Duration> retainAge)
+{
+  private static final CSCertificateHistoryConfiguration DEFAULTS =
+    new CSCertificateHistoryConfiguration(32, Optional.empty());
+
+  /**
+   * The retention configuration for the certificate history.
+   *
+   * @param retainCount The maximum number of history entries retained for
+   *                    each certificate
+   * @param retainAge   The maximum age of retained history entries, if any
+   */
+
+  public CSCertificateHistoryConfiguration
+  {
+    Objects.requireNonNull(retainAge, "retainAge");
+
+    if (retainCount < 1) {
+      throw new IllegalArgumentException(
+        "Retain count %d must be positive".formatted(retainCount)
+      );
+    }
+  }
+
+  /**
+   * @return The default history retention configuration
+   */
+
+  public static CSCertificateHistoryConfiguration defaults()
+  {
+    return DEFAULTS;
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.api;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The result of a deferred write to a certificate output.
+ *
+ * @param data    The data that was written
+ * @param failure The reason the write failed, if it failed
+ *
+ * @see CSCertificateOutputType#writesDeferred()
+ */
+
+public record CSCertificateOutputDeferredResult(
+  CSCertificateOutputData data,
+  Optional<Exception> failure)
+{
+  /**
+   * The result of a deferred write to a certificate output.
+   *
+   * @param data    The data that was written
+   * @param failure The reason the write failed, if it failed
+   */
+
+  public CSCertificateOutputDeferredResult
+  {
+    Objects.requireNonNull(data, "data");
+    Objects.requireNonNull(failure, "failure");
+  }
+
+  /**
+   * @param data The data that was written
+   *
+   * @return A successful result
+   */
+
+  public static CSCertificateOutputDeferredResult succeeded(
+    final CSCertificateOutputData data)
+  {
+    return new CSCertificateOutputDeferredResult(data, Optional.empty());
+  }
+
+  /**
+   * @param data    The data that was not written
+   * @param failure The reason the write failed
+   *
+   * @return A failed result
+   */
+
+  public static CSCertificateOutputDeferredResult failed(
+    final CSCertificateOutputData data,
+    final Exception failure)
+  {
+    return new CSCertificateOutputDeferredResult(data, Optional.of(failure));
+  }
+}
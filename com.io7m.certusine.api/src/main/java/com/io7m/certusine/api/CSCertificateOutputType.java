@@ -17,6 +17,7 @@
 package com.io7m.certusine.api;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
  * A certificate output.
@@ -36,6 +37,21 @@ public interface CSCertificateOutputType
 
   String name();
 
+  /**
+   * The target of the output, such as a directory or a server address.
+   * Certificates are written to outputs only when the data to be written
+   * differs from the data most recently written, and so a change in the
+   * target must be reflected here in order to cause certificates to be
+   * written to the new target.
+   *
+   * @return The target of the output
+   */
+
+  default String target()
+  {
+    return "";
+  }
+
   /**
    * Write a certificate to the output.
    *
@@ -49,4 +65,54 @@ public interface CSCertificateOutputType
     CSTelemetryServiceType telemetry,
     CSCertificateOutputData outputData)
     throws IOException, InterruptedException;
+
+  /**
+   * Determine whether writes to this output are deferred. A deferred write
+   * merely queues data in {@link #write(CSTelemetryServiceType, CSCertificateOutputData)},
+   * and the data is actually written when
+   * {@link #passCompleted(CSTelemetryServiceType)} is called. This allows
+   * outputs to batch many certificates into a small number of requests.
+   *
+   * @return {@code true} if writes are deferred until the end of each pass
+   */
+
+  default boolean writesDeferred()
+  {
+    return false;
+  }
+
+  /**
+   * Determine whether unchanged certificates are periodically written to
+   * this output again. Outputs whose writes have side effects beyond storing
+   * the certificates (such as reloading servers) should only be written when
+   * the certificates actually change.
+   *
+   * @return {@code true} if unchanged certificates are periodically rewritten
+   */
+
+  default boolean writesRefreshed()
+  {
+    return true;
+  }
+
+  /**
+   * Indicate that a renewal pass over all domains has completed. Outputs
+   * that perform expensive actions in response to writes (such as
+   * reloading servers) can defer those actions until this method is
+   * called, so that many writes in a single pass result in a single action.
+   *
+   * @param telemetry The telemetry service
+   *
+   * @return The results of any deferred writes
+   *
+   * @throws IOException On I/O errors
+   * @see #writesDeferred()
+   */
+
+  default List<CSCertificateOutputDeferredResult> passCompleted(
+    final CSTelemetryServiceType telemetry)
+    throws IOException, InterruptedException
+  {
+    return List.of();
+  }
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.api;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * The retention configuration for the event journal.
+ *
+ * @param retainAge The maximum age of retained journal entries
+ */
+
+public record CSEventJournalConfiguration(
+  Duration retainAge)
+{
+  private static final CSEventJournalConfiguration DEFAULTS =
+    new CSEventJournalConfiguration(Duration.ofDays(90L));
+
+  /**
+   * The retention configuration for the event journal.
+   *
+   * @param retainAge The maximum age of retained journal entries
+   */
+
+  public CSEventJournalConfiguration
+  {
+    Objects.requireNonNull(retainAge, "retainAge");
+
+    if (retainAge.isNegative() || retainAge.isZero()) {
+      throw new IllegalArgumentException(
+        "Retain age %s must be positive".formatted(retainAge)
+      );
+    }
+  }
+
+  /**
+   * @return The default event journal retention configuration
+   */
+
+  public static CSEventJournalConfiguration defaults()
+  {
+    return DEFAULTS;
+  }
+}
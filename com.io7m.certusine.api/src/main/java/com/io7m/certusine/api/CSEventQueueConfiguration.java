@@ -0,0 +1,93 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.api;
+
+import java.util.Objects;
+
+/**
+ * The configuration of the queue that holds events before they are
+ * published to logs and telemetry.
+ *
+ * @param capacity       The maximum number of events held in the queue
+ * @param overflowPolicy The policy applied when an event is emitted and the
+ *                       queue is full
+ */
+
+public record CSEventQueueConfiguration(
+  int capacity,
+  CSOverflowPolicy overflowPolicy)
+{
+  private static final CSEventQueueConfiguration DEFAULTS =
+    new CSEventQueueConfiguration(1024, CSOverflowPolicy.DROP_OLDEST);
+
+  /**
+   * The configuration of the queue that holds events before they are
+   * published to logs and telemetry.
+   *
+   * @param capacity       The maximum number of events held in the queue
+   * @param overflowPolicy The policy applied when an event is emitted and
+   *                       the queue is full
+   */
+
+  public CSEventQueueConfiguration
+  {
+    Objects.requireNonNull(overflowPolicy, "overflowPolicy");
+
+    if (capacity < 1) {
+      throw new IllegalArgumentException(
+        "Capacity %d must be positive".formatted(capacity)
+      );
+    }
+  }
+
+  /**
+   * @return The default event queue configuration
+   */
+
+  public static CSEventQueueConfiguration defaults()
+  {
+    return DEFAULTS;
+  }
+
+  /**
+   * The policy applied when an event is emitted and the queue is full.
+   */
+
+  public enum CSOverflowPolicy
+  {
+    /**
+     * The emitted event is discarded.
+     */
+
+    DROP_NEWEST,
+
+    /**
+     * The oldest event in the queue is discarded to make room for the
+     * emitted event.
+     */
+
+    DROP_OLDEST,
+
+    /**
+     * The emitting thread waits until there is room in the queue.
+     */
+
+    BLOCK
+  }
+}
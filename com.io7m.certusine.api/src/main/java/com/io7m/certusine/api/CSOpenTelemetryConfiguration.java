@@ -27,13 +27,15 @@ import java.util.Optional;
  * @param logs               The configuration for OTLP logs
  * @param metrics            The configuration for OTLP metrics
  * @param traces             The configuration for OTLP traces
+ * @param prometheus         The configuration for a Prometheus endpoint
  */
 
 public record CSOpenTelemetryConfiguration(
   String logicalServiceName,
   Optional<CSLogs> logs,
   Optional<CSMetrics> metrics,
-  Optional<CSTraces> traces)
+  Optional<CSTraces> traces,
+  Optional<CSPrometheus> prometheus)
 {
   /**
    * Configuration information for OpenTelemetry.
@@ -42,6 +44,7 @@ public record CSOpenTelemetryConfiguration(
    * @param logs               The configuration for OTLP logs
    * @param metrics            The configuration for OTLP metrics
    * @param traces             The configuration for OTLP traces
+   * @param prometheus         The configuration for a Prometheus endpoint
    */
 
   public CSOpenTelemetryConfiguration
@@ -50,6 +53,7 @@ public record CSOpenTelemetryConfiguration(
     Objects.requireNonNull(logs, "logs");
     Objects.requireNonNull(metrics, "metrics");
     Objects.requireNonNull(traces, "traces");
+    Objects.requireNonNull(prometheus, "prometheus");
   }
 
   /**
@@ -92,20 +96,73 @@ public record CSOpenTelemetryConfiguration(
    *
    * @param endpoint The endpoint to which OTLP trace data will be sent.
    * @param protocol The protocol used to deliver OpenTelemetry data.
+   * @param sampling The trace sampling configuration
    */
 
   public record CSTraces(
     URI endpoint,
-    CSOTLPProtocol protocol)
+    CSOTLPProtocol protocol,
+    CSTraceSampling sampling)
   {
     /**
      * Trace configuration.
+     *
+     * @param endpoint The endpoint to which OTLP trace data will be sent.
+     * @param protocol The protocol used to deliver OpenTelemetry data.
+     * @param sampling The trace sampling configuration
      */
 
     public CSTraces
     {
       Objects.requireNonNull(endpoint, "endpoint");
       Objects.requireNonNull(protocol, "protocol");
+      Objects.requireNonNull(sampling, "sampling");
+    }
+  }
+
+  /**
+   * Trace sampling configuration.
+   *
+   * @param ratio        The fraction of traces that will be sampled, in the
+   *                     range {@code [0, 1]}
+   * @param parentBased  {@code true} if spans with a parent span follow the
+   *                     sampling decision of the parent
+   * @param errorsAlways {@code true} if spans that end with an error status
+   *                     are always exported, even if they were not sampled
+   */
+
+  public record CSTraceSampling(
+    double ratio,
+    boolean parentBased,
+    boolean errorsAlways)
+  {
+    /**
+     * Trace sampling configuration.
+     *
+     * @param ratio        The fraction of traces that will be sampled, in the
+     *                     range {@code [0, 1]}
+     * @param parentBased  {@code true} if spans with a parent span follow the
+     *                     sampling decision of the parent
+     * @param errorsAlways {@code true} if spans that end with an error status
+     *                     are always exported, even if they were not sampled
+     */
+
+    public CSTraceSampling
+    {
+      if (!(ratio >= 0.0 && ratio <= 1.0)) {
+        throw new IllegalArgumentException(
+          "Sampling ratio %s must be in the range [0, 1]".formatted(ratio)
+        );
+      }
+    }
+
+    /**
+     * @return The default sampling configuration, which samples every trace
+     */
+
+    public static CSTraceSampling defaults()
+    {
+      return new CSTraceSampling(1.0, true, false);
     }
   }
 
@@ -130,4 +187,33 @@ public record CSOpenTelemetryConfiguration(
       Objects.requireNonNull(protocol, "protocol");
     }
   }
+
+  /**
+   * Prometheus configuration. Metrics are collected when the endpoint is
+   * scraped, rather than being sent periodically.
+   *
+   * @param address The address on which the metrics endpoint will listen
+   * @param port    The port on which the metrics endpoint will listen
+   */
+
+  public record CSPrometheus(
+    String address,
+    int port)
+  {
+    /**
+     * Prometheus configuration.
+     */
+
+    public CSPrometheus
+    {
+      Objects.requireNonNull(address, "address");
+
+      if (port < 0 || port > 65535) {
+        throw new IllegalArgumentException(
+          "Port %d must be in the range [0, 65535]".formatted(
+            Integer.valueOf(port))
+        );
+      }
+    }
+  }
 }
@@ -29,6 +29,9 @@ import java.util.Optional;
  * @param certificateStore               The local certificate store used to
  *                                       hold persistent certificate state
  *                                       during processing
+ * @param certificateStoreType           The name of the certificate store
+ *                                       implementation, such as
+ *                                       {@code sqlite}
  * @param dnsWaitTime                    The amount of time to wait after DNS
  *                                       records have been created before asking
  *                                       the ACME server to check them.
@@ -39,15 +42,24 @@ import java.util.Optional;
  *                                       proceed
  * @param openTelemetry                  The OpenTelemetry configuration
  * @param faultInjection                 The fault injection configuration
+ * @param certificateHistory             The certificate history retention
+ *                                       configuration
+ * @param eventQueue                     The event queue configuration
+ * @param eventJournal                   The event journal retention
+ *                                       configuration
  */
 
 public record CSOptions(
   boolean dropUnreferencedCertificates,
   Path certificateStore,
+  String certificateStoreType,
   Duration dnsWaitTime,
   Duration certificateExpirationThreshold,
   Optional<CSOpenTelemetryConfiguration> openTelemetry,
-  CSFaultInjectionConfiguration faultInjection)
+  CSFaultInjectionConfiguration faultInjection,
+  CSCertificateHistoryConfiguration certificateHistory,
+  CSEventQueueConfiguration eventQueue,
+  CSEventJournalConfiguration eventJournal)
 {
   /**
    * The options associated with the ACME process.
@@ -57,6 +69,9 @@ public record CSOptions(
    * @param certificateStore               The local certificate store used to
    *                                       hold persistent certificate state
    *                                       during processing
+   * @param certificateStoreType           The name of the certificate store
+   *                                       implementation, such as
+   *                                       {@code sqlite}
    * @param dnsWaitTime                    The amount of time to wait after DNS
    *                                       records have been created before
    *                                       asking the ACME server to check
@@ -68,12 +83,19 @@ public record CSOptions(
    *                                       should proceed
    * @param openTelemetry                  The OpenTelemetry configuration
    * @param faultInjection                 The fault injection configuration
+   * @param certificateHistory             The certificate history retention
+   *                                       configuration
+   * @param eventQueue                     The event queue configuration
+   * @param eventJournal                   The event journal retention
+   *                                       configuration
    */
 
   public CSOptions
   {
     Objects.requireNonNull(
       certificateStore, "certificateStore");
+    Objects.requireNonNull(
+      certificateStoreType, "certificateStoreType");
     Objects.requireNonNull(
       dnsWaitTime, "dnsWaitTime");
     Objects.requireNonNull(
@@ -82,5 +104,11 @@ public record CSOptions(
       openTelemetry, "openTelemetry");
     Objects.requireNonNull(
       faultInjection, "faultInjection");
+    Objects.requireNonNull(
+      certificateHistory, "certificateHistory");
+    Objects.requireNonNull(
+      eventQueue, "eventQueue");
+    Objects.requireNonNull(
+      eventJournal, "eventJournal");
   }
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.benchmarks;
+
+import com.io7m.certusine.api.CSConfiguration;
+import com.io7m.certusine.api.CSConfigurationServiceType;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+
+/**
+ * A configuration service that always returns the same configuration.
+ */
+
+final class CSBenchmarkConfigurations
+  implements CSConfigurationServiceType
+{
+  private final CSConfiguration configuration;
+  private final SubmissionPublisher<CSConfiguration> events;
+
+  /**
+   * A configuration service that always returns the same configuration.
+   *
+   * @param inConfiguration The configuration
+   */
+
+  CSBenchmarkConfigurations(
+    final CSConfiguration inConfiguration)
+  {
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
+    this.events =
+      new SubmissionPublisher<>();
+  }
+
+  @Override
+  public CSConfiguration configuration()
+  {
+    return this.configuration;
+  }
+
+  @Override
+  public void reload()
+  {
+
+  }
+
+  @Override
+  public Flow.Publisher<CSConfiguration> events()
+  {
+    return this.events;
+  }
+
+  @Override
+  public String description()
+  {
+    return "Benchmark configuration service";
+  }
+
+  @Override
+  public void close()
+  {
+    this.events.close();
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+
+/**
+ * Functions over the files used by benchmarks.
+ */
+
+final class CSBenchmarkFiles
+{
+  private CSBenchmarkFiles()
+  {
+
+  }
+
+  /**
+   * @return A new temporary directory
+   *
+   * @throws IOException On errors
+   */
+
+  static Path createTempDirectory()
+    throws IOException
+  {
+    return Files.createTempDirectory("certusine-benchmarks-");
+  }
+
+  /**
+   * Delete a directory and everything in it.
+   *
+   * @param directory The directory
+   *
+   * @throws IOException On errors
+   */
+
+  static void deleteDirectory(
+    final Path directory)
+    throws IOException
+  {
+    if (!Files.exists(directory)) {
+      return;
+    }
+
+    try (var paths = Files.walk(directory)) {
+      for (final var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+        Files.deleteIfExists(path);
+      }
+    }
+  }
+
+  /**
+   * Read a benchmark resource.
+   *
+   * @param name The resource name
+   *
+   * @return The resource bytes
+   *
+   * @throws IOException On errors
+   */
+
+  static byte[] resource(
+    final String name)
+    throws IOException
+  {
+    final var path =
+      "/com/io7m/certusine/benchmarks/%s".formatted(name);
+
+    try (var stream = CSBenchmarkFiles.class.getResourceAsStream(path)) {
+      if (stream == null) {
+        throw new IOException("No such resource: " + path);
+      }
+      return stream.readAllBytes();
+    }
+  }
+
+  /**
+   * Copy a benchmark resource into the given directory.
+   *
+   * @param directory The output directory
+   * @param name      The resource name
+   *
+   * @return The copied file
+   *
+   * @throws IOException On errors
+   */
+
+  static Path copyResource(
+    final Path directory,
+    final String name)
+    throws IOException
+  {
+    final var output = directory.resolve(name);
+    Files.write(output, resource(name));
+    return output;
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.benchmarks;
+
+import com.io7m.certusine.vanilla.internal.CSCertificateIO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for PEM encoding of certificates and keys.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CSCertificateIOBenchmark
+{
+  private X509Certificate certificate;
+  private List<X509Certificate> chain;
+  private KeyPair keyPair;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public CSCertificateIOBenchmark()
+  {
+
+  }
+
+  /**
+   * Load the certificate and generate a key pair.
+   *
+   * @throws Exception On errors
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+    throws Exception
+  {
+    final var factory =
+      CertificateFactory.getInstance("X.509");
+
+    try (var stream =
+           new ByteArrayInputStream(CSBenchmarkFiles.resource("fake.crt"))) {
+      this.certificate =
+        (X509Certificate) factory.generateCertificate(stream);
+    }
+
+    this.chain =
+      List.of(this.certificate, this.certificate, this.certificate);
+    this.keyPair =
+      KeyPairGenerator.getInstance("EC").generateKeyPair();
+  }
+
+  /**
+   * Encode a single certificate.
+   *
+   * @return The PEM text
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public String encodeCertificate()
+    throws Exception
+  {
+    return CSCertificateIO.encodeCertificate(this.certificate);
+  }
+
+  /**
+   * Encode a chain of three certificates.
+   *
+   * @return The PEM text
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public String encodeCertificates()
+    throws Exception
+  {
+    return CSCertificateIO.encodeCertificates(this.chain);
+  }
+
+  /**
+   * Encode a public key.
+   *
+   * @return The PEM text
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public String encodePublicKey()
+    throws Exception
+  {
+    return CSCertificateIO.encodePublicKey(this.keyPair.getPublic());
+  }
+
+  /**
+   * Encode a private key.
+   *
+   * @return The PEM text
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public String encodePrivateKey()
+    throws Exception
+  {
+    return CSCertificateIO.encodePrivateKey(this.keyPair.getPrivate());
+  }
+}
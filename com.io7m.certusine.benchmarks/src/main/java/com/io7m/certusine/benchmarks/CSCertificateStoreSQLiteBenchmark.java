@@ -0,0 +1,194 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.benchmarks;
+
+import com.io7m.certusine.api.CSCertificateName;
+import com.io7m.certusine.api.CSTelemetryNoOp;
+import com.io7m.certusine.certstore.api.CSCertificateStoreType;
+import com.io7m.certusine.certstore.api.CSCertificateStored;
+import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreSQLiteFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.time.ZoneOffset.UTC;
+
+/**
+ * Benchmarks for the SQLite certificate store. The store is populated with
+ * the given number of certificates, each in a distinct domain, before
+ * measurement begins. The {@code put} benchmark replaces existing
+ * certificates so that the size of the store does not change during the run.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CSCertificateStoreSQLiteBenchmark
+{
+  private static final CSCertificateName NAME =
+    new CSCertificateName("www");
+
+  /**
+   * The number of certificates in the store.
+   */
+
+  @Param({"10", "1000", "100000"})
+  public int rows;
+
+  private Path directory;
+  private CSCertificateStoreType store;
+  private List<CSCertificateStored> certificates;
+  private int index;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public CSCertificateStoreSQLiteBenchmark()
+  {
+
+  }
+
+  /**
+   * Create and populate the store.
+   *
+   * @throws Exception On errors
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+    throws Exception
+  {
+    this.directory =
+      CSBenchmarkFiles.createTempDirectory();
+    this.store =
+      new CSCertificateStoreSQLiteFactory()
+        .open(CSTelemetryNoOp.noop(), this.directory.resolve("store.db"));
+
+    final var pem =
+      new String(CSBenchmarkFiles.resource("fake.crt"), UTF_8);
+    final var created =
+      OffsetDateTime.of(2000, 1, 1, 0, 0, 0, 0, UTC);
+    final var expires =
+      OffsetDateTime.of(2100, 1, 1, 0, 0, 0, 0, UTC);
+
+    this.certificates =
+      IntStream.range(0, this.rows)
+        .mapToObj(i -> {
+          return new CSCertificateStored(
+            "d%d.example.com".formatted(Integer.valueOf(i)),
+            NAME,
+            created,
+            expires,
+            pem,
+            pem
+          );
+        })
+        .toList();
+
+    for (final var certificate : this.certificates) {
+      this.store.put(certificate);
+    }
+  }
+
+  /**
+   * Close and delete the store.
+   *
+   * @throws Exception On errors
+   */
+
+  @TearDown(Level.Trial)
+  public void tearDown()
+    throws Exception
+  {
+    this.store.close();
+    CSBenchmarkFiles.deleteDirectory(this.directory);
+  }
+
+  private CSCertificateStored next()
+  {
+    final var certificate = this.certificates.get(this.index);
+    this.index = (this.index + 1) % this.certificates.size();
+    return certificate;
+  }
+
+  /**
+   * Replace an existing certificate.
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public void put()
+    throws Exception
+  {
+    this.store.put(this.next());
+  }
+
+  /**
+   * Find an existing certificate.
+   *
+   * @return The certificate
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public Optional<CSCertificateStored> find()
+    throws Exception
+  {
+    return this.store.find(this.next().domain(), NAME);
+  }
+
+  /**
+   * Retrieve all certificates.
+   *
+   * @return The certificates
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public List<CSCertificateStored> all()
+    throws Exception
+  {
+    return this.store.all();
+  }
+}
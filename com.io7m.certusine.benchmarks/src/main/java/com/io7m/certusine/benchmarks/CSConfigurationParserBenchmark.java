@@ -0,0 +1,199 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.benchmarks;
+
+import com.io7m.certusine.api.CSConfiguration;
+import com.io7m.certusine.vanilla.CSConfigurationParsers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Benchmarks for the configuration parser. Configurations are generated
+ * with the given number of domains, each of which declares three
+ * certificates.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CSConfigurationParserBenchmark
+{
+  /**
+   * The number of domains in the configuration.
+   */
+
+  @Param({"1", "100", "5000"})
+  public int domains;
+
+  private Path directory;
+  private Path file;
+  private CSConfigurationParsers parsers;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public CSConfigurationParserBenchmark()
+  {
+
+  }
+
+  private static String configurationText(
+    final int domainCount)
+  {
+    final var text = new StringBuilder(domainCount * 1024);
+    text.append("""
+      <?xml version="1.0" encoding="UTF-8" ?>
+      <Configuration xmlns="urn:com.io7m.certusine:configuration:2">
+        <Options CertificateStore="store.db"
+                 DNSWaitTime="PT5M"
+                 CertificateExpirationThreshold="PT72H"/>
+        <Accounts>
+          <Account Name="main"
+                   PublicKeyPath="fake.pub"
+                   PrivateKeyPath="fake.pri"
+                   AcmeURI="https://acme-staging-v02.api.letsencrypt.org/directory"/>
+        </Accounts>
+        <Outputs>
+          <Output Type="Directory" Name="main-output">
+            <Parameters>
+              <Parameter Name="path" Value="/tmp"/>
+            </Parameters>
+          </Output>
+        </Outputs>
+        <DNSConfigurators>
+          <DNSConfigurator Type="Vultr" Name="vultr-dns">
+            <Parameters>
+              <Parameter Name="api-key" Value="NOTANAPIKEY"/>
+              <Parameter Name="domain" Value="example.com"/>
+            </Parameters>
+          </DNSConfigurator>
+        </DNSConfigurators>
+        <Domains>
+      """);
+
+    for (int index = 0; index < domainCount; ++index) {
+      text.append("""
+            <Domain Name="d%d.example.com" Account="main" DNSConfigurator="vultr-dns">
+              <Certificates>
+                <Certificate Name="www" PublicKeyPath="fake.pub" PrivateKeyPath="fake.pri">
+                  <Hosts>
+                    <Host Name="www0"/>
+                    <Host Name="www1"/>
+                    <Host Name="www2"/>
+                  </Hosts>
+                </Certificate>
+                <Certificate Name="mail" PublicKeyPath="fake.pub" PrivateKeyPath="fake.pri">
+                  <Hosts>
+                    <Host Name="mail0"/>
+                    <Host Name="mail1"/>
+                  </Hosts>
+                </Certificate>
+                <Certificate Name="wildcard" PublicKeyPath="fake.pub" PrivateKeyPath="fake.pri">
+                  <Hosts>
+                    <Host Name="*"/>
+                  </Hosts>
+                </Certificate>
+              </Certificates>
+              <OutputReferences>
+                <OutputReference Name="main-output"/>
+              </OutputReferences>
+            </Domain>
+        """.formatted(Integer.valueOf(index)));
+    }
+
+    text.append("""
+        </Domains>
+      </Configuration>
+      """);
+    return text.toString();
+  }
+
+  /**
+   * Generate the configuration.
+   *
+   * @throws Exception On errors
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+    throws Exception
+  {
+    this.directory =
+      CSBenchmarkFiles.createTempDirectory();
+
+    CSBenchmarkFiles.copyResource(this.directory, "fake.pub");
+    CSBenchmarkFiles.copyResource(this.directory, "fake.pri");
+
+    this.file =
+      this.directory.resolve("configuration.xml");
+    Files.writeString(this.file, configurationText(this.domains), UTF_8);
+
+    this.parsers =
+      new CSConfigurationParsers();
+  }
+
+  /**
+   * Delete the configuration.
+   *
+   * @throws Exception On errors
+   */
+
+  @TearDown(Level.Trial)
+  public void tearDown()
+    throws Exception
+  {
+    CSBenchmarkFiles.deleteDirectory(this.directory);
+  }
+
+  /**
+   * Parse the configuration.
+   *
+   * @return The parsed configuration
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public CSConfiguration parse()
+    throws Exception
+  {
+    return this.parsers.parseFileWithContext(this.directory, this.file);
+  }
+}
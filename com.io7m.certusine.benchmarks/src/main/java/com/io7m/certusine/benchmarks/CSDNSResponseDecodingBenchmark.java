@@ -0,0 +1,125 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.benchmarks;
+
+import com.io7m.certusine.hetzner.internal.CSHetznerDNSConfigurator;
+import com.io7m.certusine.hetzner.internal.CSHetznerDNSRecordsResponse;
+import com.io7m.certusine.vultr.internal.CSVultrDNSConfigurator;
+import com.io7m.certusine.vultr.internal.CSVultrDNSResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Benchmarks for decoding recorded DNS provider API responses, using the
+ * same restricted mappers as the DNS configurators.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CSDNSResponseDecodingBenchmark
+{
+  private JsonMapper hetznerMapper;
+  private String hetznerRecords;
+  private JsonMapper vultrMapper;
+  private String vultrRecords;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public CSDNSResponseDecodingBenchmark()
+  {
+
+  }
+
+  /**
+   * Load the recorded responses.
+   *
+   * @throws Exception On errors
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+    throws Exception
+  {
+    this.hetznerMapper =
+      CSHetznerDNSConfigurator.createMapper();
+    this.hetznerRecords =
+      new String(
+        CSBenchmarkFiles.resource("hetzner-dns-records-0.json"),
+        UTF_8
+      );
+
+    this.vultrMapper =
+      CSVultrDNSConfigurator.createMapper();
+    this.vultrRecords =
+      new String(
+        CSBenchmarkFiles.resource("vultr-dns-records-0.json"),
+        UTF_8
+      );
+  }
+
+  /**
+   * Decode a Hetzner record list.
+   *
+   * @return The decoded response
+   */
+
+  @Benchmark
+  public CSHetznerDNSRecordsResponse hetznerRecords()
+  {
+    return this.hetznerMapper.readValue(
+      this.hetznerRecords,
+      CSHetznerDNSRecordsResponse.class
+    );
+  }
+
+  /**
+   * Decode a Vultr record list.
+   *
+   * @return The decoded response
+   */
+
+  @Benchmark
+  public CSVultrDNSResponse vultrRecords()
+  {
+    return this.vultrMapper.readValue(
+      this.vultrRecords,
+      CSVultrDNSResponse.class
+    );
+  }
+}
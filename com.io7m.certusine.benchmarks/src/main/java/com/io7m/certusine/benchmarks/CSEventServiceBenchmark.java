@@ -0,0 +1,229 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.benchmarks;
+
+import com.io7m.certusine.api.CSAccount;
+import com.io7m.certusine.api.CSCertificateHistoryConfiguration;
+import com.io7m.certusine.api.CSCertificateName;
+import com.io7m.certusine.api.CSConfiguration;
+import com.io7m.certusine.api.CSDNSConfiguratorType;
+import com.io7m.certusine.api.CSDNSRecordNameType;
+import com.io7m.certusine.api.CSDomain;
+import com.io7m.certusine.api.CSEventJournalConfiguration;
+import com.io7m.certusine.api.CSEventQueueConfiguration;
+import com.io7m.certusine.api.CSEventQueueConfiguration.CSOverflowPolicy;
+import com.io7m.certusine.api.CSFaultInjectionConfiguration;
+import com.io7m.certusine.api.CSOptions;
+import com.io7m.certusine.api.CSTelemetryNoOp;
+import com.io7m.certusine.api.CSTelemetryServiceType;
+import com.io7m.certusine.vanilla.internal.events.CSEventCertificateStored;
+import com.io7m.certusine.vanilla.internal.events.CSEventService;
+import com.io7m.certusine.vanilla.internal.events.CSEventServiceType;
+import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreSQLiteFactory;
+import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreService;
+import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreServiceType;
+import com.io7m.certusine.vanilla.internal.telemetry.CSMetricsService;
+import com.io7m.certusine.vanilla.internal.telemetry.CSMetricsServiceType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.security.KeyPairGenerator;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the event service. Events are journalled to a real SQLite
+ * certificate store, so with the {@code BLOCK} overflow policy the measured
+ * throughput is the sustained rate at which events can be published and
+ * journalled, whilst with the {@code DROP_NEWEST} policy it is the cost
+ * paid by the emitting thread alone.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CSEventServiceBenchmark
+{
+  /**
+   * The queue overflow policy.
+   */
+
+  @Param({"BLOCK", "DROP_NEWEST"})
+  public CSOverflowPolicy policy;
+
+  private Path directory;
+  private CSBenchmarkConfigurations configurations;
+  private CSCertificateStoreServiceType stores;
+  private CSMetricsServiceType metrics;
+  private CSEventServiceType events;
+  private CSEventCertificateStored event;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public CSEventServiceBenchmark()
+  {
+
+  }
+
+  /**
+   * Start the event service.
+   *
+   * @throws Exception On errors
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+    throws Exception
+  {
+    this.directory =
+      CSBenchmarkFiles.createTempDirectory();
+
+    this.configurations =
+      new CSBenchmarkConfigurations(
+        new CSConfiguration(
+          new CSOptions(
+            false,
+            this.directory.resolve("store.db"),
+            "sqlite",
+            Duration.ofMinutes(5L),
+            Duration.ofHours(72L),
+            Optional.empty(),
+            CSFaultInjectionConfiguration.disabled(),
+            CSCertificateHistoryConfiguration.defaults(),
+            new CSEventQueueConfiguration(1024, this.policy),
+            CSEventJournalConfiguration.defaults()
+          ),
+          Map.of()
+        )
+      );
+
+    final var telemetry = CSTelemetryNoOp.noop();
+    this.stores =
+      CSCertificateStoreService.store(
+        telemetry,
+        this.configurations,
+        List.of(new CSCertificateStoreSQLiteFactory())
+      );
+    this.metrics =
+      CSMetricsService.create(this.configurations, telemetry);
+    this.events =
+      CSEventService.create(
+        this.configurations,
+        telemetry,
+        this.metrics,
+        this.stores,
+        Clock.systemUTC()
+      );
+
+    final var domain =
+      new CSDomain(
+        new CSAccount(
+          KeyPairGenerator.getInstance("EC").generateKeyPair(),
+          URI.create("http://localhost:20000")
+        ),
+        "example.com",
+        Map.of(),
+        new NullDNSConfigurator(),
+        Map.of()
+      );
+
+    this.event =
+      new CSEventCertificateStored(
+        domain,
+        new CSCertificateName("www"),
+        "main-output"
+      );
+  }
+
+  /**
+   * Stop the event service and delete the store.
+   *
+   * @throws Exception On errors
+   */
+
+  @TearDown(Level.Trial)
+  public void tearDown()
+    throws Exception
+  {
+    this.events.close();
+    this.metrics.close();
+    this.stores.close();
+    this.configurations.close();
+    CSBenchmarkFiles.deleteDirectory(this.directory);
+  }
+
+  /**
+   * Emit an event.
+   */
+
+  @Benchmark
+  public void emit()
+  {
+    this.events.emit(this.event);
+  }
+
+  private static final class NullDNSConfigurator
+    implements CSDNSConfiguratorType
+  {
+    NullDNSConfigurator()
+    {
+
+    }
+
+    @Override
+    public void createTXTRecord(
+      final CSTelemetryServiceType telemetry,
+      final CSDNSRecordNameType recordName,
+      final String recordValue)
+    {
+
+    }
+
+    @Override
+    public void deleteTXTRecord(
+      final CSTelemetryServiceType telemetry,
+      final CSDNSRecordNameType recordName,
+      final String recordValue)
+    {
+
+    }
+  }
+}
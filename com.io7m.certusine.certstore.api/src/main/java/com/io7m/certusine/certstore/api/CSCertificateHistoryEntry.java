@@ -0,0 +1,75 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.certusine.certstore.api;
+
+import com.io7m.certusine.api.CSCertificateName;
+
+import java.math.BigInteger;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * An entry in the history of issued certificates.
+ *
+ * @param domain    The domain name
+ * @param name      The certificate name
+ * @param serial    The certificate serial number, if the certificate could be
+ *                  parsed
+ * @param issuedOn  The time/date the certificate was issued
+ * @param expiresOn The time/date the certificate expires
+ * @param chainHash The hex-encoded SHA-256 hash of the full PEM-encoded
+ *                  certificate chain
+ */
+
+public record CSCertificateHistoryEntry(
+  String domain,
+  CSCertificateName name,
+  Optional<BigInteger> serial,
+  OffsetDateTime issuedOn,
+  OffsetDateTime expiresOn,
+  String chainHash)
+{
+  /**
+   * An entry in the history of issued certificates.
+   *
+   * @param domain    The domain name
+   * @param name      The certificate name
+   * @param serial    The certificate serial number, if the certificate could
+   *                  be parsed
+   * @param issuedOn  The time/date the certificate was issued
+   * @param expiresOn The time/date the certificate expires
+   * @param chainHash The hex-encoded SHA-256 hash of the full PEM-encoded
+   *                  certificate chain
+   */
+
+  public CSCertificateHistoryEntry
+  {
+    Objects.requireNonNull(
+      domain, "domain");
+    Objects.requireNonNull(
+      name, "name");
+    Objects.requireNonNull(
+      serial, "serial");
+    Objects.requireNonNull(
+      issuedOn, "issuedOn");
+    Objects.requireNonNull(
+      expiresOn, "expiresOn");
+    Objects.requireNonNull(
+      chainHash, "chainHash");
+  }
+}
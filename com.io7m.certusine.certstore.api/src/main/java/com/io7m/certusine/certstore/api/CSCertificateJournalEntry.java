@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.certstore.api;
+
+import com.io7m.certusine.api.CSCertificateName;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An entry in the event journal.
+ *
+ * @param time       The time/date the event was emitted
+ * @param domain     The domain name
+ * @param name       The certificate name
+ * @param type       The event type, such as
+ *                   {@code CSEventCertificateRenewalFailed}
+ * @param failure    {@code true} if the event indicates that an operation
+ *                   failed
+ * @param message    The event message
+ * @param attributes The event attributes
+ */
+
+public record CSCertificateJournalEntry(
+  OffsetDateTime time,
+  String domain,
+  CSCertificateName name,
+  String type,
+  boolean failure,
+  String message,
+  Map<String, String> attributes)
+{
+  /**
+   * An entry in the event journal.
+   *
+   * @param time       The time/date the event was emitted
+   * @param domain     The domain name
+   * @param name       The certificate name
+   * @param type       The event type, such as
+   *                   {@code CSEventCertificateRenewalFailed}
+   * @param failure    {@code true} if the event indicates that an operation
+   *                   failed
+   * @param message    The event message
+   * @param attributes The event attributes
+   */
+
+  public CSCertificateJournalEntry
+  {
+    Objects.requireNonNull(
+      time, "time");
+    Objects.requireNonNull(
+      domain, "domain");
+    Objects.requireNonNull(
+      name, "name");
+    Objects.requireNonNull(
+      type, "type");
+    Objects.requireNonNull(
+      message, "message");
+    attributes = Map.copyOf(attributes);
+  }
+}
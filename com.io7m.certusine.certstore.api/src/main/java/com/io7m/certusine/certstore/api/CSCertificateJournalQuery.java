@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.certstore.api;
+
+import com.io7m.certusine.api.CSCertificateName;
+
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A query over the event journal. Each present filter restricts the
+ * returned entries; absent filters match every entry.
+ *
+ * @param domain    Only return entries for the given domain
+ * @param name      Only return entries for the given certificate name
+ * @param type      Only return entries of the given event type
+ * @param timeLower Only return entries emitted at or after the given time
+ * @param timeUpper Only return entries emitted before the given time
+ * @param limit     The maximum number of entries returned
+ */
+
+public record CSCertificateJournalQuery(
+  Optional<String> domain,
+  Optional<CSCertificateName> name,
+  Optional<String> type,
+  Optional<OffsetDateTime> timeLower,
+  Optional<OffsetDateTime> timeUpper,
+  int limit)
+{
+  /**
+   * A query over the event journal. Each present filter restricts the
+   * returned entries; absent filters match every entry.
+   *
+   * @param domain    Only return entries for the given domain
+   * @param name      Only return entries for the given certificate name
+   * @param type      Only return entries of the given event type
+   * @param timeLower Only return entries emitted at or after the given time
+   * @param timeUpper Only return entries emitted before the given time
+   * @param limit     The maximum number of entries returned
+   */
+
+  public CSCertificateJournalQuery
+  {
+    Objects.requireNonNull(domain, "domain");
+    Objects.requireNonNull(name, "name");
+    Objects.requireNonNull(type, "type");
+    Objects.requireNonNull(timeLower, "timeLower");
+    Objects.requireNonNull(timeUpper, "timeUpper");
+
+    if (limit < 1) {
+      throw new IllegalArgumentException(
+        "Limit %d must be positive".formatted(limit)
+      );
+    }
+  }
+
+  /**
+   * @param entry The entry
+   *
+   * @return {@code true} if the given entry matches all of the filters
+   */
+
+  public boolean matches(
+    final CSCertificateJournalEntry entry)
+  {
+    Objects.requireNonNull(entry, "entry");
+
+    if (this.domain.filter(d -> !d.equals(entry.domain())).isPresent()) {
+      return false;
+    }
+    if (this.name.filter(n -> !n.equals(entry.name())).isPresent()) {
+      return false;
+    }
+    if (this.type.filter(t -> !t.equals(entry.type())).isPresent()) {
+      return false;
+    }
+
+    final var time = entry.time().toInstant();
+    if (this.timeLower.filter(t -> time.isBefore(t.toInstant())).isPresent()) {
+      return false;
+    }
+    if (this.timeUpper.filter(t -> !time.isBefore(t.toInstant())).isPresent()) {
+      return false;
+    }
+    return true;
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.certstore.api;
+
+import com.io7m.certusine.api.CSCertificateName;
+
+import java.time.OffsetDateTime;
+import java.util.Objects;
+
+/**
+ * A pending delivery of a certificate to an output that previously failed.
+ *
+ * @param domain      The domain
+ * @param name        The certificate name
+ * @param output      The output name
+ * @param attempts    The number of delivery attempts that have failed
+ * @param nextAttempt The earliest time at which delivery should be retried
+ */
+
+public record CSCertificateOutputRetry(
+  String domain,
+  CSCertificateName name,
+  String output,
+  int attempts,
+  OffsetDateTime nextAttempt)
+{
+  /**
+   * A pending delivery of a certificate to an output that previously failed.
+   *
+   * @param domain      The domain
+   * @param name        The certificate name
+   * @param output      The output name
+   * @param attempts    The number of delivery attempts that have failed
+   * @param nextAttempt The earliest time at which delivery should be retried
+   */
+
+  public CSCertificateOutputRetry
+  {
+    Objects.requireNonNull(
+      domain, "domain");
+    Objects.requireNonNull(
+      name, "name");
+    Objects.requireNonNull(
+      output, "output");
+    Objects.requireNonNull(
+      nextAttempt, "nextAttempt");
+
+    if (attempts < 1) {
+      throw new IllegalArgumentException(
+        "Attempts %d must be at least 1".formatted(Integer.valueOf(attempts))
+      );
+    }
+  }
+}
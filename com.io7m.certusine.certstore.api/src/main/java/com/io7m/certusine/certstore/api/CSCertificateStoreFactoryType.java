@@ -31,6 +31,15 @@ import java.nio.file.Path;
 public interface CSCertificateStoreFactoryType
   extends RPServiceType
 {
+  /**
+   * The name of the store implementation, such as {@code sqlite}. The name
+   * is used to select an implementation in the configuration file.
+   *
+   * @return The name of the store implementation
+   */
+
+  String name();
+
   /**
    * Create or open a certificate store. The certificate store is created if it
    * does not exist.
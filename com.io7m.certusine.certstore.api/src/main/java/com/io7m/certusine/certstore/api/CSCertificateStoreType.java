@@ -16,13 +16,17 @@
 
 package com.io7m.certusine.certstore.api;
 
+import com.io7m.certusine.api.CSCertificateHistoryConfiguration;
 import com.io7m.certusine.api.CSCertificateName;
 import org.osgi.annotation.versioning.ProviderType;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * A certificate store.
@@ -91,4 +95,219 @@ public interface CSCertificateStoreType
 
   List<CSCertificateStored> all()
     throws IOException;
+
+  /**
+   * Pass each currently stored certificate to the given consumer in turn.
+   * Unlike {@link #all()}, implementations are not required to hold all
+   * certificates in memory at once, and so this method is suitable for
+   * iterating over arbitrarily large stores. The consumer must not modify the
+   * store.
+   *
+   * @param consumer The consumer
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void forEach(Consumer<CSCertificateStored> consumer)
+    throws IOException;
+
+  /**
+   * Obtain the history of issued certificates that have the given domain and
+   * name, most recently issued first. Every distinct certificate written with
+   * {@link #put(CSCertificateStored)} is recorded in the history until it is
+   * removed with {@link #historyPrune(CSCertificateHistoryConfiguration, OffsetDateTime)}.
+   *
+   * @param domain The domain
+   * @param name   The certificate name
+   *
+   * @return The certificate history
+   *
+   * @throws IOException On I/O errors
+   */
+
+  List<CSCertificateHistoryEntry> history(
+    String domain,
+    CSCertificateName name)
+    throws IOException;
+
+  /**
+   * Remove history entries that fall outside the given retention
+   * configuration. The most recently issued entry for each certificate is
+   * always retained.
+   *
+   * @param retention The retention configuration
+   * @param time      The current time
+   *
+   * @return The number of history entries removed
+   *
+   * @throws IOException On I/O errors
+   */
+
+  long historyPrune(
+    CSCertificateHistoryConfiguration retention,
+    OffsetDateTime time)
+    throws IOException;
+
+  /**
+   * Obtain the digest of the data most recently written to the given output
+   * for the certificate that has the given domain and name.
+   *
+   * @param domain The domain
+   * @param name   The certificate name
+   * @param output The output name
+   *
+   * @return The digest, if one has been recorded
+   *
+   * @throws IOException On I/O errors
+   */
+
+  Optional<CSCertificateOutputDigest> outputDigest(
+    String domain,
+    CSCertificateName name,
+    String output)
+    throws IOException;
+
+  /**
+   * Record the digest of the data most recently written to the given output
+   * for the certificate that has the given domain and name. The certificate
+   * must exist in the store. Recorded digests are removed when the
+   * certificate is deleted.
+   *
+   * @param domain The domain
+   * @param name   The certificate name
+   * @param output The output name
+   * @param digest The digest
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void outputDigestPut(
+    String domain,
+    CSCertificateName name,
+    String output,
+    CSCertificateOutputDigest digest)
+    throws IOException;
+
+  /**
+   * Remove all recorded output digests, causing every certificate to be
+   * written to every output again.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void outputDigestsClear()
+    throws IOException;
+
+  /**
+   * Create or replace the pending delivery of a certificate to an output.
+   * The certificate must exist in the store. Pending deliveries are removed
+   * when the certificate is deleted.
+   *
+   * @param retry The pending delivery
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void outputRetryPut(CSCertificateOutputRetry retry)
+    throws IOException;
+
+  /**
+   * Obtain the pending deliveries that are due to be retried at the given
+   * time, earliest first.
+   *
+   * @param time The current time
+   *
+   * @return The pending deliveries
+   *
+   * @throws IOException On I/O errors
+   */
+
+  List<CSCertificateOutputRetry> outputRetriesDue(OffsetDateTime time)
+    throws IOException;
+
+  /**
+   * Remove the pending delivery of the certificate that has the given domain
+   * and name to the given output.
+   *
+   * @param domain The domain
+   * @param name   The certificate name
+   * @param output The output name
+   *
+   * @return {@code true} if a pending delivery existed and was removed
+   *
+   * @throws IOException On I/O errors
+   */
+
+  boolean outputRetryDelete(
+    String domain,
+    CSCertificateName name,
+    String output)
+    throws IOException;
+
+  /**
+   * Append the given entries to the event journal. The entries are written
+   * in a single transaction; either all of the entries are written, or none
+   * of them are.
+   *
+   * @param entries The journal entries
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void journalPut(List<CSCertificateJournalEntry> entries)
+    throws IOException;
+
+  /**
+   * Obtain the event journal entries that match the given query, most
+   * recently emitted first.
+   *
+   * @param query The query
+   *
+   * @return The matching journal entries
+   *
+   * @throws IOException On I/O errors
+   */
+
+  List<CSCertificateJournalEntry> journal(CSCertificateJournalQuery query)
+    throws IOException;
+
+  /**
+   * Remove event journal entries that were emitted before the given time.
+   *
+   * @param oldest The time of the oldest entry to be retained
+   *
+   * @return The number of journal entries removed
+   *
+   * @throws IOException On I/O errors
+   */
+
+  long journalPrune(OffsetDateTime oldest)
+    throws IOException;
+
+  /**
+   * Write a consistent snapshot of the store to the given file. The store
+   * remains usable while the snapshot is written, and the snapshot contains
+   * exactly the data that had been committed when the backup began. The
+   * snapshot is written to a temporary file and then atomically moved to
+   * the given path, so a partially written snapshot is never visible there.
+   * The snapshot can be opened as a store of the same type.
+   *
+   * @param file The output file
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void backup(Path file)
+    throws IOException;
+
+  /**
+   * Perform routine maintenance on the store, such as returning space freed
+   * by deleted data to the filesystem. Maintenance may be performed at any
+   * time, and the store remains usable while it is in progress.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  void maintain()
+    throws IOException;
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.certusine.certstore.mvstore;
+
+import com.io7m.certusine.api.CSTelemetryServiceType;
+import com.io7m.certusine.certstore.api.CSCertificateStoreFactoryType;
+import com.io7m.certusine.certstore.api.CSCertificateStoreType;
+import com.io7m.certusine.certstore.mvstore.internal.CSCertificateStoreMVStore;
+import org.h2.mvstore.MVStore;
+import org.h2.mvstore.MVStoreException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * A certificate store backed by an H2 MVStore file.
+ */
+
+public final class CSCertificateStoreMVStoreFactory
+  implements CSCertificateStoreFactoryType
+{
+  /**
+   * A certificate store backed by an H2 MVStore file.
+   */
+
+  public CSCertificateStoreMVStoreFactory()
+  {
+
+  }
+
+  @Override
+  public String name()
+  {
+    return "mvstore";
+  }
+
+  @Override
+  public CSCertificateStoreType open(
+    final CSTelemetryServiceType telemetry,
+    final Path file)
+    throws IOException
+  {
+    Objects.requireNonNull(telemetry, "telemetry");
+    Objects.requireNonNull(file, "file");
+
+    final MVStore store;
+    try {
+      store = new MVStore.Builder()
+        .fileName(file.toAbsolutePath().toString())
+        .open();
+    } catch (final MVStoreException e) {
+      throw new IOException(e);
+    }
+
+    try {
+      return CSCertificateStoreMVStore.open(telemetry, store);
+    } catch (final IOException e) {
+      store.closeImmediately();
+      throw e;
+    }
+  }
+
+  @Override
+  public String description()
+  {
+    return "H2 MVStore certificate store.";
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[CSCertificateStoreMVStoreFactory 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+}
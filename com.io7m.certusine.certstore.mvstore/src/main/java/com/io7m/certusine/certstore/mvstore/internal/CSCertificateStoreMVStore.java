@@ -0,0 +1,840 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.certusine.certstore.mvstore.internal;
+
+import com.io7m.certusine.api.CSCertificateHistoryConfiguration;
+import com.io7m.certusine.api.CSCertificateName;
+import com.io7m.certusine.api.CSTelemetryServiceType;
+import com.io7m.certusine.certstore.api.CSCertificateHistoryEntry;
+import com.io7m.certusine.certstore.api.CSCertificateJournalEntry;
+import com.io7m.certusine.certstore.api.CSCertificateJournalQuery;
+import com.io7m.certusine.certstore.api.CSCertificateOutputDigest;
+import com.io7m.certusine.certstore.api.CSCertificateOutputRetry;
+import com.io7m.certusine.certstore.api.CSCertificateStoreType;
+import com.io7m.certusine.certstore.api.CSCertificateStored;
+import org.h2.mvstore.Cursor;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.h2.mvstore.MVStoreException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * A certificate store backed by an H2 MVStore file.
+ *
+ * Certificates are held in a copy-on-write map keyed by certificate
+ * identifier. Readers never take locks and always observe a consistent
+ * snapshot of the map; writers are serialized, and each modification is
+ * committed to the file before returning.
+ */
+
+public final class CSCertificateStoreMVStore
+  implements CSCertificateStoreType
+{
+  /**
+   * The current version of the store layout.
+   */
+
+  public static final int LAYOUT_VERSION = 1;
+
+  /**
+   * The maximum number of history entries removed in a single commit.
+   */
+
+  private static final int HISTORY_PRUNE_BATCH = 1000;
+
+  /**
+   * The maximum number of journal entries removed in a single commit.
+   */
+
+  private static final int JOURNAL_PRUNE_BATCH = 1000;
+
+  /**
+   * The maximum time spent compacting the store file during maintenance.
+   */
+
+  private static final int MAINTENANCE_COMPACT_TIME_MS = 1_000;
+
+  /**
+   * The separator between the certificate identifier and the chain hash in
+   * history keys, and between the certificate identifier and the output name
+   * in output digest and output retry keys. The separator sorts before any character that can
+   * appear in an identifier, so all keys for a certificate are contiguous.
+   */
+
+  private static final char KEY_SEPARATOR = '\u0000';
+
+  private static final Comparator<CSCertificateHistoryEntry> NEWEST_FIRST =
+    Comparator.comparing(
+      (CSCertificateHistoryEntry e) -> e.issuedOn().toInstant()
+    ).reversed();
+
+  private static final Comparator<CSCertificateJournalEntry> JOURNAL_NEWEST_FIRST =
+    Comparator.comparing(
+      (CSCertificateJournalEntry e) -> e.time().toInstant()
+    ).reversed();
+
+  private static final Comparator<CSCertificateOutputRetry> EARLIEST_FIRST =
+    Comparator.comparing(
+      (CSCertificateOutputRetry r) -> r.nextAttempt().toInstant()
+    );
+
+  private final CSTelemetryServiceType telemetry;
+  private final MVStore store;
+  private final MVMap<String, byte[]> certificates;
+  private final MVMap<String, byte[]> history;
+  private final MVMap<String, byte[]> outputDigests;
+  private final MVMap<String, byte[]> outputRetries;
+  private final MVMap<String, byte[]> journal;
+  private final Object writeLock;
+
+  private CSCertificateStoreMVStore(
+    final CSTelemetryServiceType inTelemetry,
+    final MVStore inStore,
+    final MVMap<String, byte[]> inCertificates,
+    final MVMap<String, byte[]> inHistory,
+    final MVMap<String, byte[]> inOutputDigests,
+    final MVMap<String, byte[]> inOutputRetries,
+    final MVMap<String, byte[]> inJournal)
+  {
+    this.telemetry =
+      Objects.requireNonNull(inTelemetry, "telemetry");
+    this.store =
+      Objects.requireNonNull(inStore, "store");
+    this.certificates =
+      Objects.requireNonNull(inCertificates, "certificates");
+    this.history =
+      Objects.requireNonNull(inHistory, "history");
+    this.outputDigests =
+      Objects.requireNonNull(inOutputDigests, "outputDigests");
+    this.outputRetries =
+      Objects.requireNonNull(inOutputRetries, "outputRetries");
+    this.journal =
+      Objects.requireNonNull(inJournal, "journal");
+    this.writeLock =
+      new Object();
+  }
+
+  /**
+   * Open a store.
+   *
+   * @param telemetry The telemetry service
+   * @param store     The underlying MVStore
+   *
+   * @return A certificate store
+   *
+   * @throws IOException On errors
+   */
+
+  public static CSCertificateStoreMVStore open(
+    final CSTelemetryServiceType telemetry,
+    final MVStore store)
+    throws IOException
+  {
+    Objects.requireNonNull(telemetry, "telemetry");
+    Objects.requireNonNull(store, "store");
+
+    try {
+      final MVMap<String, Integer> meta =
+        store.openMap("meta");
+
+      final var version = meta.get("version");
+      if (version == null) {
+        meta.put("version", Integer.valueOf(LAYOUT_VERSION));
+        store.commit();
+      } else if (version.intValue() != LAYOUT_VERSION) {
+        throw new IOException(
+          "Unsupported store layout version %s (expected %d)"
+            .formatted(version, Integer.valueOf(LAYOUT_VERSION))
+        );
+      }
+
+      return new CSCertificateStoreMVStore(
+        telemetry,
+        store,
+        store.openMap("certificates"),
+        store.openMap("certificate_history"),
+        store.openMap("output_digests"),
+        store.openMap("output_retries"),
+        store.openMap("event_journal")
+      );
+    } catch (final MVStoreException e) {
+      throw new IOException(e);
+    }
+  }
+
+  private interface OperationType<T>
+  {
+    T execute()
+      throws IOException;
+  }
+
+  private <T> T withSpan(
+    final OperationType<T> f)
+    throws IOException
+  {
+    final var span =
+      this.telemetry.tracer()
+        .spanBuilder("MVStoreOperation")
+        .startSpan();
+
+    try (var ignored = span.makeCurrent()) {
+      return f.execute();
+    } catch (final MVStoreException | UncheckedIOException e) {
+      throw new IOException(e);
+    } finally {
+      span.end();
+    }
+  }
+
+  private static String keyPrefix(
+    final String identifier)
+  {
+    return identifier + KEY_SEPARATOR;
+  }
+
+  @Override
+  public boolean isClosed()
+  {
+    return this.store.isClosed();
+  }
+
+  @Override
+  public void put(
+    final CSCertificateStored certificate)
+    throws IOException
+  {
+    Objects.requireNonNull(certificate, "certificate");
+
+    this.withSpan(() -> {
+      final var identifier =
+        certificate.identifier();
+      final var entry =
+        CSMVStoreCodec.historyOf(certificate);
+      final var historyKey =
+        keyPrefix(identifier) + entry.chainHash();
+
+      synchronized (this.writeLock) {
+        this.certificates.put(
+          identifier,
+          CSMVStoreCodec.encodeCertificate(certificate)
+        );
+        this.history.putIfAbsent(
+          historyKey,
+          CSMVStoreCodec.encodeHistory(entry)
+        );
+        this.store.commit();
+      }
+      return null;
+    });
+  }
+
+  @Override
+  public Optional<CSCertificateStored> find(
+    final String domain,
+    final CSCertificateName name)
+    throws IOException
+  {
+    return this.withSpan(() -> {
+      return Optional.ofNullable(
+        this.certificates.get("%s/%s".formatted(domain, name.value()))
+      ).map(CSMVStoreCodec::decodeCertificate);
+    });
+  }
+
+  @Override
+  public boolean delete(
+    final String domain,
+    final CSCertificateName name)
+    throws IOException
+  {
+    return this.withSpan(() -> {
+      final var identifier =
+        "%s/%s".formatted(domain, name.value());
+
+      synchronized (this.writeLock) {
+        final var removed =
+          this.certificates.remove(identifier);
+        removePrefixed(this.outputDigests, identifier);
+        removePrefixed(this.outputRetries, identifier);
+        this.store.commit();
+        return Boolean.valueOf(removed != null);
+      }
+    }).booleanValue();
+  }
+
+  @Override
+  public List<CSCertificateStored> all()
+    throws IOException
+  {
+    final var out = new ArrayList<CSCertificateStored>();
+    this.forEach(out::add);
+    return out;
+  }
+
+  @Override
+  public void forEach(
+    final Consumer<CSCertificateStored> consumer)
+    throws IOException
+  {
+    Objects.requireNonNull(consumer, "consumer");
+
+    this.withSpan(() -> {
+      final var cursor = this.certificates.cursor(null);
+      while (cursor.hasNext()) {
+        cursor.next();
+        consumer.accept(CSMVStoreCodec.decodeCertificate(cursor.getValue()));
+      }
+      return null;
+    });
+  }
+
+  @Override
+  public List<CSCertificateHistoryEntry> history(
+    final String domain,
+    final CSCertificateName name)
+    throws IOException
+  {
+    return this.withSpan(() -> {
+      final var prefix =
+        keyPrefix("%s/%s".formatted(domain, name.value()));
+      final var out =
+        new ArrayList<CSCertificateHistoryEntry>();
+      final var cursor =
+        this.history.cursor(prefix);
+
+      while (cursor.hasNext()) {
+        final var key = cursor.next();
+        if (!key.startsWith(prefix)) {
+          break;
+        }
+        out.add(CSMVStoreCodec.decodeHistory(cursor.getValue()));
+      }
+
+      out.sort(NEWEST_FIRST);
+      return out;
+    });
+  }
+
+  @Override
+  public long historyPrune(
+    final CSCertificateHistoryConfiguration retention,
+    final OffsetDateTime time)
+    throws IOException
+  {
+    Objects.requireNonNull(retention, "retention");
+    Objects.requireNonNull(time, "time");
+
+    final var oldest =
+      retention.retainAge()
+        .map(time::minus);
+
+    return this.withSpan(() -> {
+      final var expired = new ArrayList<String>();
+      final var group = new ArrayList<HistoryKeyed>();
+      String groupPrefix = null;
+
+      final var cursor = this.history.cursor(null);
+      while (cursor.hasNext()) {
+        final var key = cursor.next();
+        final var prefix =
+          key.substring(0, key.indexOf(KEY_SEPARATOR) + 1);
+
+        if (!prefix.equals(groupPrefix)) {
+          collectExpired(group, retention, oldest, expired);
+          group.clear();
+          groupPrefix = prefix;
+        }
+
+        group.add(
+          new HistoryKeyed(key, CSMVStoreCodec.decodeHistory(cursor.getValue()))
+        );
+      }
+      collectExpired(group, retention, oldest, expired);
+
+      for (int index = 0; index < expired.size(); index += HISTORY_PRUNE_BATCH) {
+        final var batch =
+          expired.subList(
+            index,
+            Math.min(expired.size(), index + HISTORY_PRUNE_BATCH)
+          );
+
+        synchronized (this.writeLock) {
+          for (final var key : batch) {
+            this.history.remove(key);
+          }
+          this.store.commit();
+        }
+      }
+
+      return Long.valueOf(expired.size());
+    }).longValue();
+  }
+
+  private record HistoryKeyed(
+    String key,
+    CSCertificateHistoryEntry entry)
+  {
+
+  }
+
+  private static void collectExpired(
+    final List<HistoryKeyed> group,
+    final CSCertificateHistoryConfiguration retention,
+    final Optional<OffsetDateTime> oldest,
+    final List<String> expired)
+  {
+    group.sort((x, y) -> NEWEST_FIRST.compare(x.entry(), y.entry()));
+
+    for (int index = 1; index < group.size(); ++index) {
+      final var item = group.get(index);
+      final var tooMany =
+        index >= retention.retainCount();
+      final var tooOld =
+        oldest.map(t -> item.entry().issuedOn().isBefore(t))
+          .orElse(Boolean.FALSE)
+          .booleanValue();
+
+      if (tooMany || tooOld) {
+        expired.add(item.key());
+      }
+    }
+  }
+
+  private static void removePrefixed(
+    final MVMap<String, byte[]> map,
+    final String identifier)
+  {
+    final var prefix = keyPrefix(identifier);
+    final var keys = new ArrayList<String>();
+    final var cursor = map.cursor(prefix);
+    while (cursor.hasNext()) {
+      final var key = cursor.next();
+      if (!key.startsWith(prefix)) {
+        break;
+      }
+      keys.add(key);
+    }
+    for (final var key : keys) {
+      map.remove(key);
+    }
+  }
+
+  @Override
+  public Optional<CSCertificateOutputDigest> outputDigest(
+    final String domain,
+    final CSCertificateName name,
+    final String output)
+    throws IOException
+  {
+    Objects.requireNonNull(output, "output");
+
+    return this.withSpan(() -> {
+      return Optional.ofNullable(
+        this.outputDigests.get(
+          keyPrefix("%s/%s".formatted(domain, name.value())) + output
+        )
+      ).map(CSMVStoreCodec::decodeOutputDigest);
+    });
+  }
+
+  @Override
+  public void outputDigestPut(
+    final String domain,
+    final CSCertificateName name,
+    final String output,
+    final CSCertificateOutputDigest digest)
+    throws IOException
+  {
+    Objects.requireNonNull(output, "output");
+    Objects.requireNonNull(digest, "digest");
+
+    this.withSpan(() -> {
+      final var identifier =
+        "%s/%s".formatted(domain, name.value());
+
+      synchronized (this.writeLock) {
+        if (!this.certificates.containsKey(identifier)) {
+          throw new IOException(
+            "Certificate %s is not present in the store"
+              .formatted(identifier)
+          );
+        }
+        this.outputDigests.put(
+          keyPrefix(identifier) + output,
+          CSMVStoreCodec.encodeOutputDigest(digest)
+        );
+        this.store.commit();
+      }
+      return null;
+    });
+  }
+
+  @Override
+  public void outputDigestsClear()
+    throws IOException
+  {
+    this.withSpan(() -> {
+      synchronized (this.writeLock) {
+        this.outputDigests.clear();
+        this.store.commit();
+      }
+      return null;
+    });
+  }
+
+  @Override
+  public void outputRetryPut(
+    final CSCertificateOutputRetry retry)
+    throws IOException
+  {
+    Objects.requireNonNull(retry, "retry");
+
+    this.withSpan(() -> {
+      final var identifier =
+        "%s/%s".formatted(retry.domain(), retry.name().value());
+
+      synchronized (this.writeLock) {
+        if (!this.certificates.containsKey(identifier)) {
+          throw new IOException(
+            "Certificate %s is not present in the store"
+              .formatted(identifier)
+          );
+        }
+        this.outputRetries.put(
+          keyPrefix(identifier) + retry.output(),
+          CSMVStoreCodec.encodeOutputRetry(retry)
+        );
+        this.store.commit();
+      }
+      return null;
+    });
+  }
+
+  @Override
+  public List<CSCertificateOutputRetry> outputRetriesDue(
+    final OffsetDateTime time)
+    throws IOException
+  {
+    Objects.requireNonNull(time, "time");
+
+    /*
+     * The number of pending deliveries is expected to be tiny, and so the
+     * map is simply scanned rather than indexed by time.
+     */
+
+    return this.withSpan(() -> {
+      final var results = new ArrayList<CSCertificateOutputRetry>();
+      final var cursor = this.outputRetries.cursor(null);
+      while (cursor.hasNext()) {
+        cursor.next();
+        final var retry =
+          CSMVStoreCodec.decodeOutputRetry(cursor.getValue());
+        if (!retry.nextAttempt().isAfter(time)) {
+          results.add(retry);
+        }
+      }
+      results.sort(EARLIEST_FIRST);
+      return results;
+    });
+  }
+
+  @Override
+  public boolean outputRetryDelete(
+    final String domain,
+    final CSCertificateName name,
+    final String output)
+    throws IOException
+  {
+    Objects.requireNonNull(output, "output");
+
+    return this.withSpan(() -> {
+      final var key =
+        keyPrefix("%s/%s".formatted(domain, name.value())) + output;
+
+      synchronized (this.writeLock) {
+        final var removed = this.outputRetries.remove(key);
+        this.store.commit();
+        return Boolean.valueOf(removed != null);
+      }
+    }).booleanValue();
+  }
+
+  /**
+   * Journal keys begin with the zero-padded hexadecimal emission time in
+   * milliseconds, and so the journal map is ordered by time. A random suffix
+   * makes keys unique when several events are emitted in the same
+   * millisecond.
+   */
+
+  private static String journalKey(
+    final CSCertificateJournalEntry entry)
+  {
+    return journalKeyPrefix(entry.time()) + UUID.randomUUID();
+  }
+
+  private static String journalKeyPrefix(
+    final OffsetDateTime time)
+  {
+    return "%016x".formatted(Long.valueOf(time.toInstant().toEpochMilli()))
+      + KEY_SEPARATOR;
+  }
+
+  @Override
+  public void journalPut(
+    final List<CSCertificateJournalEntry> entries)
+    throws IOException
+  {
+    Objects.requireNonNull(entries, "entries");
+
+    if (entries.isEmpty()) {
+      return;
+    }
+
+    this.withSpan(() -> {
+      synchronized (this.writeLock) {
+        for (final var entry : entries) {
+          this.journal.put(
+            journalKey(entry),
+            CSMVStoreCodec.encodeJournalEntry(entry)
+          );
+        }
+        this.store.commit();
+      }
+      return null;
+    });
+  }
+
+  @Override
+  public List<CSCertificateJournalEntry> journal(
+    final CSCertificateJournalQuery query)
+    throws IOException
+  {
+    Objects.requireNonNull(query, "query");
+
+    /*
+     * The journal map is ordered by time, and so the requested time range
+     * is scanned newest first, and the scan stops once enough entries have
+     * matched. The remaining filters are applied to each entry in the range.
+     * Keys only have millisecond precision, and so the scan continues to the
+     * end of the millisecond containing the last match, in order that the
+     * newest entries are returned even if several share that millisecond.
+     *
+     * Every key of an entry at a given time is greater than the prefix for
+     * that time, and so starting from the upper prefix excludes entries at
+     * the upper time, and ending at the lower prefix includes entries at the
+     * lower time.
+     */
+
+    return this.withSpan(() -> {
+      final var lower =
+        query.timeLower()
+          .map(CSCertificateStoreMVStore::journalKeyPrefix)
+          .orElse(null);
+      final var upper =
+        query.timeUpper()
+          .map(CSCertificateStoreMVStore::journalKeyPrefix)
+          .orElse(null);
+
+      final var results = new ArrayList<CSCertificateJournalEntry>();
+      final var cursor = this.journal.cursor(upper, lower, true);
+      String boundary = null;
+      while (cursor.hasNext()) {
+        final var key = cursor.next();
+        if (boundary != null && !key.startsWith(boundary)) {
+          break;
+        }
+
+        final var entry =
+          CSMVStoreCodec.decodeJournalEntry(cursor.getValue());
+        if (query.matches(entry)) {
+          results.add(entry);
+          if (boundary == null && results.size() == query.limit()) {
+            boundary = journalKeyPrefix(entry.time());
+          }
+        }
+      }
+
+      results.sort(JOURNAL_NEWEST_FIRST);
+      return List.copyOf(
+        results.subList(0, Math.min(results.size(), query.limit()))
+      );
+    });
+  }
+
+  @Override
+  public long journalPrune(
+    final OffsetDateTime oldest)
+    throws IOException
+  {
+    Objects.requireNonNull(oldest, "oldest");
+
+    final var limit = journalKeyPrefix(oldest);
+    return this.withSpan(() -> {
+      final var expired = new ArrayList<String>();
+      final var cursor = this.journal.cursor(null);
+      while (cursor.hasNext()) {
+        final var key = cursor.next();
+        if (key.compareTo(limit) >= 0) {
+          break;
+        }
+        expired.add(key);
+      }
+
+      for (int index = 0; index < expired.size(); index += JOURNAL_PRUNE_BATCH) {
+        final var batch =
+          expired.subList(
+            index,
+            Math.min(expired.size(), index + JOURNAL_PRUNE_BATCH)
+          );
+
+        synchronized (this.writeLock) {
+          for (final var key : batch) {
+            this.journal.remove(key);
+          }
+          this.store.commit();
+        }
+      }
+
+      return Long.valueOf(expired.size());
+    }).longValue();
+  }
+
+  @Override
+  public void backup(
+    final Path file)
+    throws IOException
+  {
+    Objects.requireNonNull(file, "file");
+
+    final var target =
+      file.toAbsolutePath();
+    final var temporary =
+      target.resolveSibling(target.getFileName() + ".tmp");
+
+    this.withSpan(() -> {
+      Files.deleteIfExists(temporary);
+
+      /*
+       * Cursors iterate over the map roots that were current when the
+       * cursors were created. Creating all of the cursors while holding the
+       * write lock yields a consistent snapshot of the maps, and registering
+       * a version usage prevents the pages of that snapshot from being
+       * reused while the snapshot is copied. Writers are only blocked while
+       * the cursors are created.
+       */
+
+      final var usage = this.store.registerVersionUsage();
+      try {
+        final Cursor<String, byte[]> certificatesNow;
+        final Cursor<String, byte[]> historyNow;
+        final Cursor<String, byte[]> outputDigestsNow;
+        final Cursor<String, byte[]> outputRetriesNow;
+        final Cursor<String, byte[]> journalNow;
+        synchronized (this.writeLock) {
+          certificatesNow = this.certificates.cursor(null);
+          historyNow = this.history.cursor(null);
+          outputDigestsNow = this.outputDigests.cursor(null);
+          outputRetriesNow = this.outputRetries.cursor(null);
+          journalNow = this.journal.cursor(null);
+        }
+
+        final var snapshot =
+          new MVStore.Builder()
+            .fileName(temporary.toString())
+            .open();
+
+        try {
+          final MVMap<String, Integer> meta = snapshot.openMap("meta");
+          meta.put("version", Integer.valueOf(LAYOUT_VERSION));
+          copy(certificatesNow, snapshot.openMap("certificates"));
+          copy(historyNow, snapshot.openMap("certificate_history"));
+          copy(outputDigestsNow, snapshot.openMap("output_digests"));
+          copy(outputRetriesNow, snapshot.openMap("output_retries"));
+          copy(journalNow, snapshot.openMap("event_journal"));
+          snapshot.commit();
+        } finally {
+          snapshot.close();
+        }
+
+        Files.move(temporary, target, ATOMIC_MOVE, REPLACE_EXISTING);
+      } catch (final IOException | MVStoreException e) {
+        Files.deleteIfExists(temporary);
+        throw e;
+      } finally {
+        this.store.deregisterVersionUsage(usage);
+      }
+      return null;
+    });
+  }
+
+  private static void copy(
+    final Cursor<String, byte[]> source,
+    final MVMap<String, byte[]> target)
+  {
+    while (source.hasNext()) {
+      final var key = source.next();
+      target.put(key, source.getValue());
+    }
+  }
+
+  @Override
+  public void maintain()
+    throws IOException
+  {
+    this.withSpan(() -> {
+      this.store.compactFile(MAINTENANCE_COMPACT_TIME_MS);
+      return null;
+    });
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    synchronized (this.writeLock) {
+      if (!this.store.isClosed()) {
+        try {
+          this.store.close();
+        } catch (final MVStoreException e) {
+          throw new IOException(e);
+        }
+      }
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[CSCertificateStoreMVStore 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+}
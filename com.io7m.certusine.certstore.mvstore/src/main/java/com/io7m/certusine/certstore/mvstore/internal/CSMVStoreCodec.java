@@ -0,0 +1,422 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.certusine.certstore.mvstore.internal;
+
+import com.io7m.certusine.api.CSCertificateName;
+import com.io7m.certusine.certstore.api.CSCertificateHistoryEntry;
+import com.io7m.certusine.certstore.api.CSCertificateJournalEntry;
+import com.io7m.certusine.certstore.api.CSCertificateOutputDigest;
+import com.io7m.certusine.certstore.api.CSCertificateOutputRetry;
+import com.io7m.certusine.certstore.api.CSCertificateStored;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Functions to encode and decode the values held in the store maps.
+ */
+
+public final class CSMVStoreCodec
+{
+  private static final int FORMAT_VERSION = 1;
+
+  private CSMVStoreCodec()
+  {
+
+  }
+
+  /**
+   * Encode a certificate.
+   *
+   * @param certificate The certificate
+   *
+   * @return The encoded certificate
+   */
+
+  public static byte[] encodeCertificate(
+    final CSCertificateStored certificate)
+  {
+    return encode(output -> {
+      writeString(output, certificate.domain());
+      writeString(output, certificate.name().value());
+      writeString(output, certificate.createdOn().toString());
+      writeString(output, certificate.expiresOn().toString());
+      writeString(output, certificate.pemEncodedCertificate());
+      writeString(output, certificate.pemEncodedCertificateFullChain());
+    });
+  }
+
+  /**
+   * Decode a certificate.
+   *
+   * @param data The encoded certificate
+   *
+   * @return The certificate
+   */
+
+  public static CSCertificateStored decodeCertificate(
+    final byte[] data)
+  {
+    return decode(data, input -> {
+      return new CSCertificateStored(
+        readString(input),
+        new CSCertificateName(readString(input)),
+        OffsetDateTime.parse(readString(input)),
+        OffsetDateTime.parse(readString(input)),
+        readString(input),
+        readString(input)
+      );
+    });
+  }
+
+  /**
+   * Encode a history entry.
+   *
+   * @param entry The history entry
+   *
+   * @return The encoded history entry
+   */
+
+  public static byte[] encodeHistory(
+    final CSCertificateHistoryEntry entry)
+  {
+    return encode(output -> {
+      writeString(output, entry.domain());
+      writeString(output, entry.name().value());
+      writeString(output, entry.serial().map(s -> s.toString(16)).orElse(""));
+      writeString(output, entry.issuedOn().toString());
+      writeString(output, entry.expiresOn().toString());
+      writeString(output, entry.chainHash());
+    });
+  }
+
+  /**
+   * Decode a history entry.
+   *
+   * @param data The encoded history entry
+   *
+   * @return The history entry
+   */
+
+  public static CSCertificateHistoryEntry decodeHistory(
+    final byte[] data)
+  {
+    return decode(data, input -> {
+      final var domain =
+        readString(input);
+      final var name =
+        new CSCertificateName(readString(input));
+      final var serialText =
+        readString(input);
+      final Optional<BigInteger> serial =
+        serialText.isEmpty()
+          ? Optional.empty()
+          : Optional.of(new BigInteger(serialText, 16));
+
+      return new CSCertificateHistoryEntry(
+        domain,
+        name,
+        serial,
+        OffsetDateTime.parse(readString(input)),
+        OffsetDateTime.parse(readString(input)),
+        readString(input)
+      );
+    });
+  }
+
+  /**
+   * Encode an output digest.
+   *
+   * @param digest The output digest
+   *
+   * @return The encoded output digest
+   */
+
+  public static byte[] encodeOutputDigest(
+    final CSCertificateOutputDigest digest)
+  {
+    return encode(output -> {
+      writeString(output, digest.digest());
+      writeString(output, digest.writtenOn().toString());
+    });
+  }
+
+  /**
+   * Decode an output digest.
+   *
+   * @param data The encoded output digest
+   *
+   * @return The output digest
+   */
+
+  public static CSCertificateOutputDigest decodeOutputDigest(
+    final byte[] data)
+  {
+    return decode(data, input -> {
+      return new CSCertificateOutputDigest(
+        readString(input),
+        OffsetDateTime.parse(readString(input))
+      );
+    });
+  }
+
+  /**
+   * Encode an output retry.
+   *
+   * @param retry The output retry
+   *
+   * @return The encoded output retry
+   */
+
+  public static byte[] encodeOutputRetry(
+    final CSCertificateOutputRetry retry)
+  {
+    return encode(output -> {
+      writeString(output, retry.domain());
+      writeString(output, retry.name().value());
+      writeString(output, retry.output());
+      output.writeInt(retry.attempts());
+      writeString(output, retry.nextAttempt().toString());
+    });
+  }
+
+  /**
+   * Decode an output retry.
+   *
+   * @param data The encoded output retry
+   *
+   * @return The output retry
+   */
+
+  public static CSCertificateOutputRetry decodeOutputRetry(
+    final byte[] data)
+  {
+    return decode(data, input -> {
+      return new CSCertificateOutputRetry(
+        readString(input),
+        new CSCertificateName(readString(input)),
+        readString(input),
+        input.readInt(),
+        OffsetDateTime.parse(readString(input))
+      );
+    });
+  }
+
+  /**
+   * Encode a journal entry.
+   *
+   * @param entry The journal entry
+   *
+   * @return The encoded journal entry
+   */
+
+  public static byte[] encodeJournalEntry(
+    final CSCertificateJournalEntry entry)
+  {
+    return encode(output -> {
+      writeString(output, entry.time().toString());
+      writeString(output, entry.domain());
+      writeString(output, entry.name().value());
+      writeString(output, entry.type());
+      output.writeBoolean(entry.failure());
+      writeString(output, entry.message());
+
+      final var attributes = new TreeMap<>(entry.attributes());
+      output.writeInt(attributes.size());
+      for (final var attribute : attributes.entrySet()) {
+        writeString(output, attribute.getKey());
+        writeString(output, attribute.getValue());
+      }
+    });
+  }
+
+  /**
+   * Decode a journal entry.
+   *
+   * @param data The encoded journal entry
+   *
+   * @return The journal entry
+   */
+
+  public static CSCertificateJournalEntry decodeJournalEntry(
+    final byte[] data)
+  {
+    return decode(data, input -> {
+      final var time =
+        OffsetDateTime.parse(readString(input));
+      final var domain =
+        readString(input);
+      final var name =
+        new CSCertificateName(readString(input));
+      final var type =
+        readString(input);
+      final var failure =
+        input.readBoolean();
+      final var message =
+        readString(input);
+
+      final var count = input.readInt();
+      final var attributes = new HashMap<String, String>(count);
+      for (int index = 0; index < count; ++index) {
+        attributes.put(readString(input), readString(input));
+      }
+
+      return new CSCertificateJournalEntry(
+        time,
+        domain,
+        name,
+        type,
+        failure,
+        message,
+        attributes
+      );
+    });
+  }
+
+  /**
+   * Create the history entry recorded for the given certificate.
+   *
+   * @param certificate The certificate
+   *
+   * @return A history entry
+   */
+
+  public static CSCertificateHistoryEntry historyOf(
+    final CSCertificateStored certificate)
+  {
+    return new CSCertificateHistoryEntry(
+      certificate.domain(),
+      certificate.name(),
+      serialOf(certificate.pemEncodedCertificate()),
+      certificate.createdOn(),
+      certificate.expiresOn(),
+      hashOf(certificate.pemEncodedCertificateFullChain())
+    );
+  }
+
+  private static Optional<BigInteger> serialOf(
+    final String pem)
+  {
+    try {
+      final var factory =
+        CertificateFactory.getInstance("X.509");
+      final var parsed =
+        factory.generateCertificate(
+          new ByteArrayInputStream(pem.getBytes(StandardCharsets.US_ASCII))
+        );
+
+      if (parsed instanceof final X509Certificate x509) {
+        return Optional.of(x509.getSerialNumber());
+      }
+      return Optional.empty();
+    } catch (final CertificateException e) {
+      return Optional.empty();
+    }
+  }
+
+  private static String hashOf(
+    final String text)
+  {
+    try {
+      final var digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of()
+        .formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private interface WriterType
+  {
+    void write(DataOutputStream output)
+      throws IOException;
+  }
+
+  private interface ReaderType<T>
+  {
+    T read(DataInputStream input)
+      throws IOException;
+  }
+
+  private static byte[] encode(
+    final WriterType writer)
+  {
+    try (var bytes = new ByteArrayOutputStream()) {
+      try (var output = new DataOutputStream(bytes)) {
+        output.writeInt(FORMAT_VERSION);
+        writer.write(output);
+      }
+      return bytes.toByteArray();
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static <T> T decode(
+    final byte[] data,
+    final ReaderType<T> reader)
+  {
+    try (var input = new DataInputStream(new ByteArrayInputStream(data))) {
+      final var version = input.readInt();
+      if (version != FORMAT_VERSION) {
+        throw new IOException(
+          "Unsupported value format version %d (expected %d)"
+            .formatted(Integer.valueOf(version), Integer.valueOf(FORMAT_VERSION))
+        );
+      }
+      return reader.read(input);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void writeString(
+    final DataOutputStream output,
+    final String text)
+    throws IOException
+  {
+    final var bytes = text.getBytes(StandardCharsets.UTF_8);
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  private static String readString(
+    final DataInputStream input)
+    throws IOException
+  {
+    final var length = input.readInt();
+    return StandardCharsets.UTF_8.decode(ByteBuffer.wrap(input.readNBytes(length)))
+      .toString();
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+import com.io7m.certusine.certstore.api.CSCertificateStoreFactoryType;
+import com.io7m.certusine.certstore.mvstore.CSCertificateStoreMVStoreFactory;
+
+/**
+ * ACME client (MVStore certificate store)
+ */
+
+module com.io7m.certusine.certstore.mvstore
+{
+  requires static org.osgi.annotation.bundle;
+  requires static org.osgi.annotation.versioning;
+
+  requires transitive com.io7m.certusine.api;
+  requires transitive com.io7m.certusine.certstore.api;
+
+  requires com.h2database.mvstore;
+  requires com.io7m.repetoir.core;
+  requires io.opentelemetry.api;
+  requires io.opentelemetry.context;
+  requires org.slf4j;
+
+  provides CSCertificateStoreFactoryType
+    with CSCertificateStoreMVStoreFactory;
+
+  exports com.io7m.certusine.certstore.mvstore.internal
+    to com.io7m.certusine.tests;
+
+  exports com.io7m.certusine.certstore.mvstore;
+}
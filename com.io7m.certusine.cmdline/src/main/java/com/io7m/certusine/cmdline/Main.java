@@ -18,11 +18,15 @@ package com.io7m.certusine.cmdline;
 
 import com.io7m.certusine.api.CSVersion;
 import com.io7m.certusine.cmdline.internal.CSCheckConfiguration;
+import com.io7m.certusine.cmdline.internal.CSEvents;
 import com.io7m.certusine.cmdline.internal.CSGenerateKeyPair;
 import com.io7m.certusine.cmdline.internal.CSLooseleafDownload;
 import com.io7m.certusine.cmdline.internal.CSRenew;
 import com.io7m.certusine.cmdline.internal.CSShowCertificateOutputs;
+import com.io7m.certusine.cmdline.internal.CSShowCertificateStores;
 import com.io7m.certusine.cmdline.internal.CSShowDNSConfigurators;
+import com.io7m.certusine.cmdline.internal.CSStoreBackup;
+import com.io7m.certusine.cmdline.internal.CSStoreMigrate;
 import com.io7m.quarrel.core.QApplication;
 import com.io7m.quarrel.core.QApplicationMetadata;
 import com.io7m.quarrel.core.QApplicationType;
@@ -72,11 +76,15 @@ public final class Main implements Runnable
     final var builder = QApplication.builder(metadata);
     builder.allowAtSyntax(true);
     builder.addCommand(new CSCheckConfiguration());
+    builder.addCommand(new CSEvents());
     builder.addCommand(new CSGenerateKeyPair());
     builder.addCommand(new CSLooseleafDownload());
     builder.addCommand(new CSRenew());
     builder.addCommand(new CSShowCertificateOutputs());
+    builder.addCommand(new CSShowCertificateStores());
     builder.addCommand(new CSShowDNSConfigurators());
+    builder.addCommand(new CSStoreBackup());
+    builder.addCommand(new CSStoreMigrate());
 
     this.application = builder.build();
     this.exitCode = 0;
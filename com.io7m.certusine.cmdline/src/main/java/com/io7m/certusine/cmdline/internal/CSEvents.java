@@ -0,0 +1,241 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.cmdline.internal;
+
+import com.io7m.certusine.api.CSCertificateName;
+import com.io7m.certusine.api.CSTelemetryNoOp;
+import com.io7m.certusine.certstore.api.CSCertificateJournalEntry;
+import com.io7m.certusine.certstore.api.CSCertificateJournalQuery;
+import com.io7m.quarrel.core.QCommandContextType;
+import com.io7m.quarrel.core.QCommandMetadata;
+import com.io7m.quarrel.core.QCommandStatus;
+import com.io7m.quarrel.core.QCommandType;
+import com.io7m.quarrel.core.QParameterNamed01;
+import com.io7m.quarrel.core.QParameterNamed1;
+import com.io7m.quarrel.core.QParameterNamedType;
+import com.io7m.quarrel.core.QStringType.QConstant;
+import com.io7m.quarrel.ext.logback.QLogback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static com.io7m.certusine.cmdline.internal.CSStoreMigrate.findFactory;
+
+/**
+ * Query the event journal of a certificate store.
+ */
+
+public final class CSEvents implements QCommandType
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(CSEvents.class);
+
+  private static final QParameterNamed1<Path> STORE =
+    new QParameterNamed1<>(
+      "--store",
+      List.of(),
+      new QConstant("The certificate store file."),
+      Optional.empty(),
+      Path.class
+    );
+
+  private static final QParameterNamed1<String> STORE_TYPE =
+    new QParameterNamed1<>(
+      "--store-type",
+      List.of(),
+      new QConstant("The certificate store type."),
+      Optional.of("sqlite"),
+      String.class
+    );
+
+  private static final QParameterNamed01<String> DOMAIN =
+    new QParameterNamed01<>(
+      "--domain",
+      List.of(),
+      new QConstant("Only show events for the given domain."),
+      Optional.empty(),
+      String.class
+    );
+
+  private static final QParameterNamed01<String> CERTIFICATE =
+    new QParameterNamed01<>(
+      "--certificate",
+      List.of(),
+      new QConstant("Only show events for the given certificate."),
+      Optional.empty(),
+      String.class
+    );
+
+  private static final QParameterNamed01<String> TYPE =
+    new QParameterNamed01<>(
+      "--type",
+      List.of(),
+      new QConstant("Only show events of the given type."),
+      Optional.empty(),
+      String.class
+    );
+
+  private static final QParameterNamed01<String> SINCE =
+    new QParameterNamed01<>(
+      "--since",
+      List.of(),
+      new QConstant("Only show events emitted at or after the given ISO 8601 time."),
+      Optional.empty(),
+      String.class
+    );
+
+  private static final QParameterNamed01<String> UNTIL =
+    new QParameterNamed01<>(
+      "--until",
+      List.of(),
+      new QConstant("Only show events emitted before the given ISO 8601 time."),
+      Optional.empty(),
+      String.class
+    );
+
+  private static final QParameterNamed1<Integer> LIMIT =
+    new QParameterNamed1<>(
+      "--limit",
+      List.of(),
+      new QConstant("The maximum number of events to show."),
+      Optional.of(Integer.valueOf(100)),
+      Integer.class
+    );
+
+  private final QCommandMetadata metadata;
+
+  /**
+   * Construct a command.
+   */
+
+  public CSEvents()
+  {
+    this.metadata = new QCommandMetadata(
+      "events",
+      new QConstant("Query the event journal of a certificate store."),
+      Optional.empty()
+    );
+  }
+
+  @Override
+  public List<QParameterNamedType<?>> onListNamedParameters()
+  {
+    return QLogback.plusParameters(
+      List.of(
+        STORE,
+        STORE_TYPE,
+        DOMAIN,
+        CERTIFICATE,
+        TYPE,
+        SINCE,
+        UNTIL,
+        LIMIT
+      )
+    );
+  }
+
+  @Override
+  public QCommandStatus onExecute(
+    final QCommandContextType context)
+  {
+    QLogback.configure(context);
+
+    final var storeFile =
+      context.parameterValue(STORE).toAbsolutePath();
+    final var storeType =
+      context.parameterValue(STORE_TYPE);
+
+    if (!Files.isRegularFile(storeFile)) {
+      LOG.error("The certificate store {} does not exist.", storeFile);
+      return QCommandStatus.FAILURE;
+    }
+
+    final var factory = findFactory(storeType);
+    if (factory.isEmpty()) {
+      LOG.error("No certificate store implementation named '{}'.", storeType);
+      return QCommandStatus.FAILURE;
+    }
+
+    final CSCertificateJournalQuery query;
+    try {
+      query = new CSCertificateJournalQuery(
+        context.parameterValue(DOMAIN),
+        context.parameterValue(CERTIFICATE).map(CSCertificateName::new),
+        context.parameterValue(TYPE),
+        context.parameterValue(SINCE).map(OffsetDateTime::parse),
+        context.parameterValue(UNTIL).map(OffsetDateTime::parse),
+        context.parameterValue(LIMIT).intValue()
+      );
+    } catch (final DateTimeParseException e) {
+      LOG.error("Unparseable time '{}': {}", e.getParsedString(), e.getMessage());
+      return QCommandStatus.FAILURE;
+    } catch (final IllegalArgumentException e) {
+      LOG.error("{}", e.getMessage());
+      return QCommandStatus.FAILURE;
+    }
+
+    final var telemetry = CSTelemetryNoOp.noop();
+    try (var store = factory.get().open(telemetry, storeFile)) {
+      final var out = context.output();
+      for (final var entry : store.journal(query)) {
+        showEntry(out, entry);
+      }
+      out.flush();
+      return QCommandStatus.SUCCESS;
+    } catch (final IOException e) {
+      LOG.error("i/o error: {}", e.getMessage());
+      return QCommandStatus.FAILURE;
+    }
+  }
+
+  private static void showEntry(
+    final PrintWriter out,
+    final CSCertificateJournalEntry entry)
+  {
+    out.printf(
+      "%s %s %s %s %s : %s",
+      entry.time(),
+      entry.failure() ? "FAILURE" : "INFO",
+      entry.type(),
+      entry.domain(),
+      entry.name().value(),
+      entry.message()
+    );
+
+    for (final var attribute : new TreeMap<>(entry.attributes()).entrySet()) {
+      out.printf(" %s=%s", attribute.getKey(), attribute.getValue());
+    }
+    out.println();
+  }
+
+  @Override
+  public QCommandMetadata metadata()
+  {
+    return this.metadata;
+  }
+}
@@ -34,7 +34,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.time.Duration;
-import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 
@@ -122,7 +122,36 @@ public final class CSLooseleafDownload implements QCommandType
       Duration.class
     );
 
-  private List<CSLLDownloader> downloaders;
+  private static final QParameterNamed1<Boolean> WATCH =
+    new QParameterNamed1<>(
+      "--watch",
+      List.of(),
+      new QConstant(
+        "Watch for changed certificates instead of downloading on a fixed schedule."),
+      Optional.of(FALSE),
+      Boolean.class
+    );
+
+  private static final QParameterNamed1<Duration> WATCH_INTERVAL_MIN =
+    new QParameterNamed1<>(
+      "--watch-interval-min",
+      List.of(),
+      new QConstant(
+        "The minimum time between checks for changed certificates in watch mode."),
+      Optional.of(Duration.ofSeconds(5L)),
+      Duration.class
+    );
+
+  private static final QParameterNamed1<Duration> WATCH_INTERVAL_MAX =
+    new QParameterNamed1<>(
+      "--watch-interval-max",
+      List.of(),
+      new QConstant(
+        "The maximum time between checks for changed certificates in watch mode."),
+      Optional.of(Duration.ofMinutes(5L)),
+      Duration.class
+    );
+
   private final QCommandMetadata metadata;
 
   /**
@@ -150,7 +179,10 @@ public final class CSLooseleafDownload implements QCommandType
         OUTPUT_DIRECTORY,
         PASSWORD,
         SCHEDULE,
-        USERNAME
+        USERNAME,
+        WATCH,
+        WATCH_INTERVAL_MAX,
+        WATCH_INTERVAL_MIN
       )
     );
   }
@@ -180,40 +212,53 @@ public final class CSLooseleafDownload implements QCommandType
     final var onlyOnce =
       context.parameterValue(ONLY_ONCE)
         .booleanValue();
+    final var watch =
+      context.parameterValue(WATCH)
+        .booleanValue();
+    final var watchIntervalMin =
+      context.parameterValue(WATCH_INTERVAL_MIN);
+    final var watchIntervalMax =
+      context.parameterValue(WATCH_INTERVAL_MAX);
 
-    this.downloaders =
-      new ArrayList<>(certificateNames.size());
-
-    for (final var certificateName : certificateNames) {
-      this.downloaders.add(
-        CSLLDownloader.create(
-          outputDirectory,
-          endpoint,
-          new CSLLCredentials(userName, password),
-          domain,
-          new CSCertificateName(certificateName)
-        )
+    final var downloader =
+      CSLLDownloader.create(
+        outputDirectory,
+        endpoint,
+        new CSLLCredentials(userName, password),
+        domain,
+        certificateNames.stream()
+          .map(CSCertificateName::new)
+          .toList()
       );
+
+    if (watch && !onlyOnce) {
+      watch(downloader, endpoint, watchIntervalMin, watchIntervalMax);
+      return QCommandStatus.SUCCESS;
     }
 
     while (true) {
-      for (final var downloader : this.downloaders) {
-        LOG.info(
-          "downloading '{}' certificates from '{}'",
-          downloader.certificateName().value(),
-          endpoint
-        );
-
-        try {
-          downloader.execute();
-        } catch (final IOException e) {
-          LOG.error("i/o error: ", e);
-          if (onlyOnce) {
-            throw e;
+      LOG.info(
+        "downloading {} certificates from '{}'",
+        Integer.valueOf(downloader.certificateNames().size()),
+        endpoint
+      );
+
+      try {
+        final var changed = downloader.execute();
+        if (changed.isEmpty()) {
+          LOG.info("no certificates changed");
+        } else {
+          for (final var name : changed) {
+            LOG.info("certificate '{}' changed", name.value());
           }
-        } catch (final InterruptedException e) {
-          Thread.currentThread().interrupt();
         }
+      } catch (final IOException e) {
+        LOG.error("i/o error: ", e);
+        if (onlyOnce) {
+          throw e;
+        }
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
       }
 
       if (onlyOnce) {
@@ -230,6 +275,93 @@ public final class CSLooseleafDownload implements QCommandType
     return QCommandStatus.SUCCESS;
   }
 
+  /**
+   * Repeatedly probe for changed certificates, downloading only those that
+   * changed. The interval between probes doubles each time a probe changes
+   * nothing on disk or fails (up to the given maximum), and returns to the
+   * minimum as soon as anything changes on disk. Idle periods therefore cost
+   * very little, at the cost of a renewal after a long idle period taking up
+   * to the maximum interval to be picked up; callers that want a fixed
+   * interval pass the same minimum and maximum.
+   *
+   * Certificates that have no digest on the server are reported as stale by
+   * every probe, but downloading them changes nothing on disk. They must not
+   * hold the interval at the minimum, and they are only logged once.
+   */
+
+  private static void watch(
+    final CSLLDownloader downloader,
+    final String endpoint,
+    final Duration intervalMin,
+    final Duration intervalMax)
+  {
+    LOG.info(
+      "watching {} certificates at '{}'",
+      Integer.valueOf(downloader.certificateNames().size()),
+      endpoint
+    );
+
+    final var undigested = new HashSet<CSCertificateName>();
+
+    var interval = intervalMin;
+    while (!Thread.currentThread().isInterrupted()) {
+      try {
+        final var stale = downloader.probe();
+        final List<CSCertificateName> changed;
+        if (stale.isEmpty()) {
+          changed = List.of();
+        } else {
+          changed = downloader.execute(stale);
+        }
+
+        for (final var name : changed) {
+          LOG.info("certificate '{}' changed", name.value());
+        }
+
+        for (final var name : stale) {
+          if (!changed.contains(name) && undigested.add(name)) {
+            LOG.warn(
+              "certificate '{}' has no digest on the server; it will be "
+                + "downloaded on every check until it is next written",
+              name.value()
+            );
+          }
+        }
+
+        if (changed.isEmpty()) {
+          interval = nextInterval(interval, intervalMax);
+        } else {
+          interval = intervalMin;
+        }
+      } catch (final IOException e) {
+        LOG.error("i/o error: ", e);
+        interval = nextInterval(interval, intervalMax);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+
+      LOG.debug("next check in {}", interval);
+
+      try {
+        Thread.sleep(interval.toMillis());
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private static Duration nextInterval(
+    final Duration interval,
+    final Duration intervalMax)
+  {
+    final var doubled = interval.multipliedBy(2L);
+    if (doubled.compareTo(intervalMax) > 0) {
+      return intervalMax;
+    }
+    return doubled;
+  }
+
   @Override
   public QCommandMetadata metadata()
   {
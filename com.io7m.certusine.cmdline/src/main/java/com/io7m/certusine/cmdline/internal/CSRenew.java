@@ -19,27 +19,35 @@ package com.io7m.certusine.cmdline.internal;
 
 import com.io7m.anethum.api.ParsingException;
 import com.io7m.certusine.api.CSConfiguration;
-import com.io7m.certusine.api.CSConfigurationServiceType;
 import com.io7m.certusine.api.CSParseErrorLogging;
 import com.io7m.certusine.vanilla.CSCertificateUtilities;
 import com.io7m.certusine.vanilla.CSConfigurationParsers;
 import com.io7m.certusine.vanilla.CSDomains;
+import com.io7m.certusine.vanilla.CSRenewalPassReport;
+import com.io7m.certusine.vanilla.CSRenewalReports;
 import com.io7m.certusine.vanilla.CSServices;
 import com.io7m.certusine.vanilla.CSTelemetryServices;
 import com.io7m.quarrel.core.QCommandContextType;
 import com.io7m.quarrel.core.QCommandMetadata;
 import com.io7m.quarrel.core.QCommandStatus;
 import com.io7m.quarrel.core.QCommandType;
+import com.io7m.quarrel.core.QParameterNamed01;
 import com.io7m.quarrel.core.QParameterNamed1;
 import com.io7m.quarrel.core.QParameterNamedType;
 import com.io7m.quarrel.core.QStringType;
 import com.io7m.quarrel.ext.logback.QLogback;
 import com.io7m.repetoir.core.RPServiceDirectoryType;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.text.ParseException;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.OffsetDateTime;
@@ -48,6 +56,8 @@ import java.util.Locale;
 import java.util.Optional;
 
 import static java.lang.Boolean.FALSE;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 
 /**
  * Renew certificates.
@@ -76,6 +86,16 @@ public final class CSRenew implements QCommandType
       Boolean.class
     );
 
+  private static final QParameterNamed1<Boolean> FORCE_OUTPUTS =
+    new QParameterNamed1<>(
+      "--force-outputs",
+      List.of(),
+      new QStringType.QConstant(
+        "Write all certificates to all outputs, even if they are unchanged."),
+      Optional.of(FALSE),
+      Boolean.class
+    );
+
   private static final QParameterNamed1<Duration> SCHEDULE =
     new QParameterNamed1<>(
       "--schedule",
@@ -86,6 +106,29 @@ public final class CSRenew implements QCommandType
       Duration.class
     );
 
+  private static final QParameterNamed01<Path> JFR =
+    new QParameterNamed01<>(
+      "--jfr",
+      List.of(),
+      new QStringType.QConstant(
+        "Record Java Flight Recorder events to the given file."),
+      Optional.empty(),
+      Path.class
+    );
+
+  private static final QParameterNamed01<Path> REPORT_JSON =
+    new QParameterNamed01<>(
+      "--report-json",
+      List.of(),
+      new QStringType.QConstant(
+        "Write the timing report of the most recent renewal pass to the given file as JSON."),
+      Optional.empty(),
+      Path.class
+    );
+
+  private static final Duration JFR_MAXIMUM_AGE =
+    Duration.ofDays(1L);
+
   private final QCommandMetadata metadata;
 
   /**
@@ -104,7 +147,9 @@ public final class CSRenew implements QCommandType
   @Override
   public List<QParameterNamedType<?>> onListNamedParameters()
   {
-    return QLogback.plusParameters(List.of(FILE, SCHEDULE, ONLY_ONCE));
+    return QLogback.plusParameters(
+      List.of(FILE, SCHEDULE, ONLY_ONCE, FORCE_OUTPUTS, JFR, REPORT_JSON)
+    );
   }
 
   @Override
@@ -125,6 +170,16 @@ public final class CSRenew implements QCommandType
         .booleanValue();
     final var schedule =
       context.parameterValue(SCHEDULE);
+    final var forceOutputs =
+      context.parameterValue(FORCE_OUTPUTS)
+        .booleanValue();
+    final var jfrFile =
+      context.parameterValue(JFR);
+    final var reportFile =
+      context.parameterValue(REPORT_JSON);
+
+    final var recording =
+      jfrFile.isPresent() ? startRecording(jfrFile.get()) : null;
 
     final var configurationInitial =
       loadConfiguration(file, parsers);
@@ -143,16 +198,21 @@ public final class CSRenew implements QCommandType
         telemetry
       );
 
-    final var configurationService =
-      services.requireService(CSConfigurationServiceType.class);
-
-
     try {
       CSCertificateUtilities.cleanUpUnusedCertificates(services);
+      if (forceOutputs) {
+        CSCertificateUtilities.forceOutputs(services);
+      }
 
       while (true) {
         final var result =
-          runOneIteration(onlyOnce, schedule, services, configurationService);
+          runOneIteration(
+            onlyOnce,
+            schedule,
+            services,
+            context.output(),
+            reportFile
+          );
 
         if (result.isPresent()) {
           return result.get();
@@ -160,6 +220,37 @@ public final class CSRenew implements QCommandType
       }
     } finally {
       services.close();
+      if (recording != null) {
+        stopRecording(recording);
+      }
+    }
+  }
+
+  private static Recording startRecording(
+    final Path file)
+    throws IOException, ParseException
+  {
+    final var recording =
+      new Recording(Configuration.getConfiguration("default"));
+
+    recording.setName("certusine");
+    recording.setToDisk(true);
+    recording.setMaxAge(JFR_MAXIMUM_AGE);
+    recording.setDumpOnExit(true);
+    recording.setDestination(file.toAbsolutePath());
+    recording.start();
+
+    LOG.info("recording flight recorder events to {}", file);
+    return recording;
+  }
+
+  private static void stopRecording(
+    final Recording recording)
+  {
+    try {
+      recording.stop();
+    } finally {
+      recording.close();
     }
   }
 
@@ -167,26 +258,20 @@ public final class CSRenew implements QCommandType
     final boolean onlyOnce,
     final Duration schedule,
     final RPServiceDirectoryType services,
-    final CSConfigurationServiceType configurationService)
+    final PrintWriter output,
+    final Optional<Path> reportFile)
   {
     try {
-      final var configuration =
-        configurationService.configuration();
+      final var pass =
+        CSDomains.renewAll(services, Clock.systemUTC());
+      final var report =
+        pass.report();
+      final var result =
+        pass.succeeded() ? QCommandStatus.SUCCESS : QCommandStatus.FAILURE;
 
-      LOG.debug(
-        "Loaded {} domains",
-        Integer.valueOf(configuration.domains().size())
-      );
-
-      var result = QCommandStatus.SUCCESS;
-      for (final var domain : configuration.domains().values()) {
-        try {
-          CSDomains.renew(services, domain, Clock.systemUTC());
-        } catch (final Exception e) {
-          LOG.error("Error executing domain: ", e);
-          result = QCommandStatus.FAILURE;
-        }
-      }
+      output.print(CSRenewalReports.formatText(report));
+      output.flush();
+      reportFile.ifPresent(file -> writeReport(file, report));
 
       if (onlyOnce) {
         return Optional.of(result);
@@ -213,6 +298,27 @@ public final class CSRenew implements QCommandType
     return Optional.empty();
   }
 
+  private static void writeReport(
+    final Path file,
+    final CSRenewalPassReport report)
+  {
+    try {
+      final var fileAbsolute =
+        file.toAbsolutePath();
+      final var fileTemporary =
+        fileAbsolute.resolveSibling(fileAbsolute.getFileName() + ".tmp");
+
+      Files.writeString(
+        fileTemporary,
+        CSRenewalReports.formatJSON(report),
+        StandardCharsets.UTF_8
+      );
+      Files.move(fileTemporary, fileAbsolute, REPLACE_EXISTING, ATOMIC_MOVE);
+    } catch (final IOException e) {
+      LOG.error("Failed to write renewal report {}: ", file, e);
+    }
+  }
+
   private static CSConfiguration loadConfiguration(
     final Path file,
     final CSConfigurationParsers parsers)
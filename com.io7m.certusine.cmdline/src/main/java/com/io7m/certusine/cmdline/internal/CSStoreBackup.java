@@ -0,0 +1,148 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.cmdline.internal;
+
+import com.io7m.certusine.api.CSTelemetryNoOp;
+import com.io7m.quarrel.core.QCommandContextType;
+import com.io7m.quarrel.core.QCommandMetadata;
+import com.io7m.quarrel.core.QCommandStatus;
+import com.io7m.quarrel.core.QCommandType;
+import com.io7m.quarrel.core.QParameterNamed1;
+import com.io7m.quarrel.core.QParameterNamedType;
+import com.io7m.quarrel.core.QStringType.QConstant;
+import com.io7m.quarrel.ext.logback.QLogback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static com.io7m.certusine.cmdline.internal.CSStoreMigrate.findFactory;
+
+/**
+ * Write a consistent snapshot of a certificate store.
+ */
+
+public final class CSStoreBackup implements QCommandType
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(CSStoreBackup.class);
+
+  private static final QParameterNamed1<Path> STORE =
+    new QParameterNamed1<>(
+      "--store",
+      List.of(),
+      new QConstant("The certificate store file."),
+      Optional.empty(),
+      Path.class
+    );
+
+  private static final QParameterNamed1<String> STORE_TYPE =
+    new QParameterNamed1<>(
+      "--store-type",
+      List.of(),
+      new QConstant("The certificate store type."),
+      Optional.of("sqlite"),
+      String.class
+    );
+
+  private static final QParameterNamed1<Path> OUTPUT =
+    new QParameterNamed1<>(
+      "--output",
+      List.of(),
+      new QConstant("The output file."),
+      Optional.empty(),
+      Path.class
+    );
+
+  private final QCommandMetadata metadata;
+
+  /**
+   * Construct a command.
+   */
+
+  public CSStoreBackup()
+  {
+    this.metadata = new QCommandMetadata(
+      "store-backup",
+      new QConstant("Write a consistent snapshot of a certificate store."),
+      Optional.empty()
+    );
+  }
+
+  @Override
+  public List<QParameterNamedType<?>> onListNamedParameters()
+  {
+    return QLogback.plusParameters(
+      List.of(STORE, STORE_TYPE, OUTPUT)
+    );
+  }
+
+  @Override
+  public QCommandStatus onExecute(
+    final QCommandContextType context)
+  {
+    QLogback.configure(context);
+
+    final var storeFile =
+      context.parameterValue(STORE).toAbsolutePath();
+    final var storeType =
+      context.parameterValue(STORE_TYPE);
+    final var output =
+      context.parameterValue(OUTPUT).toAbsolutePath();
+
+    if (!Files.isRegularFile(storeFile)) {
+      LOG.error("The certificate store {} does not exist.", storeFile);
+      return QCommandStatus.FAILURE;
+    }
+
+    if (storeFile.equals(output)) {
+      LOG.error("The store and output must be different files.");
+      return QCommandStatus.FAILURE;
+    }
+
+    final var factory = findFactory(storeType);
+    if (factory.isEmpty()) {
+      LOG.error("No certificate store implementation named '{}'.", storeType);
+      return QCommandStatus.FAILURE;
+    }
+
+    final var telemetry = CSTelemetryNoOp.noop();
+    try (var store = factory.get().open(telemetry, storeFile)) {
+      store.backup(output);
+
+      final var out = context.output();
+      out.printf("Wrote %s%n", output);
+      out.flush();
+      return QCommandStatus.SUCCESS;
+    } catch (final IOException e) {
+      LOG.error("i/o error: {}", e.getMessage());
+      return QCommandStatus.FAILURE;
+    }
+  }
+
+  @Override
+  public QCommandMetadata metadata()
+  {
+    return this.metadata;
+  }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.certusine.cmdline.internal;
+
+import com.io7m.certusine.api.CSTelemetryNoOp;
+import com.io7m.certusine.certstore.api.CSCertificateStoreFactoryType;
+import com.io7m.quarrel.core.QCommandContextType;
+import com.io7m.quarrel.core.QCommandMetadata;
+import com.io7m.quarrel.core.QCommandStatus;
+import com.io7m.quarrel.core.QCommandType;
+import com.io7m.quarrel.core.QParameterNamed1;
+import com.io7m.quarrel.core.QParameterNamedType;
+import com.io7m.quarrel.core.QStringType.QConstant;
+import com.io7m.quarrel.ext.logback.QLogback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.ServiceLoader;
+
+/**
+ * Copy certificates between certificate stores.
+ */
+
+public final class CSStoreMigrate implements QCommandType
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(CSStoreMigrate.class);
+
+  private static final QParameterNamed1<Path> SOURCE =
+    new QParameterNamed1<>(
+      "--source",
+      List.of(),
+      new QConstant("The source certificate store file."),
+      Optional.empty(),
+      Path.class
+    );
+
+  private static final QParameterNamed1<String> SOURCE_TYPE =
+    new QParameterNamed1<>(
+      "--source-type",
+      List.of(),
+      new QConstant("The source certificate store type."),
+      Optional.of("sqlite"),
+      String.class
+    );
+
+  private static final QParameterNamed1<Path> TARGET =
+    new QParameterNamed1<>(
+      "--target",
+      List.of(),
+      new QConstant("The target certificate store file."),
+      Optional.empty(),
+      Path.class
+    );
+
+  private static final QParameterNamed1<String> TARGET_TYPE =
+    new QParameterNamed1<>(
+      "--target-type",
+      List.of(),
+      new QConstant("The target certificate store type."),
+      Optional.of("mvstore"),
+      String.class
+    );
+
+  private final QCommandMetadata metadata;
+
+  /**
+   * Construct a command.
+   */
+
+  public CSStoreMigrate()
+  {
+    this.metadata = new QCommandMetadata(
+      "store-migrate",
+      new QConstant("Copy certificates between certificate stores."),
+      Optional.empty()
+    );
+  }
+
+  /**
+   * Find the certificate store implementation with the given name.
+   *
+   * @param type The name
+   *
+   * @return The implementation, if one exists
+   */
+
+  static Optional<CSCertificateStoreFactoryType> findFactory(
+    final String type)
+  {
+    return ServiceLoader.load(CSCertificateStoreFactoryType.class)
+      .stream()
+      .map(ServiceLoader.Provider::get)
+      .filter(factory -> Objects.equals(factory.name(), type))
+      .findFirst();
+  }
+
+  @Override
+  public List<QParameterNamedType<?>> onListNamedParameters()
+  {
+    return QLogback.plusParameters(
+      List.of(SOURCE, SOURCE_TYPE, TARGET, TARGET_TYPE)
+    );
+  }
+
+  @Override
+  public QCommandStatus onExecute(
+    final QCommandContextType context)
+  {
+    QLogback.configure(context);
+
+    final var source =
+      context.parameterValue(SOURCE).toAbsolutePath();
+    final var sourceType =
+      context.parameterValue(SOURCE_TYPE);
+    final var target =
+      context.parameterValue(TARGET).toAbsolutePath();
+    final var targetType =
+      context.parameterValue(TARGET_TYPE);
+
+    if (!Files.isRegularFile(source)) {
+      LOG.error("The certificate store {} does not exist.", source);
+      return QCommandStatus.FAILURE;
+    }
+
+    if (source.equals(target)) {
+      LOG.error("The source and target stores must be different files.");
+      return QCommandStatus.FAILURE;
+    }
+
+    final var sourceFactory = findFactory(sourceType);
+    if (sourceFactory.isEmpty()) {
+      LOG.error("No certificate store implementation named '{}'.", sourceType);
+      return QCommandStatus.FAILURE;
+    }
+
+    final var targetFactory = findFactory(targetType);
+    if (targetFactory.isEmpty()) {
+      LOG.error("No certificate store implementation named '{}'.", targetType);
+      return QCommandStatus.FAILURE;
+    }
+
+    final var telemetry = CSTelemetryNoOp.noop();
+    try (var sourceStore = sourceFactory.get().open(telemetry, source);
+         var targetStore = targetFactory.get().open(telemetry, target)) {
+
+      final var count = new long[1];
+      sourceStore.forEach(certificate -> {
+        try {
+          targetStore.put(certificate);
+          ++count[0];
+        } catch (final IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+
+      final var output = context.output();
+      output.printf("Migrated %d certificates.%n", Long.valueOf(count[0]));
+      output.flush();
+      return QCommandStatus.SUCCESS;
+    } catch (final IOException e) {
+      LOG.error("i/o error: {}", e.getMessage());
+      return QCommandStatus.FAILURE;
+    } catch (final UncheckedIOException e) {
+      LOG.error("i/o error: {}", e.getCause().getMessage());
+      return QCommandStatus.FAILURE;
+    }
+  }
+
+  @Override
+  public QCommandMetadata metadata()
+  {
+    return this.metadata;
+  }
+}
@@ -21,6 +21,7 @@
 module com.io7m.certusine.cmdline
 {
   requires com.io7m.certusine.api;
+  requires com.io7m.certusine.certstore.mvstore;
   requires com.io7m.certusine.gandi;
   requires com.io7m.certusine.looseleaf;
   requires com.io7m.certusine.vanilla;
@@ -32,6 +33,7 @@ module com.io7m.certusine.cmdline
   requires com.io7m.quarrel.core;
   requires com.io7m.quarrel.ext.logback;
   requires com.io7m.repetoir.core;
+  requires jdk.jfr;
   requires org.bouncycastle.pkix;
   requires org.bouncycastle.provider;
   requires org.slf4j;
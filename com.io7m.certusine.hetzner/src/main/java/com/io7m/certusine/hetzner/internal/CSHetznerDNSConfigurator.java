@@ -25,7 +25,6 @@ import io.opentelemetry.api.trace.Span;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import tools.jackson.databind.json.JsonMapper;
-import tools.jackson.databind.module.SimpleDeserializers;
 import tools.jackson.databind.module.SimpleModule;
 
 import java.io.IOException;
@@ -56,9 +55,39 @@ public final class CSHetznerDNSConfigurator
   private final String apiKey;
   private final String domainName;
   private final String zoneId;
-  private final SimpleDeserializers serializers;
   private final JsonMapper mapper;
 
+  /**
+   * Create a JSON mapper that can decode Hetzner API responses. Only the
+   * response types used by the configurator can be deserialized.
+   *
+   * @return A new mapper
+   */
+
+  public static JsonMapper createMapper()
+  {
+    final var serializers =
+      DmJsonRestrictedDeserializers.builder()
+        .allowClass(CSHetznerDNSRecord.class)
+        .allowListsOfClass(CSHetznerRecordValue.class)
+        .allowClass(CSHetznerDNSRecordResponse.class)
+        .allowClass(CSHetznerDNSRecordsResponse.class)
+        .allowClass(List.class)
+        .allowClass(Optional.class)
+        .allowClass(String.class)
+        .allowClass(int.class)
+        .allowListsOfClass(CSHetznerDNSRecord.class)
+        .allowOptionalOfClass(String.class)
+        .build();
+
+    final var simpleModule = new SimpleModule();
+    simpleModule.setDeserializers(serializers);
+
+    return JsonMapper.builder()
+      .addModule(simpleModule)
+      .build();
+  }
+
   /**
    * A Hetzner DNS configurator.
    *
@@ -91,27 +120,8 @@ public final class CSHetznerDNSConfigurator
     this.client =
       HttpClient.newHttpClient();
 
-    this.serializers =
-      DmJsonRestrictedDeserializers.builder()
-        .allowClass(CSHetznerDNSRecord.class)
-        .allowListsOfClass(CSHetznerRecordValue.class)
-        .allowClass(CSHetznerDNSRecordResponse.class)
-        .allowClass(CSHetznerDNSRecordsResponse.class)
-        .allowClass(List.class)
-        .allowClass(Optional.class)
-        .allowClass(String.class)
-        .allowClass(int.class)
-        .allowListsOfClass(CSHetznerDNSRecord.class)
-        .allowOptionalOfClass(String.class)
-        .build();
-
-    final var simpleModule = new SimpleModule();
-    simpleModule.setDeserializers(this.serializers);
-
     this.mapper =
-      JsonMapper.builder()
-        .addModule(simpleModule)
-        .build();
+      createMapper();
   }
 
   @Override
@@ -18,6 +18,7 @@ package com.io7m.certusine.looseleaf;
 
 import com.io7m.certusine.api.CSCertificateName;
 import com.io7m.certusine.api.CSTelemetryServiceType;
+import com.io7m.certusine.looseleaf.internal.CSLLDigests;
 import com.io7m.jdeferthrow.core.ExceptionTracker;
 import com.io7m.looseleaf.protocol.v1.LLv1Error;
 import com.io7m.looseleaf.protocol.v1.LLv1Errors;
@@ -32,7 +33,11 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse.BodyHandlers;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -45,30 +50,39 @@ import static java.nio.file.StandardOpenOption.CREATE;
 import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
 
 /**
- * A downloader that can take certificates from a looseleaf database and save it
- * to a local directory.
+ * A downloader that can take certificates from a looseleaf database and save
+ * them to a local directory. All certificates are fetched in a single
+ * request, and files are only replaced if their contents have changed.
+ * Downloaders can also cheaply probe the database for certificates that
+ * differ from those on disk, by comparing only the digests stored alongside
+ * each certificate.
  */
 
 public final class CSLLDownloader
 {
+  private static final List<String> FILE_NAMES =
+    List.of(
+      "public_key",
+      "private_key",
+      "certificate",
+      "certificate_full_chain"
+    );
+
   private final LLv1Messages messages;
   private final Path directory;
   private final HttpClient client;
   private final String domain;
-  private final CSCertificateName certificateName;
-  private final HttpRequest request;
-  private final String namePub;
-  private final String namePri;
-  private final String nameCert;
-  private final String nameCertFullChain;
+  private final List<CSCertificateName> certificateNames;
+  private final URI endpoint;
+  private final String authorization;
 
   /**
-   * @return The certificate name
+   * @return The certificate names
    */
 
-  public CSCertificateName certificateName()
+  public List<CSCertificateName> certificateNames()
   {
-    return this.certificateName;
+    return this.certificateNames;
   }
 
   private CSLLDownloader(
@@ -76,12 +90,9 @@ public final class CSLLDownloader
     final Path inDirectory,
     final HttpClient inClient,
     final String inDomain,
-    final CSCertificateName inCertificateName,
-    final HttpRequest inRequest,
-    final String inNamePub,
-    final String inNamePri,
-    final String inNameCert,
-    final String inNameCertFullChain)
+    final List<CSCertificateName> inCertificateNames,
+    final URI inEndpoint,
+    final String inAuthorization)
   {
     this.messages =
       Objects.requireNonNull(inMessages, "messages");
@@ -91,18 +102,12 @@ public final class CSLLDownloader
       Objects.requireNonNull(inClient, "client");
     this.domain =
       Objects.requireNonNull(inDomain, "domain");
-    this.certificateName =
-      Objects.requireNonNull(inCertificateName, "certificateName");
-    this.request =
-      Objects.requireNonNull(inRequest, "request");
-    this.namePub =
-      Objects.requireNonNull(inNamePub, "namePub");
-    this.namePri =
-      Objects.requireNonNull(inNamePri, "namePri");
-    this.nameCert =
-      Objects.requireNonNull(inNameCert, "nameCert");
-    this.nameCertFullChain =
-      Objects.requireNonNull(inNameCertFullChain, "nameCertFullChain");
+    this.certificateNames =
+      Objects.requireNonNull(inCertificateNames, "certificateNames");
+    this.endpoint =
+      Objects.requireNonNull(inEndpoint, "endpoint");
+    this.authorization =
+      Objects.requireNonNull(inAuthorization, "authorization");
   }
 
   private static String base64(
@@ -111,6 +116,15 @@ public final class CSLLDownloader
     return Base64.getUrlEncoder().encodeToString(formatted.getBytes(UTF_8));
   }
 
+  private static String keyName(
+    final String domain,
+    final CSCertificateName certificateName,
+    final String fileName)
+  {
+    return "/certificates/%s/%s/%s"
+      .formatted(domain, certificateName.value(), fileName);
+  }
+
   /**
    * Create a new downloader.
    *
@@ -129,6 +143,34 @@ public final class CSLLDownloader
     final CSLLCredentials credentials,
     final String domain,
     final CSCertificateName certificateName)
+  {
+    return create(
+      directory,
+      baseURI,
+      credentials,
+      domain,
+      List.of(certificateName)
+    );
+  }
+
+  /**
+   * Create a new downloader.
+   *
+   * @param directory        The output directory
+   * @param baseURI          The base URI for the API
+   * @param credentials      The credentials
+   * @param domain           The domain
+   * @param certificateNames The certificate names
+   *
+   * @return A new downloader
+   */
+
+  public static CSLLDownloader create(
+    final Path directory,
+    final String baseURI,
+    final CSLLCredentials credentials,
+    final String domain,
+    final List<CSCertificateName> certificateNames)
   {
     return create(
       new LLv1Messages(),
@@ -137,20 +179,20 @@ public final class CSLLDownloader
       baseURI,
       credentials,
       domain,
-      certificateName
+      certificateNames
     );
   }
 
   /**
    * Create a new downloader.
    *
-   * @param messages        The V1 message deserializer
-   * @param client          The client
-   * @param directory       The output directory
-   * @param baseURI         The base URI for the API
-   * @param credentials     The credentials
-   * @param domain          The domain
-   * @param certificateName The certificate name
+   * @param messages         The V1 message deserializer
+   * @param client           The client
+   * @param directory        The output directory
+   * @param baseURI          The base URI for the API
+   * @param credentials      The credentials
+   * @param domain           The domain
+   * @param certificateNames The certificate names
    *
    * @return A new downloader
    */
@@ -162,7 +204,7 @@ public final class CSLLDownloader
     final String baseURI,
     final CSLLCredentials credentials,
     final String domain,
-    final CSCertificateName certificateName)
+    final List<CSCertificateName> certificateNames)
   {
     Objects.requireNonNull(messages, "messages");
     Objects.requireNonNull(client, "client");
@@ -170,90 +212,141 @@ public final class CSLLDownloader
     Objects.requireNonNull(baseURI, "inBaseURI");
     Objects.requireNonNull(credentials, "inCredentials");
     Objects.requireNonNull(domain, "inDomain");
-    Objects.requireNonNull(certificateName, "inCertificateName");
-
-    final var namePub =
-      "/certificates/%s/%s/public_key"
-        .formatted(
-          domain,
-          certificateName.value());
-
-    final var namePri =
-      "/certificates/%s/%s/private_key"
-        .formatted(
-          domain,
-          certificateName.value());
-
-    final var nameCert =
-      "/certificates/%s/%s/certificate"
-        .formatted(
-          domain,
-          certificateName.value());
-
-    final var nameCertFullChain =
-      "/certificates/%s/%s/certificate_full_chain"
-        .formatted(
-          domain,
-          certificateName.value());
-
-    final var rud =
-      new LLv1RUD(
-        Set.of(
-          namePub,
-          namePri,
-          nameCert,
-          nameCertFullChain
-        ),
-        Map.of(),
-        Set.of()
-      );
+    Objects.requireNonNull(certificateNames, "inCertificateNames");
+
+    final var names =
+      certificateNames.stream()
+        .distinct()
+        .toList();
+
+    final var formattedCredentials =
+      base64("%s:%s".formatted(credentials.user(), credentials.password()));
+    final var authorization =
+      "Basic " + formattedCredentials;
+    final var endpointURI =
+      "%s/v1/rud".formatted(baseURI.replaceAll("/+$", ""));
+
+    return new CSLLDownloader(
+      messages,
+      directory,
+      client,
+      domain,
+      names,
+      URI.create(endpointURI),
+      authorization
+    );
+  }
 
-    try {
-      final var formattedCredentials =
-        base64("%s:%s".formatted(credentials.user(), credentials.password()));
-      final var authorization =
-        "Basic " + formattedCredentials;
-      final var endpointURI =
-        "%s/v1/rud".formatted(baseURI.replaceAll("/+$", ""));
+  /**
+   * Execute the downloader once, downloading all certificates. May be
+   * called multiple times.
+   *
+   * @return The certificates whose files changed on disk
+   *
+   * @throws IOException          On I/O errors
+   * @throws InterruptedException On interruptions
+   */
 
-      final var request =
-        HttpRequest.newBuilder()
-          .POST(ofByteArray(messages.serialize(rud)))
-          .header("Authorization", authorization)
-          .uri(URI.create(endpointURI))
-          .build();
+  public List<CSCertificateName> execute()
+    throws IOException, InterruptedException
+  {
+    return this.execute(this.certificateNames);
+  }
 
-      return new CSLLDownloader(
-        messages,
-        directory,
-        client,
-        domain,
-        certificateName,
-        request,
-        namePub,
-        namePri,
-        nameCert,
-        nameCertFullChain
-      );
-    } catch (final IOException e) {
-      CSTelemetryServiceType.recordExceptionAndSetError(e);
-      throw new IllegalStateException(e);
+  /**
+   * Execute the downloader once, downloading only the given certificates.
+   * May be called multiple times.
+   *
+   * @param names The certificates to download
+   *
+   * @return The certificates whose files changed on disk
+   *
+   * @throws IOException          On I/O errors
+   * @throws InterruptedException On interruptions
+   */
+
+  public List<CSCertificateName> execute(
+    final List<CSCertificateName> names)
+    throws IOException, InterruptedException
+  {
+    Objects.requireNonNull(names, "names");
+
+    final var keys = new HashSet<String>(names.size() * FILE_NAMES.size());
+    for (final var name : names) {
+      for (final var fileName : FILE_NAMES) {
+        keys.add(keyName(this.domain, name, fileName));
+      }
     }
+
+    return this.executeResult(names, this.read(keys));
   }
 
   /**
-   * Execute the downloader once. May be called multiple times.
+   * Determine which certificates differ from those on disk. Only the
+   * digest of each certificate is downloaded, and so probing is cheap
+   * compared to downloading certificates. Certificates that have no
+   * digest in the database (because they were written by an older version
+   * of the looseleaf output) are always considered to have changed.
+   *
+   * @return The certificates that differ from those on disk
    *
    * @throws IOException          On I/O errors
    * @throws InterruptedException On interruptions
    */
 
-  public void execute()
+  public List<CSCertificateName> probe()
+    throws IOException, InterruptedException
+  {
+    final var keys = new HashSet<String>(this.certificateNames.size());
+    for (final var name : this.certificateNames) {
+      keys.add(keyName(this.domain, name, CSLLDigests.DIGEST_KEY_NAME));
+    }
+
+    final var values = this.read(keys);
+    final var changed = new ArrayList<CSCertificateName>();
+    for (final var name : this.certificateNames) {
+      final var remote =
+        values.get(keyName(this.domain, name, CSLLDigests.DIGEST_KEY_NAME));
+
+      if (remote == null || !remote.equals(this.localDigest(name))) {
+        changed.add(name);
+      }
+    }
+    return List.copyOf(changed);
+  }
+
+  private String localDigest(
+    final CSCertificateName name)
+    throws IOException
+  {
+    final var values = new ArrayList<String>(FILE_NAMES.size());
+    for (final var fileName : FILE_NAMES) {
+      final var file = this.fileOf(name, fileName);
+      if (!Files.isRegularFile(file)) {
+        return "";
+      }
+      values.add(Files.readString(file, UTF_8));
+    }
+    return CSLLDigests.digestOf(values);
+  }
+
+  private Map<String, String> read(
+    final Set<String> keys)
     throws IOException, InterruptedException
   {
     try {
+      final var rud =
+        new LLv1RUD(keys, Map.of(), Set.of());
+
+      final var request =
+        HttpRequest.newBuilder()
+          .POST(ofByteArray(this.messages.serialize(rud)))
+          .header("Authorization", this.authorization)
+          .uri(this.endpoint)
+          .build();
+
       final var response =
-        this.client.send(this.request, BodyHandlers.ofByteArray());
+        this.client.send(request, BodyHandlers.ofByteArray());
       final var message =
         this.messages.deserialize(response.body());
 
@@ -286,8 +379,7 @@ public final class CSLLDownloader
       }
 
       if (message instanceof final LLv1Result result) {
-        this.executeResult(result);
-        return;
+        return result.values();
       }
 
       throw new IOException("Received unexpected result: %s".formatted(message));
@@ -309,48 +401,49 @@ public final class CSLLDownloader
     text.append(lineSeparator);
   }
 
-  private void executeResult(
-    final LLv1Result result)
+  private List<CSCertificateName> executeResult(
+    final List<CSCertificateName> names,
+    final Map<String, String> map)
     throws IOException
   {
     final var exceptions =
       new ExceptionTracker<IOException>();
-    final var map =
-      result.values();
-
-    try {
-      this.save(map, this.namePub, "public_key");
-    } catch (final IOException e) {
-      exceptions.addException(e);
-    }
-
-    try {
-      this.save(map, this.namePri, "private_key");
-    } catch (final IOException e) {
-      exceptions.addException(e);
-    }
-
-    try {
-      this.save(map, this.nameCert, "certificate");
-    } catch (final IOException e) {
-      exceptions.addException(e);
-    }
-
-    try {
-      this.save(map, this.nameCertFullChain, "certificate_full_chain");
-    } catch (final IOException e) {
-      exceptions.addException(e);
+    final var changed =
+      new ArrayList<CSCertificateName>();
+
+    for (final var name : names) {
+      var certificateChanged = false;
+      for (final var fileName : FILE_NAMES) {
+        try {
+          certificateChanged |= this.save(map, name, fileName);
+        } catch (final IOException e) {
+          exceptions.addException(e);
+        }
+      }
+      if (certificateChanged) {
+        changed.add(name);
+      }
     }
 
     exceptions.throwIfNecessary();
+    return List.copyOf(changed);
   }
 
-  private void save(
+  /**
+   * Save a file if its contents differ from the existing file (if any).
+   * Leaving unchanged files untouched avoids disturbing file modification
+   * times and any programs watching the files for changes.
+   */
+
+  private boolean save(
     final Map<String, String> values,
-    final String keyName,
+    final CSCertificateName certificateName,
     final String fileName)
     throws IOException
   {
+    final var keyName =
+      keyName(this.domain, certificateName, fileName);
+
     final var value = values.get(keyName);
     if (value == null) {
       throw new IOException(
@@ -358,24 +451,37 @@ public final class CSLLDownloader
       );
     }
 
-    final var certificates =
-      this.directory.resolve("certificates");
-    final var byDomain =
-      certificates.resolve(this.domain);
-    final var byName =
-      byDomain.resolve(this.certificateName.value());
     final var file =
-      byName.resolve(fileName);
+      this.fileOf(certificateName, fileName);
+    final var byName =
+      file.getParent();
     final var fileTmp =
       byName.resolve(fileName + ".tmp");
 
+    final var bytes = value.getBytes(UTF_8);
+    if (Files.isRegularFile(file)
+        && Arrays.equals(Files.readAllBytes(file), bytes)) {
+      return false;
+    }
+
     Files.createDirectories(byName);
 
     try (var output =
            Files.newOutputStream(fileTmp, CREATE, TRUNCATE_EXISTING)) {
-      output.write(value.getBytes(UTF_8));
+      output.write(bytes);
       output.flush();
       Files.move(fileTmp, file, REPLACE_EXISTING, ATOMIC_MOVE);
     }
+    return true;
+  }
+
+  private Path fileOf(
+    final CSCertificateName certificateName,
+    final String fileName)
+  {
+    return this.directory.resolve("certificates")
+      .resolve(this.domain)
+      .resolve(certificateName.value())
+      .resolve(fileName);
   }
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.looseleaf.internal;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Functions to compute the digests that accompany certificates stored in
+ * looseleaf databases. A digest is stored alongside each certificate so
+ * that downloaders can cheaply determine whether a certificate has changed
+ * without downloading it.
+ */
+
+public final class CSLLDigests
+{
+  /**
+   * The name of the key, relative to each certificate, that holds the
+   * digest.
+   */
+
+  public static final String DIGEST_KEY_NAME = "digest";
+
+  private CSLLDigests()
+  {
+
+  }
+
+  /**
+   * Compute the digest of the given certificate values. The values must
+   * be given in the order public key, private key, certificate, full chain.
+   *
+   * @param values The values
+   *
+   * @return The hex-encoded SHA-256 digest
+   */
+
+  public static String digestOf(
+    final List<String> values)
+  {
+    Objects.requireNonNull(values, "values");
+
+    try {
+      final var digest = MessageDigest.getInstance("SHA-256");
+      for (final var value : values) {
+        final var bytes = value.getBytes(UTF_8);
+        final var length = bytes.length;
+        digest.update((byte) (length >>> 24));
+        digest.update((byte) (length >>> 16));
+        digest.update((byte) (length >>> 8));
+        digest.update((byte) length);
+        digest.update(bytes);
+      }
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -17,6 +17,7 @@
 package com.io7m.certusine.looseleaf.internal;
 
 import com.io7m.certusine.api.CSCertificateOutputData;
+import com.io7m.certusine.api.CSCertificateOutputDeferredResult;
 import com.io7m.certusine.api.CSCertificateOutputType;
 import com.io7m.certusine.api.CSTelemetryServiceType;
 import com.io7m.certusine.looseleaf.CSLLCredentials;
@@ -30,8 +31,11 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
+import java.util.ArrayList;
 import java.util.Base64;
-import java.util.Map;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.regex.Pattern;
@@ -41,7 +45,9 @@ import static java.net.http.HttpResponse.BodyHandlers.ofByteArray;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
- * A looseleaf certificate output.
+ * A looseleaf certificate output. Writes are deferred until the end of each
+ * renewal pass, and all certificates written during the pass are then sent
+ * to the server in as few requests as possible.
  */
 
 public final class CSLLOutput
@@ -52,12 +58,21 @@ public final class CSLLOutput
   private static final Pattern END_SLASHES =
     Pattern.compile("/+$");
 
+  /**
+   * The maximum number of certificates sent in a single request. Each
+   * certificate results in five keys being written.
+   */
+
+  private static final int CERTIFICATES_PER_REQUEST = 64;
+
   private final CSLLStrings strings;
-  private final CSLLCredentials credentials;
   private final String name;
   private final String endpoint;
+  private final URI endpointRUD;
+  private final String authorization;
   private final HttpClient client;
   private final LLv1Messages messages;
+  private final LinkedHashMap<String, CSCertificateOutputData> pending;
 
   /**
    * A looseleaf certificate output.
@@ -76,8 +91,6 @@ public final class CSLLOutput
   {
     this.strings =
       Objects.requireNonNull(inStrings, "inStrings");
-    this.credentials =
-      Objects.requireNonNull(inCredentials, "inCredentials");
     this.name =
       Objects.requireNonNull(inName, "name");
     this.endpoint =
@@ -85,10 +98,20 @@ public final class CSLLOutput
           Objects.requireNonNull(inEndpoint, "inEndpoint"))
         .replaceAll("");
 
+    Objects.requireNonNull(inCredentials, "inCredentials");
+    this.authorization =
+      "Basic " + base64("%s:%s".formatted(
+        inCredentials.user(),
+        inCredentials.password()));
+    this.endpointRUD =
+      URI.create("%s/v1/rud".formatted(this.endpoint));
+
     this.client =
       HttpClient.newHttpClient();
     this.messages =
       new LLv1Messages();
+    this.pending =
+      new LinkedHashMap<>();
   }
 
   @Override
@@ -103,90 +126,134 @@ public final class CSLLOutput
     return this.name;
   }
 
+  @Override
+  public String target()
+  {
+    return this.endpoint;
+  }
+
+  @Override
+  public boolean writesDeferred()
+  {
+    return true;
+  }
+
   @Override
   public void write(
     final CSTelemetryServiceType telemetry,
     final CSCertificateOutputData outputData)
-    throws IOException, InterruptedException
   {
     Objects.requireNonNull(telemetry, "telemetry");
     Objects.requireNonNull(outputData, "outputData");
 
-    final var span =
-      telemetry.tracer()
-        .spanBuilder("WriteLooseleaf")
-        .setAttribute("certusine.target", this.endpoint)
-        .startSpan();
-
-    try (var ignored = span.makeCurrent()) {
-      this.sendData(outputData);
-    } catch (final Exception e) {
-      CSTelemetryServiceType.recordExceptionAndSetError(e);
-      throw e;
-    } finally {
-      span.end();
+    /*
+     * A certificate written more than once in a pass is only sent once,
+     * with the most recent data.
+     */
+
+    synchronized (this.pending) {
+      this.pending.put(
+        "%s/%s".formatted(outputData.domainName(), outputData.name().value()),
+        outputData
+      );
+    }
+  }
+
+  @Override
+  public List<CSCertificateOutputDeferredResult> passCompleted(
+    final CSTelemetryServiceType telemetry)
+    throws InterruptedException
+  {
+    Objects.requireNonNull(telemetry, "telemetry");
+
+    final List<CSCertificateOutputData> batch;
+    synchronized (this.pending) {
+      batch = List.copyOf(this.pending.values());
+      this.pending.clear();
     }
+
+    if (batch.isEmpty()) {
+      return List.of();
+    }
+
+    final var results =
+      new ArrayList<CSCertificateOutputDeferredResult>(batch.size());
+
+    for (int index = 0; index < batch.size(); index += CERTIFICATES_PER_REQUEST) {
+      final var chunk =
+        batch.subList(
+          index,
+          Math.min(batch.size(), index + CERTIFICATES_PER_REQUEST)
+        );
+
+      final var span =
+        telemetry.tracer()
+          .spanBuilder("WriteLooseleaf")
+          .setAttribute("certusine.target", this.endpoint)
+          .setAttribute("certusine.certificates", (long) chunk.size())
+          .startSpan();
+
+      try (var ignored = span.makeCurrent()) {
+        this.sendData(chunk);
+        for (final var data : chunk) {
+          results.add(CSCertificateOutputDeferredResult.succeeded(data));
+        }
+      } catch (final IOException e) {
+        CSTelemetryServiceType.recordExceptionAndSetError(e);
+        for (final var data : chunk) {
+          results.add(CSCertificateOutputDeferredResult.failed(data, e));
+        }
+      } finally {
+        span.end();
+      }
+    }
+
+    return List.copyOf(results);
   }
 
   private void sendData(
-    final CSCertificateOutputData outputData)
+    final List<CSCertificateOutputData> chunk)
     throws IOException, InterruptedException
   {
-    final var endpointURI =
-      "%s/v1/rud".formatted(this.endpoint);
-
-    LOG.debug("rud endpoint: {}", endpointURI);
-
-    final var namePub =
-      "/certificates/%s/%s/public_key"
-        .formatted(
-          outputData.domainName(),
-          outputData.name()
-            .value());
-
-    final var namePri =
-      "/certificates/%s/%s/private_key"
-        .formatted(
-          outputData.domainName(),
-          outputData.name()
-            .value());
-
-    final var nameCert =
-      "/certificates/%s/%s/certificate"
-        .formatted(
-          outputData.domainName(),
-          outputData.name()
-            .value());
-
-    final var nameCertFullChain =
-      "/certificates/%s/%s/certificate_full_chain"
-        .formatted(
-          outputData.domainName(),
-          outputData.name()
-            .value());
+    LOG.debug(
+      "rud endpoint: {} ({} certificates)",
+      this.endpointRUD,
+      Integer.valueOf(chunk.size())
+    );
 
-    final var rud =
-      new LLv1RUD(
-        Set.of(),
-        Map.ofEntries(
-          Map.entry(namePub, outputData.pemEncodedPublicKey()),
-          Map.entry(namePri, outputData.pemEncodedPrivateKey()),
-          Map.entry(nameCert, outputData.pemEncodedCertificate()),
-          Map.entry(nameCertFullChain, outputData.pemEncodedFullChain())
-        ),
-        Set.of()
-      );
+    final var writes = new HashMap<String, String>(chunk.size() * 5);
+    for (final var outputData : chunk) {
+      final var base =
+        "/certificates/%s/%s"
+          .formatted(
+            outputData.domainName(),
+            outputData.name()
+              .value());
 
-    final var authorization =
-      "Basic " + base64("%s:%s".formatted(
-        this.credentials.user(),
-        this.credentials.password()));
+      writes.put(base + "/public_key", outputData.pemEncodedPublicKey());
+      writes.put(base + "/private_key", outputData.pemEncodedPrivateKey());
+      writes.put(base + "/certificate", outputData.pemEncodedCertificate());
+      writes.put(
+        base + "/certificate_full_chain",
+        outputData.pemEncodedFullChain());
+      writes.put(
+        base + "/" + CSLLDigests.DIGEST_KEY_NAME,
+        CSLLDigests.digestOf(List.of(
+          outputData.pemEncodedPublicKey(),
+          outputData.pemEncodedPrivateKey(),
+          outputData.pemEncodedCertificate(),
+          outputData.pemEncodedFullChain()
+        )));
+    }
+
+    final var rud =
+      new LLv1RUD(Set.of(), writes, Set.of());
 
     final var request =
       HttpRequest.newBuilder()
         .POST(ofByteArray(this.messages.serialize(rud)))
-        .header("Authorization", authorization)
-        .uri(URI.create(endpointURI))
+        .header("Authorization", this.authorization)
+        .uri(this.endpointRUD)
         .build();
 
     final var httpResponse =
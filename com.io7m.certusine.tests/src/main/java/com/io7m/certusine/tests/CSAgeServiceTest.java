@@ -0,0 +1,189 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.tests;
+
+import com.io7m.certusine.api.CSCertificateName;
+import com.io7m.certusine.certstore.api.CSCertificateStored;
+import com.io7m.certusine.vanilla.internal.age.CSAgeService;
+import com.io7m.certusine.vanilla.internal.age.CSAgeServiceType;
+import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreEventDeleted;
+import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreEventReloaded;
+import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreEventType;
+import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreEventUpdated;
+import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreServiceType;
+import io.opentelemetry.api.common.Attributes;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+
+import static java.util.Map.entry;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+public final class CSAgeServiceTest
+{
+  private static final String GAUGE =
+    "certusine_certificate_time_remaining";
+
+  private static final CSCertificateName WWW =
+    new CSCertificateName("www");
+  private static final CSCertificateName MAIL =
+    new CSCertificateName("mail");
+
+  private SubmissionPublisher<CSCertificateStoreEventType> events;
+  private CSFakeCertificateStore certificates;
+  private CSFakeTelemetry telemetry;
+  private CSAgeServiceType ages;
+
+  private static OffsetDateTime time(
+    final String text)
+  {
+    return OffsetDateTime.parse(text);
+  }
+
+  private static CSCertificateStored certificate(
+    final CSCertificateName name,
+    final String expiresOn)
+  {
+    return new CSCertificateStored(
+      "example.com",
+      name,
+      time("1999-01-01T00:00:00+00:00"),
+      time(expiresOn),
+      "-- BEGIN CERTIFICATE --",
+      "-- BEGIN CERTIFICATE --"
+    );
+  }
+
+  private static Attributes attributes(
+    final CSCertificateName name)
+  {
+    return Attributes.builder()
+      .put("domain", "example.com")
+      .put("certificate", name.value())
+      .build();
+  }
+
+  @BeforeEach
+  public void setup()
+    throws Exception
+  {
+    /*
+     * Events are delivered on the publishing thread, so each event has
+     * been applied by the time that it has been submitted.
+     */
+
+    this.events =
+      new SubmissionPublisher<>(Runnable::run, Flow.defaultBufferSize());
+    this.certificates =
+      new CSFakeCertificateStore();
+    this.telemetry =
+      new CSFakeTelemetry();
+
+    this.certificates.put(certificate(WWW, "2000-01-02T00:00:00+00:00"));
+
+    final var stores =
+      Mockito.mock(CSCertificateStoreServiceType.class);
+    when(stores.store())
+      .thenReturn(this.certificates);
+    when(stores.events())
+      .thenReturn(this.events);
+
+    this.ages =
+      CSAgeService.create(
+        Clock.fixed(
+          time("2000-01-01T00:00:00+00:00").toInstant(),
+          ZoneOffset.UTC
+        ),
+        this.telemetry,
+        stores
+      );
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws Exception
+  {
+    this.ages.close();
+    this.events.close();
+  }
+
+  /**
+   * The index is seeded from the store, follows updates and deletions, and
+   * is rebuilt when the store is reloaded.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSeedUpdateDeleteReload()
+    throws Exception
+  {
+    assertEquals(
+      Map.of(attributes(WWW), Long.valueOf(86400L)),
+      this.telemetry.longGauge(GAUGE)
+    );
+
+    this.events.submit(
+      new CSCertificateStoreEventUpdated(
+        certificate(WWW, "2000-01-03T00:00:00+00:00"))
+    );
+    this.events.submit(
+      new CSCertificateStoreEventUpdated(
+        certificate(MAIL, "2000-01-01T01:00:00+00:00"))
+    );
+
+    assertEquals(
+      Map.ofEntries(
+        entry(attributes(WWW), Long.valueOf(172800L)),
+        entry(attributes(MAIL), Long.valueOf(3600L))
+      ),
+      this.telemetry.longGauge(GAUGE)
+    );
+
+    this.events.submit(new CSCertificateStoreEventDeleted("example.com", WWW));
+
+    assertEquals(
+      Map.of(attributes(MAIL), Long.valueOf(3600L)),
+      this.telemetry.longGauge(GAUGE)
+    );
+
+    /*
+     * Reloading discards everything that was learned from events, and
+     * takes the contents of the store as they are now.
+     */
+
+    this.certificates.put(certificate(WWW, "1999-12-31T00:00:00+00:00"));
+    this.events.submit(new CSCertificateStoreEventReloaded(Path.of("store.db")));
+
+    assertEquals(
+      Map.of(attributes(WWW), Long.valueOf(-86400L)),
+      this.telemetry.longGauge(GAUGE)
+    );
+  }
+}
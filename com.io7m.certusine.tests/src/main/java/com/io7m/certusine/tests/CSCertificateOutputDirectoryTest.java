@@ -19,6 +19,7 @@ package com.io7m.certusine.tests;
 import com.io7m.certusine.api.CSCertificateName;
 import com.io7m.certusine.api.CSCertificateOutputData;
 import com.io7m.certusine.vanilla.internal.CSCertificateOutputDirectory;
+import com.io7m.certusine.vanilla.internal.CSCertificateOutputDirectoryLayout;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -29,9 +30,11 @@ import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.security.SecureRandom;
 import java.security.spec.ECGenParameterSpec;
+import java.util.List;
 
 import static com.io7m.certusine.api.CSTelemetryNoOp.noop;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public final class CSCertificateOutputDirectoryTest
@@ -119,4 +122,119 @@ public final class CSCertificateOutputDirectoryTest
       assertEquals("CERT_CHAIN", reader.readLine());
     }
   }
+
+  private static CSCertificateOutputData data(
+    final String certificate)
+  {
+    return new CSCertificateOutputData(
+      "example.com",
+      new CSCertificateName("www"),
+      "PUB",
+      "PRI",
+      certificate,
+      certificate + "_CHAIN"
+    );
+  }
+
+  /**
+   * The versioned layout publishes complete versions through a symbolic
+   * link, and deletes old versions.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testVersionedCertificate()
+    throws Exception
+  {
+    final var output =
+      new CSCertificateOutputDirectory(
+        "out",
+        this.directory,
+        CSCertificateOutputDirectoryLayout.VERSIONED,
+        2
+      );
+
+    final var certDir =
+      this.directory.resolve("example.com")
+        .resolve("www");
+    final var current =
+      certDir.resolve("current");
+    final var versions =
+      certDir.resolve("versions");
+
+    output.write(noop(), data("CERT0"));
+
+    assertTrue(Files.isSymbolicLink(current));
+    try (var reader = Files.newBufferedReader(current.resolve("certificate.pem"))) {
+      assertEquals("CERT0", reader.readLine());
+    }
+    try (var reader = Files.newBufferedReader(current.resolve("full_chain.pem"))) {
+      assertEquals("CERT0_CHAIN", reader.readLine());
+    }
+    try (var reader = Files.newBufferedReader(current.resolve("private.key"))) {
+      assertEquals("PRI", reader.readLine());
+    }
+    try (var reader = Files.newBufferedReader(current.resolve("public.key"))) {
+      assertEquals("PUB", reader.readLine());
+    }
+
+    output.write(noop(), data("CERT1"));
+    output.write(noop(), data("CERT2"));
+
+    try (var reader = Files.newBufferedReader(current.resolve("certificate.pem"))) {
+      assertEquals("CERT2", reader.readLine());
+    }
+
+    try (var stream = Files.list(versions)) {
+      assertEquals(
+        List.of("00000000000000000002", "00000000000000000003"),
+        stream.map(p -> p.getFileName().toString())
+          .sorted()
+          .toList()
+      );
+    }
+
+    assertFalse(Files.exists(certDir.resolve("current.tmp")));
+    assertFalse(Files.exists(certDir.resolve("certificate.pem")));
+  }
+
+  /**
+   * Incomplete versions left behind by failed writes are deleted.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testVersionedIncompleteDeleted()
+    throws Exception
+  {
+    final var output =
+      new CSCertificateOutputDirectory(
+        "out",
+        this.directory,
+        CSCertificateOutputDirectoryLayout.VERSIONED,
+        2
+      );
+
+    final var versions =
+      this.directory.resolve("example.com")
+        .resolve("www")
+        .resolve("versions");
+
+    final var incomplete =
+      versions.resolve("00000000000000000007.tmp");
+
+    Files.createDirectories(incomplete);
+    Files.writeString(incomplete.resolve("public.key"), "PUB");
+
+    output.write(noop(), data("CERT0"));
+
+    try (var stream = Files.list(versions)) {
+      assertEquals(
+        List.of("00000000000000000001"),
+        stream.map(p -> p.getFileName().toString()).toList()
+      );
+    }
+  }
 }
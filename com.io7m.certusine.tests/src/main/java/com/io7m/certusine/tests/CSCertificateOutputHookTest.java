@@ -0,0 +1,192 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.tests;
+
+import com.io7m.certusine.api.CSCertificateName;
+import com.io7m.certusine.api.CSCertificateOutputData;
+import com.io7m.certusine.api.CSCertificateOutputDeferredResult;
+import com.io7m.certusine.vanilla.internal.CSCertificateOutputHook;
+import com.io7m.certusine.vanilla.internal.CSCertificateOutputHookCommand;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+
+import static com.io7m.certusine.api.CSTelemetryNoOp.noop;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisabledOnOs(OS.WINDOWS)
+public final class CSCertificateOutputHookTest
+{
+  private Path directory;
+  private Path script;
+  private Path log;
+
+  private static CSCertificateOutputData data(
+    final String name)
+  {
+    return new CSCertificateOutputData(
+      "example.com",
+      new CSCertificateName(name),
+      "PUB",
+      "PRI",
+      "CERT",
+      "CERT_CHAIN"
+    );
+  }
+
+  @BeforeEach
+  public void setup()
+    throws Exception
+  {
+    this.directory =
+      CSTestDirectories.createTempDirectory();
+    this.log =
+      this.directory.resolve("log.txt");
+    this.script =
+      this.directory.resolve("hook.sh");
+
+    Files.writeString(
+      this.script,
+      """
+        #!/bin/sh
+        echo "${CERTUSINE_CHANGED_CERTIFICATES}" >> "$1"
+        exit "$2"
+        """
+    );
+    Files.setPosixFilePermissions(
+      this.script,
+      PosixFilePermissions.fromString("rwx------")
+    );
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws Exception
+  {
+    CSTestDirectories.deleteDirectory(this.directory);
+  }
+
+  private CSCertificateOutputHook hook(
+    final int exitCode)
+  {
+    return new CSCertificateOutputHook(
+      "hook",
+      new CSCertificateOutputHookCommand(
+        List.of(
+          this.script.toString(),
+          this.log.toString(),
+          Integer.toString(exitCode)
+        )
+      )
+    );
+  }
+
+  private List<String> logLines()
+    throws IOException
+  {
+    if (!Files.exists(this.log)) {
+      return List.of();
+    }
+    return Files.readAllLines(this.log);
+  }
+
+  /**
+   * Many writes in a single pass result in a single action.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCoalesced()
+    throws Exception
+  {
+    final var hook = this.hook(0);
+
+    assertTrue(hook.writesDeferred());
+    assertFalse(hook.writesRefreshed());
+
+    assertEquals(List.of(), hook.passCompleted(noop()));
+    assertEquals(List.of(), this.logLines());
+
+    hook.write(noop(), data("www"));
+    hook.write(noop(), data("mail"));
+    hook.write(noop(), data("www"));
+
+    final var results = hook.passCompleted(noop());
+    assertEquals(
+      List.of(
+        CSCertificateOutputDeferredResult.succeeded(data("mail")),
+        CSCertificateOutputDeferredResult.succeeded(data("www"))
+      ),
+      results
+    );
+
+    assertEquals(
+      List.of("example.com/mail", "example.com/www"),
+      this.logLines()
+    );
+    assertEquals(List.of(), hook.pending());
+
+    assertEquals(List.of(), hook.passCompleted(noop()));
+    assertEquals(2, this.logLines().size());
+  }
+
+  /**
+   * Failed actions report every certificate in the batch as failed, and the
+   * action is attempted again when the certificates are written again.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testFailedReported()
+    throws Exception
+  {
+    final var hook = this.hook(1);
+
+    hook.write(noop(), data("www"));
+
+    final var results0 = hook.passCompleted(noop());
+    assertEquals(1, results0.size());
+    assertEquals(data("www"), results0.get(0).data());
+    assertInstanceOf(
+      IOException.class,
+      results0.get(0).failure().orElseThrow()
+    );
+    assertEquals(List.of(), hook.pending());
+
+    hook.write(noop(), data("www"));
+
+    final var results1 = hook.passCompleted(noop());
+    assertEquals(1, results1.size());
+    assertTrue(results1.get(0).failure().isPresent());
+    assertEquals(2, this.logLines().size());
+  }
+}
@@ -17,22 +17,35 @@
 
 package com.io7m.certusine.tests;
 
+import com.io7m.certusine.api.CSCertificateHistoryConfiguration;
 import com.io7m.certusine.api.CSCertificateName;
 import com.io7m.certusine.api.CSTelemetryNoOp;
+import com.io7m.certusine.certstore.api.CSCertificateJournalEntry;
+import com.io7m.certusine.certstore.api.CSCertificateJournalQuery;
+import com.io7m.certusine.certstore.api.CSCertificateOutputDigest;
+import com.io7m.certusine.certstore.api.CSCertificateOutputRetry;
 import com.io7m.certusine.certstore.api.CSCertificateStored;
 import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreSQLiteFactory;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.sqlite.SQLiteDataSource;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static java.time.ZoneOffset.UTC;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public final class CSCertificateStoreSQLiteTest
@@ -143,4 +156,694 @@ public final class CSCertificateStoreSQLiteTest
       );
     }
   }
+
+  private long queryLong(
+    final String sql)
+    throws SQLException
+  {
+    final var dataSource = new SQLiteDataSource();
+    dataSource.setUrl("jdbc:sqlite:" + this.file);
+
+    try (var connection = dataSource.getConnection();
+         var statement = connection.createStatement();
+         var result = statement.executeQuery(sql)) {
+      result.next();
+      return result.getLong(1);
+    }
+  }
+
+  @Test
+  public void testChainsShared()
+    throws Exception
+  {
+    final var pem =
+      CSTestResources.resourceOf("fake.crt");
+    final var chain =
+      pem + pem;
+
+    final var www =
+      new CSCertificateName("www");
+    final var mail =
+      new CSCertificateName("mail");
+
+    final var certificate0 =
+      new CSCertificateStored(
+        "example.com",
+        www,
+        OffsetDateTime.of(2000, 1, 1, 0, 0, 0, 0, UTC),
+        OffsetDateTime.of(2001, 1, 1, 0, 0, 0, 0, UTC),
+        pem,
+        chain
+      );
+
+    final var certificate1 =
+      new CSCertificateStored(
+        "example.com",
+        mail,
+        OffsetDateTime.of(2002, 1, 1, 0, 0, 0, 0, UTC),
+        OffsetDateTime.of(2003, 1, 1, 0, 0, 0, 0, UTC),
+        pem,
+        chain + "# Trailing text.\n"
+      );
+
+    try (var store = this.stores.open(NOOP, this.file)) {
+      store.put(certificate0);
+      store.put(certificate1);
+      assertEquals(
+        Optional.of(certificate0),
+        store.find("example.com", www)
+      );
+      assertEquals(
+        Optional.of(certificate1),
+        store.find("example.com", mail)
+      );
+      assertEquals(
+        List.of(certificate1, certificate0),
+        store.all()
+      );
+    }
+
+    /*
+     * Both certificates, and both elements of each chain, are the same
+     * certificate, and so only a single chain certificate is stored.
+     */
+
+    assertEquals(1L, this.queryLong("SELECT COUNT(*) FROM chain_certificates"));
+
+    try (var store = this.stores.open(NOOP, this.file)) {
+      assertTrue(store.delete("example.com", www));
+      assertEquals(
+        Optional.empty(),
+        store.find("example.com", www)
+      );
+      assertEquals(
+        Optional.of(certificate1),
+        store.find("example.com", mail)
+      );
+    }
+
+    try (var store = this.stores.open(NOOP, this.file)) {
+      store.put(certificate0);
+      assertEquals(
+        List.of(certificate1, certificate0),
+        store.all()
+      );
+    }
+  }
+
+  /**
+   * Iterating over the store delivers each certificate exactly once, with
+   * its full chain reassembled from every chain row, regardless of the order
+   * in which certificates were written.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testForEachGroupsChains()
+    throws Exception
+  {
+    final var pem =
+      CSTestResources.resourceOf("fake.crt");
+
+    final var certificate0 =
+      new CSCertificateStored(
+        "example.org",
+        new CSCertificateName("www"),
+        OffsetDateTime.of(2000, 1, 1, 0, 0, 0, 0, UTC),
+        OffsetDateTime.of(2001, 1, 1, 0, 0, 0, 0, UTC),
+        pem,
+        pem + pem + pem
+      );
+
+    final var certificate1 =
+      new CSCertificateStored(
+        "example.com",
+        new CSCertificateName("mail"),
+        OffsetDateTime.of(2002, 1, 1, 0, 0, 0, 0, UTC),
+        OffsetDateTime.of(2003, 1, 1, 0, 0, 0, 0, UTC),
+        pem,
+        pem + pem
+      );
+
+    final var certificate2 =
+      new CSCertificateStored(
+        "example.com",
+        new CSCertificateName("www"),
+        OffsetDateTime.of(2004, 1, 1, 0, 0, 0, 0, UTC),
+        OffsetDateTime.of(2005, 1, 1, 0, 0, 0, 0, UTC),
+        pem,
+        pem
+      );
+
+    final var certificate0Updated =
+      new CSCertificateStored(
+        "example.org",
+        new CSCertificateName("www"),
+        OffsetDateTime.of(2006, 1, 1, 0, 0, 0, 0, UTC),
+        OffsetDateTime.of(2007, 1, 1, 0, 0, 0, 0, UTC),
+        pem,
+        pem + pem
+      );
+
+    try (var store = this.stores.open(NOOP, this.file)) {
+      store.put(certificate0);
+      store.put(certificate1);
+      store.put(certificate2);
+      store.put(certificate0Updated);
+
+      final var received = new ArrayList<CSCertificateStored>();
+      store.forEach(received::add);
+
+      assertEquals(3, received.size());
+      assertEquals(
+        Set.of(certificate0Updated, certificate1, certificate2),
+        Set.copyOf(received)
+      );
+      assertEquals(
+        List.of(certificate1, certificate2, certificate0Updated),
+        store.all()
+      );
+    }
+  }
+
+  @Test
+  public void testSameNameDifferentDomains()
+    throws Exception
+  {
+    final var www =
+      new CSCertificateName("www");
+
+    final var certificate0 =
+      new CSCertificateStored(
+        "example.com",
+        www,
+        OffsetDateTime.of(2000, 1, 1, 0, 0, 0, 0, UTC),
+        OffsetDateTime.of(2001, 1, 1, 0, 0, 0, 0, UTC),
+        "-- BEGIN CERTIFICATE --",
+        "-- BEGIN CERTIFICATE --"
+      );
+
+    final var certificate1 =
+      new CSCertificateStored(
+        "example.org",
+        www,
+        OffsetDateTime.of(2002, 1, 1, 0, 0, 0, 0, UTC),
+        OffsetDateTime.of(2003, 1, 1, 0, 0, 0, 0, UTC),
+        "-- BEGIN CERTIFICATE --",
+        "-- BEGIN CERTIFICATE --"
+      );
+
+    try (var store = this.stores.open(NOOP, this.file)) {
+      store.put(certificate0);
+      store.put(certificate1);
+      assertEquals(
+        List.of(certificate0, certificate1),
+        store.all()
+      );
+    }
+  }
+
+  @Test
+  public void testHistory()
+    throws Exception
+  {
+    final var pem =
+      CSTestResources.resourceOf("fake.crt");
+
+    final var www =
+      new CSCertificateName("www");
+
+    try (var store = this.stores.open(NOOP, this.file)) {
+      for (int index = 0; index < 4; ++index) {
+        store.put(
+          new CSCertificateStored(
+            "example.com",
+            www,
+            OffsetDateTime.of(2000 + index, 1, 1, 0, 0, 0, 0, UTC),
+            OffsetDateTime.of(2001 + index, 1, 1, 0, 0, 0, 0, UTC),
+            pem,
+            pem + "# Chain %d\n".formatted(Integer.valueOf(index))
+          )
+        );
+      }
+
+      final var history = store.history("example.com", www);
+      assertEquals(4, history.size());
+      for (int index = 0; index < 4; ++index) {
+        final var entry = history.get(index);
+        assertEquals(
+          OffsetDateTime.of(2003 - index, 1, 1, 0, 0, 0, 0, UTC),
+          entry.issuedOn()
+        );
+        assertTrue(entry.serial().isPresent());
+      }
+
+      assertEquals(
+        1L,
+        store.historyPrune(
+          new CSCertificateHistoryConfiguration(3, Optional.empty()),
+          OffsetDateTime.of(2010, 1, 1, 0, 0, 0, 0, UTC)
+        )
+      );
+      assertEquals(3, store.history("example.com", www).size());
+
+      assertEquals(
+        2L,
+        store.historyPrune(
+          new CSCertificateHistoryConfiguration(
+            3, Optional.of(Duration.ofDays(365L))),
+          OffsetDateTime.of(2010, 1, 1, 0, 0, 0, 0, UTC)
+        )
+      );
+
+      final var remaining = store.history("example.com", www);
+      assertEquals(1, remaining.size());
+      assertEquals(
+        OffsetDateTime.of(2003, 1, 1, 0, 0, 0, 0, UTC),
+        remaining.get(0).issuedOn()
+      );
+      assertTrue(store.find("example.com", www).isPresent());
+    }
+  }
+
+  @Test
+  public void testBackup()
+    throws Exception
+  {
+    final var pem =
+      CSTestResources.resourceOf("fake.crt");
+
+    final var certificates = new ArrayList<CSCertificateStored>();
+    for (final var name : List.of("a", "b", "c")) {
+      certificates.add(
+        new CSCertificateStored(
+          "example.com",
+          new CSCertificateName(name),
+          OffsetDateTime.of(2000, 1, 1, 0, 0, 0, 0, UTC),
+          OffsetDateTime.of(2001, 1, 1, 0, 0, 0, 0, UTC),
+          pem,
+          pem + pem
+        )
+      );
+    }
+
+    final var backup =
+      this.directory.resolve("backup.db");
+
+    try (var store = this.stores.open(NOOP, this.file)) {
+      for (final var certificate : certificates) {
+        store.put(certificate);
+      }
+
+      store.backup(backup);
+      store.backup(backup);
+
+      assertTrue(store.delete("example.com", new CSCertificateName("a")));
+      store.maintain();
+      assertEquals(certificates.subList(1, 3), store.all());
+    }
+
+    try (var store = this.stores.open(NOOP, backup)) {
+      assertEquals(certificates, store.all());
+      assertEquals(1, store.history("example.com", new CSCertificateName("a")).size());
+    }
+  }
+
+  /**
+   * Maintenance returns every free page to the filesystem.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testMaintainReleasesFreePages()
+    throws Exception
+  {
+    final var text =
+      "-- NOT A CERTIFICATE --\n".repeat(256);
+
+    try (var store = this.stores.open(NOOP, this.file)) {
+      for (int index = 0; index < 100; ++index) {
+        store.put(
+          new CSCertificateStored(
+            "example.com",
+            new CSCertificateName("c" + index),
+            OffsetDateTime.of(2000, 1, 1, 0, 0, 0, 0, UTC),
+            OffsetDateTime.of(2001, 1, 1, 0, 0, 0, 0, UTC),
+            text + index,
+            text + index
+          )
+        );
+      }
+      for (int index = 0; index < 100; ++index) {
+        assertTrue(store.delete("example.com", new CSCertificateName("c" + index)));
+      }
+    }
+
+    assertTrue(this.queryLong("PRAGMA freelist_count") > 0L);
+
+    try (var store = this.stores.open(NOOP, this.file)) {
+      store.maintain();
+    }
+
+    assertEquals(0L, this.queryLong("PRAGMA freelist_count"));
+  }
+
+  @Test
+  public void testOutputDigests()
+    throws Exception
+  {
+    final var www =
+      new CSCertificateName("www");
+    final var certificate =
+      new CSCertificateStored(
+        "example.com",
+        www,
+        OffsetDateTime.of(2000, 1, 1, 0, 0, 0, 0, UTC),
+        OffsetDateTime.of(2001, 1, 1, 0, 0, 0, 0, UTC),
+        CSTestResources.resourceOf("fake.crt"),
+        CSTestResources.resourceOf("fake.crt")
+      );
+
+    final var digest0 =
+      new CSCertificateOutputDigest(
+        "a", OffsetDateTime.of(2000, 1, 1, 0, 0, 0, 0, UTC));
+    final var digest1 =
+      new CSCertificateOutputDigest(
+        "b", OffsetDateTime.of(2000, 1, 2, 0, 0, 0, 0, UTC));
+
+    try (var store = this.stores.open(NOOP, this.file)) {
+      assertThrows(IOException.class, () -> {
+        store.outputDigestPut("example.com", www, "out0", digest0);
+      });
+
+      store.put(certificate);
+      assertEquals(
+        Optional.empty(),
+        store.outputDigest("example.com", www, "out0")
+      );
+
+      store.outputDigestPut("example.com", www, "out0", digest0);
+      store.outputDigestPut("example.com", www, "out1", digest0);
+      store.outputDigestPut("example.com", www, "out0", digest1);
+      assertEquals(
+        Optional.of(digest1),
+        store.outputDigest("example.com", www, "out0")
+      );
+      assertEquals(
+        Optional.of(digest0),
+        store.outputDigest("example.com", www, "out1")
+      );
+
+      store.outputDigestsClear();
+      assertEquals(
+        Optional.empty(),
+        store.outputDigest("example.com", www, "out0")
+      );
+
+      store.outputDigestPut("example.com", www, "out0", digest0);
+      store.delete("example.com", www);
+      store.put(certificate);
+      assertEquals(
+        Optional.empty(),
+        store.outputDigest("example.com", www, "out0")
+      );
+    }
+  }
+
+  /**
+   * Pending output deliveries are stored and returned when due.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testOutputRetries()
+    throws Exception
+  {
+    final var www =
+      new CSCertificateName("www");
+    final var certificate =
+      new CSCertificateStored(
+        "example.com",
+        www,
+        OffsetDateTime.of(2000, 1, 1, 0, 0, 0, 0, UTC),
+        OffsetDateTime.of(2001, 1, 1, 0, 0, 0, 0, UTC),
+        CSTestResources.resourceOf("fake.crt"),
+        CSTestResources.resourceOf("fake.crt")
+      );
+
+    final var retry0 =
+      new CSCertificateOutputRetry(
+        "example.com",
+        www,
+        "out0",
+        1,
+        OffsetDateTime.of(2000, 1, 1, 0, 2, 0, 0, UTC)
+      );
+    final var retry1 =
+      new CSCertificateOutputRetry(
+        "example.com",
+        www,
+        "out1",
+        1,
+        OffsetDateTime.of(2000, 1, 1, 0, 1, 0, 0, UTC)
+      );
+    final var retry0Again =
+      new CSCertificateOutputRetry(
+        "example.com",
+        www,
+        "out0",
+        2,
+        OffsetDateTime.of(2000, 1, 1, 1, 0, 0, 0, UTC)
+      );
+
+    try (var store = this.stores.open(NOOP, this.file)) {
+      assertThrows(IOException.class, () -> {
+        store.outputRetryPut(retry0);
+      });
+
+      store.put(certificate);
+      store.outputRetryPut(retry0);
+      store.outputRetryPut(retry1);
+
+      assertEquals(
+        List.of(),
+        store.outputRetriesDue(OffsetDateTime.of(2000, 1, 1, 0, 0, 0, 0, UTC))
+      );
+      assertEquals(
+        List.of(retry1),
+        store.outputRetriesDue(OffsetDateTime.of(2000, 1, 1, 0, 1, 0, 0, UTC))
+      );
+      assertEquals(
+        List.of(retry1, retry0),
+        store.outputRetriesDue(OffsetDateTime.of(2000, 1, 1, 0, 2, 0, 0, UTC))
+      );
+
+      store.outputRetryPut(retry0Again);
+      assertEquals(
+        List.of(retry1),
+        store.outputRetriesDue(OffsetDateTime.of(2000, 1, 1, 0, 2, 0, 0, UTC))
+      );
+
+      assertTrue(store.outputRetryDelete("example.com", www, "out1"));
+      assertFalse(store.outputRetryDelete("example.com", www, "out1"));
+      assertEquals(
+        List.of(retry0Again),
+        store.outputRetriesDue(OffsetDateTime.of(2000, 1, 2, 0, 0, 0, 0, UTC))
+      );
+
+      store.delete("example.com", www);
+      store.put(certificate);
+      assertEquals(
+        List.of(),
+        store.outputRetriesDue(OffsetDateTime.of(2000, 1, 2, 0, 0, 0, 0, UTC))
+      );
+    }
+  }
+
+  /**
+   * Journal entries are stored, queried by each filter, and pruned.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testJournal()
+    throws Exception
+  {
+    final var www =
+      new CSCertificateName("www");
+    final var mail =
+      new CSCertificateName("mail");
+
+    final var entry0 =
+      new CSCertificateJournalEntry(
+        OffsetDateTime.of(2000, 1, 1, 0, 0, 0, 0, UTC),
+        "example.com",
+        www,
+        "CSEventCertificateRenewalFailed",
+        true,
+        "certificate renewal failed",
+        Map.of("certusine.domain", "example.com")
+      );
+    final var entry1 =
+      new CSCertificateJournalEntry(
+        OffsetDateTime.of(2000, 1, 2, 0, 0, 0, 0, UTC),
+        "example.com",
+        www,
+        "CSEventCertificateRenewalSucceeded",
+        false,
+        "certificate renewal succeeded",
+        Map.of()
+      );
+    final var entry2 =
+      new CSCertificateJournalEntry(
+        OffsetDateTime.of(2000, 1, 3, 0, 0, 0, 0, UTC),
+        "example.org",
+        mail,
+        "CSEventCertificateStored",
+        false,
+        "certificate storage succeeded",
+        Map.of("certusine.target", "out0", "certusine.domain", "example.org")
+      );
+
+    final var all =
+      new CSCertificateJournalQuery(
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        100
+      );
+
+    try (var store = this.stores.open(NOOP, this.file)) {
+      store.journalPut(List.of(entry0, entry1));
+      store.journalPut(List.of(entry2));
+    }
+
+    try (var store = this.stores.open(NOOP, this.file)) {
+      assertEquals(
+        List.of(entry2, entry1, entry0),
+        store.journal(all)
+      );
+      assertEquals(
+        List.of(entry1, entry0),
+        store.journal(new CSCertificateJournalQuery(
+          Optional.of("example.com"),
+          Optional.of(www),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          100
+        ))
+      );
+      assertEquals(
+        List.of(entry2),
+        store.journal(new CSCertificateJournalQuery(
+          Optional.empty(),
+          Optional.empty(),
+          Optional.of("CSEventCertificateStored"),
+          Optional.empty(),
+          Optional.empty(),
+          100
+        ))
+      );
+      assertEquals(
+        List.of(entry1),
+        store.journal(new CSCertificateJournalQuery(
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.of(entry1.time()),
+          Optional.of(entry2.time()),
+          100
+        ))
+      );
+      assertEquals(
+        List.of(entry2),
+        store.journal(new CSCertificateJournalQuery(
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          1
+        ))
+      );
+
+      assertEquals(2L, store.journalPrune(entry2.time()));
+      assertEquals(List.of(entry2), store.journal(all));
+    }
+  }
+
+  /**
+   * Queries with a limit return the newest matching entries, with their
+   * attributes, even when many entries are stored.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testJournalLimitNewest()
+    throws Exception
+  {
+    final var www =
+      new CSCertificateName("www");
+    final var base =
+      OffsetDateTime.of(2000, 1, 1, 0, 0, 0, 0, UTC);
+
+    final var entries = new ArrayList<CSCertificateJournalEntry>();
+    for (int index = 0; index < 2500; ++index) {
+      entries.add(
+        new CSCertificateJournalEntry(
+          base.plusSeconds(index),
+          "example.com",
+          www,
+          index % 2 == 0 ? "CSEventCertificateStored" : "CSEventOther",
+          false,
+          "message %d".formatted(Integer.valueOf(index)),
+          Map.of("certusine.index", Integer.toString(index))
+        )
+      );
+    }
+
+    final var expected = new ArrayList<CSCertificateJournalEntry>();
+    for (int index = entries.size() - 1; index >= 0; --index) {
+      final var entry = entries.get(index);
+      if (entry.type().equals("CSEventCertificateStored")
+          && expected.size() < 1100) {
+        expected.add(entry);
+      }
+    }
+
+    try (var store = this.stores.open(NOOP, this.file)) {
+      store.journalPut(entries);
+
+      assertEquals(
+        expected,
+        store.journal(new CSCertificateJournalQuery(
+          Optional.empty(),
+          Optional.empty(),
+          Optional.of("CSEventCertificateStored"),
+          Optional.empty(),
+          Optional.empty(),
+          1100
+        ))
+      );
+      assertEquals(
+        List.of(entries.get(2498), entries.get(2497)),
+        store.journal(new CSCertificateJournalQuery(
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.of(entries.get(2499).time()),
+          2
+        ))
+      );
+    }
+  }
 }
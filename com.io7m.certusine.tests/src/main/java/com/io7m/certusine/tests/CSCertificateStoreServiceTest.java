@@ -0,0 +1,223 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.certusine.tests;
+
+import com.io7m.certusine.api.CSCertificateHistoryConfiguration;
+import com.io7m.certusine.api.CSCertificateName;
+import com.io7m.certusine.api.CSConfiguration;
+import com.io7m.certusine.api.CSConfigurationServiceType;
+import com.io7m.certusine.api.CSEventJournalConfiguration;
+import com.io7m.certusine.api.CSEventQueueConfiguration;
+import com.io7m.certusine.api.CSFaultInjectionConfiguration;
+import com.io7m.certusine.api.CSOptions;
+import com.io7m.certusine.api.CSTelemetryNoOp;
+import com.io7m.certusine.certstore.api.CSCertificateStored;
+import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreEventDeleted;
+import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreEventReloaded;
+import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreEventType;
+import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreEventUpdated;
+import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreSQLiteFactory;
+import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+import static java.time.ZoneOffset.UTC;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+public final class CSCertificateStoreServiceTest
+{
+  private Path directory;
+  private CSConfigurationServiceType configurations;
+  private SubmissionPublisher<CSConfiguration> configurationEvents;
+  private LinkedBlockingQueue<CSCertificateStoreEventType> received;
+
+  private static CSConfiguration configurationFor(
+    final Path file)
+  {
+    return new CSConfiguration(
+      new CSOptions(
+        false,
+        file,
+        "sqlite",
+        Duration.ofMinutes(5L),
+        Duration.ofHours(72L),
+        Optional.empty(),
+        CSFaultInjectionConfiguration.disabled(),
+        CSCertificateHistoryConfiguration.defaults(),
+        CSEventQueueConfiguration.defaults(),
+        CSEventJournalConfiguration.defaults()
+      ),
+      Map.of()
+    );
+  }
+
+  @BeforeEach
+  public void setup()
+    throws IOException
+  {
+    this.directory =
+      CSTestDirectories.createTempDirectory();
+    this.configurationEvents =
+      new SubmissionPublisher<>();
+    this.received =
+      new LinkedBlockingQueue<>();
+    this.configurations =
+      Mockito.mock(CSConfigurationServiceType.class);
+
+    when(this.configurations.configuration())
+      .thenReturn(configurationFor(this.directory.resolve("store.db")));
+    when(this.configurations.events())
+      .thenReturn(this.configurationEvents);
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws IOException
+  {
+    this.configurationEvents.close();
+    CSTestDirectories.deleteDirectory(this.directory);
+  }
+
+  private CSCertificateStoreEventType next()
+    throws InterruptedException
+  {
+    return this.received.poll(5L, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Successful modifications to the store are published, in order.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testModificationsPublished()
+    throws Exception
+  {
+    final var www =
+      new CSCertificateName("www");
+
+    final var certificate =
+      new CSCertificateStored(
+        "example.com",
+        www,
+        OffsetDateTime.of(2000, 1, 1, 0, 0, 0, 0, UTC),
+        OffsetDateTime.of(2001, 1, 1, 0, 0, 0, 0, UTC),
+        "-- BEGIN CERTIFICATE --",
+        "-- BEGIN CERTIFICATE --"
+      );
+
+    try (var service = CSCertificateStoreService.store(
+      CSTelemetryNoOp.noop(),
+      this.configurations,
+      List.of(new CSCertificateStoreSQLiteFactory()))) {
+
+      service.events().subscribe(new Collector(this.received));
+
+      final var store = service.store();
+      store.put(certificate);
+      assertFalse(store.delete("example.com", new CSCertificateName("x")));
+      store.delete("example.com", www);
+
+      assertEquals(new CSCertificateStoreEventUpdated(certificate), this.next());
+      assertEquals(new CSCertificateStoreEventDeleted("example.com", www), this.next());
+      assertNull(this.received.poll(100L, TimeUnit.MILLISECONDS));
+    }
+  }
+
+  /**
+   * Replacing the store due to a configuration change is published.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReloadPublished()
+    throws Exception
+  {
+    try (var service = CSCertificateStoreService.store(
+      CSTelemetryNoOp.noop(),
+      this.configurations,
+      List.of(new CSCertificateStoreSQLiteFactory()))) {
+
+      service.events().subscribe(new Collector(this.received));
+
+      final var newFile =
+        this.directory.resolve("store2.db").toAbsolutePath();
+
+      this.configurationEvents.submit(configurationFor(newFile));
+      assertEquals(new CSCertificateStoreEventReloaded(newFile), this.next());
+    }
+  }
+
+  private static final class Collector
+    implements Flow.Subscriber<CSCertificateStoreEventType>
+  {
+    private final LinkedBlockingQueue<CSCertificateStoreEventType> queue;
+
+    Collector(
+      final LinkedBlockingQueue<CSCertificateStoreEventType> inQueue)
+    {
+      this.queue = inQueue;
+    }
+
+    @Override
+    public void onSubscribe(
+      final Flow.Subscription subscription)
+    {
+      subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(
+      final CSCertificateStoreEventType item)
+    {
+      this.queue.add(item);
+    }
+
+    @Override
+    public void onError(
+      final Throwable throwable)
+    {
+
+    }
+
+    @Override
+    public void onComplete()
+    {
+
+    }
+  }
+}
@@ -19,8 +19,11 @@ package com.io7m.certusine.tests;
 
 import com.io7m.certusine.api.CSAccount;
 import com.io7m.certusine.api.CSCertificate;
+import com.io7m.certusine.api.CSCertificateHistoryConfiguration;
 import com.io7m.certusine.api.CSCertificateName;
 import com.io7m.certusine.api.CSDomain;
+import com.io7m.certusine.api.CSEventJournalConfiguration;
+import com.io7m.certusine.api.CSEventQueueConfiguration;
 import com.io7m.certusine.api.CSFaultInjectionConfiguration;
 import com.io7m.certusine.api.CSOptions;
 import com.io7m.certusine.api.CSTelemetryNoOp;
@@ -128,10 +131,14 @@ public final class CSCertificateTaskAuthorizeDNSHandleChallengesTest
       new CSOptions(
         false,
         this.file,
+        "sqlite",
         Duration.ofSeconds(1L),
         Duration.ofDays(1L),
         Optional.empty(),
-        CSFaultInjectionConfiguration.disabled()
+        CSFaultInjectionConfiguration.disabled(),
+        CSCertificateHistoryConfiguration.defaults(),
+        CSEventQueueConfiguration.defaults(),
+        CSEventJournalConfiguration.defaults()
       );
     this.dns =
       new CSFakeDNSConfigurator();
@@ -211,6 +218,7 @@ public final class CSCertificateTaskAuthorizeDNSHandleChallengesTest
         this.strings,
         Mockito.mock(CSEventServiceType.class),
         CSTelemetryNoOp.noop(),
+        CSTestMetrics.metrics(),
         this.options,
         this.certificateStores,
         this.clock,
@@ -268,6 +276,7 @@ public final class CSCertificateTaskAuthorizeDNSHandleChallengesTest
         this.strings,
         Mockito.mock(CSEventServiceType.class),
         CSTelemetryNoOp.noop(),
+        CSTestMetrics.metrics(),
         this.options,
         this.certificateStores,
         this.clock,
@@ -322,6 +331,7 @@ public final class CSCertificateTaskAuthorizeDNSHandleChallengesTest
         this.strings,
         Mockito.mock(CSEventServiceType.class),
         CSTelemetryNoOp.noop(),
+        CSTestMetrics.metrics(),
         this.options,
         this.certificateStores,
         this.clock,
@@ -372,6 +382,7 @@ public final class CSCertificateTaskAuthorizeDNSHandleChallengesTest
         this.strings,
         Mockito.mock(CSEventServiceType.class),
         CSTelemetryNoOp.noop(),
+        CSTestMetrics.metrics(),
         this.options,
         this.certificateStores,
         this.clock,
@@ -432,6 +443,7 @@ public final class CSCertificateTaskAuthorizeDNSHandleChallengesTest
         this.strings,
         Mockito.mock(CSEventServiceType.class),
         CSTelemetryNoOp.noop(),
+        CSTestMetrics.metrics(),
         this.options,
         this.certificateStores,
         this.clock,
@@ -477,6 +489,7 @@ public final class CSCertificateTaskAuthorizeDNSHandleChallengesTest
         this.strings,
         Mockito.mock(CSEventServiceType.class),
         CSTelemetryNoOp.noop(),
+        CSTestMetrics.metrics(),
         this.options,
         this.certificateStores,
         this.clock,
@@ -556,6 +569,7 @@ public final class CSCertificateTaskAuthorizeDNSHandleChallengesTest
         this.strings,
         Mockito.mock(CSEventServiceType.class),
         CSTelemetryNoOp.noop(),
+        CSTestMetrics.metrics(),
         this.options,
         this.certificateStores,
         this.clock,
@@ -637,6 +651,7 @@ public final class CSCertificateTaskAuthorizeDNSHandleChallengesTest
         this.strings,
         Mockito.mock(CSEventServiceType.class),
         CSTelemetryNoOp.noop(),
+        CSTestMetrics.metrics(),
         this.options,
         this.certificateStores,
         this.clock,
@@ -724,6 +739,7 @@ public final class CSCertificateTaskAuthorizeDNSHandleChallengesTest
         this.strings,
         Mockito.mock(CSEventServiceType.class),
         CSTelemetryNoOp.noop(),
+        CSTestMetrics.metrics(),
         this.options,
         this.certificateStores,
         this.clock,
@@ -803,6 +819,7 @@ public final class CSCertificateTaskAuthorizeDNSHandleChallengesTest
         this.strings,
         Mockito.mock(CSEventServiceType.class),
         CSTelemetryNoOp.noop(),
+        CSTestMetrics.metrics(),
         this.options,
         this.certificateStores,
         this.clock,
@@ -19,8 +19,11 @@ package com.io7m.certusine.tests;
 
 import com.io7m.certusine.api.CSAccount;
 import com.io7m.certusine.api.CSCertificate;
+import com.io7m.certusine.api.CSCertificateHistoryConfiguration;
 import com.io7m.certusine.api.CSCertificateName;
 import com.io7m.certusine.api.CSDomain;
+import com.io7m.certusine.api.CSEventJournalConfiguration;
+import com.io7m.certusine.api.CSEventQueueConfiguration;
 import com.io7m.certusine.api.CSFaultInjectionConfiguration;
 import com.io7m.certusine.api.CSOptions;
 import com.io7m.certusine.api.CSTelemetryNoOp;
@@ -123,10 +126,14 @@ public final class CSCertificateTaskAuthorizeDNSInitialTest
       new CSOptions(
         false,
         this.file,
+        "sqlite",
         Duration.ofSeconds(1L),
         Duration.ofDays(1L),
         Optional.empty(),
-        CSFaultInjectionConfiguration.disabled()
+        CSFaultInjectionConfiguration.disabled(),
+        CSCertificateHistoryConfiguration.defaults(),
+        CSEventQueueConfiguration.defaults(),
+        CSEventJournalConfiguration.defaults()
       );
     this.dns =
       new CSFakeDNSConfigurator();
@@ -204,6 +211,7 @@ public final class CSCertificateTaskAuthorizeDNSInitialTest
         this.strings,
         Mockito.mock(CSEventServiceType.class),
         CSTelemetryNoOp.noop(),
+        CSTestMetrics.metrics(),
         this.options,
         this.certificateStores,
         this.clock,
@@ -265,6 +273,7 @@ public final class CSCertificateTaskAuthorizeDNSInitialTest
         this.strings,
         Mockito.mock(CSEventServiceType.class),
         CSTelemetryNoOp.noop(),
+        CSTestMetrics.metrics(),
         this.options,
         this.certificateStores,
         this.clock,
@@ -319,6 +328,7 @@ public final class CSCertificateTaskAuthorizeDNSInitialTest
         this.strings,
         Mockito.mock(CSEventServiceType.class),
         CSTelemetryNoOp.noop(),
+        CSTestMetrics.metrics(),
         this.options,
         this.certificateStores,
         this.clock,
@@ -401,6 +411,7 @@ public final class CSCertificateTaskAuthorizeDNSInitialTest
         this.strings,
         Mockito.mock(CSEventServiceType.class),
         CSTelemetryNoOp.noop(),
+        CSTestMetrics.metrics(),
         this.options,
         this.certificateStores,
         this.clock,
@@ -0,0 +1,366 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.tests;
+
+import com.io7m.certusine.api.CSAccount;
+import com.io7m.certusine.api.CSCertificate;
+import com.io7m.certusine.api.CSCertificateHistoryConfiguration;
+import com.io7m.certusine.api.CSCertificateName;
+import com.io7m.certusine.api.CSDomain;
+import com.io7m.certusine.api.CSEventJournalConfiguration;
+import com.io7m.certusine.api.CSEventQueueConfiguration;
+import com.io7m.certusine.api.CSFaultInjectionConfiguration;
+import com.io7m.certusine.api.CSOptions;
+import com.io7m.certusine.api.CSTelemetryNoOp;
+import com.io7m.certusine.certstore.api.CSCertificateOutputRetry;
+import com.io7m.certusine.certstore.api.CSCertificateStored;
+import com.io7m.certusine.vanilla.internal.CSStrings;
+import com.io7m.certusine.vanilla.internal.events.CSEventServiceType;
+import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreServiceType;
+import com.io7m.certusine.vanilla.internal.tasks.CSCertificateTaskCompleted;
+import com.io7m.certusine.vanilla.internal.tasks.CSCertificateTaskContext;
+import com.io7m.certusine.vanilla.internal.tasks.CSCertificateTaskFailedButCanBeRetried;
+import com.io7m.certusine.vanilla.internal.tasks.CSCertificateTaskSignCertificateSaveToOutputs;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.shredzone.acme4j.Account;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.util.Map.entry;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+public final class CSCertificateTaskSignCertificateSaveToOutputsTest
+{
+  private Path directory;
+  private CSFakeClock clock;
+  private CSFakeCertificateOutput output0;
+  private CSFakeCertificateOutput output1;
+  private CSFakeCertificateStore certificates;
+  private CSCertificate certificate0;
+  private CSDomain domain;
+  private CSCertificateTaskContext context;
+
+  private static KeyPair generateKeyPair()
+    throws Exception
+  {
+    final var parameterSpec =
+      new ECGenParameterSpec("secp384r1");
+    final var generator =
+      KeyPairGenerator.getInstance("EC");
+
+    generator.initialize(parameterSpec, new SecureRandom());
+    return generator.generateKeyPair();
+  }
+
+  private static CSCertificateStored stored(
+    final String text)
+  {
+    return new CSCertificateStored(
+      "example.com",
+      new CSCertificateName("www"),
+      OffsetDateTime.parse("2000-01-01T00:00:00+00:00"),
+      OffsetDateTime.parse("2001-01-01T00:00:00+00:00"),
+      text,
+      text
+    );
+  }
+
+  @BeforeEach
+  public void setup()
+    throws Exception
+  {
+    this.directory =
+      CSTestDirectories.createTempDirectory();
+    this.clock =
+      new CSFakeClock();
+    this.output0 =
+      new CSFakeCertificateOutput("output0");
+    this.output1 =
+      new CSFakeCertificateOutput("output1");
+    this.certificates =
+      new CSFakeCertificateStore();
+
+    final var certificateStores =
+      Mockito.mock(CSCertificateStoreServiceType.class);
+    Mockito.when(certificateStores.store())
+      .thenReturn(this.certificates);
+
+    this.certificate0 =
+      new CSCertificate(
+        new CSCertificateName("www"),
+        generateKeyPair(),
+        List.of("www"));
+
+    this.domain =
+      new CSDomain(
+        new CSAccount(generateKeyPair(), URI.create("http://localhost:20000")),
+        "example.com",
+        Map.ofEntries(entry("www", this.certificate0)),
+        new CSFakeDNSConfigurator(),
+        Map.ofEntries(
+          entry("output0", this.output0),
+          entry("output1", this.output1)
+        )
+      );
+
+    this.context =
+      new CSCertificateTaskContext(
+        new CSStrings(Locale.ROOT),
+        Mockito.mock(CSEventServiceType.class),
+        CSTelemetryNoOp.noop(),
+        CSTestMetrics.metrics(),
+        new CSOptions(
+          false,
+          this.directory.resolve("store.db"),
+          "sqlite",
+          Duration.ofSeconds(1L),
+          Duration.ofDays(1L),
+          Optional.empty(),
+          CSFaultInjectionConfiguration.disabled(),
+          CSCertificateHistoryConfiguration.defaults(),
+          CSEventQueueConfiguration.defaults(),
+          CSEventJournalConfiguration.defaults()
+        ),
+        certificateStores,
+        this.clock,
+        Mockito.mock(Account.class),
+        this.domain,
+        this.certificate0,
+        3,
+        new CSFakeDNSQueriesFactory(s -> new CSFakeDNSQueries())
+      );
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws Exception
+  {
+    CSTestDirectories.deleteDirectory(this.directory);
+  }
+
+  private void executeAt(
+    final String time)
+    throws Exception
+  {
+    this.clock.times.add(OffsetDateTime.parse(time).toInstant());
+
+    final var task =
+      new CSCertificateTaskSignCertificateSaveToOutputs(this.context);
+
+    assertInstanceOf(CSCertificateTaskCompleted.class, task.execute());
+  }
+
+  /**
+   * Unchanged certificates are not written to outputs again until the
+   * refresh interval has elapsed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testUnchangedNotWritten()
+    throws Exception
+  {
+    this.certificates.put(stored("-- BEGIN CERTIFICATE --"));
+
+    this.executeAt("2000-01-01T00:00:00+00:00");
+    assertEquals(1, this.output0.requests().size());
+    assertEquals(1, this.output1.requests().size());
+
+    this.executeAt("2000-01-01T01:00:00+00:00");
+    assertEquals(1, this.output0.requests().size());
+    assertEquals(1, this.output1.requests().size());
+
+    this.executeAt("2000-01-02T01:00:00+00:00");
+    assertEquals(2, this.output0.requests().size());
+    assertEquals(2, this.output1.requests().size());
+  }
+
+  /**
+   * Unchanged certificates are never written again to outputs that do not
+   * accept periodic rewrites.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testUnchangedNotRefreshed()
+    throws Exception
+  {
+    this.output1.setRefreshed(false);
+    this.certificates.put(stored("-- BEGIN CERTIFICATE --"));
+
+    this.executeAt("2000-01-01T00:00:00+00:00");
+    assertEquals(1, this.output0.requests().size());
+    assertEquals(1, this.output1.requests().size());
+
+    this.executeAt("2000-01-02T01:00:00+00:00");
+    assertEquals(2, this.output0.requests().size());
+    assertEquals(1, this.output1.requests().size());
+
+    this.certificates.put(stored("-- BEGIN CERTIFICATE 2 --"));
+
+    this.executeAt("2000-01-02T02:00:00+00:00");
+    assertEquals(3, this.output0.requests().size());
+    assertEquals(2, this.output1.requests().size());
+  }
+
+  /**
+   * Changed certificates are written to outputs.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testChangedWritten()
+    throws Exception
+  {
+    this.certificates.put(stored("-- BEGIN CERTIFICATE --"));
+
+    this.executeAt("2000-01-01T00:00:00+00:00");
+    assertEquals(1, this.output0.requests().size());
+    assertEquals(1, this.output1.requests().size());
+
+    this.certificates.put(stored("-- BEGIN CERTIFICATE 2 --"));
+
+    this.executeAt("2000-01-01T01:00:00+00:00");
+    assertEquals(2, this.output0.requests().size());
+    assertEquals(2, this.output1.requests().size());
+  }
+
+  /**
+   * Clearing the output digests forces certificates to be written.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testForced()
+    throws Exception
+  {
+    this.certificates.put(stored("-- BEGIN CERTIFICATE --"));
+
+    this.executeAt("2000-01-01T00:00:00+00:00");
+    assertEquals(1, this.output0.requests().size());
+    assertEquals(1, this.output1.requests().size());
+
+    this.certificates.outputDigestsClear();
+
+    this.executeAt("2000-01-01T01:00:00+00:00");
+    assertEquals(2, this.output0.requests().size());
+    assertEquals(2, this.output1.requests().size());
+  }
+
+  /**
+   * Failed writes are scheduled to be retried in the background, and do not
+   * cause the task to fail.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testFailedQueued()
+    throws Exception
+  {
+    this.certificates.put(stored("-- BEGIN CERTIFICATE --"));
+    this.output1.setFailing(true);
+
+    this.executeAt("2000-01-01T00:00:00+00:00");
+    assertEquals(1, this.output0.requests().size());
+    assertEquals(1, this.output1.requests().size());
+
+    assertEquals(
+      List.of(
+        new CSCertificateOutputRetry(
+          "example.com",
+          new CSCertificateName("www"),
+          "output1",
+          1,
+          OffsetDateTime.parse("2000-01-01T00:01:00+00:00")
+        )
+      ),
+      List.copyOf(this.certificates.outputRetries.values())
+    );
+    assertEquals(
+      Optional.empty(),
+      this.certificates.outputDigest(
+        "example.com", new CSCertificateName("www"), "output1")
+    );
+
+    /*
+     * A later successful write removes the pending delivery.
+     */
+
+    this.output1.setFailing(false);
+    this.executeAt("2000-01-01T01:00:00+00:00");
+    assertEquals(1, this.output0.requests().size());
+    assertEquals(2, this.output1.requests().size());
+    assertEquals(Map.of(), this.certificates.outputRetries);
+  }
+
+  /**
+   * Retrying a task only writes to the outputs that failed. A task is only
+   * retried if failed writes cannot be scheduled to be retried in the
+   * background.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRetryOnlyFailed()
+    throws Exception
+  {
+    this.certificates.put(stored("-- BEGIN CERTIFICATE --"));
+    this.certificates.outputRetriesFailing = true;
+    this.output1.setFailing(true);
+
+    final var task =
+      new CSCertificateTaskSignCertificateSaveToOutputs(this.context);
+
+    this.clock.times.add(
+      OffsetDateTime.parse("2000-01-01T00:00:00+00:00").toInstant());
+    assertInstanceOf(
+      CSCertificateTaskFailedButCanBeRetried.class, task.execute());
+    assertEquals(1, this.output0.requests().size());
+    assertEquals(1, this.output1.requests().size());
+
+    this.output1.setFailing(false);
+
+    this.clock.times.add(
+      OffsetDateTime.parse("2000-01-01T00:01:00+00:00").toInstant());
+    assertInstanceOf(CSCertificateTaskCompleted.class, task.execute());
+    assertEquals(1, this.output0.requests().size());
+    assertEquals(2, this.output1.requests().size());
+  }
+}
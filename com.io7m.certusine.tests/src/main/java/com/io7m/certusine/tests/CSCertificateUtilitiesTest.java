@@ -19,10 +19,14 @@ package com.io7m.certusine.tests;
 
 
 import com.io7m.certusine.api.CSCertificateName;
+import com.io7m.certusine.api.CSConfiguration;
+import com.io7m.certusine.api.CSConfigurationServiceType;
+import com.io7m.certusine.api.CSDomain;
 import com.io7m.certusine.api.CSTelemetryNoOp;
 import com.io7m.certusine.certstore.api.CSCertificateStored;
 import com.io7m.certusine.vanilla.CSCertificateUtilities;
 import com.io7m.certusine.vanilla.CSServices;
+import com.io7m.certusine.vanilla.internal.delivery.CSOutputDeliveries;
 import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreServiceType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -35,8 +39,11 @@ import java.time.Clock;
 import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.Locale;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public final class CSCertificateUtilitiesTest
 {
@@ -253,4 +260,102 @@ public final class CSCertificateUtilitiesTest
 
     assertEquals(0, store.all().size());
   }
+
+  /**
+   * Completing a pass flushes the output instances that received writes
+   * during the pass, even though the configuration service has since handed
+   * out a configuration with different output instances.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCompletePassFlushesPassOutputs()
+    throws Exception
+  {
+    final var file =
+      CSTestDirectories.resourceOf(
+        CSConfigurationParserTest.class,
+        this.directory,
+        "configuration-basic.xml"
+      );
+
+    Files.copy(file, this.configFile);
+
+    final var services =
+      CSServices.create(
+        Locale.getDefault(),
+        this.configFile,
+        Clock.systemUTC(),
+        CSTelemetryNoOp.noop()
+      );
+
+    final var configurations =
+      services.requireService(CSConfigurationServiceType.class);
+    final var current =
+      configurations.configuration();
+    final var domain =
+      current.domains().get("example.com");
+    final var www =
+      domain.certificates().get("www");
+
+    final var passOutput =
+      new CSFakeDeferredCertificateOutput("deferred");
+    final var passDomain =
+      new CSDomain(
+        domain.account(),
+        domain.domain(),
+        domain.certificates(),
+        domain.dnsConfigurator(),
+        Map.of(passOutput.name(), passOutput)
+      );
+    final var passConfiguration =
+      new CSConfiguration(
+        current.options(),
+        Map.of(passDomain.domain(), passDomain)
+      );
+
+    final var store =
+      services.requireService(CSCertificateStoreServiceType.class)
+        .store();
+
+    final var stored =
+      new CSCertificateStored(
+        "example.com",
+        www.name(),
+        OffsetDateTime.now(),
+        OffsetDateTime.now().plus(Duration.ofDays(30L)),
+        "CERT!",
+        "CERT!"
+      );
+
+    store.put(stored);
+    passOutput.write(
+      CSTelemetryNoOp.noop(),
+      CSOutputDeliveries.outputDataOf(passDomain, www, stored)
+    );
+
+    assertNotSame(
+      passOutput,
+      configurations.configuration()
+        .domains()
+        .get("example.com")
+        .outputs()
+        .get(passOutput.name())
+    );
+
+    assertTrue(
+      CSCertificateUtilities.completePass(
+        services,
+        passConfiguration,
+        Clock.systemUTC()
+      )
+    );
+
+    assertEquals(1, passOutput.flushes());
+    assertTrue(
+      store.outputDigest("example.com", www.name(), passOutput.name())
+        .isPresent()
+    );
+  }
 }
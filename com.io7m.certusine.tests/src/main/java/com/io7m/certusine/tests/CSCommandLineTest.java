@@ -17,7 +17,12 @@
 
 package com.io7m.certusine.tests;
 
+import com.io7m.certusine.api.CSCertificateName;
+import com.io7m.certusine.api.CSTelemetryNoOp;
+import com.io7m.certusine.certstore.api.CSCertificateStored;
+import com.io7m.certusine.certstore.mvstore.CSCertificateStoreMVStoreFactory;
 import com.io7m.certusine.cmdline.Main;
+import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreSQLiteFactory;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -27,10 +32,15 @@ import org.slf4j.LoggerFactory;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.Optional;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.time.ZoneOffset.UTC;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 public final class CSCommandLineTest
 {
@@ -155,6 +165,36 @@ public final class CSCommandLineTest
     assertEquals(0, r);
   }
 
+  @Test
+  public void testHelpShowCertificateStores()
+  {
+    final var r = Main.mainExitless(new String[]{
+      "help",
+      "show-certificate-stores"
+    });
+    assertEquals(0, r);
+  }
+
+  @Test
+  public void testHelpStoreMigrate()
+  {
+    final var r = Main.mainExitless(new String[]{
+      "help",
+      "store-migrate"
+    });
+    assertEquals(0, r);
+  }
+
+  @Test
+  public void testHelpStoreBackup()
+  {
+    final var r = Main.mainExitless(new String[]{
+      "help",
+      "store-backup"
+    });
+    assertEquals(0, r);
+  }
+
   @Test
   public void testGenerateKeyPair()
   {
@@ -249,4 +289,154 @@ public final class CSCommandLineTest
     });
     assertEquals(0, r);
   }
+
+  @Test
+  public void testShowCertificateStores()
+    throws IOException
+  {
+    final int r = Main.mainExitless(new String[]{
+      "show-certificate-stores"
+    });
+    assertEquals(0, r);
+  }
+
+  @Test
+  public void testStoreMigrate()
+    throws IOException
+  {
+    final var source =
+      this.directory.resolve("store.db")
+        .toAbsolutePath();
+    final var target =
+      this.directory.resolve("store.mv")
+        .toAbsolutePath();
+
+    final var www =
+      new CSCertificateName("www");
+    final var certificate =
+      new CSCertificateStored(
+        "example.com",
+        www,
+        OffsetDateTime.of(2000, 1, 1, 0, 0, 0, 0, UTC),
+        OffsetDateTime.of(2001, 1, 1, 0, 0, 0, 0, UTC),
+        CSTestResources.resourceOf("fake.crt"),
+        CSTestResources.resourceOf("fake.crt")
+      );
+
+    try (var store = new CSCertificateStoreSQLiteFactory()
+      .open(CSTelemetryNoOp.noop(), source)) {
+      store.put(certificate);
+    }
+
+    int r = Main.mainExitless(new String[]{
+      "store-migrate",
+      "--source",
+      this.directory.resolve("missing.db").toAbsolutePath().toString(),
+      "--target",
+      target.toString()
+    });
+    assertEquals(1, r);
+    assertFalse(Files.exists(target));
+
+    r = Main.mainExitless(new String[]{
+      "store-migrate",
+      "--source",
+      source.toString(),
+      "--target",
+      source.toString()
+    });
+    assertEquals(1, r);
+
+    r = Main.mainExitless(new String[]{
+      "store-migrate",
+      "--source",
+      source.toString(),
+      "--target",
+      target.toString(),
+      "--target-type",
+      "nonexistent"
+    });
+    assertEquals(1, r);
+
+    r = Main.mainExitless(new String[]{
+      "store-migrate",
+      "--source",
+      source.toString(),
+      "--target",
+      target.toString()
+    });
+    assertEquals(0, r);
+
+    try (var store = new CSCertificateStoreMVStoreFactory()
+      .open(CSTelemetryNoOp.noop(), target)) {
+      assertEquals(
+        Optional.of(certificate),
+        store.find("example.com", www)
+      );
+    }
+  }
+
+  @Test
+  public void testStoreBackup()
+    throws IOException
+  {
+    final var source =
+      this.directory.resolve("store.db")
+        .toAbsolutePath();
+    final var output =
+      this.directory.resolve("backup.db")
+        .toAbsolutePath();
+
+    int r = Main.mainExitless(new String[]{
+      "store-backup",
+      "--store",
+      source.toString(),
+      "--output",
+      output.toString()
+    });
+    assertEquals(1, r);
+
+    final var www =
+      new CSCertificateName("www");
+    final var certificate =
+      new CSCertificateStored(
+        "example.com",
+        www,
+        OffsetDateTime.of(2000, 1, 1, 0, 0, 0, 0, UTC),
+        OffsetDateTime.of(2001, 1, 1, 0, 0, 0, 0, UTC),
+        CSTestResources.resourceOf("fake.crt"),
+        CSTestResources.resourceOf("fake.crt")
+      );
+
+    try (var store = new CSCertificateStoreSQLiteFactory()
+      .open(CSTelemetryNoOp.noop(), source)) {
+      store.put(certificate);
+    }
+
+    r = Main.mainExitless(new String[]{
+      "store-backup",
+      "--store",
+      source.toString(),
+      "--output",
+      source.toString()
+    });
+    assertEquals(1, r);
+
+    r = Main.mainExitless(new String[]{
+      "store-backup",
+      "--store",
+      source.toString(),
+      "--output",
+      output.toString()
+    });
+    assertEquals(0, r);
+
+    try (var store = new CSCertificateStoreSQLiteFactory()
+      .open(CSTelemetryNoOp.noop(), output)) {
+      assertEquals(
+        Optional.of(certificate),
+        store.find("example.com", www)
+      );
+    }
+  }
 }
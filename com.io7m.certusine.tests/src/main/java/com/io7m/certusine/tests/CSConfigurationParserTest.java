@@ -20,6 +20,7 @@ package com.io7m.certusine.tests;
 import ch.qos.logback.classic.Level;
 import com.io7m.anethum.api.ParseStatus;
 import com.io7m.anethum.api.ParsingException;
+import com.io7m.certusine.api.CSOpenTelemetryConfiguration.CSTraceSampling;
 import com.io7m.certusine.vanilla.CSConfigurationParsers;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -125,6 +126,44 @@ public final class CSConfigurationParserTest
     );
   }
 
+  /**
+   * Trace sampling settings are parsed correctly.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testParseTraceSampling()
+    throws Exception
+  {
+    final var file =
+      CSTestDirectories.resourceOf(
+        CSConfigurationParserTest.class,
+        this.directory,
+        "configuration-telemetry.xml"
+      );
+
+    final var configuration =
+      this.parsers.parseFileWithContext(
+        this.directory,
+        file,
+        this::onStatus
+      );
+
+    final var sampling =
+      configuration.options()
+        .openTelemetry()
+        .orElseThrow()
+        .traces()
+        .orElseThrow()
+        .sampling();
+
+    assertEquals(
+      new CSTraceSampling(0.25, false, true),
+      sampling
+    );
+  }
+
   /**
    * A configuration file containing validation errors fails.
    *
@@ -407,6 +446,43 @@ public final class CSConfigurationParserTest
     assertTrue(this.statusLog.size() > 1);
   }
 
+  /**
+   * Integer options that do not fit in a 32-bit integer are rejected as
+   * validation errors.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testParseErrorsIntegerRange()
+    throws Exception
+  {
+    final var file =
+      CSTestDirectories.resourceOf(
+        CSConfigurationParserTest.class,
+        this.directory,
+        "configuration-error-integer-range.xml"
+      );
+
+    assertThrows(ParsingException.class, () -> {
+      this.parsers.parseFileWithContext(
+        this.directory,
+        file,
+        this::onStatus
+      );
+    });
+
+    assertTrue(
+      this.statusLog.stream()
+        .anyMatch(p -> Objects.equals(p.errorCode(), "error-xml-validation")),
+      "Status log %s must contain the error code error-xml-validation".formatted(
+        this.statusLog.stream()
+          .map(ParseStatus::errorCode)
+          .collect(Collectors.toSet())
+      )
+    );
+  }
+
   /**
    * A configuration file that isn't XML fails.
    *
@@ -18,15 +18,19 @@ package com.io7m.certusine.tests;
 
 import com.io7m.certusine.api.CSAccount;
 import com.io7m.certusine.api.CSCertificate;
+import com.io7m.certusine.api.CSCertificateHistoryConfiguration;
 import com.io7m.certusine.api.CSCertificateName;
 import com.io7m.certusine.api.CSConfiguration;
 import com.io7m.certusine.api.CSConfigurationServiceType;
 import com.io7m.certusine.api.CSDomain;
+import com.io7m.certusine.api.CSEventJournalConfiguration;
+import com.io7m.certusine.api.CSEventQueueConfiguration;
 import com.io7m.certusine.api.CSFaultInjectionConfiguration;
 import com.io7m.certusine.api.CSOptions;
 import com.io7m.certusine.api.CSTelemetryNoOp;
 import com.io7m.certusine.vanilla.internal.CSDomainExecutor;
 import com.io7m.certusine.vanilla.internal.CSStrings;
+import com.io7m.certusine.vanilla.internal.dns.CSDNSQueriesFactoryDJ;
 import com.io7m.certusine.vanilla.internal.events.CSEventServiceType;
 import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreServiceType;
 import org.junit.jupiter.api.AfterEach;
@@ -107,11 +111,11 @@ public final class CSDomainExecutorTests
       new CSFakeDNSConfigurator();
 
     this.output0 =
-      new CSFakeCertificateOutput();
+      new CSFakeCertificateOutput("output0");
     this.output1 =
-      new CSFakeCertificateOutput();
+      new CSFakeCertificateOutput("output1");
     this.output2 =
-      new CSFakeCertificateOutput();
+      new CSFakeCertificateOutput("output2");
     this.store =
       new CSFakeCertificateStore();
 
@@ -180,16 +184,23 @@ public final class CSDomainExecutorTests
     this.clock.times.add(
       OffsetDateTime.parse("2000-01-01T00:00:00+00:00").toInstant()
     );
+    this.clock.times.add(
+      OffsetDateTime.parse("2000-01-01T00:00:00+00:00").toInstant()
+    );
 
     when(this.configurations.configuration())
       .thenReturn(new CSConfiguration(
         new CSOptions(
           false,
           this.file,
+          "sqlite",
           Duration.of(5L, ChronoUnit.MINUTES),
           Duration.ofHours(72L),
           Optional.empty(),
-          CSFaultInjectionConfiguration.disabled()
+          CSFaultInjectionConfiguration.disabled(),
+          CSCertificateHistoryConfiguration.defaults(),
+          CSEventQueueConfiguration.defaults(),
+          CSEventJournalConfiguration.defaults()
         ),
         Map.of(domain.domain(), domain)
       ));
@@ -198,6 +209,7 @@ public final class CSDomainExecutorTests
       new CSDomainExecutor(
         new CSStrings(Locale.ROOT),
         CSTelemetryNoOp.noop(),
+        CSTestMetrics.metrics(),
         this.events,
         this.configurations,
         this.stores,
@@ -205,7 +217,8 @@ public final class CSDomainExecutorTests
         this.clock,
         acmeInfo -> {
           return new Session(acmeInfo.acmeURI(), this.acmeProvider);
-        }
+        },
+        new CSDNSQueriesFactoryDJ()
       );
 
     executor.execute();
@@ -0,0 +1,324 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.tests;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import com.io7m.certusine.api.CSAccount;
+import com.io7m.certusine.api.CSCertificateHistoryConfiguration;
+import com.io7m.certusine.api.CSCertificateName;
+import com.io7m.certusine.api.CSConfiguration;
+import com.io7m.certusine.api.CSConfigurationServiceType;
+import com.io7m.certusine.api.CSDomain;
+import com.io7m.certusine.api.CSEventJournalConfiguration;
+import com.io7m.certusine.api.CSEventQueueConfiguration;
+import com.io7m.certusine.api.CSFaultInjectionConfiguration;
+import com.io7m.certusine.api.CSOptions;
+import com.io7m.certusine.api.CSTelemetryNoOp;
+import com.io7m.certusine.vanilla.internal.events.CSEventCertificateRenewalFailed;
+import com.io7m.certusine.vanilla.internal.events.CSEventCertificateStored;
+import com.io7m.certusine.vanilla.internal.events.CSEventService;
+import com.io7m.certusine.vanilla.internal.events.CSEventServiceType;
+import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreServiceType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.security.KeyPairGenerator;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.io7m.certusine.api.CSEventQueueConfiguration.CSOverflowPolicy;
+import static com.io7m.certusine.api.CSEventQueueConfiguration.CSOverflowPolicy.DROP_NEWEST;
+import static com.io7m.certusine.api.CSEventQueueConfiguration.CSOverflowPolicy.DROP_OLDEST;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+public final class CSEventServiceTest
+{
+  private ch.qos.logback.classic.Logger logger;
+  private BlockingAppender appender;
+  private CSDomain domain;
+  private CSFakeCertificateStore store;
+  private CSCertificateStoreServiceType stores;
+
+  private static CSConfigurationServiceType configurationsFor(
+    final CSOverflowPolicy policy)
+  {
+    final var configurations =
+      Mockito.mock(CSConfigurationServiceType.class);
+
+    when(configurations.configuration())
+      .thenReturn(new CSConfiguration(
+        new CSOptions(
+          false,
+          Path.of("store.db"),
+          "sqlite",
+          Duration.ofMinutes(5L),
+          Duration.ofHours(72L),
+          Optional.empty(),
+          CSFaultInjectionConfiguration.disabled(),
+          CSCertificateHistoryConfiguration.defaults(),
+          new CSEventQueueConfiguration(2, policy),
+          CSEventJournalConfiguration.defaults()
+        ),
+        Map.of()
+      ));
+    return configurations;
+  }
+
+  @BeforeEach
+  public void setup()
+    throws Exception
+  {
+    this.domain =
+      new CSDomain(
+        new CSAccount(
+          KeyPairGenerator.getInstance("EC").generateKeyPair(),
+          URI.create("http://localhost:20000")
+        ),
+        "example.com",
+        Map.of(),
+        new CSFakeDNSConfigurator(),
+        Map.of()
+      );
+
+    this.store =
+      new CSFakeCertificateStore();
+    this.stores =
+      Mockito.mock(CSCertificateStoreServiceType.class);
+    when(this.stores.store())
+      .thenReturn(this.store);
+
+    this.appender = new BlockingAppender();
+    this.appender.start();
+
+    this.logger =
+      (ch.qos.logback.classic.Logger)
+        LoggerFactory.getLogger(CSEventService.class);
+    this.logger.setLevel(Level.INFO);
+    this.logger.addAppender(this.appender);
+  }
+
+  @AfterEach
+  public void tearDown()
+  {
+    this.appender.release.countDown();
+    this.logger.detachAppender(this.appender);
+    this.appender.stop();
+  }
+
+  private CSEventCertificateStored stored(
+    final String target)
+  {
+    return new CSEventCertificateStored(
+      this.domain,
+      new CSCertificateName("www"),
+      target
+    );
+  }
+
+  /**
+   * Fill the queue while the publishing thread is stuck publishing the
+   * first event, and then emit one more event.
+   */
+
+  private CSEventServiceType overflow(
+    final CSOverflowPolicy policy)
+    throws Exception
+  {
+    final var events =
+      CSEventService.create(
+        configurationsFor(policy),
+        CSTelemetryNoOp.noop(),
+        CSTestMetrics.metrics(),
+        this.stores,
+        Clock.systemUTC()
+      );
+
+    events.emit(this.stored("t0"));
+    assertTrue(this.appender.entered.await(5L, TimeUnit.SECONDS));
+
+    events.emit(this.stored("t1"));
+    events.emit(this.stored("t2"));
+    events.emit(this.stored("t3"));
+    return events;
+  }
+
+  /**
+   * The newest event is dropped when the queue is full, and emitting never
+   * waits for the publishing thread.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testDropNewest()
+    throws Exception
+  {
+    final var events = this.overflow(DROP_NEWEST);
+    assertEquals(1L, events.droppedEvents());
+
+    this.appender.release.countDown();
+    events.close();
+    assertEquals(List.of("t0", "t1", "t2"), this.appender.targets);
+  }
+
+  /**
+   * The oldest queued event is dropped when the queue is full, and emitting
+   * never waits for the publishing thread.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testDropOldest()
+    throws Exception
+  {
+    final var events = this.overflow(DROP_OLDEST);
+    assertEquals(1L, events.droppedEvents());
+
+    this.appender.release.countDown();
+    events.close();
+    assertEquals(List.of("t0", "t2", "t3"), this.appender.targets);
+  }
+
+  /**
+   * Events emitted after the service is closed are still published.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testEmitAfterClose()
+    throws Exception
+  {
+    this.appender.release.countDown();
+
+    final var events =
+      CSEventService.create(
+        configurationsFor(DROP_OLDEST),
+        CSTelemetryNoOp.noop(),
+        CSTestMetrics.metrics(),
+        this.stores,
+        Clock.systemUTC()
+      );
+
+    events.close();
+    events.emit(this.stored("t0"));
+    assertEquals(List.of("t0"), this.appender.targets);
+    assertEquals(0L, events.droppedEvents());
+  }
+
+  /**
+   * Published events are written to the journal.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testJournal()
+    throws Exception
+  {
+    this.appender.release.countDown();
+
+    final var timeThen =
+      OffsetDateTime.now(Clock.systemUTC());
+
+    final var events =
+      CSEventService.create(
+        configurationsFor(DROP_OLDEST),
+        CSTelemetryNoOp.noop(),
+        CSTestMetrics.metrics(),
+        this.stores,
+        Clock.systemUTC()
+      );
+
+    events.emit(this.stored("t0"));
+    events.emit(
+      new CSEventCertificateRenewalFailed(
+        this.domain,
+        new CSCertificateName("www"))
+    );
+    events.close();
+
+    final var journal = this.store.journal;
+    assertEquals(2, journal.size());
+
+    final var e0 = journal.get(0);
+    assertEquals("CSEventCertificateStored", e0.type());
+    assertEquals("example.com", e0.domain());
+    assertEquals("www", e0.name().value());
+    assertEquals("t0", e0.attributes().get("certusine.target"));
+    assertFalse(e0.failure());
+    assertFalse(e0.time().isBefore(timeThen));
+
+    final var e1 = journal.get(1);
+    assertEquals("CSEventCertificateRenewalFailed", e1.type());
+    assertEquals("certificate renewal failed", e1.message());
+    assertTrue(e1.failure());
+  }
+
+  private static final class BlockingAppender
+    extends AppenderBase<ILoggingEvent>
+  {
+    private final CountDownLatch entered;
+    private final CountDownLatch release;
+    private final List<String> targets;
+
+    BlockingAppender()
+    {
+      this.entered = new CountDownLatch(1);
+      this.release = new CountDownLatch(1);
+      this.targets = new ArrayList<>();
+    }
+
+    @Override
+    protected void append(
+      final ILoggingEvent event)
+    {
+      for (final var pair : event.getKeyValuePairs()) {
+        if ("certusine.target".equals(pair.key)) {
+          this.targets.add(String.valueOf(pair.value));
+        }
+      }
+
+      this.entered.countDown();
+      try {
+        this.release.await();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
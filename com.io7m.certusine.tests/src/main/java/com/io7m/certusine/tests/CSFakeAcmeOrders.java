@@ -0,0 +1,302 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.tests;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public final class CSFakeAcmeOrders
+{
+  private static final String BASE =
+    "http://localhost:20000/acme";
+
+  private final CSFakeDNSZone zone;
+  private final JsonMapper mapper;
+  private final AtomicInteger ids;
+  private final ConcurrentHashMap<Integer, Order> orders;
+  private final ConcurrentHashMap<Integer, Authorization> authorizations;
+
+  public CSFakeAcmeOrders(
+    final CSFakeDNSZone inZone)
+  {
+    this.zone =
+      Objects.requireNonNull(inZone, "zone");
+    this.mapper =
+      JsonMapper.builder().build();
+    this.ids =
+      new AtomicInteger();
+    this.orders =
+      new ConcurrentHashMap<>();
+    this.authorizations =
+      new ConcurrentHashMap<>();
+  }
+
+  public String payloadOf(
+    final HttpServletRequest request)
+    throws IOException
+  {
+    final var body =
+      new String(request.getInputStream().readAllBytes(), UTF_8);
+    final var payload =
+      this.mapper.readTree(body).get("payload").asText();
+    return new String(Base64.getUrlDecoder().decode(payload), UTF_8);
+  }
+
+  public static Optional<Integer> idOf(
+    final HttpServletRequest request)
+  {
+    try {
+      final var path =
+        Objects.requireNonNullElse(request.getPathInfo(), "");
+      return Optional.of(Integer.valueOf(path.replaceAll("^/", "")));
+    } catch (final NumberFormatException e) {
+      return Optional.empty();
+    }
+  }
+
+  public int createOrder(
+    final String payload)
+  {
+    final var identifiers =
+      this.mapper.readTree(payload).get("identifiers");
+    final var authorizationIds =
+      new ArrayList<Integer>();
+
+    for (final var identifier : identifiers) {
+      final var authorizationId =
+        Integer.valueOf(this.ids.incrementAndGet());
+      final var domain =
+        identifier.get("value").asText().replaceAll("^\\*\\.", "");
+      final var token =
+        UUID.randomUUID().toString().replace("-", "");
+
+      this.authorizations.put(
+        authorizationId,
+        new Authorization(domain, token));
+      authorizationIds.add(authorizationId);
+    }
+
+    final var orderId = this.ids.incrementAndGet();
+    this.orders.put(
+      Integer.valueOf(orderId),
+      new Order(List.copyOf(authorizationIds)));
+    return orderId;
+  }
+
+  public boolean finalizeOrder(
+    final int id)
+  {
+    final var order = this.orders.get(Integer.valueOf(id));
+    if (order == null || !Objects.equals(this.orderStatus(order), "ready")) {
+      return false;
+    }
+    order.finalized = true;
+    return true;
+  }
+
+  public Optional<ObjectNode> orderJSON(
+    final int id)
+  {
+    final var order = this.orders.get(Integer.valueOf(id));
+    if (order == null) {
+      return Optional.empty();
+    }
+
+    final var status = this.orderStatus(order);
+    final var output = this.mapper.createObjectNode();
+    output.put("status", status);
+
+    final var identifiers = output.putArray("identifiers");
+    final var authorizationURIs = output.putArray("authorizations");
+    for (final var authorizationId : order.authorizations) {
+      final var identifier = identifiers.addObject();
+      identifier.put("type", "dns");
+      identifier.put("value", this.authorizations.get(authorizationId).domain);
+      authorizationURIs.add(BASE + "/authz/" + authorizationId);
+    }
+
+    output.put("finalize", BASE + "/order-finalize/" + id);
+    if (Objects.equals(status, "valid")) {
+      output.put("certificate", BASE + "/certificate/" + id);
+    }
+    return Optional.of(output);
+  }
+
+  private String orderStatus(
+    final Order order)
+  {
+    if (order.finalized) {
+      return "valid";
+    }
+
+    var valid = 0;
+    for (final var authorizationId : order.authorizations) {
+      switch (this.authorizations.get(authorizationId).status) {
+        case "valid" -> ++valid;
+        case "invalid" -> {
+          return "invalid";
+        }
+        default -> {
+
+        }
+      }
+    }
+    return valid == order.authorizations.size() ? "ready" : "pending";
+  }
+
+  public Optional<ObjectNode> authorizationJSON(
+    final int id)
+  {
+    final var authorization = this.authorizations.get(Integer.valueOf(id));
+    if (authorization == null) {
+      return Optional.empty();
+    }
+
+    final var output = this.mapper.createObjectNode();
+    final var identifier = output.putObject("identifier");
+    identifier.put("type", "dns");
+    identifier.put("value", authorization.domain);
+    output.put("status", authorization.status);
+    output.putArray("challenges")
+      .add(this.challengeJSONOf(id, authorization));
+    return Optional.of(output);
+  }
+
+  public Optional<ObjectNode> challengeJSON(
+    final int id,
+    final boolean trigger)
+  {
+    final var authorization = this.authorizations.get(Integer.valueOf(id));
+    if (authorization == null) {
+      return Optional.empty();
+    }
+
+    /*
+     * Triggering a pending challenge checks the zone for the TXT record.
+     * The digest is not verified; the presence of a record is sufficient.
+     */
+
+    synchronized (authorization) {
+      if (trigger && Objects.equals(authorization.status, "pending")) {
+        final var name = "_acme-challenge." + authorization.domain;
+        if (this.zone.values(name).isEmpty()) {
+          authorization.status = "invalid";
+        } else {
+          authorization.status = "valid";
+        }
+      }
+    }
+    return Optional.of(this.challengeJSONOf(id, authorization));
+  }
+
+  private ObjectNode challengeJSONOf(
+    final int id,
+    final Authorization authorization)
+  {
+    final var output = this.mapper.createObjectNode();
+    output.put("type", "dns-01");
+    output.put("url", BASE + "/chall/" + id);
+    output.put("token", authorization.token);
+    output.put("status", authorization.status);
+
+    if (Objects.equals(authorization.status, "invalid")) {
+      final var error = output.putObject("error");
+      error.put("type", "urn:ietf:params:acme:error:incorrectResponse");
+      error.put(
+        "detail",
+        "No TXT record found at _acme-challenge." + authorization.domain);
+    }
+    return output;
+  }
+
+  public void write(
+    final HttpServletResponse response,
+    final int status,
+    final ObjectNode output)
+    throws IOException
+  {
+    response.setStatus(status);
+    response.setContentType("application/json");
+    try (var stream = response.getOutputStream()) {
+      stream.write(this.mapper.writeValueAsString(output).getBytes(UTF_8));
+      stream.flush();
+    }
+  }
+
+  public void writeProblem(
+    final HttpServletResponse response,
+    final int status,
+    final String type,
+    final String detail)
+    throws IOException
+  {
+    final var output = this.mapper.createObjectNode();
+    output.put("type", type);
+    output.put("detail", detail);
+
+    response.setStatus(status);
+    response.setContentType("application/problem+json");
+    try (var stream = response.getOutputStream()) {
+      stream.write(this.mapper.writeValueAsString(output).getBytes(UTF_8));
+      stream.flush();
+    }
+  }
+
+  private static final class Order
+  {
+    private final List<Integer> authorizations;
+    private volatile boolean finalized;
+
+    Order(
+      final List<Integer> inAuthorizations)
+    {
+      this.authorizations = inAuthorizations;
+    }
+  }
+
+  private static final class Authorization
+  {
+    private final String domain;
+    private final String token;
+    private volatile String status;
+
+    Authorization(
+      final String inDomain,
+      final String inToken)
+    {
+      this.domain = inDomain;
+      this.token = inToken;
+      this.status = "pending";
+    }
+  }
+}
@@ -17,10 +17,14 @@
 
 package com.io7m.certusine.tests;
 
+import jakarta.servlet.DispatcherType;
 import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.servlet.FilterHolder;
 import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
 
 import java.net.InetSocketAddress;
+import java.util.EnumSet;
 import java.util.Objects;
 
 public final class CSFakeAcmeServer implements AutoCloseable
@@ -71,6 +75,59 @@ public final class CSFakeAcmeServer implements AutoCloseable
     return new CSFakeAcmeServer(server);
   }
 
+  public static CSFakeAcmeServer create(
+    final int port,
+    final CSFakeDNSZone zone,
+    final CSFakeServerFaults faults)
+    throws Exception
+  {
+    final var server =
+      new Server(new InetSocketAddress("localhost", port));
+    final var orders =
+      new CSFakeAcmeOrders(zone);
+
+    final var servlets = new ServletContextHandler();
+    servlets.addFilter(
+      new FilterHolder(faults),
+      "/*",
+      EnumSet.of(DispatcherType.REQUEST));
+
+    servlets.addServlet(
+      CSFakeDirectory0Servlet.class,
+      "/acme/directory/0");
+    servlets.addServlet(
+      CSFakeNonceServlet.class,
+      "/acme/new-nonce");
+    servlets.addServlet(
+      CSFakeNewAccountServlet.class,
+      "/acme/new-acct");
+    servlets.addServlet(
+      CSFakeAccountServlet.class,
+      "/acme/acct");
+    servlets.addServlet(
+      new ServletHolder(new CSFakeAuthorizingNewOrderServlet(orders)),
+      "/acme/new-order");
+    servlets.addServlet(
+      new ServletHolder(new CSFakeAuthorizingOrderFinalizeServlet(orders)),
+      "/acme/order-finalize/*");
+    servlets.addServlet(
+      new ServletHolder(new CSFakeAuthorizingOrderServlet(orders)),
+      "/acme/order/*");
+    servlets.addServlet(
+      new ServletHolder(new CSFakeAuthorizationServlet(orders)),
+      "/acme/authz/*");
+    servlets.addServlet(
+      new ServletHolder(new CSFakeChallengeServlet(orders)),
+      "/acme/chall/*");
+    servlets.addServlet(
+      CSFakeCertificateServlet.class,
+      "/acme/certificate/*");
+
+    server.setHandler(servlets);
+    server.start();
+    return new CSFakeAcmeServer(server);
+  }
+
   @Override
   public void close()
     throws Exception
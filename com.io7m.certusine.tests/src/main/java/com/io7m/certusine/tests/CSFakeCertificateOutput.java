@@ -21,16 +21,27 @@ import com.io7m.certusine.api.CSCertificateOutputType;
 import com.io7m.certusine.api.CSTelemetryServiceType;
 
 import java.io.IOException;
-import java.util.ArrayDeque;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 public final class CSFakeCertificateOutput implements CSCertificateOutputType
 {
-  private final ArrayDeque<String> requests;
+  private final ConcurrentLinkedQueue<String> requests;
+  private final String name;
+  private volatile boolean failing;
+  private volatile boolean refreshed;
 
   public CSFakeCertificateOutput()
   {
-    this.requests = new ArrayDeque<>();
+    this("fake");
+  }
+
+  public CSFakeCertificateOutput(
+    final String inName)
+  {
+    this.requests = new ConcurrentLinkedQueue<>();
+    this.name = inName;
+    this.refreshed = true;
   }
 
   public Queue<String> requests()
@@ -38,6 +49,18 @@ public final class CSFakeCertificateOutput implements CSCertificateOutputType
     return this.requests;
   }
 
+  public void setFailing(
+    final boolean inFailing)
+  {
+    this.failing = inFailing;
+  }
+
+  public void setRefreshed(
+    final boolean inRefreshed)
+  {
+    this.refreshed = inRefreshed;
+  }
+
   @Override
   public String type()
   {
@@ -47,7 +70,13 @@ public final class CSFakeCertificateOutput implements CSCertificateOutputType
   @Override
   public String name()
   {
-    return "fake";
+    return this.name;
+  }
+
+  @Override
+  public boolean writesRefreshed()
+  {
+    return this.refreshed;
   }
 
   @Override
@@ -57,5 +86,8 @@ public final class CSFakeCertificateOutput implements CSCertificateOutputType
     throws IOException
   {
     this.requests.add(outputData.domainName());
+    if (this.failing) {
+      throw new IOException("Output failed.");
+    }
   }
 }
@@ -16,23 +16,41 @@
 
 package com.io7m.certusine.tests;
 
+import com.io7m.certusine.api.CSCertificateHistoryConfiguration;
 import com.io7m.certusine.api.CSCertificateName;
+import com.io7m.certusine.certstore.api.CSCertificateHistoryEntry;
+import com.io7m.certusine.certstore.api.CSCertificateJournalEntry;
+import com.io7m.certusine.certstore.api.CSCertificateJournalQuery;
+import com.io7m.certusine.certstore.api.CSCertificateOutputDigest;
+import com.io7m.certusine.certstore.api.CSCertificateOutputRetry;
 import com.io7m.certusine.certstore.api.CSCertificateStoreType;
 import com.io7m.certusine.certstore.api.CSCertificateStored;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public final class CSFakeCertificateStore
   implements CSCertificateStoreType
 {
   public final HashMap<String, CSCertificateStored> certificates;
+  public final HashMap<String, CSCertificateOutputDigest> outputDigests;
+  public final HashMap<String, CSCertificateOutputRetry> outputRetries;
+  public final ArrayList<CSCertificateJournalEntry> journal;
+  public boolean outputRetriesFailing;
 
   public CSFakeCertificateStore()
   {
     this.certificates = new HashMap<String, CSCertificateStored>();
+    this.outputDigests = new HashMap<String, CSCertificateOutputDigest>();
+    this.outputRetries = new HashMap<String, CSCertificateOutputRetry>();
+    this.journal = new ArrayList<CSCertificateJournalEntry>();
   }
 
   @Override
@@ -73,6 +91,136 @@ public final class CSFakeCertificateStore
     return List.copyOf(this.certificates.values());
   }
 
+  @Override
+  public void forEach(
+    final Consumer<CSCertificateStored> consumer)
+  {
+    List.copyOf(this.certificates.values()).forEach(consumer);
+  }
+
+  @Override
+  public List<CSCertificateHistoryEntry> history(
+    final String domain,
+    final CSCertificateName name)
+  {
+    return List.of();
+  }
+
+  @Override
+  public long historyPrune(
+    final CSCertificateHistoryConfiguration retention,
+    final OffsetDateTime time)
+  {
+    return 0L;
+  }
+
+  @Override
+  public Optional<CSCertificateOutputDigest> outputDigest(
+    final String domain,
+    final CSCertificateName name,
+    final String output)
+  {
+    return Optional.ofNullable(
+      this.outputDigests.get("%s/%s/%s".formatted(domain, name.value(), output))
+    );
+  }
+
+  @Override
+  public void outputDigestPut(
+    final String domain,
+    final CSCertificateName name,
+    final String output,
+    final CSCertificateOutputDigest digest)
+  {
+    this.outputDigests.put(
+      "%s/%s/%s".formatted(domain, name.value(), output),
+      digest
+    );
+  }
+
+  @Override
+  public void outputDigestsClear()
+  {
+    this.outputDigests.clear();
+  }
+
+  @Override
+  public void outputRetryPut(
+    final CSCertificateOutputRetry retry)
+    throws IOException
+  {
+    if (this.outputRetriesFailing) {
+      throw new IOException("Output retries failed.");
+    }
+    this.outputRetries.put(
+      "%s/%s/%s".formatted(retry.domain(), retry.name().value(), retry.output()),
+      retry
+    );
+  }
+
+  @Override
+  public List<CSCertificateOutputRetry> outputRetriesDue(
+    final OffsetDateTime time)
+  {
+    return this.outputRetries.values()
+      .stream()
+      .filter(r -> !r.nextAttempt().isAfter(time))
+      .sorted(Comparator.comparing(r -> r.nextAttempt().toInstant()))
+      .toList();
+  }
+
+  @Override
+  public boolean outputRetryDelete(
+    final String domain,
+    final CSCertificateName name,
+    final String output)
+  {
+    return this.outputRetries.remove(
+      "%s/%s/%s".formatted(domain, name.value(), output)
+    ) != null;
+  }
+
+  @Override
+  public void journalPut(
+    final List<CSCertificateJournalEntry> entries)
+  {
+    this.journal.addAll(entries);
+  }
+
+  @Override
+  public List<CSCertificateJournalEntry> journal(
+    final CSCertificateJournalQuery query)
+  {
+    return this.journal.stream()
+      .filter(query::matches)
+      .sorted(Comparator.comparing(
+        (CSCertificateJournalEntry e) -> e.time().toInstant()).reversed())
+      .limit(query.limit())
+      .toList();
+  }
+
+  @Override
+  public long journalPrune(
+    final OffsetDateTime oldest)
+  {
+    final var sizeThen = this.journal.size();
+    this.journal.removeIf(e -> e.time().isBefore(oldest));
+    return sizeThen - this.journal.size();
+  }
+
+  @Override
+  public void backup(
+    final Path file)
+  {
+
+  }
+
+  @Override
+  public void maintain()
+  {
+
+  }
+
   @Override
   public void close()
   {
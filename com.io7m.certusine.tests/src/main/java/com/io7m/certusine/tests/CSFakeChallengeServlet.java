@@ -0,0 +1,61 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.tests;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.Objects;
+
+public final class CSFakeChallengeServlet extends HttpServlet
+{
+  private final CSFakeAcmeOrders orders;
+
+  public CSFakeChallengeServlet(
+    final CSFakeAcmeOrders inOrders)
+  {
+    this.orders = Objects.requireNonNull(inOrders, "orders");
+  }
+
+  @Override
+  protected void service(
+    final HttpServletRequest request,
+    final HttpServletResponse response)
+    throws IOException
+  {
+    /*
+     * A POST-as-GET request has an empty payload, whereas a request to
+     * trigger the challenge has a JSON object payload.
+     */
+
+    final var trigger =
+      !this.orders.payloadOf(request).isEmpty();
+    final var output =
+      CSFakeAcmeOrders.idOf(request)
+        .flatMap(id -> this.orders.challengeJSON(id.intValue(), trigger));
+
+    if (output.isEmpty()) {
+      response.setStatus(404);
+      return;
+    }
+    this.orders.write(response, 200, output.get());
+  }
+}
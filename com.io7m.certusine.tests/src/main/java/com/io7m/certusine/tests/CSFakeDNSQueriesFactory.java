@@ -47,4 +47,10 @@ public final class CSFakeDNSQueriesFactory implements CSDNSQueriesFactoryType
   {
     return this.constructor.apply(nameServers);
   }
+
+  @Override
+  public String description()
+  {
+    return "Fake DNS queries.";
+  }
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class CSFakeDNSZone
+{
+  private final ConcurrentHashMap<String, List<String>> records;
+
+  public CSFakeDNSZone()
+  {
+    this.records = new ConcurrentHashMap<>();
+  }
+
+  private static String normalize(
+    final String name)
+  {
+    Objects.requireNonNull(name, "name");
+
+    final var lower = name.toLowerCase(Locale.ROOT);
+    if (lower.endsWith(".")) {
+      return lower.substring(0, lower.length() - 1);
+    }
+    return lower;
+  }
+
+  public boolean add(
+    final String name,
+    final String value)
+  {
+    Objects.requireNonNull(value, "value");
+
+    final var added = new boolean[1];
+    this.records.compute(normalize(name), (k, existing) -> {
+      final var values =
+        existing == null ? new ArrayList<String>() : new ArrayList<>(existing);
+      if (!values.contains(value)) {
+        values.add(value);
+        added[0] = true;
+      }
+      return List.copyOf(values);
+    });
+    return added[0];
+  }
+
+  public boolean remove(
+    final String name,
+    final String value)
+  {
+    Objects.requireNonNull(value, "value");
+
+    final var removed = new boolean[1];
+    this.records.computeIfPresent(normalize(name), (k, existing) -> {
+      final var values = new ArrayList<>(existing);
+      removed[0] = values.remove(value);
+      return values.isEmpty() ? null : List.copyOf(values);
+    });
+    return removed[0];
+  }
+
+  public List<String> values(
+    final String name)
+  {
+    return this.records.getOrDefault(normalize(name), List.of());
+  }
+
+  public Map<String, List<String>> recordsInDomain(
+    final String domain)
+  {
+    final var suffix = "." + normalize(domain);
+    final var results = new TreeMap<String, List<String>>();
+    for (final var entry : this.records.entrySet()) {
+      final var name = entry.getKey();
+      if (name.endsWith(suffix)) {
+        results.put(
+          name.substring(0, name.length() - suffix.length()),
+          entry.getValue()
+        );
+      }
+    }
+    return results;
+  }
+
+  public int size()
+  {
+    return this.records.values()
+      .stream()
+      .mapToInt(List::size)
+      .sum();
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.tests;
+
+import com.io7m.certusine.api.CSCertificateOutputData;
+import com.io7m.certusine.api.CSCertificateOutputDeferredResult;
+import com.io7m.certusine.api.CSCertificateOutputType;
+import com.io7m.certusine.api.CSTelemetryServiceType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+public final class CSFakeDeferredCertificateOutput
+  implements CSCertificateOutputType
+{
+  private final String name;
+  private final List<CSCertificateOutputData> queued;
+  private int flushes;
+
+  public CSFakeDeferredCertificateOutput(
+    final String inName)
+  {
+    this.name = Objects.requireNonNull(inName, "name");
+    this.queued = new ArrayList<>();
+  }
+
+  public synchronized int flushes()
+  {
+    return this.flushes;
+  }
+
+  @Override
+  public String type()
+  {
+    return "fake-deferred";
+  }
+
+  @Override
+  public String name()
+  {
+    return this.name;
+  }
+
+  @Override
+  public boolean writesDeferred()
+  {
+    return true;
+  }
+
+  @Override
+  public synchronized void write(
+    final CSTelemetryServiceType telemetry,
+    final CSCertificateOutputData outputData)
+  {
+    this.queued.add(outputData);
+  }
+
+  @Override
+  public synchronized List<CSCertificateOutputDeferredResult> passCompleted(
+    final CSTelemetryServiceType telemetry)
+  {
+    ++this.flushes;
+    final var results =
+      this.queued.stream()
+        .map(CSCertificateOutputDeferredResult::succeeded)
+        .toList();
+    this.queued.clear();
+    return results;
+  }
+}
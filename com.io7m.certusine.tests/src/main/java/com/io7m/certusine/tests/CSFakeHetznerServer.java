@@ -17,10 +17,14 @@
 
 package com.io7m.certusine.tests;
 
+import jakarta.servlet.DispatcherType;
 import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.servlet.FilterHolder;
 import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
 
 import java.net.InetSocketAddress;
+import java.util.EnumSet;
 import java.util.Objects;
 
 public final class CSFakeHetznerServer implements AutoCloseable
@@ -53,6 +57,29 @@ public final class CSFakeHetznerServer implements AutoCloseable
     return new CSFakeHetznerServer(server, servlets);
   }
 
+  public static CSFakeHetznerServer create(
+    final int port,
+    final CSFakeDNSZone zone,
+    final CSFakeServerFaults faults)
+    throws Exception
+  {
+    final var server =
+      new Server(new InetSocketAddress("localhost", port));
+
+    final var servlets = new ServletContextHandler();
+    servlets.addFilter(
+      new FilterHolder(faults),
+      "/*",
+      EnumSet.of(DispatcherType.REQUEST));
+    servlets.addServlet(
+      new ServletHolder(new CSFakeHetznerZoneServlet(zone)),
+      "/zones/*");
+
+    server.setHandler(servlets);
+    server.start();
+    return new CSFakeHetznerServer(server, servlets);
+  }
+
   @Override
   public void close()
     throws Exception
@@ -0,0 +1,166 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.tests;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Objects;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public final class CSFakeHetznerZoneServlet extends HttpServlet
+{
+  private static final int PAGE_SIZE = 25;
+
+  private final CSFakeDNSZone zone;
+  private final JsonMapper mapper;
+
+  public CSFakeHetznerZoneServlet(
+    final CSFakeDNSZone inZone)
+  {
+    this.zone =
+      Objects.requireNonNull(inZone, "zone");
+    this.mapper =
+      JsonMapper.builder().build();
+  }
+
+  private static String unquote(
+    final String text)
+  {
+    if (text.length() >= 2 && text.startsWith("\"") && text.endsWith("\"")) {
+      return text.substring(1, text.length() - 1);
+    }
+    return text;
+  }
+
+  @Override
+  protected void service(
+    final HttpServletRequest request,
+    final HttpServletResponse response)
+    throws IOException
+  {
+    final var body =
+      new String(request.getInputStream().readAllBytes(), UTF_8);
+    final var segments =
+      Objects.requireNonNullElse(request.getPathInfo(), "")
+        .replaceAll("^/", "")
+        .split("/");
+
+    if (segments.length < 2 || !Objects.equals(segments[1], "rrsets")) {
+      response.setStatus(404);
+      return;
+    }
+
+    final var domain = segments[0];
+    if (segments.length == 2 && Objects.equals(request.getMethod(), "GET")) {
+      this.list(request, response, domain);
+      return;
+    }
+
+    if (segments.length == 6 && Objects.equals(request.getMethod(), "POST")) {
+      final var name = segments[2] + "." + domain;
+      switch (segments[5]) {
+        case "add_records" -> this.modify(response, name, body, true);
+        case "remove_records" -> this.modify(response, name, body, false);
+        default -> response.setStatus(404);
+      }
+      return;
+    }
+
+    response.setStatus(404);
+  }
+
+  private void list(
+    final HttpServletRequest request,
+    final HttpServletResponse response,
+    final String domain)
+    throws IOException
+  {
+    final var page =
+      Integer.parseInt(
+        Objects.requireNonNullElse(request.getParameter("page"), "1"));
+    final var sets =
+      new ArrayList<>(this.zone.recordsInDomain(domain).entrySet());
+    final var start =
+      Math.min(sets.size(), Math.max(0, page - 1) * PAGE_SIZE);
+    final var end =
+      Math.min(sets.size(), start + PAGE_SIZE);
+
+    final var output = this.mapper.createObjectNode();
+    final var rrsets = output.putArray("rrsets");
+    for (final var entry : sets.subList(start, end)) {
+      final var rrset = rrsets.addObject();
+      rrset.put("zone", domain);
+      rrset.put("id", entry.getKey() + "/TXT");
+      rrset.put("name", entry.getKey());
+      rrset.put("type", "TXT");
+      rrset.put("ttl", 600);
+
+      final var records = rrset.putArray("records");
+      for (final var value : entry.getValue()) {
+        final var record = records.addObject();
+        record.put("value", "\"%s\"".formatted(value));
+        record.put("comment", "");
+      }
+    }
+
+    response.setStatus(200);
+    response.setContentType("application/json");
+    try (var stream = response.getOutputStream()) {
+      stream.write(this.mapper.writeValueAsString(output).getBytes(UTF_8));
+      stream.flush();
+    }
+  }
+
+  private void modify(
+    final HttpServletResponse response,
+    final String name,
+    final String body,
+    final boolean add)
+    throws IOException
+  {
+    final var records = this.mapper.readTree(body).get("records");
+    for (final var record : records) {
+      final var value = unquote(record.get("value").asText());
+      if (add) {
+        this.zone.add(name, value);
+      } else {
+        this.zone.remove(name, value);
+      }
+    }
+
+    response.setStatus(201);
+    response.setContentType("application/json");
+    try (var stream = response.getOutputStream()) {
+      stream.write("""
+                     {
+                       "action": {
+                         "status": "success"
+                       }
+                     }
+                     """.getBytes(UTF_8));
+      stream.flush();
+    }
+  }
+}
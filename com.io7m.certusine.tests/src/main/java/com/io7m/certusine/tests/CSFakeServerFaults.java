@@ -0,0 +1,129 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.tests;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public final class CSFakeServerFaults implements Filter
+{
+  private final Duration latency;
+  private final double failureRate;
+  private final Random random;
+  private final AtomicLong requests;
+  private final AtomicLong failures;
+
+  public CSFakeServerFaults(
+    final Duration inLatency,
+    final double inFailureRate,
+    final long seed)
+  {
+    this.latency =
+      Objects.requireNonNull(inLatency, "latency");
+    this.failureRate =
+      inFailureRate;
+    this.random =
+      new Random(seed);
+    this.requests =
+      new AtomicLong();
+    this.failures =
+      new AtomicLong();
+
+    if (inLatency.isNegative()) {
+      throw new IllegalArgumentException("Latency must be non-negative");
+    }
+    if (inFailureRate < 0.0 || inFailureRate > 1.0) {
+      throw new IllegalArgumentException("Failure rate must be in [0, 1]");
+    }
+  }
+
+  public static CSFakeServerFaults none()
+  {
+    return new CSFakeServerFaults(Duration.ZERO, 0.0, 0L);
+  }
+
+  public long requests()
+  {
+    return this.requests.get();
+  }
+
+  public long failures()
+  {
+    return this.failures.get();
+  }
+
+  private boolean shouldFail()
+  {
+    synchronized (this.random) {
+      return this.random.nextDouble() < this.failureRate;
+    }
+  }
+
+  @Override
+  public void doFilter(
+    final ServletRequest request,
+    final ServletResponse response,
+    final FilterChain chain)
+    throws IOException, ServletException
+  {
+    this.requests.incrementAndGet();
+
+    if (!this.latency.isZero()) {
+      try {
+        Thread.sleep(this.latency);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ServletException(e);
+      }
+    }
+
+    if (this.shouldFail()) {
+      this.failures.incrementAndGet();
+      request.getInputStream().readAllBytes();
+
+      final var httpResponse = (HttpServletResponse) response;
+      httpResponse.setStatus(500);
+      httpResponse.setContentType("application/problem+json");
+      try (var stream = httpResponse.getOutputStream()) {
+        stream.write("""
+                       {
+                         "type": "urn:ietf:params:acme:error:serverInternal",
+                         "detail": "Injected fault."
+                       }
+                       """.getBytes(UTF_8));
+        stream.flush();
+      }
+      return;
+    }
+
+    chain.doFilter(request, response);
+  }
+}
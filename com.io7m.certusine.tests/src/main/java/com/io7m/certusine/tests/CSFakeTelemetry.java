@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.tests;
+
+import com.io7m.certusine.api.CSTelemetryServiceType;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.logs.Logger;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+public final class CSFakeTelemetry implements CSTelemetryServiceType
+{
+  private final InMemoryMetricReader metricReader;
+  private final Meter meter;
+  private final Tracer tracer;
+  private final Logger logger;
+
+  public CSFakeTelemetry()
+  {
+    final var noop = OpenTelemetry.noop();
+
+    this.metricReader =
+      InMemoryMetricReader.create();
+    this.meter =
+      SdkMeterProvider.builder()
+        .registerMetricReader(this.metricReader)
+        .build()
+        .get("com.io7m.certusine");
+    this.tracer =
+      noop.getTracer("noop");
+    this.logger =
+      noop.getLogsBridge().get("noop");
+  }
+
+  public Optional<HistogramPointData> histogram(
+    final String name,
+    final Attributes attributes)
+  {
+    for (final var metric : this.metricReader.collectAllMetrics()) {
+      if (!metric.getName().equals(name)) {
+        continue;
+      }
+      for (final var point : metric.getHistogramData().getPoints()) {
+        if (point.getAttributes().equals(attributes)) {
+          return Optional.of(point);
+        }
+      }
+    }
+    return Optional.empty();
+  }
+
+  public Map<Attributes, Long> longGauge(
+    final String name)
+  {
+    final var values = new HashMap<Attributes, Long>();
+    for (final var metric : this.metricReader.collectAllMetrics()) {
+      if (!metric.getName().equals(name)) {
+        continue;
+      }
+      for (final var point : metric.getLongGaugeData().getPoints()) {
+        values.put(point.getAttributes(), Long.valueOf(point.getValue()));
+      }
+    }
+    return values;
+  }
+
+  @Override
+  public Tracer tracer()
+  {
+    return this.tracer;
+  }
+
+  @Override
+  public Meter meter()
+  {
+    return this.meter;
+  }
+
+  @Override
+  public Logger logger()
+  {
+    return this.logger;
+  }
+
+  @Override
+  public String description()
+  {
+    return "Fake telemetry service.";
+  }
+}
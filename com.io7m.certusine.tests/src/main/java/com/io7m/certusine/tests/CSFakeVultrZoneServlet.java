@@ -0,0 +1,172 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.tests;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.UUID;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public final class CSFakeVultrZoneServlet extends HttpServlet
+{
+  private final CSFakeDNSZone zone;
+  private final JsonMapper mapper;
+
+  public CSFakeVultrZoneServlet(
+    final CSFakeDNSZone inZone)
+  {
+    this.zone =
+      Objects.requireNonNull(inZone, "zone");
+    this.mapper =
+      JsonMapper.builder().build();
+  }
+
+  private static String recordId(
+    final String name,
+    final String value)
+  {
+    return UUID.nameUUIDFromBytes((name + "\n" + value).getBytes(UTF_8))
+      .toString();
+  }
+
+  private static String qualify(
+    final String name,
+    final String domain)
+  {
+    return name.isEmpty() ? domain : name + "." + domain;
+  }
+
+  @Override
+  protected void service(
+    final HttpServletRequest request,
+    final HttpServletResponse response)
+    throws IOException
+  {
+    final var body =
+      new String(request.getInputStream().readAllBytes(), UTF_8);
+    final var segments =
+      Objects.requireNonNullElse(request.getPathInfo(), "")
+        .replaceAll("^/", "")
+        .split("/");
+
+    if (segments.length < 2 || !Objects.equals(segments[1], "records")) {
+      response.setStatus(404);
+      return;
+    }
+
+    final var domain = segments[0];
+    switch (request.getMethod()) {
+      case "GET" -> this.list(response, domain);
+      case "POST" -> this.create(response, domain, body);
+      case "DELETE" -> {
+        if (segments.length != 3) {
+          response.setStatus(404);
+          return;
+        }
+        this.delete(response, domain, segments[2]);
+      }
+      default -> response.setStatus(405);
+    }
+  }
+
+  private void list(
+    final HttpServletResponse response,
+    final String domain)
+    throws IOException
+  {
+    final var output = this.mapper.createObjectNode();
+    final var records = output.putArray("records");
+    for (final var entry : this.zone.recordsInDomain(domain).entrySet()) {
+      for (final var value : entry.getValue()) {
+        final var record = records.addObject();
+        record.put("id", recordId(qualify(entry.getKey(), domain), value));
+        record.put("type", "TXT");
+        record.put("name", entry.getKey());
+        record.put("data", "\"%s\"".formatted(value));
+        record.put("priority", 0);
+        record.put("ttl", 300);
+      }
+    }
+
+    final var meta = output.putObject("meta");
+    meta.put("total", records.size());
+    final var links = meta.putObject("links");
+    links.put("next", "");
+    links.put("prev", "");
+
+    response.setStatus(200);
+    response.setContentType("application/json");
+    try (var stream = response.getOutputStream()) {
+      stream.write(this.mapper.writeValueAsString(output).getBytes(UTF_8));
+      stream.flush();
+    }
+  }
+
+  private void create(
+    final HttpServletResponse response,
+    final String domain,
+    final String body)
+    throws IOException
+  {
+    final var request =
+      this.mapper.readTree(body);
+    final var name =
+      qualify(request.get("name").asText(), domain);
+
+    if (!this.zone.add(name, request.get("data").asText())) {
+      response.setStatus(400);
+      response.setContentType("application/json");
+      try (var stream = response.getOutputStream()) {
+        stream.write("""
+                       {
+                         "error": "Duplicate records are not allowed",
+                         "status": 400
+                       }
+                       """.getBytes(UTF_8));
+        stream.flush();
+      }
+      return;
+    }
+    response.setStatus(201);
+  }
+
+  private void delete(
+    final HttpServletResponse response,
+    final String domain,
+    final String id)
+  {
+    for (final var entry : this.zone.recordsInDomain(domain).entrySet()) {
+      final var name = qualify(entry.getKey(), domain);
+      for (final var value : entry.getValue()) {
+        if (Objects.equals(recordId(name, value), id)) {
+          this.zone.remove(name, value);
+          response.setStatus(204);
+          return;
+        }
+      }
+    }
+    response.setStatus(404);
+  }
+}
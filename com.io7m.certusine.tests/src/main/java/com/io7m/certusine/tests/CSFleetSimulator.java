@@ -0,0 +1,441 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.tests;
+
+import com.io7m.certusine.api.CSTelemetryNoOp;
+import com.io7m.certusine.vanilla.CSDomains;
+import com.io7m.certusine.vanilla.CSRenewalCertificateReport;
+import com.io7m.certusine.vanilla.CSRenewalOutcome;
+import com.io7m.certusine.vanilla.CSRenewalPassReport;
+import com.io7m.certusine.vanilla.CSServices;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A load simulator that runs complete renewal passes over a generated fleet
+ * of domains against the fake ACME and DNS servers, and reports throughput,
+ * pass durations, peak heap usage, and peak thread counts.
+ */
+
+public final class CSFleetSimulator
+{
+  public static final int ACME_PORT = 20000;
+  public static final int DNS_PORT = 20001;
+
+  private CSFleetSimulator()
+  {
+
+  }
+
+  public enum Provider
+  {
+    VULTR,
+    HETZNER
+  }
+
+  public record Settings(
+    Path directory,
+    int domains,
+    int certificates,
+    Provider provider,
+    Duration latency,
+    double failureRate,
+    long seed,
+    int passes)
+  {
+    public Settings
+    {
+      Objects.requireNonNull(directory, "directory");
+      Objects.requireNonNull(provider, "provider");
+      Objects.requireNonNull(latency, "latency");
+
+      if (domains < 1 || certificates < 1 || passes < 1) {
+        throw new IllegalArgumentException(
+          "Domains, certificates, and passes must be positive");
+      }
+    }
+  }
+
+  public record Result(
+    List<CSRenewalPassReport> passes,
+    long certificatesIssued,
+    long certificatesFresh,
+    long certificatesFailed,
+    long retries,
+    long peakHeapBytes,
+    int peakThreads,
+    long acmeRequests,
+    long acmeFailures,
+    long dnsRequests,
+    long dnsFailures)
+  {
+    public Duration total()
+    {
+      return this.passes.stream()
+        .map(CSRenewalPassReport::total)
+        .reduce(Duration.ZERO, Duration::plus);
+    }
+
+    public double certificatesPerSecond()
+    {
+      final var seconds = this.total().toNanos() / 1_000_000_000.0;
+      if (seconds == 0.0) {
+        return 0.0;
+      }
+      return this.certificatesIssued / seconds;
+    }
+  }
+
+  public static void main(
+    final String[] args)
+    throws Exception
+  {
+    if (args.length < 2) {
+      System.err.println(
+        "usage: domains certificates [vultr|hetzner] [latency-ms] [failure-rate] [passes] [seed]");
+      System.exit(1);
+    }
+
+    final var directory =
+      CSTestDirectories.createTempDirectory();
+
+    try {
+      final var settings =
+        new Settings(
+          directory,
+          Integer.parseInt(args[0]),
+          Integer.parseInt(args[1]),
+          args.length > 2
+            ? Provider.valueOf(args[2].toUpperCase(Locale.ROOT))
+            : Provider.VULTR,
+          args.length > 3
+            ? Duration.ofMillis(Long.parseLong(args[3]))
+            : Duration.ZERO,
+          args.length > 4
+            ? Double.parseDouble(args[4])
+            : 0.0,
+          args.length > 6
+            ? Long.parseLong(args[6])
+            : 1L,
+          args.length > 5
+            ? Integer.parseInt(args[5])
+            : 1
+        );
+
+      System.out.print(format(settings, run(settings)));
+    } finally {
+      CSTestDirectories.deleteDirectory(directory);
+    }
+  }
+
+  public static Result run(
+    final Settings settings)
+    throws Exception
+  {
+    Objects.requireNonNull(settings, "settings");
+
+    final var configurationFile =
+      writeConfiguration(settings);
+    final var zone =
+      new CSFakeDNSZone();
+    final var acmeFaults =
+      new CSFakeServerFaults(
+        settings.latency(), settings.failureRate(), settings.seed());
+    final var dnsFaults =
+      new CSFakeServerFaults(
+        settings.latency(), settings.failureRate(), settings.seed() + 1L);
+
+    final var threads = ManagementFactory.getThreadMXBean();
+    threads.resetPeakThreadCount();
+
+    final var passes = new ArrayList<CSRenewalPassReport>();
+    final var heap = new HeapSampler();
+    heap.start();
+
+    try (var ignored0 = CSFakeAcmeServer.create(ACME_PORT, zone, acmeFaults);
+         var ignored1 = startDNSServer(settings.provider(), zone, dnsFaults)) {
+      final var services =
+        CSServices.create(
+          Locale.ROOT,
+          configurationFile,
+          Clock.systemUTC(),
+          CSTelemetryNoOp.noop(),
+          new CSFakeDNSQueriesFactory(ns -> new CSFakeDNSZoneQueries(zone))
+        );
+
+      try {
+        for (int pass = 0; pass < settings.passes(); ++pass) {
+          passes.add(CSDomains.renewAll(services, Clock.systemUTC()).report());
+        }
+      } finally {
+        services.close();
+      }
+    } finally {
+      heap.stop();
+    }
+
+    final var certificates =
+      passes.stream()
+        .flatMap(p -> p.domains().stream())
+        .flatMap(d -> d.certificates().stream())
+        .toList();
+    final var outcomes =
+      certificates.stream()
+        .map(CSRenewalCertificateReport::outcome)
+        .toList();
+
+    return new Result(
+      List.copyOf(passes),
+      outcomes.stream().filter(o -> o == CSRenewalOutcome.ISSUED).count(),
+      outcomes.stream().filter(o -> o == CSRenewalOutcome.SKIPPED_FRESH).count(),
+      outcomes.stream().filter(o -> o == CSRenewalOutcome.FAILED).count(),
+      certificates.stream().mapToLong(CSRenewalCertificateReport::retries).sum(),
+      heap.peak(),
+      threads.getPeakThreadCount(),
+      acmeFaults.requests(),
+      acmeFaults.failures(),
+      dnsFaults.requests(),
+      dnsFaults.failures()
+    );
+  }
+
+  public static String format(
+    final Settings settings,
+    final Result result)
+  {
+    final var text = new StringBuilder(256);
+    text.append("Fleet: %d domains x %d certificates (%s, latency %d ms, failure rate %.3f, seed %d)%n"
+                  .formatted(
+                    Integer.valueOf(settings.domains()),
+                    Integer.valueOf(settings.certificates()),
+                    settings.provider(),
+                    Long.valueOf(settings.latency().toMillis()),
+                    Double.valueOf(settings.failureRate()),
+                    Long.valueOf(settings.seed())));
+
+    for (int index = 0; index < result.passes().size(); ++index) {
+      text.append("  pass %d: %d ms%n".formatted(
+        Integer.valueOf(index),
+        Long.valueOf(result.passes().get(index).total().toMillis())));
+    }
+
+    text.append("  certificates: %d issued, %d fresh, %d failed%n".formatted(
+      Long.valueOf(result.certificatesIssued()),
+      Long.valueOf(result.certificatesFresh()),
+      Long.valueOf(result.certificatesFailed())));
+    text.append("  task retries: %d%n".formatted(
+      Long.valueOf(result.retries())));
+    text.append("  throughput: %.3f certificates/s%n".formatted(
+      Double.valueOf(result.certificatesPerSecond())));
+    text.append("  peak heap: %d KiB%n".formatted(
+      Long.valueOf(result.peakHeapBytes() / 1024L)));
+    text.append("  peak threads: %d%n".formatted(
+      Integer.valueOf(result.peakThreads())));
+    text.append("  ACME requests: %d (%d failed)%n".formatted(
+      Long.valueOf(result.acmeRequests()),
+      Long.valueOf(result.acmeFailures())));
+    text.append("  DNS requests: %d (%d failed)%n".formatted(
+      Long.valueOf(result.dnsRequests()),
+      Long.valueOf(result.dnsFailures())));
+    return text.toString();
+  }
+
+  private static AutoCloseable startDNSServer(
+    final Provider provider,
+    final CSFakeDNSZone zone,
+    final CSFakeServerFaults faults)
+    throws Exception
+  {
+    return switch (provider) {
+      case VULTR -> CSFakeVultrServer.create(DNS_PORT, zone, faults);
+      case HETZNER -> CSFakeHetznerServer.create(DNS_PORT, zone, faults);
+    };
+  }
+
+  private static Path writeConfiguration(
+    final Settings settings)
+    throws Exception
+  {
+    final var directory = settings.directory();
+    Files.writeString(
+      directory.resolve("fake.pub"), CSTestResources.resourceOf("fake.pub"));
+    Files.writeString(
+      directory.resolve("fake.pri"), CSTestResources.resourceOf("fake.pri"));
+    Files.createDirectories(directory.resolve("output"));
+
+    final var text = new StringBuilder(1024 * settings.domains());
+    text.append("""
+      <?xml version="1.0" encoding="UTF-8" ?>
+      <Configuration xmlns="urn:com.io7m.certusine:configuration:2">
+        <Options CertificateStore="%s"
+                 DNSWaitTime="PT0S"
+                 CertificateExpirationThreshold="PT72H"/>
+        <Accounts>
+          <Account Name="main"
+                   PublicKeyPath="fake.pub"
+                   PrivateKeyPath="fake.pri"
+                   AcmeURI="http://localhost:%d/acme/directory/0"/>
+        </Accounts>
+        <Outputs>
+          <Output Type="Directory" Name="main-output">
+            <Parameters>
+              <Parameter Name="path" Value="%s"/>
+            </Parameters>
+          </Output>
+        </Outputs>
+        <DNSConfigurators>
+      """.formatted(
+      directory.resolve("store.db").toAbsolutePath(),
+      Integer.valueOf(ACME_PORT),
+      directory.resolve("output").toAbsolutePath()));
+
+    for (int index = 0; index < settings.domains(); ++index) {
+      text.append(dnsConfigurator(settings.provider(), domainName(index)));
+    }
+
+    text.append("""
+        </DNSConfigurators>
+        <Domains>
+      """);
+
+    for (int index = 0; index < settings.domains(); ++index) {
+      final var domain = domainName(index);
+      text.append("""
+            <Domain Name="%s" Account="main" DNSConfigurator="dns-%s">
+              <Certificates>
+        """.formatted(domain, domain));
+
+      for (int cert = 0; cert < settings.certificates(); ++cert) {
+        text.append("""
+                  <Certificate Name="c%d"
+                               PublicKeyPath="fake.pub"
+                               PrivateKeyPath="fake.pri">
+                    <Hosts>
+                      <Host Name="host%d"/>
+                    </Hosts>
+                  </Certificate>
+          """.formatted(Integer.valueOf(cert), Integer.valueOf(cert)));
+      }
+
+      text.append("""
+              </Certificates>
+              <OutputReferences>
+                <OutputReference Name="main-output"/>
+              </OutputReferences>
+            </Domain>
+        """);
+    }
+
+    text.append("""
+        </Domains>
+      </Configuration>
+      """);
+
+    final var file = directory.resolve("fleet.xml");
+    Files.writeString(file, text.toString());
+    return file;
+  }
+
+  private static String domainName(
+    final int index)
+  {
+    return "d%d.example.com".formatted(Integer.valueOf(index));
+  }
+
+  private static String dnsConfigurator(
+    final Provider provider,
+    final String domain)
+  {
+    return switch (provider) {
+      case VULTR -> """
+            <DNSConfigurator Type="Vultr" Name="dns-%s">
+              <Parameters>
+                <Parameter Name="api-key" Value="NOTANAPIKEY"/>
+                <Parameter Name="api-base" Value="http://localhost:%d"/>
+                <Parameter Name="domain" Value="%s"/>
+              </Parameters>
+            </DNSConfigurator>
+        """.formatted(domain, Integer.valueOf(DNS_PORT), domain);
+      case HETZNER -> """
+            <DNSConfigurator Type="Hetzner" Name="dns-%s">
+              <Parameters>
+                <Parameter Name="api-key" Value="NOTANAPIKEY"/>
+                <Parameter Name="api-base" Value="http://localhost:%d"/>
+                <Parameter Name="domain-name" Value="%s"/>
+                <Parameter Name="zone-id" Value="%s"/>
+              </Parameters>
+            </DNSConfigurator>
+        """.formatted(domain, Integer.valueOf(DNS_PORT), domain, domain);
+    };
+  }
+
+  private static final class HeapSampler
+  {
+    private final AtomicBoolean running;
+    private final AtomicLong peak;
+    private Thread thread;
+
+    HeapSampler()
+    {
+      this.running = new AtomicBoolean(true);
+      this.peak = new AtomicLong();
+    }
+
+    void start()
+    {
+      final var memory = ManagementFactory.getMemoryMXBean();
+      this.thread = Thread.ofPlatform()
+        .daemon()
+        .name("com.io7m.certusine.tests.heap-sampler")
+        .start(() -> {
+          while (this.running.get()) {
+            final var used = memory.getHeapMemoryUsage().getUsed();
+            this.peak.accumulateAndGet(used, Math::max);
+            try {
+              Thread.sleep(10L);
+            } catch (final InterruptedException e) {
+              return;
+            }
+          }
+        });
+    }
+
+    void stop()
+      throws InterruptedException
+    {
+      this.running.set(false);
+      this.thread.join();
+    }
+
+    long peak()
+    {
+      return this.peak.get();
+    }
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.tests;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class CSFleetSimulatorTest
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(CSFleetSimulatorTest.class);
+
+  private Path directory;
+
+  @BeforeEach
+  public void setup()
+    throws IOException
+  {
+    this.directory = CSTestDirectories.createTempDirectory();
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws IOException
+  {
+    CSTestDirectories.deleteDirectory(this.directory);
+  }
+
+  private void runSmallFleet(
+    final CSFleetSimulator.Provider provider)
+    throws Exception
+  {
+    final var settings =
+      new CSFleetSimulator.Settings(
+        this.directory,
+        2,
+        2,
+        provider,
+        Duration.ofMillis(1L),
+        0.0,
+        1L,
+        1
+      );
+
+    final var result = CSFleetSimulator.run(settings);
+    LOG.info("{}", CSFleetSimulator.format(settings, result));
+
+    assertEquals(1, result.passes().size());
+    assertEquals(4L, result.certificatesIssued());
+    assertEquals(0L, result.certificatesFailed());
+    assertEquals(0L, result.acmeFailures());
+    assertEquals(0L, result.dnsFailures());
+    assertEquals(0L, result.retries());
+    assertTrue(result.dnsRequests() >= 4L);
+    assertTrue(result.certificatesPerSecond() > 0.0);
+    assertTrue(result.peakHeapBytes() > 0L);
+    assertTrue(result.peakThreads() > 0);
+  }
+
+  /**
+   * A small fleet renewed against well-behaved fake servers has every
+   * certificate issued, with challenge records published through Vultr.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSmallFleetVultr()
+    throws Exception
+  {
+    this.runSmallFleet(CSFleetSimulator.Provider.VULTR);
+  }
+
+  /**
+   * A small fleet renewed against well-behaved fake servers has every
+   * certificate issued, with challenge records published through Hetzner.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSmallFleetHetzner()
+    throws Exception
+  {
+    this.runSmallFleet(CSFleetSimulator.Provider.HETZNER);
+  }
+
+  /**
+   * A small fleet renewed against fake servers that inject failures has
+   * the injected failures retried. The seed is chosen so that none of the
+   * first dozen ACME requests fail, and so that the first two DNS provider
+   * requests fail. Those requests create the challenge records for the
+   * first two certificates, and so each of them must be retried.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSmallFleetInjectedFailures()
+    throws Exception
+  {
+    final var settings =
+      new CSFleetSimulator.Settings(
+        this.directory,
+        2,
+        2,
+        CSFleetSimulator.Provider.VULTR,
+        Duration.ofMillis(1L),
+        0.05,
+        4639L,
+        1
+      );
+
+    final var result = CSFleetSimulator.run(settings);
+    final var report = CSFleetSimulator.format(settings, result);
+    LOG.info("{}", report);
+
+    assertEquals(1, result.passes().size());
+    assertEquals(4L, result.certificatesIssued() + result.certificatesFailed());
+    assertTrue(result.dnsFailures() >= 2L);
+    assertTrue(result.dnsFailures() <= result.dnsRequests());
+    assertTrue(result.acmeFailures() <= result.acmeRequests());
+    assertTrue(result.retries() >= 2L);
+
+    assertTrue(report.contains(
+      "DNS requests: %d (%d failed)".formatted(
+        Long.valueOf(result.dnsRequests()),
+        Long.valueOf(result.dnsFailures()))));
+    assertTrue(report.contains(
+      "task retries: %d".formatted(Long.valueOf(result.retries()))));
+  }
+}
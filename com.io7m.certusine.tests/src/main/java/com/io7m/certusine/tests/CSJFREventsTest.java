@@ -0,0 +1,112 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.tests;
+
+import com.io7m.certusine.api.CSCertificateName;
+import com.io7m.certusine.api.CSTelemetryNoOp;
+import com.io7m.certusine.certstore.api.CSCertificateStored;
+import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreSQLiteFactory;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+
+import static java.time.ZoneOffset.UTC;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class CSJFREventsTest
+{
+  private Path directory;
+
+  @BeforeEach
+  public void setup()
+    throws IOException
+  {
+    this.directory = CSTestDirectories.createTempDirectory();
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws IOException
+  {
+    CSTestDirectories.deleteDirectory(this.directory);
+  }
+
+  /**
+   * Certificate store operations produce flight recorder events.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testStoreOperationEvents()
+    throws Exception
+  {
+    final var certificate =
+      new CSCertificateStored(
+        "example.com",
+        new CSCertificateName("www"),
+        OffsetDateTime.of(2000, 1, 1, 0, 0, 0, 0, UTC),
+        OffsetDateTime.of(2001, 1, 1, 0, 0, 0, 0, UTC),
+        "-- BEGIN CERTIFICATE --",
+        "-- BEGIN CERTIFICATE --"
+      );
+
+    final var output = this.directory.resolve("events.jfr");
+    try (var recording = new Recording()) {
+      recording.enable("com.io7m.certusine.StoreOperation");
+      recording.start();
+
+      try (var store = new CSCertificateStoreSQLiteFactory()
+        .open(CSTelemetryNoOp.noop(), this.directory.resolve("store.db"))) {
+        store.put(certificate);
+      }
+
+      recording.stop();
+      recording.dump(output);
+    }
+
+    final var events =
+      RecordingFile.readAllEvents(output)
+        .stream()
+        .filter(e -> "com.io7m.certusine.StoreOperation".equals(e.getEventType().getName()))
+        .toList();
+
+    assertFalse(events.isEmpty());
+    assertTrue(
+      events.stream()
+        .anyMatch(CSJFREventsTest::isSuccessfulPut),
+      events.toString()
+    );
+  }
+
+  private static boolean isSuccessfulPut(
+    final RecordedEvent event)
+  {
+    return "put".equals(event.getString("operation"))
+           && event.getBoolean("succeeded");
+  }
+}
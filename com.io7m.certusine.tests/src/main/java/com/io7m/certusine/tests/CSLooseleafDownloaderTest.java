@@ -42,6 +42,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -149,6 +150,7 @@ public final class CSLooseleafDownloaderTest
       "CERT",
       "CERTFULL"
     ));
+    output.passCompleted(noop());
 
     final var data =
       this.directory.resolve("output");
@@ -203,6 +205,7 @@ public final class CSLooseleafDownloaderTest
       "CERT",
       "CERTFULL"
     ));
+    output.passCompleted(noop());
 
     final var data =
       this.directory.resolve("output");
@@ -257,6 +260,135 @@ public final class CSLooseleafDownloaderTest
     LOG.error("exception: ", ex);
   }
 
+  /**
+   * Multiple certificates are downloaded, and only changed certificates are
+   * rewritten.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testMultipleChanges()
+    throws Exception
+  {
+    final var output =
+      this.outputs.create(
+        "example",
+        new CSConfigurationParameters(
+          this.directory,
+          LexicalPositions.zero(),
+          Map.ofEntries(
+            entry("endpoint", "http://localhost:20000/"),
+            entry("username", "grouch"),
+            entry("password", "password")
+          )
+        )
+      );
+
+    final var www = new CSCertificateName("www");
+    final var mail = new CSCertificateName("mail");
+
+    for (final var name : List.of(www, mail)) {
+      output.write(
+        noop(),
+        new CSCertificateOutputData(
+          "example.com", name, "PUB", "PRI", "CERT", "CERTFULL"));
+    }
+    output.passCompleted(noop());
+
+    final var downloader =
+      CSLLDownloader.create(
+        this.directory.resolve("output"),
+        "http://localhost:20000/",
+        new CSLLCredentials("grouch", "password"),
+        "example.com",
+        List.of(www, mail)
+      );
+
+    assertEquals(List.of(www, mail), downloader.execute());
+    assertEquals(List.of(), downloader.execute());
+
+    final var mailFile =
+      this.directory.resolve("output")
+        .resolve("certificates")
+        .resolve("example.com")
+        .resolve("mail")
+        .resolve("certificate");
+
+    final var mailTime =
+      FileTime.fromMillis(0L);
+    Files.setLastModifiedTime(mailFile, mailTime);
+
+    output.write(
+      noop(),
+      new CSCertificateOutputData(
+        "example.com", www, "PUB", "PRI", "CERT2", "CERTFULL2"));
+    output.passCompleted(noop());
+
+    assertEquals(List.of(www), downloader.execute());
+    assertEquals("CERT2", this.read("example.com", "www", "certificate"));
+    assertEquals(mailTime, Files.getLastModifiedTime(mailFile));
+  }
+
+  /**
+   * Probing only reports certificates that differ from those on disk.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testProbe()
+    throws Exception
+  {
+    final var output =
+      this.outputs.create(
+        "example",
+        new CSConfigurationParameters(
+          this.directory,
+          LexicalPositions.zero(),
+          Map.ofEntries(
+            entry("endpoint", "http://localhost:20000/"),
+            entry("username", "grouch"),
+            entry("password", "password")
+          )
+        )
+      );
+
+    final var www = new CSCertificateName("www");
+    final var mail = new CSCertificateName("mail");
+
+    for (final var name : List.of(www, mail)) {
+      output.write(
+        noop(),
+        new CSCertificateOutputData(
+          "example.com", name, "PUB", "PRI", "CERT", "CERTFULL"));
+    }
+    output.passCompleted(noop());
+
+    final var downloader =
+      CSLLDownloader.create(
+        this.directory.resolve("output"),
+        "http://localhost:20000/",
+        new CSLLCredentials("grouch", "password"),
+        "example.com",
+        List.of(www, mail)
+      );
+
+    assertEquals(List.of(www, mail), downloader.probe());
+    downloader.execute();
+    assertEquals(List.of(), downloader.probe());
+
+    output.write(
+      noop(),
+      new CSCertificateOutputData(
+        "example.com", mail, "PUB", "PRI", "CERT2", "CERTFULL2"));
+    output.passCompleted(noop());
+
+    assertEquals(List.of(mail), downloader.probe());
+    assertEquals(List.of(mail), downloader.execute(List.of(mail)));
+    assertEquals(List.of(), downloader.probe());
+  }
+
   private String read(
     final String domain,
     final String cert,
@@ -56,6 +56,8 @@ import static com.io7m.looseleaf.server.api.LLServerAction.WRITE;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Map.entry;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -182,6 +184,13 @@ public final class CSLooseleafOutputTest
         "CERTFULL"
       ));
 
+    assertTrue(output.writesDeferred());
+    assertNotEquals("PUB", get("/certificates/example.com/www/public_key"));
+
+    final var results = output.passCompleted(noop());
+    assertEquals(1, results.size());
+    assertEquals(Optional.empty(), results.get(0).failure());
+
     assertEquals("PUB", get("/certificates/example.com/www/public_key"));
     assertEquals("PRI", get("/certificates/example.com/www/private_key"));
     assertEquals("CERT", get("/certificates/example.com/www/certificate"));
@@ -209,19 +218,74 @@ public final class CSLooseleafOutputTest
         )
       );
 
-    final var ex = assertThrows(IOException.class, () -> {
+    output.write(
+      noop(),
+      new CSCertificateOutputData(
+        "example.com",
+        new CSCertificateName("www"),
+        "PUB",
+        "PRI",
+        "CERT",
+        "CERTFULL"
+      ));
+
+    final var results = output.passCompleted(noop());
+    assertEquals(1, results.size());
+
+    final var ex = results.get(0).failure().orElseThrow();
+    assertInstanceOf(IOException.class, ex);
+    assertEquals("Server returned an error status: 401", ex.getMessage());
+  }
+
+  /**
+   * Many certificates written in a single pass are all delivered, and each
+   * certificate has its own result.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testWriteOutputBatched()
+    throws Exception
+  {
+    final var output =
+      this.outputs.create(
+        "example",
+        new CSConfigurationParameters(
+          this.directory,
+          LexicalPositions.zero(),
+          Map.ofEntries(
+            entry("endpoint", "http://localhost:20000/"),
+            entry("username", "grouch"),
+            entry("password", "password")
+          )
+        )
+      );
+
+    for (int index = 0; index < 100; ++index) {
       output.write(
         noop(),
         new CSCertificateOutputData(
           "example.com",
-          new CSCertificateName("www"),
-          "PUB",
-          "PRI",
-          "CERT",
-          "CERTFULL"
+          new CSCertificateName("www%d".formatted(Integer.valueOf(index))),
+          "PUB" + index,
+          "PRI" + index,
+          "CERT" + index,
+          "CERTFULL" + index
         ));
-    });
-    assertEquals("Server returned an error status: 401", ex.getMessage());
+    }
+
+    final var results = output.passCompleted(noop());
+    assertEquals(100, results.size());
+    assertTrue(results.stream().allMatch(r -> r.failure().isEmpty()));
+    assertEquals(List.of(), output.passCompleted(noop()));
+
+    for (int index = 0; index < 100; ++index) {
+      final var base = "/certificates/example.com/www%d/".formatted(
+        Integer.valueOf(index));
+      assertEquals("PUB" + index, get(base + "public_key"));
+      assertEquals("CERTFULL" + index, get(base + "certificate_full_chain"));
+    }
   }
 
   private static String get(
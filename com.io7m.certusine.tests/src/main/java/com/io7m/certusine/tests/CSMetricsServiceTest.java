@@ -0,0 +1,407 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.tests;
+
+import com.io7m.certusine.api.CSAccount;
+import com.io7m.certusine.api.CSCertificate;
+import com.io7m.certusine.api.CSCertificateHistoryConfiguration;
+import com.io7m.certusine.api.CSCertificateName;
+import com.io7m.certusine.api.CSConfiguration;
+import com.io7m.certusine.api.CSConfigurationServiceType;
+import com.io7m.certusine.api.CSDomain;
+import com.io7m.certusine.api.CSEventJournalConfiguration;
+import com.io7m.certusine.api.CSEventQueueConfiguration;
+import com.io7m.certusine.api.CSFaultInjectionConfiguration;
+import com.io7m.certusine.api.CSOptions;
+import com.io7m.certusine.vanilla.internal.telemetry.CSMetricsService;
+import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreSQLiteFactory;
+import com.io7m.certusine.vanilla.internal.telemetry.CSMetricsServiceType;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+public final class CSMetricsServiceTest
+{
+  private static final CSCertificateName WWW =
+    new CSCertificateName("www");
+
+  private SubmissionPublisher<CSConfiguration> configurationEvents;
+  private CSFakeTelemetry telemetry;
+  private CSMetricsServiceType metrics;
+
+  private static CSConfiguration configuration(
+    final String... domainNames)
+  {
+    final var account =
+      new CSAccount(new KeyPair(null, null), URI.create("http://localhost"));
+
+    final var domains = new HashMap<String, CSDomain>();
+    for (final var domainName : domainNames) {
+      domains.put(
+        domainName,
+        new CSDomain(
+          account,
+          domainName,
+          Map.of(
+            WWW.value(),
+            new CSCertificate(WWW, new KeyPair(null, null), List.of("www"))
+          ),
+          new CSFakeDNSConfigurator(),
+          Map.of()
+        )
+      );
+    }
+
+    return new CSConfiguration(
+      new CSOptions(
+        false,
+        Path.of("store.db"),
+        "sqlite",
+        Duration.ofMinutes(5L),
+        Duration.ofHours(72L),
+        Optional.empty(),
+        CSFaultInjectionConfiguration.disabled(),
+        CSCertificateHistoryConfiguration.defaults(),
+        CSEventQueueConfiguration.defaults(),
+        CSEventJournalConfiguration.defaults()
+      ),
+      Map.copyOf(domains)
+    );
+  }
+
+  private HistogramPointData histogram(
+    final String name,
+    final Attributes attributes)
+  {
+    return this.telemetry.histogram(name, attributes)
+      .orElseThrow(() -> new AssertionError(
+        "No histogram %s with attributes %s".formatted(name, attributes)
+      ));
+  }
+
+  @BeforeEach
+  public void setup()
+  {
+    this.configurationEvents =
+      new SubmissionPublisher<>();
+
+    final var configurations =
+      Mockito.mock(CSConfigurationServiceType.class);
+
+    when(configurations.events())
+      .thenReturn(this.configurationEvents);
+
+    this.telemetry =
+      new CSFakeTelemetry();
+    this.metrics =
+      CSMetricsService.create(configurations, this.telemetry);
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws Exception
+  {
+    this.metrics.close();
+    this.configurationEvents.close();
+  }
+
+  /**
+   * Attributes are created once for each certificate and target.
+   */
+
+  @Test
+  public void testAttributesCached()
+  {
+    final Object a0 =
+      this.metrics.certificateAttributes("example.com", WWW);
+    final Object a1 =
+      this.metrics.certificateAttributes("example.com", WWW);
+    final Object b0 =
+      this.metrics.certificateAttributes("example.org", WWW);
+
+    assertSame(a0, a1);
+    assertNotEquals(a0, b0);
+
+    final Object t0 =
+      this.metrics.certificateTargetAttributes("example.com", WWW, "out");
+    final Object t1 =
+      this.metrics.certificateTargetAttributes("example.com", WWW, "out");
+    final Object t2 =
+      this.metrics.certificateTargetAttributes("example.com", WWW, "other");
+
+    assertSame(t0, t1);
+    assertNotEquals(t0, t2);
+    assertNotEquals(a0, t0);
+  }
+
+  /**
+   * Cached attributes are discarded when the configuration changes.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testAttributesInvalidated()
+    throws Exception
+  {
+    final Object a0 =
+      this.metrics.certificateAttributes("example.com", WWW);
+
+    this.configurationEvents.submit(configuration());
+
+    final var deadline =
+      System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+
+    while (System.nanoTime() < deadline) {
+      final Object a1 =
+        this.metrics.certificateAttributes("example.com", WWW);
+      if (a1 != a0) {
+        assertNotSame(a0, a1);
+        assertTrue(a0.equals(a1));
+        return;
+      }
+      Thread.sleep(10L);
+    }
+
+    throw new AssertionError("Cached attributes were not discarded.");
+  }
+
+  /**
+   * Reloading a configuration that contains the same certificates retains
+   * the cached attributes, and only the attributes of removed certificates
+   * are discarded.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testAttributesRetainedOnReload()
+    throws Exception
+  {
+    final Object a0 =
+      this.metrics.certificateAttributes("example.com", WWW);
+    final Object b0 =
+      this.metrics.certificateAttributes("example.org", WWW);
+
+    /*
+     * Events are delivered in order, so once the second configuration has
+     * removed example.org, the first has been delivered too.
+     */
+
+    this.configurationEvents.submit(
+      configuration("example.com", "example.org"));
+    this.configurationEvents.submit(
+      configuration("example.com"));
+
+    final var deadline =
+      System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+
+    while (System.nanoTime() < deadline) {
+      final Object b1 =
+        this.metrics.certificateAttributes("example.org", WWW);
+      if (b1 != b0) {
+        assertSame(
+          a0,
+          this.metrics.certificateAttributes("example.com", WWW)
+        );
+        return;
+      }
+      Thread.sleep(10L);
+    }
+
+    throw new AssertionError("Cached attributes were not discarded.");
+  }
+
+  /**
+   * Task durations are recorded by task.
+   */
+
+  @Test
+  public void testTaskDurationByTask()
+  {
+    this.metrics.recordTaskDuration("A", System.nanoTime());
+    this.metrics.recordTaskDuration("B", System.nanoTime());
+    this.metrics.recordTaskDuration("A", System.nanoTime());
+
+    final var a =
+      this.histogram(
+        "certusine_task_duration",
+        Attributes.of(stringKey("task"), "A"));
+    final var b =
+      this.histogram(
+        "certusine_task_duration",
+        Attributes.of(stringKey("task"), "B"));
+
+    assertEquals(2L, a.getCount());
+    assertEquals(1L, b.getCount());
+    assertEquals(CSMetricsService.PHASE_BUCKETS, a.getBoundaries());
+  }
+
+  /**
+   * ACME request durations are recorded by operation.
+   */
+
+  @Test
+  public void testAcmeRequestDurationByOperation()
+  {
+    this.metrics.recordAcmeRequestDuration("order.create", System.nanoTime());
+    this.metrics.recordAcmeRequestDuration("order.update", System.nanoTime());
+    this.metrics.recordAcmeRequestDuration("order.update", System.nanoTime());
+
+    final var create =
+      this.histogram(
+        "certusine_acme_request_duration",
+        Attributes.of(stringKey("operation"), "order.create"));
+    final var update =
+      this.histogram(
+        "certusine_acme_request_duration",
+        Attributes.of(stringKey("operation"), "order.update"));
+
+    assertEquals(1L, create.getCount());
+    assertEquals(2L, update.getCount());
+    assertEquals(CSMetricsService.REQUEST_BUCKETS, create.getBoundaries());
+  }
+
+  /**
+   * DNS request durations are recorded by provider and operation.
+   */
+
+  @Test
+  public void testDNSRequestDurationByProviderOperation()
+  {
+    final var time = System.nanoTime();
+    this.metrics.recordDNSRequestDuration("vultr", "create", time);
+    this.metrics.recordDNSRequestDuration("vultr", "create", time);
+    this.metrics.recordDNSRequestDuration("vultr", "delete", time);
+    this.metrics.recordDNSRequestDuration("hetzner", "create", time);
+
+    final var name = "certusine_dns_request_duration";
+    final var provider = stringKey("provider");
+    final var operation = stringKey("operation");
+
+    final var vultrCreate =
+      this.histogram(
+        name, Attributes.of(provider, "vultr", operation, "create"));
+    final var vultrDelete =
+      this.histogram(
+        name, Attributes.of(provider, "vultr", operation, "delete"));
+    final var hetznerCreate =
+      this.histogram(
+        name, Attributes.of(provider, "hetzner", operation, "create"));
+
+    assertEquals(2L, vultrCreate.getCount());
+    assertEquals(1L, vultrDelete.getCount());
+    assertEquals(1L, hetznerCreate.getCount());
+    assertEquals(
+      CSMetricsService.REQUEST_BUCKETS,
+      vultrCreate.getBoundaries()
+    );
+  }
+
+  /**
+   * DNS propagation durations are recorded by certificate.
+   */
+
+  @Test
+  public void testDNSPropagationDurationByCertificate()
+  {
+    final var mail = new CSCertificateName("mail");
+
+    this.metrics.recordDNSPropagationDuration(
+      "example.com", WWW, System.nanoTime());
+    this.metrics.recordDNSPropagationDuration(
+      "example.com", WWW, System.nanoTime());
+    this.metrics.recordDNSPropagationDuration(
+      "example.com", mail, System.nanoTime());
+
+    final var www =
+      this.histogram(
+        "certusine_dns_propagation_duration",
+        Attributes.builder()
+          .put("domain", "example.com")
+          .put("certificate", "www")
+          .build());
+    final var other =
+      this.histogram(
+        "certusine_dns_propagation_duration",
+        this.metrics.certificateAttributes("example.com", mail));
+
+    assertEquals(2L, www.getCount());
+    assertEquals(1L, other.getCount());
+    assertEquals(CSMetricsService.PHASE_BUCKETS, www.getBoundaries());
+  }
+
+  /**
+   * Certificate store operation durations are recorded by operation.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testStoreOperationDuration()
+    throws Exception
+  {
+    final var directory = CSTestDirectories.createTempDirectory();
+    try {
+      final var stores = new CSCertificateStoreSQLiteFactory();
+      try (var store =
+             stores.open(this.telemetry, directory.resolve("store.db"))) {
+        store.find("example.com", WWW);
+        store.find("example.com", WWW);
+        store.delete("example.com", WWW);
+      }
+
+      final var name = "certusine_store_operation_duration";
+      final var operation = stringKey("operation");
+
+      final var find =
+        this.histogram(name, Attributes.of(operation, "find"));
+      final var delete =
+        this.histogram(name, Attributes.of(operation, "delete"));
+
+      assertEquals(2L, find.getCount());
+      assertEquals(1L, delete.getCount());
+      assertEquals(CSMetricsService.REQUEST_BUCKETS, find.getBoundaries());
+    } finally {
+      CSTestDirectories.deleteDirectory(directory);
+    }
+  }
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.tests;
+
+import com.io7m.certusine.api.CSAccount;
+import com.io7m.certusine.api.CSCertificate;
+import com.io7m.certusine.api.CSCertificateHistoryConfiguration;
+import com.io7m.certusine.api.CSCertificateName;
+import com.io7m.certusine.api.CSConfiguration;
+import com.io7m.certusine.api.CSConfigurationServiceType;
+import com.io7m.certusine.api.CSDomain;
+import com.io7m.certusine.api.CSEventJournalConfiguration;
+import com.io7m.certusine.api.CSEventQueueConfiguration;
+import com.io7m.certusine.api.CSFaultInjectionConfiguration;
+import com.io7m.certusine.api.CSOptions;
+import com.io7m.certusine.api.CSTelemetryNoOp;
+import com.io7m.certusine.certstore.api.CSCertificateOutputRetry;
+import com.io7m.certusine.certstore.api.CSCertificateStored;
+import com.io7m.certusine.vanilla.internal.delivery.CSOutputDeliveries;
+import com.io7m.certusine.vanilla.internal.delivery.CSOutputDeliveryService;
+import com.io7m.certusine.vanilla.internal.delivery.CSOutputDeliveryServiceType;
+import com.io7m.certusine.vanilla.internal.events.CSEventServiceType;
+import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreServiceType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Map.entry;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class CSOutputDeliveryServiceTest
+{
+  private static final CSCertificateName WWW =
+    new CSCertificateName("www");
+
+  private Path directory;
+  private CSFakeClock clock;
+  private CSFakeCertificateOutput output0;
+  private CSFakeDeferredCertificateOutput deferred0;
+  private CSFakeCertificateStore certificates;
+  private CSOutputDeliveryServiceType service;
+
+  private static KeyPair generateKeyPair()
+    throws Exception
+  {
+    final var parameterSpec =
+      new ECGenParameterSpec("secp384r1");
+    final var generator =
+      KeyPairGenerator.getInstance("EC");
+
+    generator.initialize(parameterSpec, new SecureRandom());
+    return generator.generateKeyPair();
+  }
+
+  private static OffsetDateTime time(
+    final String text)
+  {
+    return OffsetDateTime.parse(text);
+  }
+
+  @BeforeEach
+  public void setup()
+    throws Exception
+  {
+    this.directory =
+      CSTestDirectories.createTempDirectory();
+    this.clock =
+      new CSFakeClock();
+    this.output0 =
+      new CSFakeCertificateOutput("output0");
+    this.deferred0 =
+      new CSFakeDeferredCertificateOutput("deferred0");
+    this.certificates =
+      new CSFakeCertificateStore();
+
+    this.certificates.put(
+      new CSCertificateStored(
+        "example.com",
+        WWW,
+        time("2000-01-01T00:00:00+00:00"),
+        time("2001-01-01T00:00:00+00:00"),
+        "-- BEGIN CERTIFICATE --",
+        "-- BEGIN CERTIFICATE --"
+      )
+    );
+
+    final var certificateStores =
+      Mockito.mock(CSCertificateStoreServiceType.class);
+    Mockito.when(certificateStores.store())
+      .thenReturn(this.certificates);
+
+    final var domain =
+      new CSDomain(
+        new CSAccount(generateKeyPair(), URI.create("http://localhost:20000")),
+        "example.com",
+        Map.ofEntries(
+          entry("www", new CSCertificate(WWW, generateKeyPair(), List.of("www")))
+        ),
+        new CSFakeDNSConfigurator(),
+        Map.ofEntries(
+          entry("output0", this.output0),
+          entry("deferred0", this.deferred0)
+        )
+      );
+
+    final var configuration =
+      new CSConfiguration(
+        new CSOptions(
+          false,
+          this.directory.resolve("store.db"),
+          "sqlite",
+          Duration.ofMinutes(5L),
+          Duration.ofHours(72L),
+          Optional.empty(),
+          CSFaultInjectionConfiguration.disabled(),
+          CSCertificateHistoryConfiguration.defaults(),
+          CSEventQueueConfiguration.defaults(),
+          CSEventJournalConfiguration.defaults()
+        ),
+        Map.ofEntries(entry("example.com", domain))
+      );
+
+    final var configurations =
+      Mockito.mock(CSConfigurationServiceType.class);
+    Mockito.when(configurations.configuration())
+      .thenReturn(configuration);
+
+    this.service =
+      CSOutputDeliveryService.create(
+        this.clock,
+        CSTelemetryNoOp.noop(),
+        configurations,
+        certificateStores,
+        Mockito.mock(CSEventServiceType.class)
+      );
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws Exception
+  {
+    this.service.close();
+    CSTestDirectories.deleteDirectory(this.directory);
+  }
+
+  private int deliverAt(
+    final String text,
+    final int clockReads)
+    throws Exception
+  {
+    for (int index = 0; index < clockReads; ++index) {
+      this.clock.times.add(time(text).toInstant());
+    }
+    return this.service.deliverDue();
+  }
+
+  /**
+   * Pending deliveries are only attempted when due, failed attempts back
+   * off exponentially, and successful attempts remove the pending delivery.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testDeliveredAfterFailures()
+    throws Exception
+  {
+    this.certificates.outputRetryPut(
+      new CSCertificateOutputRetry(
+        "example.com",
+        WWW,
+        "output0",
+        1,
+        time("2000-01-01T00:01:00+00:00")
+      )
+    );
+
+    this.output0.setFailing(true);
+    assertEquals(0, this.deliverAt("2000-01-01T00:00:30+00:00", 1));
+    assertEquals(0, this.output0.requests().size());
+
+    assertEquals(0, this.deliverAt("2000-01-01T00:01:00+00:00", 2));
+    assertEquals(1, this.output0.requests().size());
+    assertEquals(
+      List.of(
+        new CSCertificateOutputRetry(
+          "example.com",
+          WWW,
+          "output0",
+          2,
+          time("2000-01-01T00:03:00+00:00")
+        )
+      ),
+      List.copyOf(this.certificates.outputRetries.values())
+    );
+
+    this.output0.setFailing(false);
+    assertEquals(0, this.deliverAt("2000-01-01T00:02:00+00:00", 1));
+    assertEquals(1, this.deliverAt("2000-01-01T00:03:00+00:00", 2));
+    assertEquals(2, this.output0.requests().size());
+    assertEquals(Map.of(), this.certificates.outputRetries);
+    assertTrue(
+      this.certificates.outputDigest("example.com", WWW, "output0").isPresent()
+    );
+  }
+
+  /**
+   * Pending deliveries to outputs that are no longer configured are
+   * discarded.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testUnconfiguredDiscarded()
+    throws Exception
+  {
+    this.certificates.outputRetryPut(
+      new CSCertificateOutputRetry(
+        "example.com",
+        WWW,
+        "output1",
+        1,
+        time("2000-01-01T00:01:00+00:00")
+      )
+    );
+
+    assertEquals(0, this.deliverAt("2000-01-01T00:01:00+00:00", 1));
+    assertEquals(Map.of(), this.certificates.outputRetries);
+  }
+
+  /**
+   * Pending deliveries to outputs that defer writes are not attempted while
+   * a renewal pass holds the pass lock.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testDeferredWaitsForPass()
+    throws Exception
+  {
+    this.certificates.outputRetryPut(
+      new CSCertificateOutputRetry(
+        "example.com",
+        WWW,
+        "deferred0",
+        1,
+        time("2000-01-01T00:01:00+00:00")
+      )
+    );
+
+    for (int index = 0; index < 2; ++index) {
+      this.clock.times.add(time("2000-01-01T00:01:00+00:00").toInstant());
+    }
+
+    final var delivered = new AtomicInteger(-1);
+    final var passLock = this.service.passLock();
+    passLock.lock();
+
+    final Thread thread;
+    try {
+      thread = new Thread(() -> {
+        try {
+          delivered.set(this.service.deliverDue());
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+      thread.start();
+      thread.join(500L);
+
+      assertTrue(thread.isAlive());
+      assertEquals(0, this.deferred0.flushes());
+    } finally {
+      passLock.unlock();
+    }
+
+    thread.join();
+    assertEquals(1, delivered.get());
+    assertEquals(1, this.deferred0.flushes());
+    assertEquals(Map.of(), this.certificates.outputRetries);
+  }
+
+  /**
+   * The delay between attempts doubles up to a maximum.
+   */
+
+  @Test
+  public void testBackoff()
+  {
+    final var base = time("2000-01-01T00:00:00+00:00");
+    assertEquals(
+      time("2000-01-01T00:01:00+00:00"),
+      CSOutputDeliveries.nextAttempt(base, 1));
+    assertEquals(
+      time("2000-01-01T00:02:00+00:00"),
+      CSOutputDeliveries.nextAttempt(base, 2));
+    assertEquals(
+      time("2000-01-01T00:32:00+00:00"),
+      CSOutputDeliveries.nextAttempt(base, 6));
+    assertEquals(
+      time("2000-01-01T01:00:00+00:00"),
+      CSOutputDeliveries.nextAttempt(base, 7));
+    assertEquals(
+      time("2000-01-01T01:00:00+00:00"),
+      CSOutputDeliveries.nextAttempt(base, 1000));
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.tests;
+
+import com.io7m.certusine.api.CSConfigurationServiceType;
+import com.io7m.certusine.api.CSOpenTelemetryConfiguration;
+import com.io7m.certusine.api.CSOpenTelemetryConfiguration.CSPrometheus;
+import com.io7m.certusine.api.CSTelemetryServiceType;
+import com.io7m.certusine.vanilla.CSTelemetryServices;
+import com.io7m.certusine.vanilla.internal.telemetry.CSMetricsService;
+import com.io7m.certusine.vanilla.internal.telemetry.CSMetricsServiceType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Optional;
+import java.util.concurrent.SubmissionPublisher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+public final class CSPrometheusServerTest
+{
+  private CSTelemetryServiceType telemetry;
+  private CSMetricsServiceType metrics;
+  private HttpClient client;
+  private int port;
+
+  private static int freePort()
+    throws IOException
+  {
+    try (var socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+
+  @BeforeEach
+  public void setup()
+    throws IOException
+  {
+    this.port = freePort();
+
+    this.telemetry =
+      CSTelemetryServices.createOptional(
+        Optional.of(
+          new CSOpenTelemetryConfiguration(
+            "certusine",
+            Optional.empty(),
+            Optional.empty(),
+            Optional.empty(),
+            Optional.of(new CSPrometheus("127.0.0.1", this.port))
+          )
+        )
+      );
+
+    final var configurations =
+      Mockito.mock(CSConfigurationServiceType.class);
+
+    when(configurations.events())
+      .thenReturn(new SubmissionPublisher<>());
+
+    this.metrics =
+      CSMetricsService.create(configurations, this.telemetry);
+    this.client =
+      HttpClient.newHttpClient();
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws Exception
+  {
+    this.metrics.close();
+    ((AutoCloseable) this.telemetry).close();
+  }
+
+  private HttpResponse<String> get(
+    final String path)
+    throws Exception
+  {
+    return this.client.send(
+      HttpRequest.newBuilder(
+          URI.create("http://127.0.0.1:%d%s".formatted(this.port, path)))
+        .GET()
+        .build(),
+      HttpResponse.BodyHandlers.ofString()
+    );
+  }
+
+  /**
+   * Scraping the endpoint collects the current metrics.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testScrape()
+    throws Exception
+  {
+    this.metrics.recordTaskDuration("Example", System.nanoTime());
+
+    final var response = this.get("/metrics");
+    assertEquals(200, response.statusCode());
+    assertTrue(
+      response.headers()
+        .firstValue("Content-Type")
+        .orElseThrow()
+        .startsWith("text/plain")
+    );
+
+    final var body = response.body();
+    assertTrue(
+      body.contains("# TYPE certusine_task_duration_seconds histogram\n"),
+      body
+    );
+    assertTrue(
+      body.contains("certusine_task_duration_seconds_count{task=\"Example\"} 1\n"),
+      body
+    );
+    assertTrue(
+      body.contains("certusine_task_duration_seconds_bucket{task=\"Example\",le=\"+Inf\"} 1\n"),
+      body
+    );
+    assertTrue(
+      body.contains("# TYPE certusine_version_total counter\n"),
+      body
+    );
+  }
+
+  /**
+   * Metrics are only served at /metrics.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testNotFound()
+    throws Exception
+  {
+    assertEquals(404, this.get("/").statusCode());
+    assertEquals(404, this.get("/metrics/x").statusCode());
+  }
+}
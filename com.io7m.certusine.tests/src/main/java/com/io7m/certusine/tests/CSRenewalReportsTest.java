@@ -0,0 +1,141 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.tests;
+
+import com.io7m.certusine.vanilla.CSRenewalCertificateReport;
+import com.io7m.certusine.vanilla.CSRenewalDomainReport;
+import com.io7m.certusine.vanilla.CSRenewalOutcome;
+import com.io7m.certusine.vanilla.CSRenewalPassReport;
+import com.io7m.certusine.vanilla.CSRenewalPhase;
+import com.io7m.certusine.vanilla.CSRenewalReports;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class CSRenewalReportsTest
+{
+  private static CSRenewalPassReport report()
+  {
+    final var www =
+      new CSRenewalCertificateReport(
+        "www",
+        CSRenewalOutcome.ISSUED,
+        Duration.ofMillis(12_500L),
+        Map.of(
+          CSRenewalPhase.ORDER, Duration.ofMillis(500L),
+          CSRenewalPhase.PROPAGATION_WAIT, Duration.ofSeconds(10L),
+          CSRenewalPhase.FINALIZE, Duration.ofSeconds(2L)
+        ),
+        3
+      );
+
+    final var mail =
+      new CSRenewalCertificateReport(
+        "mail\"x",
+        CSRenewalOutcome.SKIPPED_FRESH,
+        Duration.ofMillis(1L),
+        Map.of(),
+        0
+      );
+
+    return new CSRenewalPassReport(
+      OffsetDateTime.parse("2000-01-01T00:00:00Z"),
+      Duration.ofSeconds(14L),
+      List.of(
+        new CSRenewalDomainReport(
+          "example.com",
+          Duration.ofSeconds(13L),
+          Duration.ofMillis(250L),
+          Duration.ofMillis(125L),
+          List.of(www, mail)
+        )
+      )
+    );
+  }
+
+  /**
+   * The text report contains the time spent in each phase.
+   */
+
+  @Test
+  public void testText()
+  {
+    final var text =
+      CSRenewalReports.formatText(report());
+
+    assertTrue(text.startsWith(
+      "Renewal pass started 2000-01-01T00:00Z took 14.000s\n"));
+    assertTrue(text.contains(
+      "  example.com 13.000s (account 0.250s, dns_cleanup 0.125s)\n"));
+    assertTrue(text.contains(
+      "    www ISSUED 12.500s retries 3\n"));
+    assertTrue(text.contains(
+      " order 0.500s dns_publish 0.000s propagation_wait 10.000s"));
+    assertTrue(text.contains(
+      "    mail\"x SKIPPED_FRESH 0.001s retries 0\n"));
+  }
+
+  /**
+   * The JSON report contains the time spent in each phase, and strings
+   * are escaped.
+   */
+
+  @Test
+  public void testJSON()
+  {
+    final var text =
+      CSRenewalReports.formatJSON(report());
+
+    assertTrue(text.contains("\"started\": \"2000-01-01T00:00Z\""));
+    assertTrue(text.contains("\"total_seconds\": 14.000"));
+    assertTrue(text.contains("\"account_seconds\": 0.250"));
+    assertTrue(text.contains("\"dns_cleanup_seconds\": 0.125"));
+    assertTrue(text.contains("\"certificate\": \"mail\\\"x\""));
+    assertTrue(text.contains("\"outcome\": \"SKIPPED_FRESH\""));
+    assertTrue(text.contains("\"retries\": 3"));
+    assertTrue(text.contains("\"propagation_wait\": 10.000"));
+    assertTrue(text.contains("\"output\": 0.000"));
+  }
+
+  /**
+   * An empty pass produces a well-formed report.
+   */
+
+  @Test
+  public void testEmpty()
+  {
+    final var report =
+      new CSRenewalPassReport(
+        OffsetDateTime.parse("2000-01-01T00:00:00Z"),
+        Duration.ZERO,
+        List.of()
+      );
+
+    assertEquals(
+      "{\n  \"started\": \"2000-01-01T00:00Z\",\n  \"total_seconds\": 0.000,\n  \"domains\": []\n}\n",
+      CSRenewalReports.formatJSON(report)
+    );
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.tests;
+
+import com.io7m.certusine.api.CSOpenTelemetryConfiguration.CSTraceSampling;
+import com.io7m.certusine.vanilla.internal.telemetry.CSTracerProviders;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class CSTracerProvidersTest
+{
+  private InMemorySpanExporter exporter;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.exporter = InMemorySpanExporter.create();
+  }
+
+  private List<SpanData> runSpans(
+    final CSTraceSampling sampling)
+    throws Exception
+  {
+    try (var provider =
+           CSTracerProviders.create(
+             Resource.empty(),
+             this.exporter,
+             sampling)) {
+      final var tracer = provider.get("com.io7m.certusine.tests");
+
+      tracer.spanBuilder("Succeeded")
+        .startSpan()
+        .setStatus(StatusCode.OK)
+        .end();
+
+      tracer.spanBuilder("Failed")
+        .startSpan()
+        .setStatus(StatusCode.ERROR)
+        .end();
+
+      tracer.spanBuilder("Unset")
+        .startSpan()
+        .end();
+
+      provider.forceFlush()
+        .join(5L, TimeUnit.SECONDS);
+    }
+    return this.exporter.getFinishedSpanItems();
+  }
+
+  private static List<String> namesOf(
+    final List<SpanData> spans)
+  {
+    return spans.stream()
+      .map(SpanData::getName)
+      .toList();
+  }
+
+  /**
+   * Unsampled spans that end with an error are exported, and all other
+   * unsampled spans are dropped.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testErrorsAlwaysUnsampled()
+    throws Exception
+  {
+    final var spans =
+      this.runSpans(new CSTraceSampling(0.0, false, true));
+
+    assertEquals(List.of("Failed"), namesOf(spans));
+    assertFalse(spans.get(0).getSpanContext().isSampled());
+  }
+
+  /**
+   * Sampled spans are exported whether they fail or not.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testErrorsAlwaysSampled()
+    throws Exception
+  {
+    final var spans =
+      this.runSpans(new CSTraceSampling(1.0, false, true));
+
+    assertEquals(List.of("Succeeded", "Failed", "Unset"), namesOf(spans));
+    assertTrue(spans.get(0).getSpanContext().isSampled());
+  }
+
+  /**
+   * Without errors-always sampling, unsampled spans are dropped even if they
+   * fail.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testUnsampledDropped()
+    throws Exception
+  {
+    final var spans =
+      this.runSpans(new CSTraceSampling(0.0, false, false));
+
+    assertEquals(List.of(), namesOf(spans));
+  }
+
+  /**
+   * Attribute values are truncated.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testAttributeValuesTruncated()
+    throws Exception
+  {
+    final var key = AttributeKey.stringKey("certusine.body");
+
+    try (var provider =
+           CSTracerProviders.create(
+             Resource.empty(),
+             this.exporter,
+             CSTraceSampling.defaults())) {
+      provider.get("com.io7m.certusine.tests")
+        .spanBuilder("Large")
+        .setAttribute(
+          key,
+          "x".repeat(CSTracerProviders.ATTRIBUTE_VALUE_LENGTH_MAXIMUM * 2))
+        .startSpan()
+        .end();
+
+      provider.forceFlush()
+        .join(5L, TimeUnit.SECONDS);
+    }
+
+    final var spans = this.exporter.getFinishedSpanItems();
+    assertEquals(1, spans.size());
+    assertEquals(
+      CSTracerProviders.ATTRIBUTE_VALUE_LENGTH_MAXIMUM,
+      spans.get(0).getAttributes().get(key).length()
+    );
+  }
+}
@@ -18,6 +18,7 @@
 open module com.io7m.certusine.tests
 {
   requires com.io7m.certusine.api;
+  requires com.io7m.certusine.certstore.mvstore;
   requires com.io7m.certusine.cmdline;
   requires com.io7m.certusine.gandi;
   requires com.io7m.certusine.grafana;
@@ -38,7 +39,14 @@ open module com.io7m.certusine.tests
   requires com.io7m.looseleaf.server;
   requires com.io7m.quixote.core;
   requires com.io7m.repetoir.core;
+  requires io.opentelemetry.api;
+  requires io.opentelemetry.sdk.common;
+  requires io.opentelemetry.sdk.metrics;
+  requires io.opentelemetry.sdk.testing;
+  requires io.opentelemetry.sdk.trace;
   requires java.net.http;
+  requires java.sql;
+  requires jdk.jfr;
   requires jetty.servlet.api;
   requires net.bytebuddy.agent;
   requires net.bytebuddy;
@@ -48,6 +56,7 @@ open module com.io7m.certusine.tests
   requires org.mockito;
   requires org.shredzone.acme4j;
   requires org.slf4j;
+  requires org.xerial.sqlitejdbc;
   requires tools.jackson.databind;
 
   exports com.io7m.certusine.tests;
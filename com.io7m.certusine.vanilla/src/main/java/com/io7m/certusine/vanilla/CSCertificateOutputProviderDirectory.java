@@ -16,6 +16,7 @@
 
 package com.io7m.certusine.vanilla;
 
+import com.io7m.anethum.api.ParseStatus;
 import com.io7m.certusine.api.CSAbstractNamedProvider;
 import com.io7m.certusine.api.CSCertificateOutputProviderType;
 import com.io7m.certusine.api.CSCertificateOutputType;
@@ -23,6 +24,7 @@ import com.io7m.certusine.api.CSConfigurationException;
 import com.io7m.certusine.api.CSConfigurationParameterDescription;
 import com.io7m.certusine.api.CSConfigurationParameters;
 import com.io7m.certusine.vanilla.internal.CSCertificateOutputDirectory;
+import com.io7m.certusine.vanilla.internal.CSCertificateOutputDirectoryLayout;
 import com.io7m.certusine.vanilla.internal.CSStrings;
 
 import java.io.IOException;
@@ -30,7 +32,9 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Stream;
 
+import static com.io7m.certusine.vanilla.internal.CSCertificateOutputDirectoryLayout.FILES;
 import static java.util.Map.entry;
 
 /**
@@ -42,6 +46,9 @@ public final class CSCertificateOutputProviderDirectory
   implements CSCertificateOutputProviderType
 {
   private static final String PATH_PARAMETER = "path";
+  private static final String LAYOUT_PARAMETER = "layout";
+  private static final String VERSIONS_RETAINED_PARAMETER = "versions-retained";
+  private static final int VERSIONS_RETAINED_DEFAULT = 3;
 
   private static final List<String> REQUIRED_PARAMETERS =
     List.of(PATH_PARAMETER);
@@ -112,9 +119,70 @@ public final class CSCertificateOutputProviderDirectory
 
     final var parameterMap = parameters.parameters();
 
+    final var layoutText =
+      parameterMap.getOrDefault(LAYOUT_PARAMETER, FILES.parameterValue());
+    final var layout =
+      CSCertificateOutputDirectoryLayout.ofParameterValue(layoutText)
+        .orElseThrow(() -> {
+          return this.errorInvalidParameter(
+            parameters,
+            LAYOUT_PARAMETER,
+            layoutText,
+            this.strings.format(
+              "errorLayout",
+              layoutText,
+              Stream.of(CSCertificateOutputDirectoryLayout.values())
+                .map(CSCertificateOutputDirectoryLayout::parameterValue)
+                .toList()
+            )
+          );
+        });
+
+    final var retainedText =
+      parameterMap.getOrDefault(
+        VERSIONS_RETAINED_PARAMETER,
+        Integer.toString(VERSIONS_RETAINED_DEFAULT)
+      );
+
+    final int retained;
+    try {
+      retained = Integer.parseInt(retainedText);
+      if (retained < 1) {
+        throw new NumberFormatException();
+      }
+    } catch (final NumberFormatException e) {
+      throw this.errorInvalidParameter(
+        parameters,
+        VERSIONS_RETAINED_PARAMETER,
+        retainedText,
+        this.strings.format("errorVersionsRetained", retainedText)
+      );
+    }
+
     return new CSCertificateOutputDirectory(
       name,
-      parameters.baseDirectory().resolve(parameterMap.get(PATH_PARAMETER))
+      parameters.baseDirectory().resolve(parameterMap.get(PATH_PARAMETER)),
+      layout,
+      retained
+    );
+  }
+
+  private CSConfigurationException errorInvalidParameter(
+    final CSConfigurationParameters parameters,
+    final String parameter,
+    final String value,
+    final String message)
+  {
+    final var status =
+      ParseStatus.builder("error-parameter-invalid", message)
+        .withLexical(parameters.lexical())
+        .withAttribute("Parameter", parameter)
+        .withAttribute("Value", value)
+        .build();
+
+    return new CSConfigurationException(
+      List.of(status),
+      this.strings.format("errorOutputConfiguration")
     );
   }
 
@@ -136,6 +204,24 @@ public final class CSCertificateOutputProviderDirectory
           "Path",
           true
         )
+      ),
+      entry(
+        LAYOUT_PARAMETER,
+        new CSConfigurationParameterDescription(
+          LAYOUT_PARAMETER,
+          this.strings.format("parameterLayout"),
+          "files | versioned",
+          false
+        )
+      ),
+      entry(
+        VERSIONS_RETAINED_PARAMETER,
+        new CSConfigurationParameterDescription(
+          VERSIONS_RETAINED_PARAMETER,
+          this.strings.format("parameterVersionsRetained"),
+          "Integer",
+          false
+        )
       )
     );
   }
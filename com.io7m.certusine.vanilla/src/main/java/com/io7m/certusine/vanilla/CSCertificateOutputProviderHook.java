@@ -0,0 +1,291 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.vanilla;
+
+import com.io7m.anethum.api.ParseStatus;
+import com.io7m.certusine.api.CSAbstractNamedProvider;
+import com.io7m.certusine.api.CSCertificateOutputProviderType;
+import com.io7m.certusine.api.CSCertificateOutputType;
+import com.io7m.certusine.api.CSConfigurationException;
+import com.io7m.certusine.api.CSConfigurationParameterDescription;
+import com.io7m.certusine.api.CSConfigurationParameters;
+import com.io7m.certusine.vanilla.internal.CSCertificateOutputHook;
+import com.io7m.certusine.vanilla.internal.CSCertificateOutputHookActionType;
+import com.io7m.certusine.vanilla.internal.CSCertificateOutputHookCommand;
+import com.io7m.certusine.vanilla.internal.CSCertificateOutputHookHTTP;
+import com.io7m.certusine.vanilla.internal.CSCertificateOutputHookSignal;
+import com.io7m.certusine.vanilla.internal.CSStrings;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static java.util.Map.entry;
+
+/**
+ * A certificate output that runs a command, sends a signal, or sends an
+ * HTTP request when certificates change.
+ */
+
+public final class CSCertificateOutputProviderHook
+  extends CSAbstractNamedProvider
+  implements CSCertificateOutputProviderType
+{
+  private static final String COMMAND_PARAMETER = "command";
+  private static final String PID_FILE_PARAMETER = "pid-file";
+  private static final String SIGNAL_PARAMETER = "signal";
+  private static final String ENDPOINT_PARAMETER = "endpoint";
+
+  private static final Pattern WHITESPACE =
+    Pattern.compile("\\s+");
+  private static final Pattern SIGNAL_NAME =
+    Pattern.compile("[A-Z0-9]+");
+
+  private final CSStrings strings;
+
+  /**
+   * A certificate output that performs actions when certificates change.
+   *
+   * @param locale    A locale for error messages
+   * @param inStrings String resources
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public CSCertificateOutputProviderHook(
+    final Locale locale,
+    final CSStrings inStrings)
+    throws IOException
+  {
+    super(locale);
+    this.strings = Objects.requireNonNull(inStrings, "strings");
+  }
+
+  /**
+   * A certificate output that performs actions when certificates change.
+   *
+   * @param locale A locale for error messages
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public CSCertificateOutputProviderHook(
+    final Locale locale)
+    throws IOException
+  {
+    this(locale, new CSStrings(locale));
+  }
+
+  /**
+   * A certificate output that performs actions when certificates change.
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public CSCertificateOutputProviderHook()
+    throws IOException
+  {
+    this(Locale.getDefault());
+  }
+
+  @Override
+  public String name()
+  {
+    return "Hook";
+  }
+
+  @Override
+  public CSCertificateOutputType create(
+    final String name,
+    final CSConfigurationParameters parameters)
+    throws CSConfigurationException
+  {
+    Objects.requireNonNull(name, "name");
+    Objects.requireNonNull(parameters, "parameters");
+
+    this.checkParameters(parameters);
+
+    final var parameterMap = parameters.parameters();
+
+    final var specified =
+      Stream.of(COMMAND_PARAMETER, PID_FILE_PARAMETER, ENDPOINT_PARAMETER)
+        .filter(parameterMap::containsKey)
+        .toList();
+
+    if (specified.size() != 1) {
+      throw this.errorInvalid(
+        parameters,
+        String.join(", ", specified),
+        this.strings.format("errorHookAction")
+      );
+    }
+
+    final CSCertificateOutputHookActionType action;
+    if (parameterMap.containsKey(COMMAND_PARAMETER)) {
+      action = this.parseCommand(parameters);
+    } else if (parameterMap.containsKey(PID_FILE_PARAMETER)) {
+      action = this.parseSignal(parameters);
+    } else {
+      action = this.parseEndpoint(parameters);
+    }
+
+    return new CSCertificateOutputHook(name, action);
+  }
+
+  private CSCertificateOutputHookActionType parseCommand(
+    final CSConfigurationParameters parameters)
+    throws CSConfigurationException
+  {
+    final var text =
+      parameters.parameters().get(COMMAND_PARAMETER).trim();
+
+    if (text.isEmpty()) {
+      throw this.errorInvalid(
+        parameters,
+        text,
+        this.strings.format("errorHookCommand")
+      );
+    }
+
+    return new CSCertificateOutputHookCommand(
+      List.of(WHITESPACE.split(text))
+    );
+  }
+
+  private CSCertificateOutputHookActionType parseSignal(
+    final CSConfigurationParameters parameters)
+    throws CSConfigurationException
+  {
+    final var parameterMap =
+      parameters.parameters();
+    final var signal =
+      parameterMap.getOrDefault(SIGNAL_PARAMETER, "HUP");
+
+    if (!SIGNAL_NAME.matcher(signal).matches()) {
+      throw this.errorInvalid(
+        parameters,
+        signal,
+        this.strings.format("errorHookSignal", signal)
+      );
+    }
+
+    return new CSCertificateOutputHookSignal(
+      signal,
+      parameters.baseDirectory()
+        .resolve(parameterMap.get(PID_FILE_PARAMETER))
+    );
+  }
+
+  private CSCertificateOutputHookActionType parseEndpoint(
+    final CSConfigurationParameters parameters)
+    throws CSConfigurationException
+  {
+    final var text =
+      parameters.parameters().get(ENDPOINT_PARAMETER);
+
+    try {
+      return new CSCertificateOutputHookHTTP(new URI(text));
+    } catch (final URISyntaxException e) {
+      throw this.errorInvalid(
+        parameters,
+        text,
+        this.strings.format("errorHookEndpoint", text, e.getMessage())
+      );
+    }
+  }
+
+  private CSConfigurationException errorInvalid(
+    final CSConfigurationParameters parameters,
+    final String value,
+    final String message)
+  {
+    final var status =
+      ParseStatus.builder("error-parameter-invalid", message)
+        .withLexical(parameters.lexical())
+        .withAttribute("Value", value)
+        .build();
+
+    return new CSConfigurationException(
+      List.of(status),
+      this.strings.format("errorOutputConfiguration")
+    );
+  }
+
+  @Override
+  public String description()
+  {
+    return "Run a command, send a signal, or send an HTTP request when certificates change.";
+  }
+
+  @Override
+  public Map<String, CSConfigurationParameterDescription> parameters()
+  {
+    return Map.ofEntries(
+      entry(
+        COMMAND_PARAMETER,
+        new CSConfigurationParameterDescription(
+          COMMAND_PARAMETER,
+          this.strings.format("parameterHookCommand"),
+          "Command",
+          false
+        )
+      ),
+      entry(
+        PID_FILE_PARAMETER,
+        new CSConfigurationParameterDescription(
+          PID_FILE_PARAMETER,
+          this.strings.format("parameterHookPidFile"),
+          "Path",
+          false
+        )
+      ),
+      entry(
+        SIGNAL_PARAMETER,
+        new CSConfigurationParameterDescription(
+          SIGNAL_PARAMETER,
+          this.strings.format("parameterHookSignal"),
+          "Signal",
+          false
+        )
+      ),
+      entry(
+        ENDPOINT_PARAMETER,
+        new CSConfigurationParameterDescription(
+          ENDPOINT_PARAMETER,
+          this.strings.format("parameterHookEndpoint"),
+          "URI",
+          false
+        )
+      )
+    );
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[CSCertificateOutputProviderHook 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+}
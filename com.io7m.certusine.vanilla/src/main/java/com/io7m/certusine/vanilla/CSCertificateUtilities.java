@@ -18,15 +18,27 @@
 package com.io7m.certusine.vanilla;
 
 
+import com.io7m.certusine.api.CSCertificateName;
+import com.io7m.certusine.api.CSCertificateOutputDeferredResult;
+import com.io7m.certusine.api.CSCertificateOutputType;
+import com.io7m.certusine.api.CSConfiguration;
 import com.io7m.certusine.api.CSConfigurationServiceType;
+import com.io7m.certusine.api.CSTelemetryServiceType;
 import com.io7m.certusine.certstore.api.CSCertificateStored;
+import com.io7m.certusine.vanilla.internal.delivery.CSOutputDeliveries;
+import com.io7m.certusine.vanilla.internal.events.CSEventServiceType;
 import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreServiceType;
 import com.io7m.repetoir.core.RPServiceDirectoryType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.time.Clock;
+import java.time.OffsetDateTime;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * Certificate utilities for clients.
@@ -69,17 +81,22 @@ public final class CSCertificateUtilities
         .store();
 
     final var toRemove =
-      new HashSet<CSCertificateStored>();
+      new HashSet<StoredName>();
     final var domains =
       configuration.domains();
-    final var existing =
-      store.all();
 
-    for (final var existingCertificate : existing) {
+    /*
+     * The names of certificates are collected and then deleted after
+     * iteration, as the store must not be modified during iteration. Only
+     * the names are retained so that the certificate material is not held
+     * in memory.
+     */
+
+    store.forEach(existingCertificate -> {
       final var domain = domains.get(existingCertificate.domain());
       if (domain == null) {
-        toRemove.add(existingCertificate);
-        continue;
+        toRemove.add(StoredName.of(existingCertificate));
+        return;
       }
 
       final var certificates =
@@ -88,8 +105,8 @@ public final class CSCertificateUtilities
         certificates.get(existingCertificate.name().value());
 
       if (cert == null) {
-        toRemove.add(existingCertificate);
-        continue;
+        toRemove.add(StoredName.of(existingCertificate));
+        return;
       }
 
       LOG.debug(
@@ -97,7 +114,7 @@ public final class CSCertificateUtilities
         domain.domain(),
         cert.name().value()
       );
-    }
+    });
 
     for (final var remove : toRemove) {
       LOG.debug(
@@ -108,4 +125,123 @@ public final class CSCertificateUtilities
       store.delete(remove.domain(), remove.name());
     }
   }
+
+  private record StoredName(
+    String domain,
+    CSCertificateName name)
+  {
+    static StoredName of(
+      final CSCertificateStored certificate)
+    {
+      return new StoredName(certificate.domain(), certificate.name());
+    }
+  }
+
+  /**
+   * Forget the data most recently written to certificate outputs, so that
+   * every certificate is written to every output on the next renewal
+   * attempt, even if the certificate is unchanged.
+   *
+   * @param services The service directory
+   *
+   * @throws IOException On errors
+   */
+
+  public static void forceOutputs(
+    final RPServiceDirectoryType services)
+    throws IOException
+  {
+    LOG.debug("Forcing certificates to be written to all outputs.");
+
+    services.requireService(CSCertificateStoreServiceType.class)
+      .store()
+      .outputDigestsClear();
+  }
+
+  /**
+   * Notify every certificate output in the given configuration that a
+   * renewal pass has completed. Outputs that are referenced by more than one
+   * domain are notified once. The results of any deferred writes are
+   * recorded in the certificate store and published as events, and failed
+   * deferred writes are scheduled to be retried by the output delivery
+   * service. The configuration must be the configuration that was used to execute
+   * the pass: Deferred writes are held by the output instances that received
+   * them, and the configuration service replaces every output instance each
+   * time the configuration is reloaded.
+   *
+   * @param services      The service directory
+   * @param configuration The configuration used to execute the pass
+   * @param clock         The clock used to timestamp deferred writes
+   *
+   * @return {@code true} if all outputs were notified successfully
+   *
+   * @throws InterruptedException On interruption
+   */
+
+  public static boolean completePass(
+    final RPServiceDirectoryType services,
+    final CSConfiguration configuration,
+    final Clock clock)
+    throws InterruptedException
+  {
+    Objects.requireNonNull(services, "services");
+    Objects.requireNonNull(configuration, "configuration");
+    Objects.requireNonNull(clock, "clock");
+
+    final var telemetry =
+      services.requireService(CSTelemetryServiceType.class);
+
+    final var outputs =
+      new LinkedHashMap<String, CSCertificateOutputType>();
+
+    for (final var domain : configuration.domains().values()) {
+      outputs.putAll(domain.outputs());
+    }
+
+    final var store =
+      services.requireService(CSCertificateStoreServiceType.class)
+        .store();
+    final var events =
+      services.requireService(CSEventServiceType.class);
+
+    var succeeded = true;
+    for (final var output : outputs.values()) {
+      final List<CSCertificateOutputDeferredResult> results;
+      try {
+        results = output.passCompleted(telemetry);
+      } catch (final IOException e) {
+        LOG.error(
+          "Output {}:{} failed to complete the renewal pass: ",
+          output.type(),
+          output.name(),
+          e
+        );
+        succeeded = false;
+        continue;
+      }
+
+      for (final var result : results) {
+        try {
+          succeeded &= CSOutputDeliveries.deferredResult(
+            store,
+            events,
+            configuration,
+            output,
+            result,
+            1,
+            OffsetDateTime.now(clock)
+          );
+        } catch (final IOException e) {
+          LOG.error(
+            "Failed to record the result of storing certificate {}/{}: ",
+            result.data().domainName(),
+            result.data().name().value(),
+            e
+          );
+          succeeded = false;
+        }
+      }
+    }
+    return succeeded;
+  }
 }
@@ -16,18 +16,27 @@
 
 package com.io7m.certusine.vanilla;
 
+import com.io7m.certusine.api.CSConfiguration;
 import com.io7m.certusine.api.CSConfigurationServiceType;
 import com.io7m.certusine.api.CSDomain;
 import com.io7m.certusine.api.CSTelemetryServiceType;
 import com.io7m.certusine.vanilla.internal.CSDomainExecutor;
 import com.io7m.certusine.vanilla.internal.CSStrings;
+import com.io7m.certusine.vanilla.internal.dns.CSDNSQueriesFactoryType;
+import com.io7m.certusine.vanilla.internal.delivery.CSOutputDeliveryServiceType;
 import com.io7m.certusine.vanilla.internal.events.CSEventServiceType;
 import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreServiceType;
+import com.io7m.certusine.vanilla.internal.telemetry.CSMetricsServiceType;
 import com.io7m.repetoir.core.RPServiceDirectoryType;
 import org.shredzone.acme4j.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Objects;
 
 /**
@@ -36,6 +45,9 @@ import java.util.Objects;
 
 public final class CSDomains
 {
+  private static final Logger LOG =
+    LoggerFactory.getLogger(CSDomains.class);
+
   private CSDomains()
   {
 
@@ -48,11 +60,13 @@ public final class CSDomains
    * @param domain           The domain
    * @param clock            The clock used for time-based operations
    *
+   * @return A report of the time spent renewing the domain's certificates
+   *
    * @throws IOException          On errors
    * @throws InterruptedException On interruption
    */
 
-  public static void renew(
+  public static CSRenewalDomainReport renew(
     final RPServiceDirectoryType services,
     final CSDomain domain,
     final Clock clock)
@@ -62,9 +76,10 @@ public final class CSDomains
     Objects.requireNonNull(domain, "domain");
     Objects.requireNonNull(clock, "clock");
 
-    new CSDomainExecutor(
+    return new CSDomainExecutor(
       services.requireService(CSStrings.class),
       services.requireService(CSTelemetryServiceType.class),
+      services.requireService(CSMetricsServiceType.class),
       services.requireService(CSEventServiceType.class),
       services.requireService(CSConfigurationServiceType.class),
       services.requireService(CSCertificateStoreServiceType.class),
@@ -72,7 +87,96 @@ public final class CSDomains
       clock,
       acmeInformation -> {
         return new Session(acmeInformation.acmeURI());
-      }
+      },
+      services.requireService(CSDNSQueriesFactoryType.class)
     ).execute();
   }
+
+  /**
+   * Execute a single renewal pass: Renew all certificates for every domain
+   * in the current configuration, and then notify every output that the pass
+   * has completed. A failure to renew one domain does not prevent the
+   * remaining domains from being renewed.
+   *
+   * @param services A service directory
+   * @param clock    The clock used for time-based operations
+   *
+   * @return The result of the pass
+   *
+   * @throws InterruptedException On interruption
+   */
+
+  public static CSRenewalPassResult renewAll(
+    final RPServiceDirectoryType services,
+    final Clock clock)
+    throws InterruptedException
+  {
+    Objects.requireNonNull(services, "services");
+    Objects.requireNonNull(clock, "clock");
+
+    final var configuration =
+      services.requireService(CSConfigurationServiceType.class)
+        .configuration();
+
+    LOG.debug(
+      "Loaded {} domains",
+      Integer.valueOf(configuration.domains().size())
+    );
+
+    /*
+     * The output delivery service must not complete a pass on any output
+     * while this pass is queueing deferred writes, so the pass lock is
+     * held until every output has been notified that the pass has completed.
+     */
+
+    final var passLock =
+      services.requireService(CSOutputDeliveryServiceType.class)
+        .passLock();
+
+    passLock.lockInterruptibly();
+    try {
+      return renewAllLocked(services, configuration, clock);
+    } finally {
+      passLock.unlock();
+    }
+  }
+
+  private static CSRenewalPassResult renewAllLocked(
+    final RPServiceDirectoryType services,
+    final CSConfiguration configuration,
+    final Clock clock)
+    throws InterruptedException
+  {
+    final var timeStarted =
+      OffsetDateTime.now(clock);
+    final var timeThen =
+      System.nanoTime();
+    final var domainReports =
+      new ArrayList<CSRenewalDomainReport>();
+
+    var succeeded = true;
+    for (final var domain : configuration.domains().values()) {
+      try {
+        domainReports.add(renew(services, domain, clock));
+      } catch (final InterruptedException e) {
+        throw e;
+      } catch (final Exception e) {
+        LOG.error("Error executing domain: ", e);
+        succeeded = false;
+      }
+    }
+
+    if (!CSCertificateUtilities.completePass(services, configuration, clock)) {
+      succeeded = false;
+    }
+
+    return new CSRenewalPassResult(
+      new CSRenewalPassReport(
+        timeStarted,
+        Duration.ofNanos(System.nanoTime() - timeThen),
+        domainReports
+      ),
+      succeeded
+    );
+  }
 }
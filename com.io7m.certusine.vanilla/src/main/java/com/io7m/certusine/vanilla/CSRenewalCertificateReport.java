@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.vanilla;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The timing report for a single certificate within a renewal pass.
+ *
+ * @param certificate The certificate name
+ * @param outcome     The outcome of the renewal
+ * @param total       The total wall time spent on the certificate
+ * @param phases      The wall time spent in each phase
+ * @param retries     The number of times a task was retried
+ */
+
+public record CSRenewalCertificateReport(
+  String certificate,
+  CSRenewalOutcome outcome,
+  Duration total,
+  Map<CSRenewalPhase, Duration> phases,
+  int retries)
+{
+  /**
+   * The timing report for a single certificate within a renewal pass.
+   *
+   * @param certificate The certificate name
+   * @param outcome     The outcome of the renewal
+   * @param total       The total wall time spent on the certificate
+   * @param phases      The wall time spent in each phase
+   * @param retries     The number of times a task was retried
+   */
+
+  public CSRenewalCertificateReport
+  {
+    Objects.requireNonNull(certificate, "certificate");
+    Objects.requireNonNull(outcome, "outcome");
+    Objects.requireNonNull(total, "total");
+    phases = Map.copyOf(phases);
+  }
+
+  /**
+   * @param phase The phase
+   *
+   * @return The wall time spent in the given phase
+   */
+
+  public Duration phase(
+    final CSRenewalPhase phase)
+  {
+    return this.phases.getOrDefault(phase, Duration.ZERO);
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.vanilla;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The timing report for a single domain within a renewal pass.
+ *
+ * @param domain       The domain
+ * @param total        The total wall time spent on the domain
+ * @param account      The wall time spent locating the ACME account
+ * @param dnsCleanup   The wall time spent deleting DNS challenge records
+ * @param certificates The reports for each certificate in the domain
+ */
+
+public record CSRenewalDomainReport(
+  String domain,
+  Duration total,
+  Duration account,
+  Duration dnsCleanup,
+  List<CSRenewalCertificateReport> certificates)
+{
+  /**
+   * The timing report for a single domain within a renewal pass.
+   *
+   * @param domain       The domain
+   * @param total        The total wall time spent on the domain
+   * @param account      The wall time spent locating the ACME account
+   * @param dnsCleanup   The wall time spent deleting DNS challenge records
+   * @param certificates The reports for each certificate in the domain
+   */
+
+  public CSRenewalDomainReport
+  {
+    Objects.requireNonNull(domain, "domain");
+    Objects.requireNonNull(total, "total");
+    Objects.requireNonNull(account, "account");
+    Objects.requireNonNull(dnsCleanup, "dnsCleanup");
+    certificates = List.copyOf(certificates);
+  }
+}
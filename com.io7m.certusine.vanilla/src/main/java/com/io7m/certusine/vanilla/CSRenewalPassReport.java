@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.vanilla;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The timing report for a single renewal pass over all domains.
+ *
+ * @param started The time the pass started
+ * @param total   The total wall time of the pass
+ * @param domains The reports for each domain
+ */
+
+public record CSRenewalPassReport(
+  OffsetDateTime started,
+  Duration total,
+  List<CSRenewalDomainReport> domains)
+{
+  /**
+   * The timing report for a single renewal pass over all domains.
+   *
+   * @param started The time the pass started
+   * @param total   The total wall time of the pass
+   * @param domains The reports for each domain
+   */
+
+  public CSRenewalPassReport
+  {
+    Objects.requireNonNull(started, "started");
+    Objects.requireNonNull(total, "total");
+    domains = List.copyOf(domains);
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.vanilla;
+
+/**
+ * The phases of a certificate renewal, used to divide the time spent
+ * renewing a certificate in renewal reports.
+ */
+
+public enum CSRenewalPhase
+{
+  /**
+   * Creating or retrieving the ACME order.
+   */
+
+  ORDER,
+
+  /**
+   * Checking authorizations and publishing DNS challenge records.
+   */
+
+  DNS_PUBLISH,
+
+  /**
+   * Waiting for DNS challenge records to become visible.
+   */
+
+  PROPAGATION_WAIT,
+
+  /**
+   * Triggering ACME challenges and waiting for them to be validated.
+   */
+
+  CHALLENGE,
+
+  /**
+   * Checking expiration, sending a signing request, and waiting for the
+   * certificate to be issued.
+   */
+
+  FINALIZE,
+
+  /**
+   * Saving the issued certificate to the certificate store.
+   */
+
+  STORE,
+
+  /**
+   * Writing the certificate to outputs.
+   */
+
+  OUTPUT
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.vanilla;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Functions to format renewal reports.
+ */
+
+public final class CSRenewalReports
+{
+  private CSRenewalReports()
+  {
+
+  }
+
+  /**
+   * Format the given report as human-readable text.
+   *
+   * @param report The report
+   *
+   * @return The formatted text
+   */
+
+  public static String formatText(
+    final CSRenewalPassReport report)
+  {
+    Objects.requireNonNull(report, "report");
+
+    final var text = new StringBuilder(1024);
+    text.append("Renewal pass started ");
+    text.append(report.started());
+    text.append(" took ");
+    text.append(seconds(report.total()));
+    text.append('\n');
+
+    for (final var domain : report.domains()) {
+      text.append("  ");
+      text.append(domain.domain());
+      text.append(' ');
+      text.append(seconds(domain.total()));
+      text.append(" (account ");
+      text.append(seconds(domain.account()));
+      text.append(", dns_cleanup ");
+      text.append(seconds(domain.dnsCleanup()));
+      text.append(")\n");
+
+      for (final var certificate : domain.certificates()) {
+        text.append("    ");
+        text.append(certificate.certificate());
+        text.append(' ');
+        text.append(certificate.outcome());
+        text.append(' ');
+        text.append(seconds(certificate.total()));
+        text.append(" retries ");
+        text.append(certificate.retries());
+        text.append('\n');
+        text.append("     ");
+        for (final var phase : CSRenewalPhase.values()) {
+          text.append(' ');
+          text.append(phaseName(phase));
+          text.append(' ');
+          text.append(seconds(certificate.phase(phase)));
+        }
+        text.append('\n');
+      }
+    }
+    return text.toString();
+  }
+
+  /**
+   * Format the given report as a JSON object.
+   *
+   * @param report The report
+   *
+   * @return The formatted JSON
+   */
+
+  public static String formatJSON(
+    final CSRenewalPassReport report)
+  {
+    Objects.requireNonNull(report, "report");
+
+    final var text = new StringBuilder(1024);
+    text.append("{\n");
+    text.append("  \"started\": ");
+    quote(text, report.started().toString());
+    text.append(",\n");
+    text.append("  \"total_seconds\": ");
+    text.append(secondsNumber(report.total()));
+    text.append(",\n");
+    text.append("  \"domains\": [");
+
+    final var domains = report.domains();
+    for (int index = 0; index < domains.size(); ++index) {
+      text.append(index == 0 ? "\n" : ",\n");
+      formatDomainJSON(text, domains.get(index));
+    }
+
+    text.append(domains.isEmpty() ? "]\n" : "\n  ]\n");
+    text.append("}\n");
+    return text.toString();
+  }
+
+  private static void formatDomainJSON(
+    final StringBuilder text,
+    final CSRenewalDomainReport domain)
+  {
+    text.append("    {\n");
+    text.append("      \"domain\": ");
+    quote(text, domain.domain());
+    text.append(",\n");
+    text.append("      \"total_seconds\": ");
+    text.append(secondsNumber(domain.total()));
+    text.append(",\n");
+    text.append("      \"account_seconds\": ");
+    text.append(secondsNumber(domain.account()));
+    text.append(",\n");
+    text.append("      \"dns_cleanup_seconds\": ");
+    text.append(secondsNumber(domain.dnsCleanup()));
+    text.append(",\n");
+    text.append("      \"certificates\": [");
+
+    final var certificates = domain.certificates();
+    for (int index = 0; index < certificates.size(); ++index) {
+      text.append(index == 0 ? "\n" : ",\n");
+      formatCertificateJSON(text, certificates.get(index));
+    }
+
+    text.append(certificates.isEmpty() ? "]\n" : "\n      ]\n");
+    text.append("    }");
+  }
+
+  private static void formatCertificateJSON(
+    final StringBuilder text,
+    final CSRenewalCertificateReport certificate)
+  {
+    text.append("        {\n");
+    text.append("          \"certificate\": ");
+    quote(text, certificate.certificate());
+    text.append(",\n");
+    text.append("          \"outcome\": ");
+    quote(text, certificate.outcome().name());
+    text.append(",\n");
+    text.append("          \"total_seconds\": ");
+    text.append(secondsNumber(certificate.total()));
+    text.append(",\n");
+    text.append("          \"retries\": ");
+    text.append(certificate.retries());
+    text.append(",\n");
+    text.append("          \"phase_seconds\": {");
+
+    final var phases = CSRenewalPhase.values();
+    for (int index = 0; index < phases.length; ++index) {
+      final var phase = phases[index];
+      text.append(index == 0 ? "\n" : ",\n");
+      text.append("            ");
+      quote(text, phaseName(phase));
+      text.append(": ");
+      text.append(secondsNumber(certificate.phase(phase)));
+    }
+
+    text.append("\n          }\n");
+    text.append("        }");
+  }
+
+  private static String phaseName(
+    final CSRenewalPhase phase)
+  {
+    return phase.name().toLowerCase(Locale.ROOT);
+  }
+
+  private static String seconds(
+    final Duration duration)
+  {
+    return secondsNumber(duration) + "s";
+  }
+
+  private static String secondsNumber(
+    final Duration duration)
+  {
+    return String.format(
+      Locale.ROOT,
+      "%.3f",
+      Double.valueOf(duration.toNanos() / 1_000_000_000.0)
+    );
+  }
+
+  private static void quote(
+    final StringBuilder text,
+    final String value)
+  {
+    text.append('"');
+    for (int index = 0; index < value.length(); ++index) {
+      final var c = value.charAt(index);
+      switch (c) {
+        case '"' -> text.append("\\\"");
+        case '\\' -> text.append("\\\\");
+        case '\n' -> text.append("\\n");
+        case '\r' -> text.append("\\r");
+        case '\t' -> text.append("\\t");
+        default -> {
+          if (c < 0x20) {
+            text.append(String.format(Locale.ROOT, "\\u%04x", Integer.valueOf(c)));
+          } else {
+            text.append(c);
+          }
+        }
+      }
+    }
+    text.append('"');
+  }
+}
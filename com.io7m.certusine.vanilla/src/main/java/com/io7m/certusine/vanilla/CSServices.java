@@ -26,10 +26,16 @@ import com.io7m.certusine.vanilla.internal.CSStrings;
 import com.io7m.certusine.vanilla.internal.age.CSAgeService;
 import com.io7m.certusine.vanilla.internal.age.CSAgeServiceType;
 import com.io7m.certusine.vanilla.internal.configuration.CSConfigurationService;
+import com.io7m.certusine.vanilla.internal.delivery.CSOutputDeliveryService;
+import com.io7m.certusine.vanilla.internal.delivery.CSOutputDeliveryServiceType;
+import com.io7m.certusine.vanilla.internal.dns.CSDNSQueriesFactoryDJ;
+import com.io7m.certusine.vanilla.internal.dns.CSDNSQueriesFactoryType;
 import com.io7m.certusine.vanilla.internal.events.CSEventService;
 import com.io7m.certusine.vanilla.internal.events.CSEventServiceType;
 import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreService;
 import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreServiceType;
+import com.io7m.certusine.vanilla.internal.telemetry.CSMetricsService;
+import com.io7m.certusine.vanilla.internal.telemetry.CSMetricsServiceType;
 import com.io7m.repetoir.core.RPServiceDirectory;
 import com.io7m.repetoir.core.RPServiceDirectoryWritableType;
 
@@ -69,9 +75,42 @@ public final class CSServices
     final Clock clock,
     final CSTelemetryServiceType telemetry)
     throws Exception
+  {
+    return create(
+      locale,
+      configurationFile,
+      clock,
+      telemetry,
+      new CSDNSQueriesFactoryDJ()
+    );
+  }
+
+  /**
+   * The main service directory, using the given DNS query implementation
+   * to check that DNS records are visible.
+   *
+   * @param clock             The clock
+   * @param locale            The locale
+   * @param configurationFile The configuration file
+   * @param telemetry         The telemetry service
+   * @param dnsQueries        The DNS query implementation
+   *
+   * @return A service directory
+   *
+   * @throws IOException On errors
+   */
+
+  public static RPServiceDirectoryWritableType create(
+    final Locale locale,
+    final Path configurationFile,
+    final Clock clock,
+    final CSTelemetryServiceType telemetry,
+    final CSDNSQueriesFactoryType dnsQueries)
+    throws Exception
   {
     final var directory = new RPServiceDirectory();
     directory.register(CSTelemetryServiceType.class, telemetry);
+    directory.register(CSDNSQueriesFactoryType.class, dnsQueries);
 
     final var configurationParsers =
       new CSConfigurationParsers();
@@ -93,34 +132,62 @@ public final class CSServices
 
     directory.register(CSConfigurationServiceType.class, configurationService);
 
-    final var eventService =
-      CSEventService.create(configurationService, telemetry);
-    directory.register(CSEventServiceType.class, eventService);
+    final var metricsService =
+      CSMetricsService.create(configurationService, telemetry);
+    directory.register(CSMetricsServiceType.class, metricsService);
+
     directory.register(CSStrings.class, new CSStrings(locale));
 
-    ServiceLoader.load(CSCertificateStoreFactoryType.class)
-      .stream()
-      .map(ServiceLoader.Provider::get)
-      .forEach(s -> directory.register(CSCertificateStoreFactoryType.class, s));
+    final var certificateStoreFactories =
+      ServiceLoader.load(CSCertificateStoreFactoryType.class)
+        .stream()
+        .map(ServiceLoader.Provider::get)
+        .toList();
+
+    certificateStoreFactories.forEach(
+      s -> directory.register(CSCertificateStoreFactoryType.class, s)
+    );
 
     final var certificateStore =
       CSCertificateStoreService.store(
         telemetry,
         configurationService,
-        directory.requireService(CSCertificateStoreFactoryType.class)
+        certificateStoreFactories
       );
 
     directory.register(CSCertificateStoreServiceType.class, certificateStore);
 
+    final var eventService =
+      CSEventService.create(
+        configurationService,
+        telemetry,
+        metricsService,
+        certificateStore,
+        clock
+      );
+
+    directory.register(CSEventServiceType.class, eventService);
+
     final var ageService =
       CSAgeService.create(
         clock,
-        directory.requireService(CSCertificateStoreServiceType.class),
-        eventService
+        telemetry,
+        directory.requireService(CSCertificateStoreServiceType.class)
       );
 
     directory.register(CSAgeServiceType.class, ageService);
 
+    final var deliveryService =
+      CSOutputDeliveryService.create(
+        clock,
+        telemetry,
+        configurationService,
+        certificateStore,
+        eventService
+      );
+
+    directory.register(CSOutputDeliveryServiceType.class, deliveryService);
+
     ServiceLoader.load(CSDNSConfiguratorProviderType.class)
       .stream()
       .map(ServiceLoader.Provider::get)
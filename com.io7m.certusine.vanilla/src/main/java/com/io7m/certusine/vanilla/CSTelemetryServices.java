@@ -20,13 +20,19 @@ package com.io7m.certusine.vanilla;
 import com.io7m.certusine.api.CSOpenTelemetryConfiguration;
 import com.io7m.certusine.api.CSOpenTelemetryConfiguration.CSLogs;
 import com.io7m.certusine.api.CSOpenTelemetryConfiguration.CSMetrics;
+import com.io7m.certusine.api.CSOpenTelemetryConfiguration.CSPrometheus;
 import com.io7m.certusine.api.CSOpenTelemetryConfiguration.CSTraces;
 import com.io7m.certusine.api.CSTelemetryNoOp;
 import com.io7m.certusine.api.CSTelemetryServiceFactoryType;
 import com.io7m.certusine.api.CSTelemetryServiceType;
 import com.io7m.certusine.api.CSVersion;
+import com.io7m.certusine.vanilla.internal.telemetry.CSPrometheusMetricReader;
+import com.io7m.certusine.vanilla.internal.telemetry.CSPrometheusServer;
 import com.io7m.certusine.vanilla.internal.telemetry.CSTelemetryService;
-import io.opentelemetry.api.OpenTelemetry;
+import com.io7m.certusine.vanilla.internal.telemetry.CSTracerProviders;
+import com.io7m.jmulticlose.core.CloseableCollection;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
@@ -35,16 +41,20 @@ import io.opentelemetry.exporter.otlp.http.logs.OtlpHttpLogRecordExporter;
 import io.opentelemetry.exporter.otlp.http.metrics.OtlpHttpMetricExporter;
 import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
 import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.logs.LogLimits;
 import io.opentelemetry.sdk.logs.SdkLoggerProvider;
 import io.opentelemetry.sdk.logs.export.BatchLogRecordProcessor;
 import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.SdkMeterProviderBuilder;
 import io.opentelemetry.sdk.metrics.export.PeriodicMetricReader;
 import io.opentelemetry.sdk.resources.Resource;
 import io.opentelemetry.sdk.trace.SdkTracerProvider;
-import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
@@ -62,6 +72,14 @@ public final class CSTelemetryServices
   private static final Logger LOG =
     LoggerFactory.getLogger(CSTelemetryServices.class);
 
+  private static final LogLimits LOG_LIMITS =
+    LogLimits.builder()
+      .setMaxAttributeValueLength(
+        CSTracerProviders.ATTRIBUTE_VALUE_LENGTH_MAXIMUM)
+      .setMaxNumberOfAttributes(
+        CSTracerProviders.ATTRIBUTE_COUNT_MAXIMUM)
+      .build();
+
   /**
    * An OpenTelemetry service factory.
    */
@@ -106,8 +124,13 @@ public final class CSTelemetryServices
       telemetryConfiguration.traces();
     final var logsOpt =
       telemetryConfiguration.logs();
+    final var prometheusOpt =
+      telemetryConfiguration.prometheus();
 
-    if (metricsOpt.isEmpty() && tracesOpt.isEmpty() && logsOpt.isEmpty()) {
+    if (metricsOpt.isEmpty()
+        && tracesOpt.isEmpty()
+        && logsOpt.isEmpty()
+        && prometheusOpt.isEmpty()) {
       LOG.warn(
         "No metrics, trace, or log configurations were provided; no telemetry will be sent!");
       return CSTelemetryNoOp.noop();
@@ -127,9 +150,23 @@ public final class CSTelemetryServices
     final var builder =
       OpenTelemetrySdk.builder();
 
-    metricsOpt.ifPresent(metrics -> {
-      builder.setMeterProvider(createMeterProvider(resource, metrics));
-    });
+    final CloseableCollectionType<ClosingResourceFailedException> resources =
+      CloseableCollection.create();
+
+    final var prometheusReader =
+      prometheusOpt.map(p -> new CSPrometheusMetricReader());
+
+    if (metricsOpt.isPresent() || prometheusReader.isPresent()) {
+      final var meterProviderBuilder =
+        SdkMeterProvider.builder()
+          .setResource(resource);
+
+      metricsOpt.ifPresent(metrics -> {
+        registerOTLPMetrics(meterProviderBuilder, metrics);
+      });
+      prometheusReader.ifPresent(meterProviderBuilder::registerMetricReader);
+      builder.setMeterProvider(meterProviderBuilder.build());
+    }
 
     tracesOpt.ifPresent(traces -> {
       builder.setTracerProvider(createTracerProvider(resource, traces));
@@ -142,10 +179,18 @@ public final class CSTelemetryServices
     final var contextPropagators =
       ContextPropagators.create(W3CTraceContextPropagator.getInstance());
 
-    final OpenTelemetry openTelemetry =
+    final OpenTelemetrySdk openTelemetry =
       builder.setPropagators(contextPropagators)
         .build();
 
+    resources.add(openTelemetry);
+
+    if (prometheusReader.isPresent()) {
+      resources.add(
+        startPrometheus(prometheusOpt.get(), prometheusReader.get())
+      );
+    }
+
     final var tracer =
       openTelemetry.getTracer(
         "com.io7m.certusine",
@@ -171,10 +216,25 @@ public final class CSTelemetryServices
     return new CSTelemetryService(
       tracer,
       meter,
-      logger
+      logger,
+      resources
     );
   }
 
+  private static CSPrometheusServer startPrometheus(
+    final CSPrometheus prometheus,
+    final CSPrometheusMetricReader reader)
+  {
+    try {
+      return CSPrometheusServer.create(
+        new InetSocketAddress(prometheus.address(), prometheus.port()),
+        reader
+      );
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
   private static SdkLoggerProvider createLoggerProvider(
     final Resource resource,
     final CSLogs logs)
@@ -201,12 +261,13 @@ public final class CSTelemetryServices
 
     return SdkLoggerProvider.builder()
       .addLogRecordProcessor(processor)
+      .setLogLimits(() -> LOG_LIMITS)
       .setResource(resource)
       .build();
   }
 
-  private static SdkMeterProvider createMeterProvider(
-    final Resource resource,
+  private static void registerOTLPMetrics(
+    final SdkMeterProviderBuilder meterProviderBuilder,
     final CSMetrics metrics)
   {
     final var endpoint = metrics.endpoint().toString();
@@ -230,10 +291,7 @@ public final class CSTelemetryServices
         .setInterval(1L, TimeUnit.SECONDS)
         .build();
 
-    return SdkMeterProvider.builder()
-      .registerMetricReader(periodicMetricReader)
-      .setResource(resource)
-      .build();
+    meterProviderBuilder.registerMetricReader(periodicMetricReader);
   }
 
   private static SdkTracerProvider createTracerProvider(
@@ -256,13 +314,14 @@ public final class CSTelemetryServices
         }
       };
 
-    final var batchSpanProcessor =
-      BatchSpanProcessor.builder(spanExporter)
-        .build();
+    final var sampling = traces.sampling();
+    LOG.info(
+      "traces will be sampled with ratio {} (parent-based: {}, errors always: {})",
+      Double.valueOf(sampling.ratio()),
+      Boolean.valueOf(sampling.parentBased()),
+      Boolean.valueOf(sampling.errorsAlways())
+    );
 
-    return SdkTracerProvider.builder()
-      .addSpanProcessor(batchSpanProcessor)
-      .setResource(resource)
-      .build();
+    return CSTracerProviders.create(resource, spanExporter, sampling);
   }
 }
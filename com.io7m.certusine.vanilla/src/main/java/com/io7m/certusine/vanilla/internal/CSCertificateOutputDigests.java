@@ -0,0 +1,93 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.vanilla.internal;
+
+import com.io7m.certusine.api.CSCertificateOutputData;
+import com.io7m.certusine.api.CSCertificateOutputType;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Functions to compute digests of data written to certificate outputs.
+ */
+
+public final class CSCertificateOutputDigests
+{
+  private CSCertificateOutputDigests()
+  {
+
+  }
+
+  /**
+   * Compute a digest of the given data written to the given output. The
+   * digest covers the type and target of the output, and every field of the
+   * output data, and so the digest changes if any of these change.
+   *
+   * @param output     The output
+   * @param outputData The output data
+   *
+   * @return The hex-encoded SHA-256 digest
+   */
+
+  public static String digestOf(
+    final CSCertificateOutputType output,
+    final CSCertificateOutputData outputData)
+  {
+    Objects.requireNonNull(output, "output");
+    Objects.requireNonNull(outputData, "outputData");
+
+    try {
+      final var digest = MessageDigest.getInstance("SHA-256");
+      update(digest, output.type());
+      update(digest, output.target());
+      update(digest, outputData.domainName());
+      update(digest, outputData.name().value());
+      update(digest, outputData.pemEncodedPublicKey());
+      update(digest, outputData.pemEncodedPrivateKey());
+      update(digest, outputData.pemEncodedCertificate());
+      update(digest, outputData.pemEncodedFullChain());
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Update the digest with a length-prefixed string, so that the boundaries
+   * between fields are unambiguous.
+   */
+
+  private static void update(
+    final MessageDigest digest,
+    final String text)
+  {
+    final var bytes = text.getBytes(UTF_8);
+    final var length = bytes.length;
+    digest.update((byte) (length >>> 24));
+    digest.update((byte) (length >>> 16));
+    digest.update((byte) (length >>> 8));
+    digest.update((byte) length);
+    digest.update(bytes);
+  }
+}
@@ -19,19 +19,32 @@ package com.io7m.certusine.vanilla.internal;
 import com.io7m.certusine.api.CSCertificateOutputData;
 import com.io7m.certusine.api.CSCertificateOutputType;
 import com.io7m.certusine.api.CSTelemetryServiceType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.regex.Pattern;
 
+import static com.io7m.certusine.vanilla.internal.CSCertificateOutputDirectoryLayout.FILES;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
 import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
 import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
 
 /**
  * A directory-based certificate output.
@@ -40,24 +53,61 @@ import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
 public final class CSCertificateOutputDirectory
   implements CSCertificateOutputType
 {
+  private static final Logger LOG =
+    LoggerFactory.getLogger(CSCertificateOutputDirectory.class);
+
+  private static final Pattern VERSION_NAME =
+    Pattern.compile("[0-9]{20}");
+
   private final Path path;
   private final String name;
+  private final CSCertificateOutputDirectoryLayout layout;
+  private final int versionsRetained;
 
   /**
    * A directory-based certificate output.
    *
-   * @param inName The output name
-   * @param inPath The output directory path
+   * @param inName             The output name
+   * @param inPath             The output directory path
+   * @param inLayout           The output file layout
+   * @param inVersionsRetained The number of versions retained when using the
+   *                           versioned layout
    */
 
   public CSCertificateOutputDirectory(
     final String inName,
-    final Path inPath)
+    final Path inPath,
+    final CSCertificateOutputDirectoryLayout inLayout,
+    final int inVersionsRetained)
   {
     this.name =
       Objects.requireNonNull(inName, "inName");
     this.path =
       Objects.requireNonNull(inPath, "path");
+    this.layout =
+      Objects.requireNonNull(inLayout, "layout");
+
+    if (inVersionsRetained < 1) {
+      throw new IllegalArgumentException(
+        "Versions retained %d must be at least 1"
+          .formatted(Integer.valueOf(inVersionsRetained))
+      );
+    }
+    this.versionsRetained = inVersionsRetained;
+  }
+
+  /**
+   * A directory-based certificate output.
+   *
+   * @param inName The output name
+   * @param inPath The output directory path
+   */
+
+  public CSCertificateOutputDirectory(
+    final String inName,
+    final Path inPath)
+  {
+    this(inName, inPath, FILES, 1);
   }
 
   @Override
@@ -79,6 +129,15 @@ public final class CSCertificateOutputDirectory
     return this.name;
   }
 
+  @Override
+  public String target()
+  {
+    return switch (this.layout) {
+      case FILES -> this.path.toString();
+      case VERSIONED -> "versioned:" + this.path;
+    };
+  }
+
   @Override
   public void write(
     final CSTelemetryServiceType telemetry,
@@ -92,10 +151,14 @@ public final class CSCertificateOutputDirectory
       telemetry.tracer()
         .spanBuilder("WriteDirectory")
         .setAttribute("certusine.target", this.path.toString())
+        .setAttribute("certusine.layout", this.layout.parameterValue())
         .startSpan();
 
     try (var ignored = span.makeCurrent()) {
-      this.writeData(outputData);
+      switch (this.layout) {
+        case FILES -> this.writeData(outputData);
+        case VERSIONED -> this.writeDataVersioned(outputData);
+      }
     } catch (final Exception e) {
       CSTelemetryServiceType.recordExceptionAndSetError(e);
       throw e;
@@ -104,14 +167,20 @@ public final class CSCertificateOutputDirectory
     }
   }
 
-  private void writeData(
+  private Path certificateDirectory(
     final CSCertificateOutputData outputData)
-    throws IOException
   {
     final var byDomain =
       this.path.resolve(URLEncoder.encode(outputData.domainName(), UTF_8));
+    return byDomain.resolve(outputData.name().value());
+  }
+
+  private void writeData(
+    final CSCertificateOutputData outputData)
+    throws IOException
+  {
     final var byName =
-      byDomain.resolve(outputData.name().value());
+      this.certificateDirectory(outputData);
 
     Files.createDirectories(byName);
 
@@ -170,4 +239,170 @@ public final class CSCertificateOutputDirectory
       Files.move(fullChainTmp, fullChain, ATOMIC_MOVE, REPLACE_EXISTING);
     }
   }
+
+  /**
+   * Write all files into a new version directory, and then publish the
+   * version by atomically replacing the {@code current} symbolic link. A
+   * reader that resolves {@code current} therefore always observes a
+   * complete and consistent set of files.
+   */
+
+  private void writeDataVersioned(
+    final CSCertificateOutputData outputData)
+    throws IOException
+  {
+    final var byName =
+      this.certificateDirectory(outputData);
+    final var versions =
+      byName.resolve("versions");
+
+    Files.createDirectories(versions);
+
+    final var versionName =
+      "%020d".formatted(Long.valueOf(latestVersion(versions).orElse(0L) + 1L));
+    final var version =
+      versions.resolve(versionName);
+    final var versionTmp =
+      versions.resolve(versionName + ".tmp");
+
+    deleteVersion(versionTmp);
+    Files.createDirectory(versionTmp);
+
+    writeSynced(
+      versionTmp.resolve("public.key"),
+      outputData.pemEncodedPublicKey());
+    writeSynced(
+      versionTmp.resolve("private.key"),
+      outputData.pemEncodedPrivateKey());
+    writeSynced(
+      versionTmp.resolve("certificate.pem"),
+      outputData.pemEncodedCertificate());
+    writeSynced(
+      versionTmp.resolve("full_chain.pem"),
+      outputData.pemEncodedFullChain());
+
+    syncDirectory(versionTmp);
+    Files.move(versionTmp, version, ATOMIC_MOVE);
+    syncDirectory(versions);
+
+    /*
+     * Replacing a symbolic link via rename(2) is atomic; readers see
+     * either the old version or the new version, and never neither.
+     */
+
+    final var current =
+      byName.resolve("current");
+    final var currentTmp =
+      byName.resolve("current.tmp");
+
+    Files.deleteIfExists(currentTmp);
+    Files.createSymbolicLink(
+      currentTmp,
+      byName.relativize(version)
+    );
+    Files.move(currentTmp, current, ATOMIC_MOVE, REPLACE_EXISTING);
+    syncDirectory(byName);
+
+    this.collectVersions(versions, version);
+  }
+
+  /**
+   * Delete all but the most recent versions. The current version is never
+   * deleted, and any incomplete versions left behind by failed writes are
+   * always deleted.
+   */
+
+  private void collectVersions(
+    final Path versions,
+    final Path current)
+    throws IOException
+  {
+    final var complete = new ArrayList<Path>();
+    final var incomplete = new ArrayList<Path>();
+
+    try (var stream = Files.list(versions)) {
+      for (final var entry : stream.toList()) {
+        final var fileName = entry.getFileName().toString();
+        if (VERSION_NAME.matcher(fileName).matches()) {
+          complete.add(entry);
+        } else {
+          incomplete.add(entry);
+        }
+      }
+    }
+
+    complete.sort(Comparator.comparing(Path::getFileName).reversed());
+
+    final var expired = new ArrayList<Path>(incomplete);
+    if (complete.size() > this.versionsRetained) {
+      expired.addAll(complete.subList(this.versionsRetained, complete.size()));
+    }
+    expired.remove(current);
+
+    for (final var version : expired) {
+      LOG.debug("deleting expired version {}", version);
+      deleteVersion(version);
+    }
+  }
+
+  private static OptionalLong latestVersion(
+    final Path versions)
+    throws IOException
+  {
+    try (var stream = Files.list(versions)) {
+      return stream.map(p -> p.getFileName().toString())
+        .filter(n -> VERSION_NAME.matcher(n).matches())
+        .mapToLong(Long::parseLong)
+        .max();
+    }
+  }
+
+  private static void deleteVersion(
+    final Path version)
+    throws IOException
+  {
+    if (Files.isSymbolicLink(version) || !Files.isDirectory(version)) {
+      Files.deleteIfExists(version);
+      return;
+    }
+
+    final List<Path> files;
+    try (var stream = Files.list(version)) {
+      files = stream.toList();
+    }
+    for (final var file : files) {
+      Files.deleteIfExists(file);
+    }
+    Files.deleteIfExists(version);
+  }
+
+  private static void writeSynced(
+    final Path file,
+    final String text)
+    throws IOException
+  {
+    final var data =
+      ByteBuffer.wrap((text + System.lineSeparator()).getBytes(UTF_8));
+
+    try (var channel = FileChannel.open(file, CREATE_NEW, WRITE)) {
+      while (data.hasRemaining()) {
+        channel.write(data);
+      }
+      channel.force(true);
+    }
+  }
+
+  private static void syncDirectory(
+    final Path directory)
+  {
+    /*
+     * Not all platforms allow directories to be opened for syncing.
+     */
+
+    try (var channel = FileChannel.open(directory, READ)) {
+      channel.force(true);
+    } catch (final IOException e) {
+      LOG.debug("unable to sync directory {}: ", directory, e);
+    }
+  }
 }
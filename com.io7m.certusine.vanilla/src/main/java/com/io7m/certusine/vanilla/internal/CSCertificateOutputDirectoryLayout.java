@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.vanilla.internal;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The layout of files written by a directory-based certificate output.
+ */
+
+public enum CSCertificateOutputDirectoryLayout
+{
+  /**
+   * Each file is written and renamed into place individually.
+   */
+
+  FILES("files"),
+
+  /**
+   * All files are written into a fresh version directory, and a
+   * {@code current} symbolic link is atomically replaced to point to the
+   * new version.
+   */
+
+  VERSIONED("versioned");
+
+  private final String parameterValue;
+
+  CSCertificateOutputDirectoryLayout(
+    final String inParameterValue)
+  {
+    this.parameterValue =
+      Objects.requireNonNull(inParameterValue, "parameterValue");
+  }
+
+  /**
+   * @return The value used to select this layout in configuration files
+   */
+
+  public String parameterValue()
+  {
+    return this.parameterValue;
+  }
+
+  /**
+   * Find the layout with the given configuration value.
+   *
+   * @param value The value
+   *
+   * @return The layout, if any
+   */
+
+  public static Optional<CSCertificateOutputDirectoryLayout> ofParameterValue(
+    final String value)
+  {
+    Objects.requireNonNull(value, "value");
+
+    for (final var layout : values()) {
+      if (layout.parameterValue.equals(value)) {
+        return Optional.of(layout);
+      }
+    }
+    return Optional.empty();
+  }
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.certusine.vanilla.internal;
+
+import com.io7m.certusine.api.CSCertificateOutputData;
+import com.io7m.certusine.api.CSCertificateOutputDeferredResult;
+import com.io7m.certusine.api.CSCertificateOutputType;
+import com.io7m.certusine.api.CSTelemetryServiceType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A certificate output that performs an action, such as reloading a server,
+ * when certificates change. Writes are deferred and the action is not
+ * performed until the end of the renewal pass, so that any number of
+ * changed certificates in a single pass result in a single action. The
+ * certificates are only reported as written once the action has succeeded,
+ * and unchanged certificates are never written again, because every write
+ * results in the action being performed.
+ */
+
+public final class CSCertificateOutputHook
+  implements CSCertificateOutputType
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(CSCertificateOutputHook.class);
+
+  private static final Duration HOOK_TIMEOUT =
+    Duration.ofMinutes(1L);
+
+  private static final Pattern PROCESS_ID =
+    Pattern.compile("[0-9]+");
+
+  private final String name;
+  private final CSCertificateOutputHookActionType action;
+  private final ConcurrentSkipListMap<String, CSCertificateOutputData> pending;
+
+  /**
+   * A certificate output that performs an action when certificates change.
+   *
+   * @param inName   The output name
+   * @param inAction The action
+   */
+
+  public CSCertificateOutputHook(
+    final String inName,
+    final CSCertificateOutputHookActionType inAction)
+  {
+    this.name =
+      Objects.requireNonNull(inName, "name");
+    this.action =
+      Objects.requireNonNull(inAction, "action");
+    this.pending =
+      new ConcurrentSkipListMap<>();
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[CSCertificateOutputHook 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+
+  @Override
+  public String type()
+  {
+    return "hook";
+  }
+
+  @Override
+  public String name()
+  {
+    return this.name;
+  }
+
+  @Override
+  public String target()
+  {
+    return this.action.describe();
+  }
+
+  /**
+   * @return The certificates that have changed since the action was last
+   * performed
+   */
+
+  public List<String> pending()
+  {
+    return List.copyOf(this.pending.keySet());
+  }
+
+  @Override
+  public boolean writesDeferred()
+  {
+    return true;
+  }
+
+  @Override
+  public boolean writesRefreshed()
+  {
+    return false;
+  }
+
+  @Override
+  public void write(
+    final CSTelemetryServiceType telemetry,
+    final CSCertificateOutputData outputData)
+  {
+    Objects.requireNonNull(telemetry, "telemetry");
+    Objects.requireNonNull(outputData, "outputData");
+
+    final var certificate =
+      "%s/%s".formatted(outputData.domainName(), outputData.name().value());
+
+    LOG.debug("hook {}: certificate {} changed", this.name, certificate);
+    this.pending.put(certificate, outputData);
+  }
+
+  @Override
+  public List<CSCertificateOutputDeferredResult> passCompleted(
+    final CSTelemetryServiceType telemetry)
+    throws InterruptedException
+  {
+    Objects.requireNonNull(telemetry, "telemetry");
+
+    if (this.pending.isEmpty()) {
+      return List.of();
+    }
+
+    /*
+     * Certificates that change while the action is running remain pending,
+     * and will cause the action to be performed again at the end of the
+     * next pass. If the action fails, every certificate in the batch is
+     * reported as failed, and the output delivery service writes each of
+     * them again later.
+     */
+
+    final var batch = new TreeMap<>(this.pending);
+    for (final var entry : batch.entrySet()) {
+      this.pending.remove(entry.getKey(), entry.getValue());
+    }
+
+    final var changed = List.copyOf(batch.keySet());
+
+    final var span =
+      telemetry.tracer()
+        .spanBuilder("RunHook")
+        .setAttribute("certusine.target", this.action.describe())
+        .setAttribute("certusine.certificates", (long) changed.size())
+        .startSpan();
+
+    try (var ignored = span.makeCurrent()) {
+      LOG.info(
+        "hook {}: {} certificates changed, running {}",
+        this.name,
+        Integer.valueOf(changed.size()),
+        this.action.describe()
+      );
+
+      switch (this.action) {
+        case final CSCertificateOutputHookCommand command -> {
+          runCommand(command.arguments(), changed);
+        }
+        case final CSCertificateOutputHookSignal signal -> {
+          runSignal(signal, changed);
+        }
+        case final CSCertificateOutputHookHTTP http -> {
+          runHTTP(http, changed);
+        }
+      }
+
+      return batch.values()
+        .stream()
+        .map(CSCertificateOutputDeferredResult::succeeded)
+        .toList();
+    } catch (final IOException e) {
+      CSTelemetryServiceType.recordExceptionAndSetError(e);
+      LOG.error("hook {}: {} failed: ", this.name, this.action.describe(), e);
+      return batch.values()
+        .stream()
+        .map(data -> CSCertificateOutputDeferredResult.failed(data, e))
+        .toList();
+    } finally {
+      span.end();
+    }
+  }
+
+  private static void runSignal(
+    final CSCertificateOutputHookSignal signal,
+    final List<String> changed)
+    throws IOException, InterruptedException
+  {
+    final var processId =
+      Files.readString(signal.pidFile(), UTF_8).trim();
+
+    if (!PROCESS_ID.matcher(processId).matches()) {
+      throw new IOException(
+        "File %s does not contain a process ID (received '%s')"
+          .formatted(signal.pidFile(), processId)
+      );
+    }
+
+    runCommand(List.of("kill", "-" + signal.signal(), processId), changed);
+  }
+
+  private static void runCommand(
+    final List<String> arguments,
+    final List<String> changed)
+    throws IOException, InterruptedException
+  {
+    final var builder = new ProcessBuilder(new ArrayList<>(arguments));
+    builder.environment()
+      .put("CERTUSINE_CHANGED_CERTIFICATES", String.join("\n", changed));
+    builder.redirectErrorStream(true);
+    builder.redirectOutput(ProcessBuilder.Redirect.INHERIT);
+    builder.redirectInput(ProcessBuilder.Redirect.DISCARD.file());
+
+    final var process = builder.start();
+    if (!process.waitFor(HOOK_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+      process.destroyForcibly();
+      throw new IOException(
+        "Command %s did not complete within %s"
+          .formatted(arguments, HOOK_TIMEOUT)
+      );
+    }
+
+    final var exitCode = process.exitValue();
+    if (exitCode != 0) {
+      throw new IOException(
+        "Command %s failed with exit code %d"
+          .formatted(arguments, Integer.valueOf(exitCode))
+      );
+    }
+  }
+
+  private static void runHTTP(
+    final CSCertificateOutputHookHTTP http,
+    final List<String> changed)
+    throws IOException, InterruptedException
+  {
+    try (var client = HttpClient.newHttpClient()) {
+      final var request =
+        HttpRequest.newBuilder(http.endpoint())
+          .timeout(HOOK_TIMEOUT)
+          .header("Content-Type", "text/plain; charset=utf-8")
+          .POST(HttpRequest.BodyPublishers.ofString(
+            String.join("\n", changed),
+            UTF_8
+          ))
+          .build();
+
+      final var response =
+        client.send(request, HttpResponse.BodyHandlers.discarding());
+
+      final var status = response.statusCode();
+      if (status >= 300) {
+        throw new IOException(
+          "Endpoint %s returned HTTP status %d"
+            .formatted(http.endpoint(), Integer.valueOf(status))
+        );
+      }
+    }
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.vanilla.internal;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Run an external command. The command is executed directly, and not via a
+ * shell.
+ *
+ * @param arguments The command and its arguments
+ */
+
+public record CSCertificateOutputHookCommand(
+  List<String> arguments)
+  implements CSCertificateOutputHookActionType
+{
+  /**
+   * Run an external command.
+   *
+   * @param arguments The command and its arguments
+   */
+
+  public CSCertificateOutputHookCommand
+  {
+    Objects.requireNonNull(arguments, "arguments");
+    arguments = List.copyOf(arguments);
+
+    if (arguments.isEmpty()) {
+      throw new IllegalArgumentException("Commands must be non-empty");
+    }
+  }
+
+  @Override
+  public String describe()
+  {
+    return String.join(" ", this.arguments);
+  }
+}
@@ -21,6 +21,7 @@ import com.io7m.anethum.api.ParseStatus;
 import com.io7m.anethum.api.ParsingException;
 import com.io7m.certusine.api.CSAccount;
 import com.io7m.certusine.api.CSCertificate;
+import com.io7m.certusine.api.CSCertificateHistoryConfiguration;
 import com.io7m.certusine.api.CSCertificateName;
 import com.io7m.certusine.api.CSCertificateOutputProviderType;
 import com.io7m.certusine.api.CSCertificateOutputType;
@@ -31,6 +32,8 @@ import com.io7m.certusine.api.CSConfigurationParserType;
 import com.io7m.certusine.api.CSDNSConfiguratorProviderType;
 import com.io7m.certusine.api.CSDNSConfiguratorType;
 import com.io7m.certusine.api.CSDomain;
+import com.io7m.certusine.api.CSEventJournalConfiguration;
+import com.io7m.certusine.api.CSEventQueueConfiguration;
 import com.io7m.certusine.api.CSFaultInjectionConfiguration;
 import com.io7m.certusine.api.CSOpenTelemetryConfiguration;
 import com.io7m.certusine.api.CSOptions;
@@ -86,7 +89,10 @@ import static com.io7m.anethum.api.ParseSeverity.PARSE_ERROR;
 import static com.io7m.anethum.api.ParseSeverity.PARSE_WARNING;
 import static com.io7m.certusine.api.CSOpenTelemetryConfiguration.CSLogs;
 import static com.io7m.certusine.api.CSOpenTelemetryConfiguration.CSMetrics;
+import static com.io7m.certusine.api.CSEventQueueConfiguration.CSOverflowPolicy;
 import static com.io7m.certusine.api.CSOpenTelemetryConfiguration.CSOTLPProtocol;
+import static com.io7m.certusine.api.CSOpenTelemetryConfiguration.CSPrometheus;
+import static com.io7m.certusine.api.CSOpenTelemetryConfiguration.CSTraceSampling;
 import static com.io7m.certusine.api.CSOpenTelemetryConfiguration.CSTraces;
 import static jakarta.xml.bind.ValidationEvent.ERROR;
 import static jakarta.xml.bind.ValidationEvent.FATAL_ERROR;
@@ -438,10 +444,14 @@ public final class CSConfigurationParser
       this.options = new CSOptions(
         optionsRaw.isDropUnreferencedCertificates(),
         this.baseDirectory.resolve(optionsRaw.getCertificateStore()),
+        optionsRaw.getCertificateStoreType(),
         Duration.parse(optionsRaw.getDNSWaitTime().toString()),
         Duration.parse(optionsRaw.getCertificateExpirationThreshold().toString()),
         processOpenTelemetry(openTelemetry),
-        processFaultInjection(faultInjection)
+        processFaultInjection(faultInjection),
+        processCertificateHistory(optionsRaw),
+        processEventQueue(optionsRaw),
+        processEventJournal(optionsRaw)
       );
     } catch (final DateTimeParseException e) {
       this.publishError(
@@ -456,6 +466,43 @@ public final class CSConfigurationParser
     }
   }
 
+  private static CSCertificateHistoryConfiguration processCertificateHistory(
+    final Options optionsRaw)
+  {
+    final var retainAge =
+      Optional.ofNullable(optionsRaw.getCertificateHistoryRetainAge())
+        .map(age -> Duration.parse(age.toString()));
+
+    return new CSCertificateHistoryConfiguration(
+      optionsRaw.getCertificateHistoryRetainCount().intValueExact(),
+      retainAge
+    );
+  }
+
+  private static CSEventQueueConfiguration processEventQueue(
+    final Options optionsRaw)
+  {
+    final var overflow =
+      switch (optionsRaw.getEventQueueOverflow()) {
+        case "DropNewest" -> CSOverflowPolicy.DROP_NEWEST;
+        case "Block" -> CSOverflowPolicy.BLOCK;
+        default -> CSOverflowPolicy.DROP_OLDEST;
+      };
+
+    return new CSEventQueueConfiguration(
+      optionsRaw.getEventQueueCapacity().intValueExact(),
+      overflow
+    );
+  }
+
+  private static CSEventJournalConfiguration processEventJournal(
+    final Options optionsRaw)
+  {
+    return new CSEventJournalConfiguration(
+      Duration.parse(optionsRaw.getEventJournalRetainAge().toString())
+    );
+  }
+
   private static CSFaultInjectionConfiguration processFaultInjection(
     final FaultInjection faultInjection)
   {
@@ -751,7 +798,12 @@ public final class CSConfigurationParser
       Optional.ofNullable(openTelemetry.getTraces())
         .map(m -> new CSTraces(
           URI.create(m.getEndpoint()),
-          CSOTLPProtocol.HTTP
+          CSOTLPProtocol.HTTP,
+          new CSTraceSampling(
+            m.getSampleRatio(),
+            m.isSampleParentBased(),
+            m.isSampleErrorsAlways()
+          )
         ));
 
     final var logs =
@@ -761,12 +813,17 @@ public final class CSConfigurationParser
           CSOTLPProtocol.HTTP
         ));
 
+    final var prometheus =
+      Optional.ofNullable(openTelemetry.getPrometheus())
+        .map(m -> new CSPrometheus(m.getAddress(), m.getPort()));
+
     return Optional.of(
       new CSOpenTelemetryConfiguration(
         openTelemetry.getLogicalServiceName(),
         logs,
         metrics,
-        traces
+        traces,
+        prometheus
       )
     );
   }
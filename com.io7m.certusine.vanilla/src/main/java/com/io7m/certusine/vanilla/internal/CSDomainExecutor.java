@@ -24,9 +24,11 @@ import com.io7m.certusine.api.CSDNSRecordNameType.CSDNSRecordNameAbsolute;
 import com.io7m.certusine.api.CSDNSRecordNameType.CSDNSRecordNameRelative;
 import com.io7m.certusine.api.CSDomain;
 import com.io7m.certusine.api.CSTelemetryServiceType;
-import com.io7m.certusine.vanilla.internal.dns.CSDNSQueriesFactoryDJ;
+import com.io7m.certusine.vanilla.CSRenewalDomainReport;
+import com.io7m.certusine.vanilla.internal.dns.CSDNSQueriesFactoryType;
 import com.io7m.certusine.vanilla.internal.events.CSEventCertificateRenewalFailed;
 import com.io7m.certusine.vanilla.internal.events.CSEventServiceType;
+import com.io7m.certusine.vanilla.internal.jfr.CSJFRDNSProviderRequestEvent;
 import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreServiceType;
 import com.io7m.certusine.vanilla.internal.tasks.CSCertificateTask;
 import com.io7m.certusine.vanilla.internal.tasks.CSCertificateTaskAuthorizeDNSInitial;
@@ -38,6 +40,7 @@ import com.io7m.certusine.vanilla.internal.tasks.CSCertificateTaskFailedButCanBe
 import com.io7m.certusine.vanilla.internal.tasks.CSCertificateTaskFailedPermanently;
 import com.io7m.certusine.vanilla.internal.tasks.CSCertificateTaskInProgress;
 import com.io7m.certusine.vanilla.internal.tasks.CSCertificateTaskStatusType;
+import com.io7m.certusine.vanilla.internal.telemetry.CSMetricsServiceType;
 import io.opentelemetry.api.trace.StatusCode;
 import org.shredzone.acme4j.Account;
 import org.shredzone.acme4j.AccountBuilder;
@@ -49,6 +52,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.security.KeyPair;
 import java.time.Clock;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -70,9 +74,11 @@ public final class CSDomainExecutor
   private final Clock clock;
   private final Function<CSAccount, Session> sessions;
   private final CSTelemetryServiceType telemetry;
+  private final CSMetricsServiceType metrics;
   private final CSEventServiceType events;
   private final CSConfigurationServiceType configs;
   private final CSCertificateStoreServiceType certificateStores;
+  private final CSDNSQueriesFactoryType dnsQueries;
 
   /**
    * A domain executor.
@@ -80,27 +86,33 @@ public final class CSDomainExecutor
    * @param inStrings           String resources
    * @param inConfigs           The configuration service
    * @param inTelemetry         A telemetry service
+   * @param inMetrics           The metrics service
    * @param inEvents            The event service
    * @param inCertificateStores The certificate stores
    * @param inDomain            The executed domain
    * @param inClock             The clock used for time-based operations
    * @param inSessions          A provider of ACME sessions
+   * @param inDnsQueries        A factory of DNS queries
    */
 
   public CSDomainExecutor(
     final CSStrings inStrings,
     final CSTelemetryServiceType inTelemetry,
+    final CSMetricsServiceType inMetrics,
     final CSEventServiceType inEvents,
     final CSConfigurationServiceType inConfigs,
     final CSCertificateStoreServiceType inCertificateStores,
     final CSDomain inDomain,
     final Clock inClock,
-    final Function<CSAccount, Session> inSessions)
+    final Function<CSAccount, Session> inSessions,
+    final CSDNSQueriesFactoryType inDnsQueries)
   {
     this.strings =
       Objects.requireNonNull(inStrings, "strings");
     this.telemetry =
       Objects.requireNonNull(inTelemetry, "inTelemetry");
+    this.metrics =
+      Objects.requireNonNull(inMetrics, "inMetrics");
     this.events =
       Objects.requireNonNull(inEvents, "inEvents");
     this.configs =
@@ -113,18 +125,26 @@ public final class CSDomainExecutor
       Objects.requireNonNull(inClock, "inClock");
     this.sessions =
       Objects.requireNonNull(inSessions, "inSessions");
+    this.dnsQueries =
+      Objects.requireNonNull(inDnsQueries, "inDnsQueries");
   }
 
-  private static Account findAccount(
+  private Account findAccount(
     final Session session,
     final KeyPair accountKey)
     throws AcmeException
   {
     LOG.debug("Locating account");
-    return new AccountBuilder()
-      .agreeToTermsOfService()
-      .useKeyPair(accountKey)
-      .create(session);
+
+    final var timeThen = System.nanoTime();
+    try {
+      return new AccountBuilder()
+        .agreeToTermsOfService()
+        .useKeyPair(accountKey)
+        .create(session);
+    } finally {
+      this.metrics.recordAcmeRequestDuration("account.create", timeThen);
+    }
   }
 
   private static CSCertificateTask createCertificateTask(
@@ -169,30 +189,6 @@ public final class CSDomainExecutor
   {
     LOG.debug("Executing tasks");
 
-    final var taskExec =
-      this.telemetry.meter()
-        .counterBuilder("certusine_tasks_executed")
-        .setDescription("Certificate tasks that executed.")
-        .build();
-
-    final var taskOk =
-      this.telemetry.meter()
-        .counterBuilder("certusine_tasks_succeeded")
-        .setDescription("Certificate tasks that executed and succeeded.")
-        .build();
-
-    final var taskFailed =
-      this.telemetry.meter()
-        .counterBuilder("certusine_tasks_failed")
-        .setDescription("Certificate tasks that executed and failed.")
-        .build();
-
-    final var taskRetry =
-      this.telemetry.meter()
-        .counterBuilder("certusine_tasks_retried")
-        .setDescription("Certificate tasks that had to be retried.")
-        .build();
-
     final var tasksNext = new ArrayList<CSCertificateTask>(tasksNow.size());
     var delayRequired = 0L;
     for (final var task : tasksNow) {
@@ -203,24 +199,24 @@ public final class CSDomainExecutor
       switch (status) {
         case final CSCertificateTaskCompleted completed -> {
           completed.next().ifPresent(tasksNext::add);
-          taskOk.add(1L);
-          taskExec.add(1L);
+          this.metrics.tasksSucceeded().add(1L);
+          this.metrics.tasksExecuted().add(1L);
         }
         case final CSCertificateTaskInProgress ignored -> {
           tasksNext.add(task);
         }
         case final CSCertificateTaskFailedPermanently ignored -> {
-          taskFailed.add(1L);
-          taskExec.add(1L);
+          this.metrics.tasksFailed().add(1L);
+          this.metrics.tasksExecuted().add(1L);
         }
         case final CSCertificateTaskFailedButCanBeRetried ignored -> {
-          taskRetry.add(1L);
-          taskExec.add(1L);
+          this.metrics.tasksRetried().add(1L);
+          this.metrics.tasksExecuted().add(1L);
           tasksNext.add(task);
         }
         case final CSCertificateTaskFailedAndRestart ignored -> {
-          taskRetry.add(1L);
-          taskExec.add(1L);
+          this.metrics.tasksRetried().add(1L);
+          this.metrics.tasksExecuted().add(1L);
           tasksNext.add(task);
         }
       }
@@ -230,15 +226,25 @@ public final class CSDomainExecutor
       "Pausing for {} ms before continuing tasks",
       Long.valueOf(delayRequired)
     );
+
+    final var timeThen = System.nanoTime();
     Thread.sleep(delayRequired);
+    final var slept = System.nanoTime() - timeThen;
+    for (final var task : tasksNext) {
+      task.recordWait(slept);
+    }
     return tasksNext;
   }
 
   /**
    * Execute the domain.
+   *
+   * @return A report of the time spent renewing the domain's certificates
+   *
+   * @throws InterruptedException On interruption
    */
 
-  public void execute()
+  public CSRenewalDomainReport execute()
     throws InterruptedException
   {
     final var span =
@@ -248,7 +254,7 @@ public final class CSDomainExecutor
         .startSpan();
 
     try (var ignored = span.makeCurrent()) {
-      this.executeInSpan();
+      return this.executeInSpan();
     } catch (final Throwable ex) {
       span.setStatus(StatusCode.ERROR);
       span.recordException(ex);
@@ -258,7 +264,7 @@ public final class CSDomainExecutor
     }
   }
 
-  private void executeInSpan()
+  private CSRenewalDomainReport executeInSpan()
     throws InterruptedException
   {
     final var acmeInfo =
@@ -266,12 +272,25 @@ public final class CSDomainExecutor
 
     LOG.debug("executing renewal for domain {}", this.domain.domain());
 
+    final var timeStart = System.nanoTime();
     final var account =
       this.executeOpenAccount(acmeInfo);
+    final var timeAccount = System.nanoTime();
     final var taskContexts =
       this.executeDomainTasks(account);
-
+    final var timeTasks = System.nanoTime();
     this.executeCleanUpDNSRecords(taskContexts);
+    final var timeEnd = System.nanoTime();
+
+    return new CSRenewalDomainReport(
+      this.domain.domain(),
+      Duration.ofNanos(timeEnd - timeStart),
+      Duration.ofNanos(timeAccount - timeStart),
+      Duration.ofNanos(timeEnd - timeTasks),
+      taskContexts.stream()
+        .map(c -> c.timings().report(c.certificate().name().value()))
+        .toList()
+    );
   }
 
   private List<CSCertificateTaskContext> executeDomainTasks(
@@ -299,6 +318,7 @@ public final class CSDomainExecutor
             this.strings,
             this.events,
             this.telemetry,
+            this.metrics,
             options,
             this.certificateStores,
             this.clock,
@@ -306,7 +326,7 @@ public final class CSDomainExecutor
             this.domain,
             certificate,
             ATTEMPT_LIMIT,
-            new CSDNSQueriesFactoryDJ()
+            this.dnsQueries
           );
 
         tasksInitial.add(createCertificateTask(context, account, certificate));
@@ -361,7 +381,7 @@ public final class CSDomainExecutor
 
       final Account account;
       try {
-        account = findAccount(session, acmeInfo.accountKeyPair());
+        account = this.findAccount(session, acmeInfo.accountKeyPair());
       } catch (final AcmeException e) {
         throw new RuntimeException(e);
       }
@@ -371,6 +391,37 @@ public final class CSDomainExecutor
     }
   }
 
+  private void deleteTXTRecord(
+    final CSDNSRecordNameType name,
+    final String value)
+    throws IOException, InterruptedException
+  {
+    final var configurator =
+      this.domain.dnsConfigurator();
+
+    final var event = new CSJFRDNSProviderRequestEvent();
+    event.begin();
+
+    final var timeThen = System.nanoTime();
+    var succeeded = false;
+    try {
+      configurator.deleteTXTRecord(this.telemetry, name, value);
+      succeeded = true;
+    } finally {
+      event.commitWith(
+        configurator.getClass().getSimpleName(),
+        "deleteTXTRecord",
+        name.name(),
+        succeeded
+      );
+      this.metrics.recordDNSRequestDuration(
+        configurator.getClass().getSimpleName(),
+        "deleteTXTRecord",
+        timeThen
+      );
+    }
+  }
+
   private void executeCleanUpDNSRecords(
     final List<CSCertificateTaskContext> taskContexts)
     throws InterruptedException
@@ -391,8 +442,7 @@ public final class CSDomainExecutor
               name = new CSDNSRecordNameRelative(dnsRecord.name());
             }
 
-            this.domain.dnsConfigurator()
-              .deleteTXTRecord(this.telemetry, name, dnsRecord.value());
+            this.deleteTXTRecord(name, dnsRecord.value());
           } catch (final IOException e) {
             LOG.error("failed to delete DNS record: ", e);
           }
@@ -17,9 +17,17 @@
 
 package com.io7m.certusine.vanilla.internal.age;
 
-import com.io7m.certusine.vanilla.internal.events.CSEventCertificateValidityRemaining;
-import com.io7m.certusine.vanilla.internal.events.CSEventServiceType;
+import com.io7m.certusine.api.CSCertificateName;
+import com.io7m.certusine.api.CSTelemetryServiceType;
+import com.io7m.certusine.certstore.api.CSCertificateStored;
+import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreEventDeleted;
+import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreEventReloaded;
+import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreEventType;
+import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreEventUpdated;
 import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreServiceType;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.ObservableLongGauge;
+import io.opentelemetry.api.metrics.ObservableLongMeasurement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,95 +36,173 @@ import java.time.Clock;
 import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.Objects;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-
-import static java.util.concurrent.TimeUnit.SECONDS;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * An age service for certificates.
+ * An age service for certificates. The service maintains an in-memory index
+ * of certificate expiration times that is seeded once from the certificate
+ * store and then kept up-to-date by subscribing to store changes. The time
+ * remaining for each certificate is computed only when telemetry asks for it.
  */
 
-public final class CSAgeService implements CSAgeServiceType
+public final class CSAgeService
+  implements CSAgeServiceType, Flow.Subscriber<CSCertificateStoreEventType>
 {
   private static final Logger LOG =
     LoggerFactory.getLogger(CSAgeService.class);
 
   private final Clock clock;
-  private final ScheduledExecutorService executor;
   private final CSCertificateStoreServiceType stores;
-  private final CSEventServiceType events;
+  private final AtomicReference<ConcurrentHashMap<FullyQualifiedCertificate, Expiry>> expiries;
+  private final ObservableLongGauge certificateRemaining;
+  private volatile Flow.Subscription subscription;
 
   private CSAgeService(
     final Clock inClock,
-    final ScheduledExecutorService inExecutor,
-    final CSCertificateStoreServiceType inStores,
-    final CSEventServiceType inEvents)
+    final CSTelemetryServiceType inTelemetry,
+    final CSCertificateStoreServiceType inStores)
   {
     this.clock =
       Objects.requireNonNull(inClock, "clock");
-    this.executor =
-      Objects.requireNonNull(inExecutor, "executor");
     this.stores =
       Objects.requireNonNull(inStores, "stores");
-    this.events =
-      Objects.requireNonNull(inEvents, "events");
+    this.expiries =
+      new AtomicReference<>(new ConcurrentHashMap<>());
+
+    this.certificateRemaining =
+      inTelemetry.meter()
+        .gaugeBuilder("certusine_certificate_time_remaining")
+        .setDescription(
+          "The time remaining before a certificate expires (seconds).")
+        .ofLongs()
+        .buildWithCallback(this::reportCertificateAges);
   }
 
   /**
    * Create a service.
-   * @param clock The clock
-   * @param stores The certificate store service
-   * @param events The event service
+   *
+   * @param clock     The clock
+   * @param telemetry The telemetry service
+   * @param stores    The certificate store service
+   *
    * @return A service
    */
 
   public static CSAgeServiceType create(
     final Clock clock,
-    final CSCertificateStoreServiceType stores,
-    final CSEventServiceType events)
+    final CSTelemetryServiceType telemetry,
+    final CSCertificateStoreServiceType stores)
   {
-    final var executor =
-      Executors.newSingleThreadScheduledExecutor(r -> {
-        final var thread = new Thread(r);
-        thread.setDaemon(true);
-        thread.setName("com.io7m.certusine.age[%d]"
-                         .formatted(thread.getId()));
-        return thread;
-      });
-
     final var service =
-      new CSAgeService(clock, executor, stores, events);
-    executor.scheduleAtFixedRate(service::broadcast, 1L, 60L, SECONDS);
+      new CSAgeService(clock, telemetry, stores);
+
+    /*
+     * The index is seeded when the subscription is delivered. Any store
+     * changes that race with the seeding are delivered afterwards, and
+     * applying them again is harmless.
+     */
+
+    stores.events().subscribe(service);
     return service;
   }
 
-  private void broadcast()
+  private void reportCertificateAges(
+    final ObservableLongMeasurement measurement)
+  {
+    final var timeNow = OffsetDateTime.now(this.clock);
+    for (final var expiry : this.expiries.get().values()) {
+      measurement.record(
+        Duration.between(timeNow, expiry.expiresOn()).toSeconds(),
+        expiry.attributes()
+      );
+    }
+  }
+
+  private void seed()
   {
+    /*
+     * The index is rebuilt off to one side and then swapped in, so that
+     * telemetry never observes a partially seeded index.
+     */
+
     try {
-      final var certificates =
-        this.stores.store().all();
-
-      final var timeNow =
-        OffsetDateTime.now(this.clock);
-
-      for (final var certificate : certificates) {
-        final var remaining =
-          Duration.between(timeNow, certificate.expiresOn());
-
-        this.events.emit(
-          new CSEventCertificateValidityRemaining(
-            certificate.domain(),
-            certificate.name(),
-            remaining.toSeconds()
-          )
+      final var seeded =
+        new ConcurrentHashMap<FullyQualifiedCertificate, Expiry>();
+
+      this.stores.store()
+        .forEach(certificate -> putExpiry(seeded, certificate));
+      this.expiries.set(seeded);
+
+      LOG.debug(
+        "Tracking the expiration of {} certificates",
+        Integer.valueOf(seeded.size())
+      );
+    } catch (final IOException e) {
+      LOG.error("error reading certificate ages: ", e);
+    }
+  }
+
+  private static void putExpiry(
+    final ConcurrentHashMap<FullyQualifiedCertificate, Expiry> expiries,
+    final CSCertificateStored certificate)
+  {
+    expiries.put(
+      new FullyQualifiedCertificate(certificate.domain(), certificate.name()),
+      new Expiry(
+        certificate.expiresOn(),
+        Attributes.builder()
+          .put("domain", certificate.domain())
+          .put("certificate", certificate.name().value())
+          .build()
+      )
+    );
+  }
+
+  @Override
+  public void onSubscribe(
+    final Flow.Subscription newSubscription)
+  {
+    this.subscription =
+      Objects.requireNonNull(newSubscription, "subscription");
+
+    this.seed();
+    this.subscription.request(Long.MAX_VALUE);
+  }
+
+  @Override
+  public void onNext(
+    final CSCertificateStoreEventType item)
+  {
+    switch (item) {
+      case final CSCertificateStoreEventUpdated updated -> {
+        putExpiry(this.expiries.get(), updated.certificate());
+      }
+      case final CSCertificateStoreEventDeleted deleted -> {
+        this.expiries.get().remove(
+          new FullyQualifiedCertificate(deleted.domain(), deleted.name())
         );
       }
-    } catch (final IOException e) {
-      LOG.error("error reporting certificate ages: ", e);
+      case final CSCertificateStoreEventReloaded ignored -> {
+        this.seed();
+      }
     }
   }
 
+  @Override
+  public void onError(
+    final Throwable throwable)
+  {
+    LOG.error("certificate store event stream failed: ", throwable);
+  }
+
+  @Override
+  public void onComplete()
+  {
+
+  }
+
   @Override
   public String description()
   {
@@ -127,6 +213,24 @@ public final class CSAgeService implements CSAgeServiceType
   public void close()
     throws Exception
   {
-    this.executor.shutdown();
+    final var currentSubscription = this.subscription;
+    if (currentSubscription != null) {
+      currentSubscription.cancel();
+    }
+    this.certificateRemaining.close();
+  }
+
+  private record FullyQualifiedCertificate(
+    String domainName,
+    CSCertificateName name)
+  {
+
+  }
+
+  private record Expiry(
+    OffsetDateTime expiresOn,
+    Attributes attributes)
+  {
+
   }
 }
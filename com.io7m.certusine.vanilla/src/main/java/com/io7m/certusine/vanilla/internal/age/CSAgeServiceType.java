@@ -20,9 +20,9 @@ package com.io7m.certusine.vanilla.internal.age;
 import com.io7m.repetoir.core.RPServiceType;
 
 /**
- * An age service for certificates. The age service periodically
- * broadcasts the age of certificates in a manner that is picked up
- * by telemetry.
+ * An age service for certificates. The age service tracks the expiration
+ * times of stored certificates and publishes the time remaining for each
+ * certificate in a manner that is picked up by telemetry.
  */
 
 public interface CSAgeServiceType extends RPServiceType, AutoCloseable
@@ -0,0 +1,272 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.vanilla.internal.delivery;
+
+import com.io7m.certusine.api.CSCertificate;
+import com.io7m.certusine.api.CSCertificateName;
+import com.io7m.certusine.api.CSCertificateOutputData;
+import com.io7m.certusine.api.CSCertificateOutputDeferredResult;
+import com.io7m.certusine.api.CSCertificateOutputType;
+import com.io7m.certusine.api.CSConfiguration;
+import com.io7m.certusine.api.CSDomain;
+import com.io7m.certusine.certstore.api.CSCertificateOutputDigest;
+import com.io7m.certusine.certstore.api.CSCertificateOutputRetry;
+import com.io7m.certusine.certstore.api.CSCertificateStoreType;
+import com.io7m.certusine.certstore.api.CSCertificateStored;
+import com.io7m.certusine.vanilla.internal.CSCertificateOutputDigests;
+import com.io7m.certusine.vanilla.internal.events.CSEventCertificateStoreFailed;
+import com.io7m.certusine.vanilla.internal.events.CSEventCertificateStored;
+import com.io7m.certusine.vanilla.internal.events.CSEventServiceType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+
+import static com.io7m.certusine.vanilla.internal.CSCertificateIO.encodePrivateKey;
+import static com.io7m.certusine.vanilla.internal.CSCertificateIO.encodePublicKey;
+import static com.io7m.certusine.vanilla.internal.tasks.CSDurations.OUTPUT_RETRY_DELAY_INITIAL;
+import static com.io7m.certusine.vanilla.internal.tasks.CSDurations.OUTPUT_RETRY_DELAY_MAXIMUM;
+
+/**
+ * Functions to record the outcomes of deliveries of certificates to outputs.
+ * A failed delivery is recorded as a pending delivery in the certificate
+ * store, and is retried later by the {@link CSOutputDeliveryServiceType}.
+ */
+
+public final class CSOutputDeliveries
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(CSOutputDeliveries.class);
+
+  /**
+   * The largest power of two by which the initial retry delay is
+   * multiplied. This is far beyond the point at which the delay reaches
+   * the maximum, and merely prevents overflow.
+   */
+
+  private static final int EXPONENT_LIMIT = 20;
+
+  private CSOutputDeliveries()
+  {
+
+  }
+
+  /**
+   * Determine the time of the next delivery attempt after the given number
+   * of failed attempts. The delay doubles with each failed attempt, up to
+   * {@link com.io7m.certusine.vanilla.internal.tasks.CSDurations#OUTPUT_RETRY_DELAY_MAXIMUM}.
+   *
+   * @param time     The time of the most recent failed attempt
+   * @param attempts The number of failed attempts
+   *
+   * @return The time of the next attempt
+   */
+
+  public static OffsetDateTime nextAttempt(
+    final OffsetDateTime time,
+    final int attempts)
+  {
+    final var exponent =
+      Math.min(Math.max(attempts - 1, 0), EXPONENT_LIMIT);
+    final var delay =
+      OUTPUT_RETRY_DELAY_INITIAL.multipliedBy(1L << exponent);
+
+    if (delay.compareTo(OUTPUT_RETRY_DELAY_MAXIMUM) > 0) {
+      return time.plus(OUTPUT_RETRY_DELAY_MAXIMUM);
+    }
+    return time.plus(delay);
+  }
+
+  /**
+   * Produce the data written to outputs for the given certificate.
+   *
+   * @param domain      The domain
+   * @param certificate The certificate configuration
+   * @param stored      The stored certificate
+   *
+   * @return The output data
+   */
+
+  public static CSCertificateOutputData outputDataOf(
+    final CSDomain domain,
+    final CSCertificate certificate,
+    final CSCertificateStored stored)
+  {
+    final var keyPair = certificate.keyPair();
+    return new CSCertificateOutputData(
+      domain.domain(),
+      certificate.name(),
+      encodePublicKey(keyPair.getPublic()),
+      encodePrivateKey(keyPair.getPrivate()),
+      stored.pemEncodedCertificate(),
+      stored.pemEncodedCertificateFullChain()
+    );
+  }
+
+  /**
+   * Record that a certificate was delivered to an output. Any pending
+   * delivery of the certificate to the output is removed.
+   *
+   * @param store  The certificate store
+   * @param events The event service
+   * @param domain The domain
+   * @param name   The certificate name
+   * @param output The output
+   * @param digest The digest of the delivered data
+   * @param time   The current time
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static void delivered(
+    final CSCertificateStoreType store,
+    final CSEventServiceType events,
+    final CSDomain domain,
+    final CSCertificateName name,
+    final CSCertificateOutputType output,
+    final String digest,
+    final OffsetDateTime time)
+    throws IOException
+  {
+    store.outputDigestPut(
+      domain.domain(),
+      name,
+      output.name(),
+      new CSCertificateOutputDigest(digest, time)
+    );
+    store.outputRetryDelete(domain.domain(), name, output.name());
+    events.emit(new CSEventCertificateStored(domain, name, output.name()));
+  }
+
+  /**
+   * Record that a delivery of a certificate to an output failed, scheduling
+   * the delivery to be retried.
+   *
+   * @param store    The certificate store
+   * @param events   The event service
+   * @param domain   The domain
+   * @param name     The certificate name
+   * @param output   The output
+   * @param attempts The number of failed attempts, including this one
+   * @param time     The current time
+   *
+   * @return The scheduled delivery
+   *
+   * @throws IOException If the delivery could not be scheduled, in which
+   *                     case no event is published
+   */
+
+  public static CSCertificateOutputRetry failed(
+    final CSCertificateStoreType store,
+    final CSEventServiceType events,
+    final CSDomain domain,
+    final CSCertificateName name,
+    final CSCertificateOutputType output,
+    final int attempts,
+    final OffsetDateTime time)
+    throws IOException
+  {
+    final var retry =
+      new CSCertificateOutputRetry(
+        domain.domain(),
+        name,
+        output.name(),
+        attempts,
+        nextAttempt(time, attempts)
+      );
+
+    store.outputRetryPut(retry);
+    events.emit(
+      new CSEventCertificateStoreFailed(domain, name, output.name()));
+    return retry;
+  }
+
+  /**
+   * Record the result of a deferred write to an output. Successful writes
+   * are recorded as with
+   * {@link #delivered(CSCertificateStoreType, CSEventServiceType, CSDomain,
+   * CSCertificateName, CSCertificateOutputType, String, OffsetDateTime)},
+   * and failed writes are recorded as with
+   * {@link #failed(CSCertificateStoreType, CSEventServiceType, CSDomain,
+   * CSCertificateName, CSCertificateOutputType, int, OffsetDateTime)}.
+   *
+   * @param store         The certificate store
+   * @param events        The event service
+   * @param configuration The current configuration
+   * @param output        The output
+   * @param result        The result
+   * @param attempts      The number of failed attempts if the write failed
+   * @param time          The current time
+   *
+   * @return {@code true} if the write succeeded
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static boolean deferredResult(
+    final CSCertificateStoreType store,
+    final CSEventServiceType events,
+    final CSConfiguration configuration,
+    final CSCertificateOutputType output,
+    final CSCertificateOutputDeferredResult result,
+    final int attempts,
+    final OffsetDateTime time)
+    throws IOException
+  {
+    final var data =
+      result.data();
+    final var domain =
+      configuration.domains().get(data.domainName());
+
+    /*
+     * The domain may have been removed by a configuration reload since the
+     * write was queued; there is then nothing left to record.
+     */
+
+    if (domain == null) {
+      return result.succeeded();
+    }
+
+    final var failure = result.failure();
+    if (failure.isPresent()) {
+      LOG.error(
+        "Output {}:{} failed to store certificate {}/{}: ",
+        output.type(),
+        output.name(),
+        data.domainName(),
+        data.name().value(),
+        failure.get()
+      );
+      failed(store, events, domain, data.name(), output, attempts, time);
+      return false;
+    }
+
+    delivered(
+      store,
+      events,
+      domain,
+      data.name(),
+      output,
+      CSCertificateOutputDigests.digestOf(output, data),
+      time
+    );
+    return true;
+  }
+}
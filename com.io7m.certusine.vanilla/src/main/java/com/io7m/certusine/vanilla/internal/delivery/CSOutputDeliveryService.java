@@ -0,0 +1,393 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.vanilla.internal.delivery;
+
+import com.io7m.certusine.api.CSCertificateOutputData;
+import com.io7m.certusine.api.CSCertificateOutputType;
+import com.io7m.certusine.api.CSConfiguration;
+import com.io7m.certusine.api.CSConfigurationServiceType;
+import com.io7m.certusine.api.CSDomain;
+import com.io7m.certusine.api.CSTelemetryServiceType;
+import com.io7m.certusine.certstore.api.CSCertificateOutputRetry;
+import com.io7m.certusine.certstore.api.CSCertificateStoreType;
+import com.io7m.certusine.vanilla.internal.CSCertificateOutputDigests;
+import com.io7m.certusine.vanilla.internal.events.CSEventServiceType;
+import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreServiceType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An output delivery service. The service periodically reads the pending
+ * deliveries that are due from the certificate store, and attempts each
+ * one using the outputs and keys in the current configuration. Deliveries
+ * that refer to certificates or outputs that are no longer configured are
+ * discarded.
+ */
+
+public final class CSOutputDeliveryService
+  implements CSOutputDeliveryServiceType
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(CSOutputDeliveryService.class);
+
+  private static final Duration DELIVERY_PERIOD =
+    Duration.ofSeconds(30L);
+
+  private final Clock clock;
+  private final CSTelemetryServiceType telemetry;
+  private final CSConfigurationServiceType configurations;
+  private final CSCertificateStoreServiceType stores;
+  private final CSEventServiceType events;
+  private final ScheduledExecutorService executor;
+  private final ReentrantLock passLock;
+
+  private CSOutputDeliveryService(
+    final Clock inClock,
+    final CSTelemetryServiceType inTelemetry,
+    final CSConfigurationServiceType inConfigurations,
+    final CSCertificateStoreServiceType inStores,
+    final CSEventServiceType inEvents,
+    final ScheduledExecutorService inExecutor)
+  {
+    this.clock =
+      Objects.requireNonNull(inClock, "clock");
+    this.telemetry =
+      Objects.requireNonNull(inTelemetry, "telemetry");
+    this.configurations =
+      Objects.requireNonNull(inConfigurations, "configurations");
+    this.stores =
+      Objects.requireNonNull(inStores, "stores");
+    this.events =
+      Objects.requireNonNull(inEvents, "events");
+    this.executor =
+      Objects.requireNonNull(inExecutor, "executor");
+    this.passLock =
+      new ReentrantLock();
+  }
+
+  @Override
+  public Lock passLock()
+  {
+    return this.passLock;
+  }
+
+  /**
+   * Create a service.
+   *
+   * @param clock          The clock
+   * @param telemetry      The telemetry service
+   * @param configurations The configuration service
+   * @param stores         The certificate store service
+   * @param events         The event service
+   *
+   * @return A service
+   */
+
+  public static CSOutputDeliveryServiceType create(
+    final Clock clock,
+    final CSTelemetryServiceType telemetry,
+    final CSConfigurationServiceType configurations,
+    final CSCertificateStoreServiceType stores,
+    final CSEventServiceType events)
+  {
+    final var executor =
+      Executors.newSingleThreadScheduledExecutor(r -> {
+        final var thread = new Thread(r);
+        thread.setDaemon(true);
+        thread.setName("com.io7m.certusine.delivery[%d]"
+                         .formatted(thread.getId()));
+        return thread;
+      });
+
+    final var service =
+      new CSOutputDeliveryService(
+        clock,
+        telemetry,
+        configurations,
+        stores,
+        events,
+        executor
+      );
+
+    final var period = DELIVERY_PERIOD.toSeconds();
+    executor.scheduleWithFixedDelay(
+      service::deliverScheduled, period, period, TimeUnit.SECONDS);
+    return service;
+  }
+
+  private void deliverScheduled()
+  {
+    try {
+      this.deliverDue();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (final Exception e) {
+      LOG.error("Failed to deliver pending certificates: ", e);
+    }
+  }
+
+  @Override
+  public int deliverDue()
+    throws InterruptedException
+  {
+    final var store = this.stores.store();
+
+    final List<CSCertificateOutputRetry> due;
+    try {
+      due = store.outputRetriesDue(OffsetDateTime.now(this.clock));
+    } catch (final IOException e) {
+      LOG.error("Failed to read pending deliveries: ", e);
+      return 0;
+    }
+
+    if (due.isEmpty()) {
+      return 0;
+    }
+
+    LOG.info("{} pending deliveries are due", Integer.valueOf(due.size()));
+
+    final var configuration =
+      this.configurations.configuration();
+
+    var delivered = 0;
+    for (final var retry : due) {
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+
+      try {
+        if (this.deliver(store, configuration, retry)) {
+          ++delivered;
+        }
+      } catch (final IOException e) {
+        LOG.error(
+          "Failed to record the delivery of certificate {}/{} to output {}: ",
+          retry.domain(),
+          retry.name().value(),
+          retry.output(),
+          e
+        );
+      }
+    }
+    return delivered;
+  }
+
+  private boolean deliver(
+    final CSCertificateStoreType store,
+    final CSConfiguration configuration,
+    final CSCertificateOutputRetry retry)
+    throws IOException, InterruptedException
+  {
+    final var domain =
+      configuration.domains().get(retry.domain());
+    final var certificate =
+      domain == null ? null : domain.certificates().get(retry.name().value());
+    final var output =
+      domain == null ? null : domain.outputs().get(retry.output());
+    final var stored =
+      store.find(retry.domain(), retry.name());
+
+    if (certificate == null || output == null || stored.isEmpty()) {
+      LOG.info(
+        "Discarding pending delivery of certificate {}/{} to output {}: no longer configured",
+        retry.domain(),
+        retry.name().value(),
+        retry.output()
+      );
+      store.outputRetryDelete(retry.domain(), retry.name(), retry.output());
+      return false;
+    }
+
+    final var data =
+      CSOutputDeliveries.outputDataOf(domain, certificate, stored.get());
+    final var attempts =
+      retry.attempts() + 1;
+
+    LOG.info(
+      "Delivering certificate {}/{} to output {}:{} (attempt {})",
+      retry.domain(),
+      retry.name().value(),
+      output.type(),
+      output.name(),
+      Integer.valueOf(attempts)
+    );
+
+    if (output.writesDeferred()) {
+      return this.deliverDeferred(
+        store, configuration, domain, output, retry, data, attempts);
+    }
+    return this.deliverImmediate(
+      store, domain, output, retry, data, attempts);
+  }
+
+  private boolean deliverImmediate(
+    final CSCertificateStoreType store,
+    final CSDomain domain,
+    final CSCertificateOutputType output,
+    final CSCertificateOutputRetry retry,
+    final CSCertificateOutputData data,
+    final int attempts)
+    throws IOException
+  {
+    try {
+      output.write(this.telemetry, data);
+    } catch (final IOException e) {
+      return this.failed(store, domain, output, retry, attempts, e);
+    }
+
+    CSOutputDeliveries.delivered(
+      store,
+      this.events,
+      domain,
+      retry.name(),
+      output,
+      CSCertificateOutputDigests.digestOf(output, data),
+      OffsetDateTime.now(this.clock)
+    );
+    return true;
+  }
+
+  private boolean deliverDeferred(
+    final CSCertificateStoreType store,
+    final CSConfiguration configuration,
+    final CSDomain domain,
+    final CSCertificateOutputType output,
+    final CSCertificateOutputRetry retry,
+    final CSCertificateOutputData data,
+    final int attempts)
+    throws IOException, InterruptedException
+  {
+    /*
+     * Outputs that defer writes are flushed immediately, but never while a
+     * renewal pass is running: Completing a pass on the output would also
+     * flush the writes that the renewal pass has queued so far, and the
+     * pass relies on those writes being flushed together when it completes.
+     */
+
+    this.passLock.lockInterruptibly();
+    try {
+      try {
+        output.write(this.telemetry, data);
+      } catch (final IOException e) {
+        return this.failed(store, domain, output, retry, attempts, e);
+      }
+      return this.completeDeferred(store, configuration, output, retry, attempts);
+    } finally {
+      this.passLock.unlock();
+    }
+  }
+
+  private boolean completeDeferred(
+    final CSCertificateStoreType store,
+    final CSConfiguration configuration,
+    final CSCertificateOutputType output,
+    final CSCertificateOutputRetry retry,
+    final int attempts)
+    throws IOException
+  {
+    final var timeNow = OffsetDateTime.now(this.clock);
+    var succeeded = false;
+
+    for (final var result : output.passCompleted(this.telemetry)) {
+      final var resultData = result.data();
+      final var isRetry =
+        Objects.equals(resultData.domainName(), retry.domain())
+        && Objects.equals(resultData.name(), retry.name());
+
+      final var resultSucceeded =
+        CSOutputDeliveries.deferredResult(
+          store,
+          this.events,
+          configuration,
+          output,
+          result,
+          isRetry ? attempts : 1,
+          timeNow
+        );
+
+      if (isRetry) {
+        succeeded = resultSucceeded;
+      }
+    }
+    return succeeded;
+  }
+
+  private boolean failed(
+    final CSCertificateStoreType store,
+    final CSDomain domain,
+    final CSCertificateOutputType output,
+    final CSCertificateOutputRetry retry,
+    final int attempts,
+    final IOException cause)
+    throws IOException
+  {
+    final var next =
+      CSOutputDeliveries.failed(
+        store,
+        this.events,
+        domain,
+        retry.name(),
+        output,
+        attempts,
+        OffsetDateTime.now(this.clock)
+      );
+
+    LOG.error(
+      "Failed to deliver certificate {}/{} to output {} (next attempt at {}): ",
+      retry.domain(),
+      retry.name().value(),
+      retry.output(),
+      next.nextAttempt(),
+      cause
+    );
+    return false;
+  }
+
+  @Override
+  public String description()
+  {
+    return "Output delivery service.";
+  }
+
+  @Override
+  public void close()
+    throws Exception
+  {
+    this.executor.shutdown();
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[CSOutputDeliveryService 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+}
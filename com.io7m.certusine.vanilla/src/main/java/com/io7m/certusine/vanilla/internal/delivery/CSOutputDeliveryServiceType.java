@@ -0,0 +1,54 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.vanilla.internal.delivery;
+
+import com.io7m.repetoir.core.RPServiceType;
+
+import java.util.concurrent.locks.Lock;
+
+/**
+ * An output delivery service. The delivery service retries deliveries of
+ * certificates to outputs that previously failed, in the background, with
+ * an exponentially increasing delay between attempts for each output.
+ */
+
+public interface CSOutputDeliveryServiceType extends RPServiceType, AutoCloseable
+{
+  /**
+   * Attempt every pending delivery that is currently due.
+   *
+   * @return The number of deliveries that succeeded
+   *
+   * @throws InterruptedException On interruption
+   */
+
+  int deliverDue()
+    throws InterruptedException;
+
+  /**
+   * The lock that is held for the duration of each renewal pass. The service
+   * holds the same lock while it delivers to outputs that defer writes, so
+   * that a delivery never completes a pass on an output while a renewal pass
+   * is still queueing writes to it.
+   *
+   * @return The renewal pass lock
+   */
+
+  Lock passLock();
+}
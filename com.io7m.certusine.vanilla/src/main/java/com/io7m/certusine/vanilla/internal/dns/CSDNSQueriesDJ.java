@@ -16,6 +16,7 @@
 
 package com.io7m.certusine.vanilla.internal.dns;
 
+import com.io7m.certusine.vanilla.internal.jfr.CSJFRDNSQueryEvent;
 import com.io7m.jaffirm.core.Preconditions;
 import org.xbill.DNS.DClass;
 import org.xbill.DNS.ExtendedResolver;
@@ -71,6 +72,9 @@ public final class CSDNSQueriesDJ implements CSDNSQueriesType
 
     lookup.setCache(null);
 
+    final var event = new CSJFRDNSQueryEvent();
+    event.begin();
+
     final var nsRecords = lookup.run();
     if (nsRecords != null) {
       final var nsHosts = new ArrayList<String>();
@@ -79,10 +83,31 @@ public final class CSDNSQueriesDJ implements CSDNSQueriesType
           nsHosts.add(soaRecord.getHost().toString());
         }
       }
+      this.commitEvent(event, "SOA", domain, nsHosts.size(), null);
       return nsHosts;
     }
 
-    throw new IOException(lookup.getErrorString());
+    final var error = lookup.getErrorString();
+    this.commitEvent(event, "SOA", domain, 0, error);
+    throw new IOException(error);
+  }
+
+  private void commitEvent(
+    final CSJFRDNSQueryEvent event,
+    final String recordType,
+    final String domain,
+    final int records,
+    final String error)
+  {
+    if (event.shouldCommit()) {
+      event.commitWith(
+        recordType,
+        domain,
+        String.join(",", this.nameServers),
+        records,
+        error
+      );
+    }
   }
 
   @Override
@@ -106,6 +131,9 @@ public final class CSDNSQueriesDJ implements CSDNSQueriesType
 
     lookup.setCache(null);
 
+    final var event = new CSJFRDNSQueryEvent();
+    event.begin();
+
     final var records = lookup.run();
     if (records != null) {
       final var results = new ArrayList<CSDNSTXTRecord>();
@@ -119,8 +147,11 @@ public final class CSDNSQueriesDJ implements CSDNSQueriesType
           );
         }
       }
+      this.commitEvent(event, "TXT", domain, results.size(), null);
       return List.copyOf(results);
     }
+
+    this.commitEvent(event, "TXT", domain, 0, lookup.getErrorString());
     return List.of();
   }
 }
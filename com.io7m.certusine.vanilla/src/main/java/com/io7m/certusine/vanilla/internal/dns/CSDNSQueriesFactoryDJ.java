@@ -47,4 +47,10 @@ public final class CSDNSQueriesFactoryDJ
   {
     return new CSDNSQueriesDJ(nameServers);
   }
+
+  @Override
+  public String description()
+  {
+    return "DNS queries (dnsjava).";
+  }
 }
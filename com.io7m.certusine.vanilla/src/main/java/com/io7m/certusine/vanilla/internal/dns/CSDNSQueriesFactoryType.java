@@ -17,13 +17,15 @@
 
 package com.io7m.certusine.vanilla.internal.dns;
 
+import com.io7m.repetoir.core.RPServiceType;
+
 import java.util.List;
 
 /**
  * A factory of DNS queries.
  */
 
-public interface CSDNSQueriesFactoryType
+public interface CSDNSQueriesFactoryType extends RPServiceType
 {
   /**
    * @return A query interface using the default name servers
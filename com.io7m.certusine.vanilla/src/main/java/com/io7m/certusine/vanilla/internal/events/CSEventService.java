@@ -19,25 +19,44 @@ package com.io7m.certusine.vanilla.internal.events;
 
 import com.io7m.certusine.api.CSCertificateName;
 import com.io7m.certusine.api.CSConfigurationServiceType;
+import com.io7m.certusine.api.CSDomain;
+import com.io7m.certusine.api.CSEventQueueConfiguration;
 import com.io7m.certusine.api.CSTelemetryServiceType;
+import com.io7m.certusine.certstore.api.CSCertificateJournalEntry;
+import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreServiceType;
+import com.io7m.certusine.vanilla.internal.telemetry.CSMetricsServiceType;
 import com.io7m.jmulticlose.core.CloseableCollection;
 import com.io7m.jmulticlose.core.CloseableCollectionType;
 import com.io7m.jmulticlose.core.ClosingResourceFailedException;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.logs.Severity;
-import io.opentelemetry.api.metrics.LongCounter;
 import io.opentelemetry.api.metrics.ObservableLongGauge;
 import io.opentelemetry.api.metrics.ObservableLongMeasurement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.event.Level;
 
-import java.util.concurrent.ConcurrentHashMap;
-
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.io7m.certusine.api.CSEventQueueConfiguration.CSOverflowPolicy;
 import static io.opentelemetry.api.common.AttributeKey.stringKey;
 
 /**
- * The default event service.
+ * The default event service. Emitted events are placed into a bounded queue
+ * and published to logs, telemetry, and metrics by a dedicated thread, so
+ * that slow log appenders or telemetry exporters never hold up the threads
+ * that emit events. The behaviour when the queue is full is determined by
+ * the configured {@link CSOverflowPolicy}. Each batch of published events is
+ * appended to the event journal in the certificate store in a single
+ * transaction.
  */
 
 public final class CSEventService implements CSEventServiceType
@@ -45,28 +64,68 @@ public final class CSEventService implements CSEventServiceType
   private static final Logger LOG =
     LoggerFactory.getLogger(CSEventService.class);
 
-  private final LongCounter renewalFailures;
-  private final LongCounter stores;
-  private final LongCounter dnsChallengeFailures;
-  private final LongCounter signingFailures;
-  private final LongCounter storeFailures;
-  private final LongCounter renewalSuccesses;
+  /**
+   * The maximum number of events taken from the queue at once.
+   */
+
+  private static final int BATCH_SIZE = 64;
+
+  /**
+   * The time the publishing thread waits for events before checking whether
+   * the service has been closed.
+   */
+
+  private static final Duration POLL_TIME =
+    Duration.ofMillis(250L);
+
+  /**
+   * The maximum time that closing the service waits for queued events to be
+   * published.
+   */
+
+  private static final Duration CLOSE_TIMEOUT =
+    Duration.ofSeconds(5L);
+
+  private final CSMetricsServiceType metrics;
   private final ObservableLongGauge up;
   private final io.opentelemetry.api.logs.Logger logger;
-  private final ConcurrentHashMap<FullyQualifiedCertificate, Long> certificatesRemaining;
-  private final ObservableLongGauge certificateRemaining;
   private final ObservableLongGauge renewalThreshold;
   private final CloseableCollectionType<ClosingResourceFailedException> resources;
+  private final CSCertificateStoreServiceType stores;
+  private final Clock clock;
+  private final ArrayBlockingQueue<Emitted> queue;
+  private final CSOverflowPolicy overflowPolicy;
+  private final AtomicLong droppedCount;
+  private final Thread publisher;
+  private volatile boolean closed;
 
   private CSEventService(
     final CSConfigurationServiceType configuration,
-    final CSTelemetryServiceType telemetry)
+    final CSTelemetryServiceType telemetry,
+    final CSMetricsServiceType inMetrics,
+    final CSCertificateStoreServiceType inStores,
+    final Clock inClock,
+    final CSEventQueueConfiguration queueConfiguration)
   {
-    this.certificatesRemaining =
-      new ConcurrentHashMap<>();
-
+    this.metrics =
+      Objects.requireNonNull(inMetrics, "metrics");
+    this.stores =
+      Objects.requireNonNull(inStores, "stores");
+    this.clock =
+      Objects.requireNonNull(inClock, "clock");
     this.resources =
       CloseableCollection.create();
+    this.queue =
+      new ArrayBlockingQueue<>(queueConfiguration.capacity());
+    this.overflowPolicy =
+      queueConfiguration.overflowPolicy();
+    this.droppedCount =
+      new AtomicLong(0L);
+
+    this.publisher = new Thread(this::publishQueued);
+    this.publisher.setDaemon(true);
+    this.publisher.setName(
+      "com.io7m.certusine.events[%d]".formatted(this.publisher.getId()));
 
     this.up =
       this.resources.add(
@@ -87,53 +146,6 @@ public final class CSEventService implements CSEventServiceType
           })
       );
 
-    this.dnsChallengeFailures =
-      telemetry.meter()
-        .counterBuilder("certusine_dns_challenge_failures")
-        .setDescription("Certificate DNS challenge failures.")
-        .build();
-
-    this.signingFailures =
-      telemetry.meter()
-        .counterBuilder("certusine_signing_failures")
-        .setDescription("Certificate signing failures.")
-        .build();
-
-    this.renewalFailures =
-      telemetry.meter()
-        .counterBuilder("certusine_renewal_failures")
-        .setDescription("Certificate renewal failures.")
-        .build();
-
-    this.renewalSuccesses =
-      telemetry.meter()
-        .counterBuilder("certusine_renewal_successes")
-        .setDescription("Certificate renewal successes.")
-        .build();
-
-    this.stores =
-      telemetry.meter()
-        .counterBuilder("certusine_certificates_stored")
-        .setDescription("The number of times certificates have been stored.")
-        .build();
-
-    this.storeFailures =
-      telemetry.meter()
-        .counterBuilder("certusine_certificates_store_failures")
-        .setDescription(
-          "The number of times certificates have failed to store.")
-        .build();
-
-    this.certificateRemaining =
-      this.resources.add(
-        telemetry.meter()
-          .gaugeBuilder("certusine_certificate_time_remaining")
-          .setDescription(
-            "The time remaining before a certificate expires (seconds).")
-          .ofLongs()
-          .buildWithCallback(this::reportCertificateAges)
-      );
-
     this.logger =
       telemetry.logger();
   }
@@ -155,15 +167,34 @@ public final class CSEventService implements CSEventServiceType
    *
    * @param configuration The configuration service
    * @param telemetry     The telemetry
+   * @param metrics       The metrics service
+   * @param stores        The certificate store service holding the journal
+   * @param clock         The clock used to timestamp journal entries
    *
    * @return A new event service
    */
 
   public static CSEventServiceType create(
     final CSConfigurationServiceType configuration,
-    final CSTelemetryServiceType telemetry)
+    final CSTelemetryServiceType telemetry,
+    final CSMetricsServiceType metrics,
+    final CSCertificateStoreServiceType stores,
+    final Clock clock)
   {
-    return new CSEventService(configuration, telemetry);
+    final var service =
+      new CSEventService(
+        configuration,
+        telemetry,
+        metrics,
+        stores,
+        clock,
+        configuration.configuration()
+          .options()
+          .eventQueue()
+      );
+
+    service.publisher.start();
+    return service;
   }
 
   private static void publishLog(
@@ -189,28 +220,148 @@ public final class CSEventService implements CSEventServiceType
     }
   }
 
-  private void reportCertificateAges(
-    final ObservableLongMeasurement measurement)
+  @Override
+  public void emit(
+    final CSEventType event)
   {
-    for (final var entry : this.certificatesRemaining.entrySet()) {
-      final var key = entry.getKey();
-      final var age = entry.getValue();
-      final var attributes =
-        Attributes.builder()
-          .put("domain", key.domainName())
-          .put("certificate", key.name().value())
-          .build();
-      measurement.record(age.longValue(), attributes);
+    Objects.requireNonNull(event, "event");
+
+    final var emitted =
+      new Emitted(OffsetDateTime.now(this.clock), event);
+
+    /*
+     * Once the service is closed, there is no publishing thread, and so
+     * events are published on the calling thread.
+     */
+
+    if (this.closed) {
+      this.publish(emitted.event());
+      this.journal(List.of(emitted));
+      return;
+    }
+
+    switch (this.overflowPolicy) {
+      case DROP_NEWEST -> {
+        if (!this.queue.offer(emitted)) {
+          this.drop();
+        }
+      }
+      case DROP_OLDEST -> {
+        while (!this.queue.offer(emitted)) {
+          if (this.queue.poll() != null) {
+            this.drop();
+          }
+        }
+      }
+      case BLOCK -> {
+        try {
+          this.queue.put(emitted);
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          this.drop();
+        }
+      }
     }
   }
 
   @Override
-  public void emit(
+  public long droppedEvents()
+  {
+    return this.droppedCount.get();
+  }
+
+  private void drop()
+  {
+    this.droppedCount.incrementAndGet();
+    this.metrics.eventsDropped().add(1L);
+  }
+
+  private void publishQueued()
+  {
+    final var batch = new ArrayList<Emitted>(BATCH_SIZE);
+
+    while (true) {
+      final Emitted first;
+      try {
+        first = this.queue.poll(POLL_TIME.toMillis(), TimeUnit.MILLISECONDS);
+      } catch (final InterruptedException e) {
+        return;
+      }
+
+      if (first == null) {
+        if (this.closed) {
+          return;
+        }
+        continue;
+      }
+
+      batch.add(first);
+      this.queue.drainTo(batch, BATCH_SIZE - 1);
+      for (final var emitted : batch) {
+        this.publish(emitted.event());
+      }
+      this.journal(batch);
+      batch.clear();
+    }
+  }
+
+  private void journal(
+    final List<Emitted> batch)
+  {
+    if (batch.isEmpty()) {
+      return;
+    }
+
+    final var entries =
+      new ArrayList<CSCertificateJournalEntry>(batch.size());
+
+    for (final var emitted : batch) {
+      final var event = emitted.event();
+      entries.add(
+        new CSCertificateJournalEntry(
+          emitted.time(),
+          event.domain().domain(),
+          event.certificateName(),
+          event.getClass().getSimpleName(),
+          event.isFailure(),
+          event.message(),
+          event.attributes()
+        )
+      );
+    }
+
+    try {
+      this.stores.store().journalPut(entries);
+    } catch (final Exception e) {
+      LOG.error(
+        "Failed to write {} events to the journal: ",
+        Integer.valueOf(entries.size()),
+        e
+      );
+    }
+  }
+
+  /**
+   * An event, and the time at which it was emitted.
+   */
+
+  private record Emitted(
+    OffsetDateTime time,
+    CSEventType event)
+  {
+
+  }
+
+  private void publish(
     final CSEventType event)
   {
-    this.publishTelemetry(event);
-    publishLog(event);
-    this.incrementMeters(event);
+    try {
+      this.publishTelemetry(event);
+      publishLog(event);
+      this.incrementMeters(event);
+    } catch (final RuntimeException e) {
+      LOG.error("Failed to publish event: ", e);
+    }
   }
 
   private void publishTelemetry(
@@ -235,73 +386,45 @@ public final class CSEventService implements CSEventServiceType
     }
   }
 
+  private Attributes attributesOf(
+    final CSDomain domain,
+    final CSCertificateName certificate)
+  {
+    return this.metrics.certificateAttributes(domain.domain(), certificate);
+  }
+
   private void incrementMeters(
     final CSEventType event)
   {
-    if (event instanceof final CSEventCertificateRenewalSucceeded e) {
-      final var attributes =
-        Attributes.builder()
-          .put("domain", e.domain().domain())
-          .put("certificate", e.certificateName().value())
-          .build();
-
-      this.renewalSuccesses.add(1L, attributes);
-    }
-
-    if (event instanceof final CSEventCertificateRenewalFailed e) {
-      final var attributes =
-        Attributes.builder()
-          .put("domain", e.domain().domain())
-          .put("certificate", e.certificateName().value())
-          .build();
-      this.renewalFailures.add(1L, attributes);
-    }
-
-    if (event instanceof final CSEventCertificateStored e) {
-      final var attributes =
-        Attributes.builder()
-          .put("domain", e.domain().domain())
-          .put("certificate", e.certificateName().value())
-          .build();
-      this.stores.add(1L, attributes);
-    }
-
-    if (event instanceof final CSEventCertificateStoreFailed e) {
-      final var attributes =
-        Attributes.builder()
-          .put("domain", e.domain().domain())
-          .put("certificate", e.certificateName().value())
-          .put("target", e.target())
-          .build();
-      this.storeFailures.add(1L, attributes);
-    }
-
-    if (event instanceof final CSEventCertificateDNSChallengeFailed e) {
-      final var attributes =
-        Attributes.builder()
-          .put("domain", e.domain().domain())
-          .put("certificate", e.certificateName().value())
-          .build();
-      this.dnsChallengeFailures.add(1L, attributes);
-    }
-
-    if (event instanceof final CSEventCertificateSigningFailed e) {
-      final var attributes =
-        Attributes.builder()
-          .put("domain", e.domain().domain())
-          .put("certificate", e.certificateName().value())
-          .build();
-      this.signingFailures.add(1L, attributes);
-    }
+    switch (event) {
+      case final CSEventCertificateRenewalSucceeded e -> {
+        this.metrics.renewalSuccesses()
+          .add(1L, this.attributesOf(e.domain(), e.certificateName()));
+      }
+      case final CSEventCertificateRenewalFailed e -> {
+        this.metrics.renewalFailures()
+          .add(1L, this.attributesOf(e.domain(), e.certificateName()));
+      }
+      case final CSEventCertificateStored e -> {
+        this.metrics.certificatesStored()
+          .add(1L, this.attributesOf(e.domain(), e.certificateName()));
+      }
+      case final CSEventCertificateStoreFailed e -> {
+        this.metrics.certificateStoreFailures()
+          .add(1L, this.metrics.certificateTargetAttributes(
+            e.domain().domain(), e.certificateName(), e.target()));
+      }
+      case final CSEventCertificateDNSChallengeFailed e -> {
+        this.metrics.dnsChallengeFailures()
+          .add(1L, this.attributesOf(e.domain(), e.certificateName()));
+      }
+      case final CSEventCertificateSigningFailed e -> {
+        this.metrics.signingFailures()
+          .add(1L, this.attributesOf(e.domain(), e.certificateName()));
+      }
+      default -> {
 
-    if (event instanceof final CSEventCertificateValidityRemaining remaining) {
-      this.certificatesRemaining.put(
-        new FullyQualifiedCertificate(
-          remaining.domain(),
-          remaining.certificateName()
-        ),
-        Long.valueOf(remaining.seconds())
-      );
+      }
     }
   }
 
@@ -322,13 +445,20 @@ public final class CSEventService implements CSEventServiceType
   public void close()
     throws Exception
   {
-    this.resources.close();
-  }
+    this.closed = true;
+    this.publisher.join(CLOSE_TIMEOUT.toMillis());
 
-  private record FullyQualifiedCertificate(
-    String domainName,
-    CSCertificateName name)
-  {
+    /*
+     * Publish anything that was queued after the publishing thread exited.
+     */
 
+    final var remaining = new ArrayList<Emitted>();
+    this.queue.drainTo(remaining);
+    for (final var emitted : remaining) {
+      this.publish(emitted.event());
+    }
+    this.journal(remaining);
+
+    this.resources.close();
   }
 }
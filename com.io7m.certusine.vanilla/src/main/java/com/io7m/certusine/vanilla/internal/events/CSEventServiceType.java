@@ -19,7 +19,9 @@ package com.io7m.certusine.vanilla.internal.events;
 import com.io7m.repetoir.core.RPServiceType;
 
 /**
- * The event service.
+ * The event service. Events may be published asynchronously, and so an
+ * event is not necessarily visible in logs or telemetry when
+ * {@link #emit(CSEventType)} returns.
  */
 
 public interface CSEventServiceType extends RPServiceType, AutoCloseable
@@ -31,4 +33,11 @@ public interface CSEventServiceType extends RPServiceType, AutoCloseable
    */
 
   void emit(CSEventType event);
+
+  /**
+   * @return The number of events that have been discarded because the event
+   * queue was full
+   */
+
+  long droppedEvents();
 }
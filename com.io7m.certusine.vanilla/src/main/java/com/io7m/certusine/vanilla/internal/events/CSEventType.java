@@ -17,6 +17,9 @@
 
 package com.io7m.certusine.vanilla.internal.events;
 
+import com.io7m.certusine.api.CSCertificateName;
+import com.io7m.certusine.api.CSDomain;
+
 import java.util.Map;
 
 /**
@@ -24,14 +27,25 @@ import java.util.Map;
  */
 
 public sealed interface CSEventType
-  permits CSEventCertificateValidityRemaining,
-  CSEventCertificateDNSChallengeFailed,
+  permits CSEventCertificateDNSChallengeFailed,
   CSEventCertificateRenewalFailed,
   CSEventCertificateRenewalSucceeded,
   CSEventCertificateSigningFailed,
   CSEventCertificateStoreFailed,
   CSEventCertificateStored
 {
+  /**
+   * @return The domain to which the event relates
+   */
+
+  CSDomain domain();
+
+  /**
+   * @return The certificate to which the event relates
+   */
+
+  CSCertificateName certificateName();
+
   /**
    * @return The event message
    */
@@ -0,0 +1,81 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.vanilla.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A request made to a DNS provider to create or delete a record.
+ */
+
+@Name("com.io7m.certusine.DNSProviderRequest")
+@Label("DNS Provider Request")
+@Category({"certusine", "DNS"})
+@Description("A request made to a DNS provider to create or delete a record.")
+public final class CSJFRDNSProviderRequestEvent extends Event
+{
+  @Label("Provider")
+  private String provider;
+
+  @Label("Operation")
+  private String operation;
+
+  @Label("Record Name")
+  private String recordName;
+
+  @Label("Succeeded")
+  private boolean succeeded;
+
+  /**
+   * A request made to a DNS provider to create or delete a record.
+   */
+
+  public CSJFRDNSProviderRequestEvent()
+  {
+
+  }
+
+  /**
+   * Set the event fields and commit the event if it is enabled.
+   *
+   * @param inProvider   The provider name
+   * @param inOperation  The operation name
+   * @param inRecordName The record name
+   * @param inSucceeded  {@code true} if the request succeeded
+   */
+
+  public void commitWith(
+    final String inProvider,
+    final String inOperation,
+    final String inRecordName,
+    final boolean inSucceeded)
+  {
+    if (this.shouldCommit()) {
+      this.provider = inProvider;
+      this.operation = inOperation;
+      this.recordName = inRecordName;
+      this.succeeded = inSucceeded;
+      this.commit();
+    }
+  }
+}
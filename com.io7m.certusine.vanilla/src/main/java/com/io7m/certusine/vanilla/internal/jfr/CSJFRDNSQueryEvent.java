@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.vanilla.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A DNS lookup performed to check the state of challenge records.
+ */
+
+@Name("com.io7m.certusine.DNSQuery")
+@Label("DNS Query")
+@Category({"certusine", "DNS"})
+@Description("A DNS lookup performed to check the state of challenge records.")
+public final class CSJFRDNSQueryEvent extends Event
+{
+  @Label("Record Type")
+  private String recordType;
+
+  @Label("Name")
+  private String name;
+
+  @Label("Name Servers")
+  private String nameServers;
+
+  @Label("Records")
+  @Description("The number of matching records returned.")
+  private int records;
+
+  @Label("Error")
+  @Description("The lookup error, if the lookup failed.")
+  private String error;
+
+  /**
+   * A DNS lookup performed to check the state of challenge records.
+   */
+
+  public CSJFRDNSQueryEvent()
+  {
+
+  }
+
+  /**
+   * Set the event fields and commit the event if it is enabled.
+   *
+   * @param inRecordType  The queried record type
+   * @param inName        The queried name
+   * @param inNameServers The name servers used, or the empty string for the
+   *                      system resolver
+   * @param inRecords     The number of matching records
+   * @param inError       The lookup error, or {@code null}
+   */
+
+  public void commitWith(
+    final String inRecordType,
+    final String inName,
+    final String inNameServers,
+    final int inRecords,
+    final String inError)
+  {
+    if (this.shouldCommit()) {
+      this.recordType = inRecordType;
+      this.name = inName;
+      this.nameServers = inNameServers;
+      this.records = inRecords;
+      this.error = inError;
+      this.commit();
+    }
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.vanilla.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * An operation on the certificate store database.
+ */
+
+@Name("com.io7m.certusine.StoreOperation")
+@Label("Certificate Store Operation")
+@Category({"certusine", "Store"})
+@Description("An operation on the certificate store database.")
+public final class CSJFRStoreOperationEvent extends Event
+{
+  @Label("Operation")
+  private String operation;
+
+  @Label("Succeeded")
+  private boolean succeeded;
+
+  /**
+   * An operation on the certificate store database.
+   */
+
+  public CSJFRStoreOperationEvent()
+  {
+
+  }
+
+  /**
+   * Set the event fields and commit the event if it is enabled.
+   *
+   * @param inOperation The operation name
+   * @param inSucceeded {@code true} if the operation succeeded
+   */
+
+  public void commitWith(
+    final String inOperation,
+    final boolean inSucceeded)
+  {
+    if (this.shouldCommit()) {
+      this.operation = inOperation;
+      this.succeeded = inSucceeded;
+      this.commit();
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.vanilla.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The execution of a single attempt of a certificate task.
+ */
+
+@Name("com.io7m.certusine.CertificateTask")
+@Label("Certificate Task")
+@Category({"certusine", "Renewal"})
+@Description("The execution of a single attempt of a certificate task.")
+public final class CSJFRTaskEvent extends Event
+{
+  @Label("Domain")
+  private String domain;
+
+  @Label("Certificate")
+  private String certificate;
+
+  @Label("Task")
+  private String task;
+
+  @Label("Attempt")
+  private int attempt;
+
+  @Label("Status")
+  @Description("The name of the task status, or the exception that the task raised.")
+  private String status;
+
+  /**
+   * The execution of a single attempt of a certificate task.
+   */
+
+  public CSJFRTaskEvent()
+  {
+
+  }
+
+  /**
+   * Set the event fields and commit the event if it is enabled.
+   *
+   * @param inDomain      The domain
+   * @param inCertificate The certificate name
+   * @param inTask        The task name
+   * @param inAttempt     The attempt number
+   * @param inStatus      The task status
+   */
+
+  public void commitWith(
+    final String inDomain,
+    final String inCertificate,
+    final String inTask,
+    final int inAttempt,
+    final String inStatus)
+  {
+    if (this.shouldCommit()) {
+      this.domain = inDomain;
+      this.certificate = inCertificate;
+      this.task = inTask;
+      this.attempt = inAttempt;
+      this.status = inStatus;
+      this.commit();
+    }
+  }
+}
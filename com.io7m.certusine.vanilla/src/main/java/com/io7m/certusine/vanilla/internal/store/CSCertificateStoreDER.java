@@ -0,0 +1,178 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.certusine.vanilla.internal.store;
+
+import org.bouncycastle.util.io.pem.PemObject;
+import org.bouncycastle.util.io.pem.PemReader;
+import org.bouncycastle.util.io.pem.PemWriter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Functions to convert between the PEM text held in stored certificates, and
+ * the DER-encoded certificates held in the database.
+ */
+
+final class CSCertificateStoreDER
+{
+  private static final String CERTIFICATE_TYPE = "CERTIFICATE";
+
+  private CSCertificateStoreDER()
+  {
+
+  }
+
+  /**
+   * Decode the given PEM text into a list of DER-encoded certificates. The
+   * decoding only succeeds if the text consists entirely of PEM-encoded
+   * certificates, and re-encoding the certificates yields exactly the same
+   * text. This guarantees that text stored as DER can be reconstructed
+   * byte-for-byte.
+   *
+   * @param text The PEM text
+   *
+   * @return The DER-encoded certificates, or nothing if the text cannot be
+   * reproduced exactly from DER
+   */
+
+  static Optional<List<byte[]>> decodeCanonical(
+    final String text)
+  {
+    final var certificates = new ArrayList<byte[]>();
+    try (var reader = new PemReader(new StringReader(text))) {
+      while (true) {
+        final var object = reader.readPemObject();
+        if (object == null) {
+          break;
+        }
+        if (!CERTIFICATE_TYPE.equals(object.getType())) {
+          return Optional.empty();
+        }
+        if (!object.getHeaders().isEmpty()) {
+          return Optional.empty();
+        }
+        certificates.add(object.getContent());
+      }
+
+      if (certificates.isEmpty()) {
+        return Optional.empty();
+      }
+
+      final var encoded = new StringBuilder(text.length());
+      for (final var certificate : certificates) {
+        encoded.append(encode(certificate));
+      }
+
+      if (!text.contentEquals(encoded)) {
+        return Optional.empty();
+      }
+      return Optional.of(certificates);
+    } catch (final IOException e) {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Encode a DER-encoded certificate as PEM text.
+   *
+   * @param certificate The certificate
+   *
+   * @return The PEM text
+   *
+   * @throws IOException On errors
+   */
+
+  static String encode(
+    final byte[] certificate)
+    throws IOException
+  {
+    final var writer = new StringWriter();
+    try (var pemWriter = new PemWriter(writer)) {
+      pemWriter.writeObject(new PemObject(CERTIFICATE_TYPE, certificate));
+      pemWriter.flush();
+    }
+    return writer.toString();
+  }
+
+  /**
+   * @param certificate The DER-encoded certificate
+   *
+   * @return The hex-encoded SHA-256 hash of the given certificate
+   */
+
+  static String hashOf(
+    final byte[] certificate)
+  {
+    try {
+      final var digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(certificate));
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * @param text The PEM text
+   *
+   * @return The hex-encoded SHA-256 hash of the given text
+   */
+
+  static String hashOfText(
+    final String text)
+  {
+    return hashOf(text.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @param certificate The DER-encoded certificate
+   *
+   * @return The serial number of the certificate, if it can be parsed
+   */
+
+  static Optional<BigInteger> serialOf(
+    final byte[] certificate)
+  {
+    try {
+      final var factory =
+        CertificateFactory.getInstance("X.509");
+      final var parsed =
+        factory.generateCertificate(new ByteArrayInputStream(certificate));
+
+      if (parsed instanceof final X509Certificate x509) {
+        return Optional.of(x509.getSerialNumber());
+      }
+      return Optional.empty();
+    } catch (final CertificateException e) {
+      return Optional.empty();
+    }
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.certusine.vanilla.internal.store;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * The certificate store was replaced with an entirely different store (due
+ * to a configuration change). Subscribers that maintain any state derived from
+ * the store contents should discard it and reload it from the new store.
+ *
+ * @param file The file of the new store
+ */
+
+public record CSCertificateStoreEventReloaded(
+  Path file)
+  implements CSCertificateStoreEventType
+{
+  /**
+   * The certificate store was replaced with an entirely different store.
+   *
+   * @param file The file of the new store
+   */
+
+  public CSCertificateStoreEventReloaded
+  {
+    Objects.requireNonNull(file, "file");
+  }
+}
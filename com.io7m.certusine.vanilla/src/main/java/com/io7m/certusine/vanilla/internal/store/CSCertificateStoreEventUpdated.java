@@ -0,0 +1,44 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.certusine.vanilla.internal.store;
+
+import com.io7m.certusine.certstore.api.CSCertificateStored;
+
+import java.util.Objects;
+
+/**
+ * A certificate was created or updated in the store.
+ *
+ * @param certificate The certificate as it now exists in the store
+ */
+
+public record CSCertificateStoreEventUpdated(
+  CSCertificateStored certificate)
+  implements CSCertificateStoreEventType
+{
+  /**
+   * A certificate was created or updated in the store.
+   *
+   * @param certificate The certificate as it now exists in the store
+   */
+
+  public CSCertificateStoreEventUpdated
+  {
+    Objects.requireNonNull(certificate, "certificate");
+  }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.certusine.vanilla.internal.store;
+
+import com.io7m.certusine.api.CSCertificateHistoryConfiguration;
+import com.io7m.certusine.api.CSCertificateName;
+import com.io7m.certusine.certstore.api.CSCertificateHistoryEntry;
+import com.io7m.certusine.certstore.api.CSCertificateJournalEntry;
+import com.io7m.certusine.certstore.api.CSCertificateJournalQuery;
+import com.io7m.certusine.certstore.api.CSCertificateOutputDigest;
+import com.io7m.certusine.certstore.api.CSCertificateOutputRetry;
+import com.io7m.certusine.certstore.api.CSCertificateStoreType;
+import com.io7m.certusine.certstore.api.CSCertificateStored;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * A certificate store that delegates to an underlying store, and publishes
+ * an event each time a modification to the underlying store succeeds.
+ */
+
+final class CSCertificateStoreNotifying
+  implements CSCertificateStoreType
+{
+  private final CSCertificateStoreType delegate;
+  private final Consumer<CSCertificateStoreEventType> events;
+
+  CSCertificateStoreNotifying(
+    final CSCertificateStoreType inDelegate,
+    final Consumer<CSCertificateStoreEventType> inEvents)
+  {
+    this.delegate =
+      Objects.requireNonNull(inDelegate, "delegate");
+    this.events =
+      Objects.requireNonNull(inEvents, "events");
+  }
+
+  @Override
+  public boolean isClosed()
+  {
+    return this.delegate.isClosed();
+  }
+
+  @Override
+  public void put(
+    final CSCertificateStored certificate)
+    throws IOException
+  {
+    this.delegate.put(certificate);
+    this.events.accept(new CSCertificateStoreEventUpdated(certificate));
+  }
+
+  @Override
+  public Optional<CSCertificateStored> find(
+    final String domain,
+    final CSCertificateName name)
+    throws IOException
+  {
+    return this.delegate.find(domain, name);
+  }
+
+  @Override
+  public boolean delete(
+    final String domain,
+    final CSCertificateName name)
+    throws IOException
+  {
+    final var deleted = this.delegate.delete(domain, name);
+    if (deleted) {
+      this.events.accept(new CSCertificateStoreEventDeleted(domain, name));
+    }
+    return deleted;
+  }
+
+  @Override
+  public List<CSCertificateStored> all()
+    throws IOException
+  {
+    return this.delegate.all();
+  }
+
+  @Override
+  public void forEach(
+    final Consumer<CSCertificateStored> consumer)
+    throws IOException
+  {
+    this.delegate.forEach(consumer);
+  }
+
+  @Override
+  public List<CSCertificateHistoryEntry> history(
+    final String domain,
+    final CSCertificateName name)
+    throws IOException
+  {
+    return this.delegate.history(domain, name);
+  }
+
+  @Override
+  public long historyPrune(
+    final CSCertificateHistoryConfiguration retention,
+    final OffsetDateTime time)
+    throws IOException
+  {
+    return this.delegate.historyPrune(retention, time);
+  }
+
+  @Override
+  public Optional<CSCertificateOutputDigest> outputDigest(
+    final String domain,
+    final CSCertificateName name,
+    final String output)
+    throws IOException
+  {
+    return this.delegate.outputDigest(domain, name, output);
+  }
+
+  @Override
+  public void outputDigestPut(
+    final String domain,
+    final CSCertificateName name,
+    final String output,
+    final CSCertificateOutputDigest digest)
+    throws IOException
+  {
+    this.delegate.outputDigestPut(domain, name, output, digest);
+  }
+
+  @Override
+  public void outputDigestsClear()
+    throws IOException
+  {
+    this.delegate.outputDigestsClear();
+  }
+
+  @Override
+  public void outputRetryPut(
+    final CSCertificateOutputRetry retry)
+    throws IOException
+  {
+    this.delegate.outputRetryPut(retry);
+  }
+
+  @Override
+  public List<CSCertificateOutputRetry> outputRetriesDue(
+    final OffsetDateTime time)
+    throws IOException
+  {
+    return this.delegate.outputRetriesDue(time);
+  }
+
+  @Override
+  public boolean outputRetryDelete(
+    final String domain,
+    final CSCertificateName name,
+    final String output)
+    throws IOException
+  {
+    return this.delegate.outputRetryDelete(domain, name, output);
+  }
+
+  @Override
+  public void journalPut(
+    final List<CSCertificateJournalEntry> entries)
+    throws IOException
+  {
+    this.delegate.journalPut(entries);
+  }
+
+  @Override
+  public List<CSCertificateJournalEntry> journal(
+    final CSCertificateJournalQuery query)
+    throws IOException
+  {
+    return this.delegate.journal(query);
+  }
+
+  @Override
+  public long journalPrune(
+    final OffsetDateTime oldest)
+    throws IOException
+  {
+    return this.delegate.journalPrune(oldest);
+  }
+
+  @Override
+  public void backup(
+    final Path file)
+    throws IOException
+  {
+    this.delegate.backup(file);
+  }
+
+  @Override
+  public void maintain()
+    throws IOException
+  {
+    this.delegate.maintain();
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    this.delegate.close();
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[CSCertificateStoreNotifying %s]".formatted(this.delegate);
+  }
+}
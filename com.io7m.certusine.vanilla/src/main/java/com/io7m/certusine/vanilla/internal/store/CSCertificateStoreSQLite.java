@@ -17,30 +17,70 @@
 
 package com.io7m.certusine.vanilla.internal.store;
 
+import com.io7m.certusine.api.CSCertificateHistoryConfiguration;
 import com.io7m.certusine.api.CSCertificateName;
 import com.io7m.certusine.api.CSTelemetryServiceType;
+import com.io7m.certusine.certstore.api.CSCertificateHistoryEntry;
+import com.io7m.certusine.certstore.api.CSCertificateJournalEntry;
+import com.io7m.certusine.certstore.api.CSCertificateJournalQuery;
+import com.io7m.certusine.certstore.api.CSCertificateOutputDigest;
+import com.io7m.certusine.certstore.api.CSCertificateOutputRetry;
 import com.io7m.certusine.certstore.api.CSCertificateStoreType;
 import com.io7m.certusine.certstore.api.CSCertificateStored;
+import com.io7m.certusine.vanilla.internal.jfr.CSJFRStoreOperationEvent;
+import com.io7m.certusine.vanilla.internal.telemetry.CSMetricsService;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
 import org.sqlite.SQLiteDataSource;
 
 import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 
 /**
  * The SQLite store.
+ *
+ * Certificates are held as DER-encoded blobs in the content-addressed
+ * {@code chain_certificates} table, and so each distinct certificate (such as
+ * an intermediate certificate shared by many chains) is stored exactly once.
+ * The PEM text of stored certificates is reconstructed on reading. Any PEM text
+ * that cannot be reconstructed exactly from DER is stored verbatim instead.
  */
 
 public final class CSCertificateStoreSQLite
   implements CSCertificateStoreType
 {
+  private static final AttributeKey<String> OPERATION =
+    stringKey("operation");
+
   private final SQLiteDataSource dataSource;
   private final CSTelemetryServiceType telemetry;
+  private final DoubleHistogram operationTime;
+  private final ConcurrentHashMap<String, Attributes> operationAttributes;
 
   CSCertificateStoreSQLite(
     final CSTelemetryServiceType inTelemetry,
@@ -50,31 +90,56 @@ public final class CSCertificateStoreSQLite
       Objects.requireNonNull(inTelemetry, "telemetry");
     this.dataSource =
       Objects.requireNonNull(inDataSource, "dataSource");
+    this.operationAttributes =
+      new ConcurrentHashMap<>();
+
+    this.operationTime =
+      this.telemetry.meter()
+        .histogramBuilder("certusine_store_operation_duration")
+        .setDescription("The time taken by certificate store operations.")
+        .setUnit("s")
+        .setExplicitBucketBoundariesAdvice(CSMetricsService.REQUEST_BUCKETS)
+        .build();
   }
 
   private interface WithConnectionType<T>
   {
     T execute(Connection connection)
-      throws SQLException;
+      throws SQLException, IOException;
   }
 
   private <T> T withConnection(
+    final String operation,
     final WithConnectionType<T> f)
     throws IOException
   {
     final var span =
       this.telemetry.tracer()
         .spanBuilder("SQLiteOperation")
+        .setAttribute("certusine.operation", operation)
         .startSpan();
 
+    final var event = new CSJFRStoreOperationEvent();
+    event.begin();
+
+    final var timeThen = System.nanoTime();
+    var succeeded = false;
     try (var ignored = span.makeCurrent()) {
       try (var connection = this.dataSource.getConnection()) {
         connection.setAutoCommit(false);
-        return f.execute(connection);
+        final var result = f.execute(connection);
+        succeeded = true;
+        return result;
       } catch (final SQLException e) {
         throw new IOException(e);
       }
     } finally {
+      event.commitWith(operation, succeeded);
+      this.operationTime.record(
+        CSMetricsService.secondsSince(timeThen),
+        this.operationAttributes.computeIfAbsent(
+          operation, op -> Attributes.of(OPERATION, op))
+      );
       span.end();
     }
   }
@@ -85,12 +150,85 @@ public final class CSCertificateStoreSQLite
     return false;
   }
 
+  /**
+   * The encoded material of a certificate. Either the leaf certificate is
+   * held in {@code chain_certificates} ({@code leaf} is non-null), or the
+   * PEM text is held verbatim ({@code leafText} is non-null). Likewise for the
+   * full chain. The serial number is non-null if the leaf certificate could
+   * be parsed.
+   */
+
+  private record Material(
+    Long leaf,
+    String leafText,
+    List<Long> chain,
+    String chainText,
+    BigInteger serial)
+  {
+
+  }
+
+  /**
+   * The identifiers of the chain certificates referenced by a certificate.
+   */
+
+  private record Links(
+    long certificate,
+    Set<Long> chainCertificates)
+  {
+
+  }
+
   private static final String DOMAIN_PUT = """
     INSERT INTO domains (d_name) VALUES ($1)
       ON CONFLICT DO UPDATE SET d_name = $1
         RETURNING d_id
     """;
 
+  private static final String CHAIN_CERTIFICATE_PUT = """
+    INSERT INTO chain_certificates (cc_hash, cc_der) VALUES ($1, $2)
+      ON CONFLICT DO UPDATE SET cc_hash = $1
+        RETURNING cc_id
+    """;
+
+  private static final String CHAIN_CERTIFICATE_DELETE_UNUSED = """
+    DELETE FROM chain_certificates
+      WHERE cc_id = $1
+        AND NOT EXISTS (
+          SELECT 1 FROM certificate_chains WHERE cch_chain_certificate = $1
+        )
+        AND NOT EXISTS (
+          SELECT 1 FROM certificates WHERE c_leaf = $1
+        )
+    """;
+
+  private static final String CERTIFICATE_LINKS_GET = """
+    SELECT c_id, c_leaf FROM certificates
+      JOIN domains ON domains.d_id = certificates.c_domain
+      WHERE ((domains.d_name = $1) AND (certificates.c_name = $2))
+    """;
+
+  private static final String CERTIFICATE_CHAIN_IDS_GET = """
+    SELECT cch_chain_certificate FROM certificate_chains
+      WHERE cch_certificate = $1
+    """;
+
+  private static final String CERTIFICATE_CHAIN_CLEAR = """
+    DELETE FROM certificate_chains WHERE cch_certificate = $1
+    """;
+
+  private static final String CERTIFICATE_CHAIN_LINK = """
+    INSERT INTO certificate_chains (
+      cch_certificate,
+      cch_index,
+      cch_chain_certificate
+    ) VALUES (
+      $1,
+      $2,
+      $3
+    )
+    """;
+
   private static final String CERTIFICATE_PUT = """
     INSERT INTO certificates (
       c_domain,
@@ -98,6 +236,7 @@ public final class CSCertificateStoreSQLite
       c_identifier,
       c_created_on,
       c_expires_on,
+      c_leaf,
       c_pem,
       c_pem_full_chain
     ) VALUES (
@@ -107,23 +246,174 @@ public final class CSCertificateStoreSQLite
       $4,
       $5,
       $6,
-      $7
+      $7,
+      $8
     ) ON CONFLICT DO UPDATE SET
       c_domain         = $1,
       c_name           = $2,
       c_identifier     = $3,
       c_created_on     = $4,
       c_expires_on     = $5,
-      c_pem            = $6,
-      c_pem_full_chain = $7
+      c_leaf           = $6,
+      c_pem            = $7,
+      c_pem_full_chain = $8
+    RETURNING c_id
     """;
 
+  private static long chainCertificatePut(
+    final Connection connection,
+    final byte[] certificate)
+    throws SQLException
+  {
+    try (var st = connection.prepareStatement(CHAIN_CERTIFICATE_PUT)) {
+      st.setString(1, CSCertificateStoreDER.hashOf(certificate));
+      st.setBytes(2, certificate);
+      try (var q = st.executeQuery()) {
+        return q.getLong(1);
+      }
+    }
+  }
+
+  private static Material materialPut(
+    final Connection connection,
+    final String pemEncodedCertificate,
+    final String pemEncodedCertificateFullChain)
+    throws SQLException
+  {
+    final var leafOpt =
+      CSCertificateStoreDER.decodeCanonical(pemEncodedCertificate)
+        .filter(certificates -> certificates.size() == 1);
+
+    Long leaf = null;
+    String leafText = pemEncodedCertificate;
+    BigInteger serial = null;
+    if (leafOpt.isPresent()) {
+      final var leafDER = leafOpt.get().get(0);
+      leaf = Long.valueOf(chainCertificatePut(connection, leafDER));
+      leafText = null;
+      serial = CSCertificateStoreDER.serialOf(leafDER).orElse(null);
+    }
+
+    final var chainOpt =
+      CSCertificateStoreDER.decodeCanonical(pemEncodedCertificateFullChain);
+
+    List<Long> chain = null;
+    String chainText = pemEncodedCertificateFullChain;
+    if (chainOpt.isPresent()) {
+      chain = new ArrayList<>(chainOpt.get().size());
+      for (final var certificate : chainOpt.get()) {
+        chain.add(Long.valueOf(chainCertificatePut(connection, certificate)));
+      }
+      chainText = null;
+    }
+
+    return new Material(leaf, leafText, chain, chainText, serial);
+  }
+
+  private static void chainLink(
+    final Connection connection,
+    final long certificateId,
+    final Material material)
+    throws SQLException
+  {
+    try (var st = connection.prepareStatement(CERTIFICATE_CHAIN_CLEAR)) {
+      st.setLong(1, certificateId);
+      st.executeUpdate();
+    }
+
+    if (material.chain() == null) {
+      return;
+    }
+
+    try (var st = connection.prepareStatement(CERTIFICATE_CHAIN_LINK)) {
+      final var chain = material.chain();
+      for (int index = 0; index < chain.size(); ++index) {
+        st.setLong(1, certificateId);
+        st.setLong(2, index);
+        st.setLong(3, chain.get(index).longValue());
+        st.addBatch();
+      }
+      st.executeBatch();
+    }
+  }
+
+  private static Optional<Links> linksGet(
+    final Connection connection,
+    final String domain,
+    final CSCertificateName name)
+    throws SQLException
+  {
+    final long certificateId;
+    final var chainCertificates = new HashSet<Long>();
+
+    try (var st = connection.prepareStatement(CERTIFICATE_LINKS_GET)) {
+      st.setString(1, domain);
+      st.setString(2, name.value());
+      try (var rs = st.executeQuery()) {
+        if (!rs.next()) {
+          return Optional.empty();
+        }
+        certificateId = rs.getLong("c_id");
+        final var leaf = rs.getLong("c_leaf");
+        if (!rs.wasNull()) {
+          chainCertificates.add(Long.valueOf(leaf));
+        }
+      }
+    }
+
+    try (var st = connection.prepareStatement(CERTIFICATE_CHAIN_IDS_GET)) {
+      st.setLong(1, certificateId);
+      try (var rs = st.executeQuery()) {
+        while (rs.next()) {
+          chainCertificates.add(Long.valueOf(rs.getLong(1)));
+        }
+      }
+    }
+
+    return Optional.of(new Links(certificateId, chainCertificates));
+  }
+
+  private static void chainCertificatesDeleteUnused(
+    final Connection connection,
+    final Set<Long> chainCertificates)
+    throws SQLException
+  {
+    if (chainCertificates.isEmpty()) {
+      return;
+    }
+
+    try (var st = connection.prepareStatement(
+      CHAIN_CERTIFICATE_DELETE_UNUSED)) {
+      for (final var id : chainCertificates) {
+        st.setLong(1, id.longValue());
+        st.addBatch();
+      }
+      st.executeBatch();
+    }
+  }
+
+  private static void setLongOrNull(
+    final PreparedStatement st,
+    final int index,
+    final Long value)
+    throws SQLException
+  {
+    if (value == null) {
+      st.setNull(index, Types.INTEGER);
+    } else {
+      st.setLong(index, value.longValue());
+    }
+  }
+
   @Override
   public void put(
     final CSCertificateStored certificate)
     throws IOException
   {
-    this.withConnection(connection -> {
+    this.withConnection("put", connection -> {
+      final var linksOld =
+        linksGet(connection, certificate.domain(), certificate.name());
+
       final long domainId;
       try (var st = connection.prepareStatement(DOMAIN_PUT)) {
         st.setString(1, certificate.domain());
@@ -131,15 +421,266 @@ public final class CSCertificateStoreSQLite
           domainId = q.getLong(1);
         }
       }
+
+      final var material =
+        materialPut(
+          connection,
+          certificate.pemEncodedCertificate(),
+          certificate.pemEncodedCertificateFullChain()
+        );
+
+      final long certificateId;
       try (var st = connection.prepareStatement(CERTIFICATE_PUT)) {
         st.setLong(1, domainId);
         st.setString(2, certificate.name().value());
         st.setString(3, certificate.identifier());
         st.setString(4, certificate.createdOn().toString());
         st.setString(5, certificate.expiresOn().toString());
-        st.setString(6, certificate.pemEncodedCertificate());
-        st.setString(7, certificate.pemEncodedCertificateFullChain());
-        st.execute();
+        setLongOrNull(st, 6, material.leaf());
+        st.setString(7, material.leafText());
+        st.setString(8, material.chainText());
+        try (var q = st.executeQuery()) {
+          certificateId = q.getLong(1);
+        }
+      }
+
+      chainLink(connection, certificateId, material);
+      historyPut(connection, domainId, certificate, material);
+
+      if (linksOld.isPresent()) {
+        chainCertificatesDeleteUnused(
+          connection,
+          linksOld.get().chainCertificates()
+        );
+      }
+
+      connection.commit();
+      return null;
+    });
+  }
+
+  private static final String HISTORY_PUT = """
+    INSERT INTO certificate_history (
+      ch_domain,
+      ch_name,
+      ch_serial,
+      ch_issued_on,
+      ch_issued_epoch,
+      ch_expires_on,
+      ch_chain_hash
+    ) VALUES (
+      $1,
+      $2,
+      $3,
+      $4,
+      $5,
+      $6,
+      $7
+    ) ON CONFLICT DO NOTHING
+    """;
+
+  private static void historyPut(
+    final Connection connection,
+    final long domainId,
+    final CSCertificateStored certificate,
+    final Material material)
+    throws SQLException
+  {
+    try (var st = connection.prepareStatement(HISTORY_PUT)) {
+      st.setLong(1, domainId);
+      st.setString(2, certificate.name().value());
+      if (material.serial() == null) {
+        st.setNull(3, Types.VARCHAR);
+      } else {
+        st.setString(3, material.serial().toString(16));
+      }
+      st.setString(4, certificate.createdOn().toString());
+      st.setLong(5, certificate.createdOn().toEpochSecond());
+      st.setString(6, certificate.expiresOn().toString());
+      st.setString(
+        7,
+        CSCertificateStoreDER.hashOfText(
+          certificate.pemEncodedCertificateFullChain())
+      );
+      st.executeUpdate();
+    }
+  }
+
+  private static final String HISTORY_GET = """
+    SELECT
+      d_name,
+      ch_name,
+      ch_serial,
+      ch_issued_on,
+      ch_expires_on,
+      ch_chain_hash
+    FROM certificate_history
+      JOIN domains ON domains.d_id = certificate_history.ch_domain
+      WHERE ((domains.d_name = $1) AND (certificate_history.ch_name = $2))
+      ORDER BY ch_issued_epoch DESC, ch_id DESC
+    """;
+
+  @Override
+  public List<CSCertificateHistoryEntry> history(
+    final String domain,
+    final CSCertificateName name)
+    throws IOException
+  {
+    return this.withConnection("history", connection -> {
+      try (var st = connection.prepareStatement(HISTORY_GET)) {
+        st.setString(1, domain);
+        st.setString(2, name.value());
+
+        try (var rs = st.executeQuery()) {
+          final var out = new ArrayList<CSCertificateHistoryEntry>();
+          while (rs.next()) {
+            out.add(
+              new CSCertificateHistoryEntry(
+                rs.getString("d_name"),
+                new CSCertificateName(rs.getString("ch_name")),
+                Optional.ofNullable(rs.getString("ch_serial"))
+                  .map(serial -> new BigInteger(serial, 16)),
+                OffsetDateTime.parse(rs.getString("ch_issued_on")),
+                OffsetDateTime.parse(rs.getString("ch_expires_on")),
+                rs.getString("ch_chain_hash")
+              )
+            );
+          }
+          return out;
+        }
+      }
+    });
+  }
+
+  /**
+   * The maximum number of history entries removed in a single transaction.
+   */
+
+  private static final long HISTORY_PRUNE_BATCH = 1000L;
+
+  private static final String HISTORY_PRUNE = """
+    DELETE FROM certificate_history WHERE ch_id IN (
+      SELECT ch_id FROM (
+        SELECT
+          ch_id,
+          ch_issued_epoch,
+          ROW_NUMBER() OVER (
+            PARTITION BY ch_domain, ch_name
+            ORDER BY ch_issued_epoch DESC, ch_id DESC
+          ) AS ch_rank
+        FROM certificate_history
+      )
+      WHERE ((ch_rank > $1) OR ((ch_rank > 1) AND (ch_issued_epoch < $2)))
+      LIMIT $3
+    )
+    """;
+
+  @Override
+  public long historyPrune(
+    final CSCertificateHistoryConfiguration retention,
+    final OffsetDateTime time)
+    throws IOException
+  {
+    Objects.requireNonNull(retention, "retention");
+    Objects.requireNonNull(time, "time");
+
+    final var oldest =
+      retention.retainAge()
+        .map(age -> time.minus(age).toEpochSecond())
+        .orElse(Long.valueOf(Long.MIN_VALUE))
+        .longValue();
+
+    long total = 0L;
+    while (true) {
+      final var deleted =
+        this.withConnection("historyPrune", connection -> {
+          try (var st = connection.prepareStatement(HISTORY_PRUNE)) {
+            st.setLong(1, retention.retainCount());
+            st.setLong(2, oldest);
+            st.setLong(3, HISTORY_PRUNE_BATCH);
+            final var count = st.executeUpdate();
+            connection.commit();
+            return Integer.valueOf(count);
+          }
+        }).intValue();
+
+      total += deleted;
+      if (deleted < HISTORY_PRUNE_BATCH) {
+        return total;
+      }
+    }
+  }
+
+  private static final String CERTIFICATES_LEGACY = """
+    SELECT
+      c_id,
+      c_pem,
+      c_pem_full_chain
+    FROM certificates
+      WHERE ((c_pem IS NOT NULL) OR (c_pem_full_chain IS NOT NULL))
+    """;
+
+  private static final String CERTIFICATE_MATERIAL_UPDATE = """
+    UPDATE certificates SET
+      c_leaf           = $1,
+      c_pem            = $2,
+      c_pem_full_chain = $3
+    WHERE c_id = $4
+    """;
+
+  private record Legacy(
+    long id,
+    String pem,
+    String pemChain)
+  {
+
+  }
+
+  /**
+   * Convert any certificates that are stored as PEM text (such as those
+   * written by an older version of the schema) to DER, where possible.
+   *
+   * @throws IOException On errors
+   */
+
+  void convertTextCertificates()
+    throws IOException
+  {
+    this.withConnection("convertTextCertificates", connection -> {
+      final var legacy = new ArrayList<Legacy>();
+      try (var st = connection.prepareStatement(CERTIFICATES_LEGACY)) {
+        try (var rs = st.executeQuery()) {
+          while (rs.next()) {
+            final var pem = rs.getString("c_pem");
+            final var pemChain = rs.getString("c_pem_full_chain");
+            if (pem != null && pemChain != null) {
+              legacy.add(new Legacy(rs.getLong("c_id"), pem, pemChain));
+            }
+          }
+        }
+      }
+
+      final var converted = new HashMap<Long, Material>();
+      for (final var certificate : legacy) {
+        final var material =
+          materialPut(connection, certificate.pem(), certificate.pemChain());
+        if (material.leaf() != null || material.chain() != null) {
+          converted.put(Long.valueOf(certificate.id()), material);
+        }
+      }
+
+      for (final var entry : converted.entrySet()) {
+        final var id = entry.getKey().longValue();
+        final var material = entry.getValue();
+        try (var st = connection.prepareStatement(
+          CERTIFICATE_MATERIAL_UPDATE)) {
+          setLongOrNull(st, 1, material.leaf());
+          st.setString(2, material.leafText());
+          st.setString(3, material.chainText());
+          st.setLong(4, id);
+          st.executeUpdate();
+        }
+        chainLink(connection, id, material);
       }
 
       connection.commit();
@@ -149,44 +690,162 @@ public final class CSCertificateStoreSQLite
 
   private static final String CERTIFICATE_FIND = """
     SELECT
+      c_id,
       d_name,
       c_name,
       c_created_on,
       c_expires_on,
       c_pem,
-      c_pem_full_chain
+      c_pem_full_chain,
+      leaf.cc_id  AS c_leaf_id,
+      leaf.cc_der AS c_leaf_der
     FROM certificates
       JOIN domains ON domains.d_id = certificates.c_domain
+      LEFT JOIN chain_certificates AS leaf ON leaf.cc_id = certificates.c_leaf
       WHERE ((domains.d_name = $1) AND (certificates.c_name = $2))
         """;
 
+  private static final String CERTIFICATE_CHAIN_GET = """
+    SELECT
+      cch_certificate,
+      cc_id,
+      cc_der
+    FROM certificate_chains
+      JOIN chain_certificates
+        ON chain_certificates.cc_id = certificate_chains.cch_chain_certificate
+      WHERE cch_certificate = $1
+      ORDER BY cch_index
+        """;
+
+  /**
+   * A cache of PEM-encoded chain certificates. A certificate that appears in
+   * many chains is only encoded once per read operation. The cache is bounded
+   * so that reading an arbitrarily large store takes constant space; shared
+   * intermediate certificates are few, and stay resident.
+   */
+
+  private static final class PEMCache
+  {
+    private static final int CACHE_SIZE = 256;
+
+    private final LinkedHashMap<Long, String> encoded;
+
+    PEMCache()
+    {
+      this.encoded = new LinkedHashMap<>(16, 0.75f, true)
+      {
+        @Override
+        protected boolean removeEldestEntry(
+          final Map.Entry<Long, String> eldest)
+        {
+          return this.size() > CACHE_SIZE;
+        }
+      };
+    }
+
+    String get(
+      final ResultSet rs,
+      final String idColumn,
+      final String derColumn)
+      throws SQLException, IOException
+    {
+      final var id = Long.valueOf(rs.getLong(idColumn));
+      final var existing = this.encoded.get(id);
+      if (existing != null) {
+        return existing;
+      }
+      final var pem = CSCertificateStoreDER.encode(rs.getBytes(derColumn));
+      this.encoded.put(id, pem);
+      return pem;
+    }
+  }
+
+  private record Row(
+    long id,
+    String domain,
+    CSCertificateName name,
+    OffsetDateTime createdOn,
+    OffsetDateTime expiresOn,
+    String pem,
+    String pemFullChain)
+  {
+    CSCertificateStored toStored(
+      final StringBuilder chain)
+    {
+      final String fullChain;
+      if (this.pemFullChain != null) {
+        fullChain = this.pemFullChain;
+      } else {
+        fullChain = chain.toString();
+      }
+
+      return new CSCertificateStored(
+        this.domain,
+        this.name,
+        this.createdOn,
+        this.expiresOn,
+        this.pem,
+        fullChain
+      );
+    }
+  }
+
+  private static Row rowRead(
+    final ResultSet rs,
+    final PEMCache cache)
+    throws SQLException, IOException
+  {
+    var pem = rs.getString("c_pem");
+    if (pem == null) {
+      pem = cache.get(rs, "c_leaf_id", "c_leaf_der");
+    }
+
+    return new Row(
+      rs.getLong("c_id"),
+      rs.getString("d_name"),
+      new CSCertificateName(rs.getString("c_name")),
+      OffsetDateTime.parse(rs.getString("c_created_on")),
+      OffsetDateTime.parse(rs.getString("c_expires_on")),
+      pem,
+      rs.getString("c_pem_full_chain")
+    );
+  }
+
   @Override
   public Optional<CSCertificateStored> find(
     final String domain,
     final CSCertificateName name)
     throws IOException
   {
-    return this.withConnection(connection -> {
+    return this.withConnection("find", connection -> {
+      final var cache = new PEMCache();
+      final var chain = new StringBuilder();
+
+      final Row row;
       try (var st = connection.prepareStatement(CERTIFICATE_FIND)) {
         st.setString(1, domain);
         st.setString(2, name.value());
 
         try (var rs = st.executeQuery()) {
-          while (rs.next()) {
-            return Optional.of(
-              new CSCertificateStored(
-                rs.getString("d_name"),
-                new CSCertificateName(rs.getString("c_name")),
-                OffsetDateTime.parse(rs.getString("c_created_on")),
-                OffsetDateTime.parse(rs.getString("c_expires_on")),
-                rs.getString("c_pem"),
-                rs.getString("c_pem_full_chain")
-              )
-            );
+          if (!rs.next()) {
+            return Optional.empty();
+          }
+          row = rowRead(rs, cache);
+        }
+      }
+
+      if (row.pemFullChain() == null) {
+        try (var st = connection.prepareStatement(CERTIFICATE_CHAIN_GET)) {
+          st.setLong(1, row.id());
+          try (var rs = st.executeQuery()) {
+            while (rs.next()) {
+              chain.append(cache.get(rs, "cc_id", "cc_der"));
+            }
           }
-          return Optional.empty();
         }
       }
+
+      return Optional.of(row.toStored(chain));
     });
   }
 
@@ -202,53 +861,486 @@ public final class CSCertificateStoreSQLite
     final CSCertificateName name)
     throws IOException
   {
-    return this.withConnection(connection -> {
+    return this.withConnection("delete", connection -> {
+      final var linksOld = linksGet(connection, domain, name);
+
       try (var st = connection.prepareStatement(CERTIFICATE_DELETE)) {
         st.setString(1, domain);
         st.setString(2, name.value());
         final var updated = st.executeUpdate() == 1;
+
+        if (linksOld.isPresent()) {
+          chainCertificatesDeleteUnused(
+            connection,
+            linksOld.get().chainCertificates()
+          );
+        }
+
         connection.commit();
         return Boolean.valueOf(updated);
       }
     }).booleanValue();
   }
 
-  private static final String CERTIFICATES_ALL = """
+  /*
+   * Rows are ordered by the certificate primary key so that SQLite can walk
+   * the certificates and their chain rows in index order, returning each row
+   * as it is read rather than sorting the entire result (including every
+   * chain DER blob) first.
+   */
+
+  private static final String CERTIFICATES_STREAM = """
     SELECT
+      c_id,
       d_name,
       c_name,
       c_created_on,
       c_expires_on,
       c_pem,
-      c_pem_full_chain
+      c_pem_full_chain,
+      leaf.cc_id   AS c_leaf_id,
+      leaf.cc_der  AS c_leaf_der,
+      chain.cc_id  AS cc_id,
+      chain.cc_der AS cc_der
     FROM certificates
     JOIN domains ON domains.d_id = certificates.c_domain
-    ORDER BY d_name, c_name
+    LEFT JOIN chain_certificates AS leaf ON leaf.cc_id = certificates.c_leaf
+    LEFT JOIN certificate_chains
+      ON certificate_chains.cch_certificate = certificates.c_id
+    LEFT JOIN chain_certificates AS chain
+      ON chain.cc_id = certificate_chains.cch_chain_certificate
+    ORDER BY c_id, cch_index
         """;
 
+  @Override
+  public void forEach(
+    final Consumer<CSCertificateStored> consumer)
+    throws IOException
+  {
+    Objects.requireNonNull(consumer, "consumer");
+
+    this.withConnection("forEach", connection -> {
+      final var cache = new PEMCache();
+      final var chain = new StringBuilder();
+
+      try (var st = connection.prepareStatement(CERTIFICATES_STREAM)) {
+        try (var rs = st.executeQuery()) {
+          Row row = null;
+          while (rs.next()) {
+            final var id = rs.getLong("c_id");
+            if (row == null || row.id() != id) {
+              if (row != null) {
+                consumer.accept(row.toStored(chain));
+              }
+              row = rowRead(rs, cache);
+              chain.setLength(0);
+            }
+
+            rs.getLong("cc_id");
+            if (!rs.wasNull()) {
+              chain.append(cache.get(rs, "cc_id", "cc_der"));
+            }
+          }
+
+          if (row != null) {
+            consumer.accept(row.toStored(chain));
+          }
+        }
+      }
+      return null;
+    });
+  }
+
+  private static final Comparator<CSCertificateStored> CERTIFICATE_ORDER =
+    Comparator.comparing(CSCertificateStored::domain)
+      .thenComparing(c -> c.name().value());
+
   @Override
   public List<CSCertificateStored> all()
     throws IOException
   {
-    return this.withConnection(connection -> {
-      try (var st = connection.prepareStatement(CERTIFICATES_ALL)) {
+    final var out = new ArrayList<CSCertificateStored>();
+    this.forEach(out::add);
+    out.sort(CERTIFICATE_ORDER);
+    return out;
+  }
+
+  private static final String OUTPUT_DIGEST_GET = """
+    SELECT od_digest, od_written_on FROM output_digests
+      WHERE od_certificate = (
+        SELECT c_id FROM certificates
+          JOIN domains ON domains.d_id = certificates.c_domain
+          WHERE d_name = $1 AND c_name = $2
+      )
+      AND od_output = $3
+    """;
+
+  @Override
+  public Optional<CSCertificateOutputDigest> outputDigest(
+    final String domain,
+    final CSCertificateName name,
+    final String output)
+    throws IOException
+  {
+    Objects.requireNonNull(domain, "domain");
+    Objects.requireNonNull(name, "name");
+    Objects.requireNonNull(output, "output");
+
+    return this.withConnection("outputDigest", connection -> {
+      try (var st = connection.prepareStatement(OUTPUT_DIGEST_GET)) {
+        st.setString(1, domain);
+        st.setString(2, name.value());
+        st.setString(3, output);
         try (var rs = st.executeQuery()) {
-          final var out = new ArrayList<CSCertificateStored>();
+          if (!rs.next()) {
+            return Optional.empty();
+          }
+          return Optional.of(
+            new CSCertificateOutputDigest(
+              rs.getString("od_digest"),
+              OffsetDateTime.parse(rs.getString("od_written_on"))
+            )
+          );
+        }
+      }
+    });
+  }
+
+  private static final String OUTPUT_DIGEST_PUT = """
+    INSERT INTO output_digests (
+      od_certificate,
+      od_output,
+      od_digest,
+      od_written_on
+    ) VALUES (
+      (
+        SELECT c_id FROM certificates
+          JOIN domains ON domains.d_id = certificates.c_domain
+          WHERE d_name = $1 AND c_name = $2
+      ),
+      $3,
+      $4,
+      $5
+    ) ON CONFLICT DO UPDATE SET
+      od_digest     = excluded.od_digest,
+      od_written_on = excluded.od_written_on
+    """;
+
+  @Override
+  public void outputDigestPut(
+    final String domain,
+    final CSCertificateName name,
+    final String output,
+    final CSCertificateOutputDigest digest)
+    throws IOException
+  {
+    Objects.requireNonNull(domain, "domain");
+    Objects.requireNonNull(name, "name");
+    Objects.requireNonNull(output, "output");
+    Objects.requireNonNull(digest, "digest");
+
+    this.withConnection("outputDigestPut", connection -> {
+      try (var st = connection.prepareStatement(OUTPUT_DIGEST_PUT)) {
+        st.setString(1, domain);
+        st.setString(2, name.value());
+        st.setString(3, output);
+        st.setString(4, digest.digest());
+        st.setString(5, digest.writtenOn().toString());
+        st.executeUpdate();
+        connection.commit();
+        return null;
+      }
+    });
+  }
+
+  private static final String OUTPUT_DIGESTS_CLEAR = """
+    DELETE FROM output_digests
+    """;
+
+  @Override
+  public void outputDigestsClear()
+    throws IOException
+  {
+    this.withConnection("outputDigestsClear", connection -> {
+      try (var st = connection.prepareStatement(OUTPUT_DIGESTS_CLEAR)) {
+        st.executeUpdate();
+        connection.commit();
+        return null;
+      }
+    });
+  }
+
+  private static final String OUTPUT_RETRY_PUT = """
+    INSERT INTO output_retries (
+      or_certificate,
+      or_output,
+      or_attempts,
+      or_next_attempt,
+      or_next_epoch
+    ) VALUES (
+      (
+        SELECT c_id FROM certificates
+          JOIN domains ON domains.d_id = certificates.c_domain
+          WHERE d_name = $1 AND c_name = $2
+      ),
+      $3,
+      $4,
+      $5,
+      $6
+    ) ON CONFLICT DO UPDATE SET
+      or_attempts     = excluded.or_attempts,
+      or_next_attempt = excluded.or_next_attempt,
+      or_next_epoch   = excluded.or_next_epoch
+    """;
+
+  @Override
+  public void outputRetryPut(
+    final CSCertificateOutputRetry retry)
+    throws IOException
+  {
+    Objects.requireNonNull(retry, "retry");
+
+    this.withConnection("outputRetryPut", connection -> {
+      try (var st = connection.prepareStatement(OUTPUT_RETRY_PUT)) {
+        st.setString(1, retry.domain());
+        st.setString(2, retry.name().value());
+        st.setString(3, retry.output());
+        st.setInt(4, retry.attempts());
+        st.setString(5, retry.nextAttempt().toString());
+        st.setLong(6, retry.nextAttempt().toEpochSecond());
+        st.executeUpdate();
+        connection.commit();
+        return null;
+      }
+    });
+  }
+
+  private static final String OUTPUT_RETRIES_DUE = """
+    SELECT
+      d_name,
+      c_name,
+      or_output,
+      or_attempts,
+      or_next_attempt
+    FROM output_retries
+      JOIN certificates ON certificates.c_id = output_retries.or_certificate
+      JOIN domains ON domains.d_id = certificates.c_domain
+      WHERE or_next_epoch <= $1
+      ORDER BY or_next_epoch
+    """;
+
+  @Override
+  public List<CSCertificateOutputRetry> outputRetriesDue(
+    final OffsetDateTime time)
+    throws IOException
+  {
+    Objects.requireNonNull(time, "time");
+
+    return this.withConnection("outputRetriesDue", connection -> {
+      try (var st = connection.prepareStatement(OUTPUT_RETRIES_DUE)) {
+        st.setLong(1, time.toEpochSecond());
+        try (var rs = st.executeQuery()) {
+          final var results = new ArrayList<CSCertificateOutputRetry>();
           while (rs.next()) {
-            out.add(
-              new CSCertificateStored(
+            results.add(
+              new CSCertificateOutputRetry(
                 rs.getString("d_name"),
                 new CSCertificateName(rs.getString("c_name")),
-                OffsetDateTime.parse(rs.getString("c_created_on")),
-                OffsetDateTime.parse(rs.getString("c_expires_on")),
-                rs.getString("c_pem"),
-                rs.getString("c_pem_full_chain")
+                rs.getString("or_output"),
+                rs.getInt("or_attempts"),
+                OffsetDateTime.parse(rs.getString("or_next_attempt"))
               )
             );
           }
-          return out;
+          return results;
+        }
+      }
+    });
+  }
+
+  private static final String OUTPUT_RETRY_DELETE = """
+    DELETE FROM output_retries
+      WHERE or_certificate = (
+        SELECT c_id FROM certificates
+          JOIN domains ON domains.d_id = certificates.c_domain
+          WHERE d_name = $1 AND c_name = $2
+      )
+      AND or_output = $3
+    """;
+
+  @Override
+  public boolean outputRetryDelete(
+    final String domain,
+    final CSCertificateName name,
+    final String output)
+    throws IOException
+  {
+    Objects.requireNonNull(domain, "domain");
+    Objects.requireNonNull(name, "name");
+    Objects.requireNonNull(output, "output");
+
+    return this.withConnection("outputRetryDelete", connection -> {
+      try (var st = connection.prepareStatement(OUTPUT_RETRY_DELETE)) {
+        st.setString(1, domain);
+        st.setString(2, name.value());
+        st.setString(3, output);
+        final var deleted = st.executeUpdate() == 1;
+        connection.commit();
+        return Boolean.valueOf(deleted);
+      }
+    }).booleanValue();
+  }
+
+  @Override
+  public void journalPut(
+    final List<CSCertificateJournalEntry> entries)
+    throws IOException
+  {
+    Objects.requireNonNull(entries, "entries");
+
+    if (entries.isEmpty()) {
+      return;
+    }
+
+    this.withConnection("journalPut", connection -> {
+      CSCertificateStoreSQLiteJournal.put(connection, entries);
+      connection.commit();
+      return null;
+    });
+  }
+
+  @Override
+  public List<CSCertificateJournalEntry> journal(
+    final CSCertificateJournalQuery query)
+    throws IOException
+  {
+    Objects.requireNonNull(query, "query");
+
+    return this.withConnection("journal", connection -> {
+      return CSCertificateStoreSQLiteJournal.query(connection, query);
+    });
+  }
+
+  @Override
+  public long journalPrune(
+    final OffsetDateTime oldest)
+    throws IOException
+  {
+    Objects.requireNonNull(oldest, "oldest");
+
+    final var oldestMillis =
+      oldest.toInstant().toEpochMilli();
+
+    long total = 0L;
+    while (true) {
+      final var deleted =
+        this.withConnection("journalPrune", connection -> {
+          final var count =
+            CSCertificateStoreSQLiteJournal.prune(connection, oldestMillis);
+          connection.commit();
+          return Integer.valueOf(count);
+        }).intValue();
+
+      total += deleted;
+      if (deleted < CSCertificateStoreSQLiteJournal.PRUNE_BATCH) {
+        return total;
+      }
+    }
+  }
+
+  private static final String STORE_BACKUP = """
+    VACUUM INTO $1
+    """;
+
+  @Override
+  public void backup(
+    final Path file)
+    throws IOException
+  {
+    Objects.requireNonNull(file, "file");
+
+    final var target =
+      file.toAbsolutePath();
+    final var temporary =
+      target.resolveSibling(target.getFileName() + ".tmp");
+
+    /*
+     * VACUUM INTO reads the database in a single read transaction, and so
+     * the output is a consistent snapshot. The database is in WAL mode, and
+     * so writers are not blocked while the snapshot is being written.
+     */
+
+    Files.deleteIfExists(temporary);
+    try {
+      this.withConnection("backup", connection -> {
+        connection.setAutoCommit(true);
+        try (var st = connection.prepareStatement(STORE_BACKUP)) {
+          st.setString(1, temporary.toString());
+          st.execute();
         }
+        return null;
+      });
+      Files.move(temporary, target, ATOMIC_MOVE, REPLACE_EXISTING);
+    } catch (final IOException e) {
+      Files.deleteIfExists(temporary);
+      throw e;
+    }
+  }
+
+  private static final String STORE_FREE_PAGES = """
+    PRAGMA freelist_count
+    """;
+
+  private static final String STORE_INCREMENTAL_VACUUM = """
+    PRAGMA incremental_vacuum(%d)
+    """;
+
+  private static final String STORE_CHECKPOINT = """
+    PRAGMA wal_checkpoint(TRUNCATE)
+    """;
+
+  @Override
+  public void maintain()
+    throws IOException
+  {
+    this.withConnection("maintain", connection -> {
+      final long freePages;
+      try (var st = connection.prepareStatement(STORE_FREE_PAGES)) {
+        try (var rs = st.executeQuery()) {
+          rs.next();
+          freePages = rs.getLong(1);
+        }
+      }
+
+      /*
+       * A single incremental vacuum statement releases all the free pages.
+       * SQLite releases one page each time the statement is stepped, and the
+       * JDBC driver steps the statement once when it is executed and once
+       * more each time the resulting rows are advanced, so the rows are
+       * drained to run the statement to completion. Pragmas cannot take
+       * parameters, so the page count is formatted into the statement.
+       */
+
+      if (freePages > 0L) {
+        try (var st = connection.createStatement()) {
+          final var sql =
+            STORE_INCREMENTAL_VACUUM.formatted(Long.valueOf(freePages));
+          if (st.execute(sql)) {
+            try (var rs = st.getResultSet()) {
+              while (rs.next()) {
+                // Each row is a released page.
+              }
+            }
+          }
+        }
+        connection.commit();
+      }
+
+      connection.setAutoCommit(true);
+      try (var st = connection.prepareStatement(STORE_CHECKPOINT)) {
+        st.execute();
       }
+      return null;
     });
   }
 
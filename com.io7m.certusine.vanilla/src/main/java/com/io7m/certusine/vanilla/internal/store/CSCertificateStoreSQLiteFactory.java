@@ -64,6 +64,8 @@ public final class CSCertificateStoreSQLiteFactory
     "com.io7m.certusine";
   private static final int APPLICATION_ID =
     0x4352_5455;
+  private static final int AUTO_VACUUM_INCREMENTAL =
+    2;
 
   /**
    * The default postgres server database implementation.
@@ -152,6 +154,7 @@ public final class CSCertificateStoreSQLiteFactory
     final var config = new SQLiteConfig();
     config.setApplicationId(APPLICATION_ID);
     config.enforceForeignKeys(true);
+    config.setJournalMode(SQLiteConfig.JournalMode.WAL);
 
     final var dataSource = new SQLiteDataSource(config);
     dataSource.setUrl(url.toString());
@@ -211,6 +214,7 @@ public final class CSCertificateStoreSQLiteFactory
             )
           ).execute();
           connection.commit();
+          enableIncrementalVacuum(connection);
         }
       } catch (final IOException e) {
         failSpan(e);
@@ -222,6 +226,32 @@ public final class CSCertificateStoreSQLiteFactory
     }
   }
 
+  /**
+   * Enable incremental vacuuming. Databases created by older versions do not
+   * have incremental vacuuming enabled, and enabling it requires the database
+   * to be rebuilt once with a full vacuum.
+   */
+
+  private static void enableIncrementalVacuum(
+    final Connection connection)
+    throws SQLException
+  {
+    try (var st = connection.createStatement()) {
+      final int mode;
+      try (var rs = st.executeQuery("PRAGMA auto_vacuum")) {
+        rs.next();
+        mode = rs.getInt(1);
+      }
+
+      if (mode != AUTO_VACUUM_INCREMENTAL) {
+        LOG.info("Enabling incremental vacuuming of the certificate store.");
+        connection.setAutoCommit(true);
+        st.execute("PRAGMA auto_vacuum = INCREMENTAL");
+        st.execute("VACUUM");
+      }
+    }
+  }
+
   private static void failSpan(
     final Exception e)
   {
@@ -282,7 +312,16 @@ public final class CSCertificateStoreSQLiteFactory
     createOrUpgrade(telemetry, file, message -> {
 
     });
-    return connect(telemetry, file);
+
+    final var store = connect(telemetry, file);
+    store.convertTextCertificates();
+    return store;
+  }
+
+  @Override
+  public String name()
+  {
+    return "sqlite";
   }
 
   @Override
@@ -0,0 +1,306 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.certusine.vanilla.internal.store;
+
+import com.io7m.certusine.api.CSCertificateName;
+import com.io7m.certusine.certstore.api.CSCertificateJournalEntry;
+import com.io7m.certusine.certstore.api.CSCertificateJournalQuery;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The event journal statements of the SQLite store. Each function executes
+ * statements on a connection provided by the store, and leaves committing
+ * the transaction to the store.
+ */
+
+final class CSCertificateStoreSQLiteJournal
+{
+  private static final String PUT = """
+    INSERT INTO event_journal (
+      ej_time,
+      ej_epoch_ms,
+      ej_domain,
+      ej_name,
+      ej_type,
+      ej_failure,
+      ej_message
+    ) VALUES (
+      $1,
+      $2,
+      $3,
+      $4,
+      $5,
+      $6,
+      $7
+    ) RETURNING ej_id
+    """;
+
+  private static final String ATTRIBUTE_PUT = """
+    INSERT INTO event_journal_attributes (
+      eja_event,
+      eja_key,
+      eja_value
+    ) VALUES (
+      $1,
+      $2,
+      $3
+    )
+    """;
+
+  private CSCertificateStoreSQLiteJournal()
+  {
+
+  }
+
+  static void put(
+    final Connection connection,
+    final List<CSCertificateJournalEntry> entries)
+    throws SQLException
+  {
+    try (var st = connection.prepareStatement(PUT);
+         var sta = connection.prepareStatement(ATTRIBUTE_PUT)) {
+      for (final var entry : entries) {
+        st.setString(1, entry.time().toString());
+        st.setLong(2, entry.time().toInstant().toEpochMilli());
+        st.setString(3, entry.domain());
+        st.setString(4, entry.name().value());
+        st.setString(5, entry.type());
+        st.setInt(6, entry.failure() ? 1 : 0);
+        st.setString(7, entry.message());
+
+        final long eventId;
+        try (var rs = st.executeQuery()) {
+          rs.next();
+          eventId = rs.getLong(1);
+        }
+
+        for (final var attribute : entry.attributes().entrySet()) {
+          sta.setLong(1, eventId);
+          sta.setString(2, attribute.getKey());
+          sta.setString(3, attribute.getValue());
+          sta.addBatch();
+        }
+      }
+      sta.executeBatch();
+    }
+  }
+
+  /**
+   * The maximum number of journal entries whose attributes are fetched with
+   * a single statement. This keeps the number of statement parameters well
+   * below the limit imposed by SQLite.
+   */
+
+  private static final int ATTRIBUTE_BATCH = 1000;
+
+  static List<CSCertificateJournalEntry> query(
+    final Connection connection,
+    final CSCertificateJournalQuery query)
+    throws SQLException
+  {
+    /*
+     * The statement is assembled from only the filters that are present,
+     * so that SQLite can select the index that best matches the query.
+     */
+
+    final var text = new StringBuilder(256);
+    final var parameters = new ArrayList<Object>();
+    text.append("""
+      SELECT
+        ej_id,
+        ej_time,
+        ej_domain,
+        ej_name,
+        ej_type,
+        ej_failure,
+        ej_message
+      FROM event_journal
+        WHERE 1 = 1
+      """);
+
+    query.domain().ifPresent(domain -> {
+      parameters.add(domain);
+      text.append("  AND ej_domain = $%d\n".formatted(parameters.size()));
+    });
+    query.name().ifPresent(name -> {
+      parameters.add(name.value());
+      text.append("  AND ej_name = $%d\n".formatted(parameters.size()));
+    });
+    query.type().ifPresent(type -> {
+      parameters.add(type);
+      text.append("  AND ej_type = $%d\n".formatted(parameters.size()));
+    });
+    query.timeLower().ifPresent(time -> {
+      parameters.add(Long.valueOf(time.toInstant().toEpochMilli()));
+      text.append("  AND ej_epoch_ms >= $%d\n".formatted(parameters.size()));
+    });
+    query.timeUpper().ifPresent(time -> {
+      parameters.add(Long.valueOf(time.toInstant().toEpochMilli()));
+      text.append("  AND ej_epoch_ms < $%d\n".formatted(parameters.size()));
+    });
+    parameters.add(Long.valueOf(query.limit()));
+    text.append("  ORDER BY ej_epoch_ms DESC, ej_id DESC\n");
+    text.append("  LIMIT $%d\n".formatted(parameters.size()));
+
+    final var rows = new ArrayList<JournalRow>();
+    try (var st = connection.prepareStatement(text.toString())) {
+      for (int index = 0; index < parameters.size(); ++index) {
+        st.setObject(index + 1, parameters.get(index));
+      }
+
+      try (var rs = st.executeQuery()) {
+        while (rs.next()) {
+          rows.add(
+            new JournalRow(
+              rs.getLong("ej_id"),
+              OffsetDateTime.parse(rs.getString("ej_time")),
+              rs.getString("ej_domain"),
+              new CSCertificateName(rs.getString("ej_name")),
+              rs.getString("ej_type"),
+              rs.getInt("ej_failure") != 0,
+              rs.getString("ej_message")
+            )
+          );
+        }
+      }
+    }
+
+    final var attributes =
+      attributes(connection, rows);
+
+    final var out = new ArrayList<CSCertificateJournalEntry>(rows.size());
+    for (final var row : rows) {
+      out.add(row.toEntry(
+        attributes.getOrDefault(Long.valueOf(row.id()), Map.of())
+      ));
+    }
+    return out;
+  }
+
+  /**
+   * Fetch the attributes of all the given journal entries, using one
+   * statement per {@link #ATTRIBUTE_BATCH} entries rather than one
+   * statement per entry.
+   */
+
+  private static Map<Long, Map<String, String>> attributes(
+    final Connection connection,
+    final List<JournalRow> rows)
+    throws SQLException
+  {
+    final var attributes = new HashMap<Long, Map<String, String>>();
+
+    for (int base = 0; base < rows.size(); base += ATTRIBUTE_BATCH) {
+      final var batch =
+        rows.subList(
+          base,
+          Math.min(rows.size(), base + ATTRIBUTE_BATCH)
+        );
+
+      final var text = new StringBuilder(128 + batch.size() * 6);
+      text.append("""
+        SELECT
+          eja_event,
+          eja_key,
+          eja_value
+        FROM event_journal_attributes
+          WHERE eja_event IN (""");
+
+      for (int index = 0; index < batch.size(); ++index) {
+        if (index > 0) {
+          text.append(", ");
+        }
+        text.append("$%d".formatted(index + 1));
+      }
+      text.append(")\n");
+
+      try (var st = connection.prepareStatement(text.toString())) {
+        for (int index = 0; index < batch.size(); ++index) {
+          st.setLong(index + 1, batch.get(index).id());
+        }
+
+        try (var rs = st.executeQuery()) {
+          while (rs.next()) {
+            attributes.computeIfAbsent(
+              Long.valueOf(rs.getLong("eja_event")),
+              ignored -> new HashMap<>()
+            ).put(rs.getString("eja_key"), rs.getString("eja_value"));
+          }
+        }
+      }
+    }
+    return attributes;
+  }
+
+  private record JournalRow(
+    long id,
+    OffsetDateTime time,
+    String domain,
+    CSCertificateName name,
+    String type,
+    boolean failure,
+    String message)
+  {
+    CSCertificateJournalEntry toEntry(
+      final Map<String, String> attributes)
+    {
+      return new CSCertificateJournalEntry(
+        this.time,
+        this.domain,
+        this.name,
+        this.type,
+        this.failure,
+        this.message,
+        attributes
+      );
+    }
+  }
+
+  /**
+   * The maximum number of journal entries removed in a single transaction.
+   */
+
+  static final long PRUNE_BATCH = 1000L;
+
+  private static final String PRUNE = """
+    DELETE FROM event_journal WHERE ej_id IN (
+      SELECT ej_id FROM event_journal
+        WHERE ej_epoch_ms < $1
+        LIMIT $2
+    )
+    """;
+
+  static int prune(
+    final Connection connection,
+    final long oldestMillis)
+    throws SQLException
+  {
+    try (var st = connection.prepareStatement(PRUNE)) {
+      st.setLong(1, oldestMillis);
+      st.setLong(2, PRUNE_BATCH);
+      return st.executeUpdate();
+    }
+  }
+}
@@ -17,8 +17,10 @@
 
 package com.io7m.certusine.vanilla.internal.store;
 
+import com.io7m.certusine.api.CSCertificateHistoryConfiguration;
 import com.io7m.certusine.api.CSConfiguration;
 import com.io7m.certusine.api.CSConfigurationServiceType;
+import com.io7m.certusine.api.CSEventJournalConfiguration;
 import com.io7m.certusine.api.CSTelemetryServiceType;
 import com.io7m.certusine.certstore.api.CSCertificateStoreFactoryType;
 import com.io7m.certusine.certstore.api.CSCertificateStoreType;
@@ -27,8 +29,16 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A certificate store service.
@@ -40,26 +50,62 @@ public final class CSCertificateStoreService
   private static final Logger LOG =
     LoggerFactory.getLogger(CSCertificateStoreService.class);
 
+  private static final Duration MAINTENANCE_PERIOD =
+    Duration.ofHours(1L);
+
   private final CSTelemetryServiceType telemetry;
-  private final CSCertificateStoreFactoryType stores;
+  private final ScheduledExecutorService executor;
+  private final List<CSCertificateStoreFactoryType> stores;
+  private final SubmissionPublisher<CSCertificateStoreEventType> eventSubject;
   private volatile CSCertificateStoreType store;
   private volatile Path storePath;
-  private Flow.Subscription subscription;
+  private volatile String storeType;
+  private volatile Flow.Subscription subscription;
+  private volatile CSCertificateHistoryConfiguration historyRetention;
+  private volatile CSEventJournalConfiguration journalRetention;
 
   private CSCertificateStoreService(
     final CSTelemetryServiceType inTelemetry,
-    final CSCertificateStoreFactoryType inStores,
+    final ScheduledExecutorService inExecutor,
+    final List<CSCertificateStoreFactoryType> inStores,
     final CSCertificateStoreType inStore,
-    final Path path)
+    final Path path,
+    final String type,
+    final CSCertificateHistoryConfiguration inHistoryRetention,
+    final CSEventJournalConfiguration inJournalRetention)
   {
     this.telemetry =
       Objects.requireNonNull(inTelemetry, "telemetry");
+    this.executor =
+      Objects.requireNonNull(inExecutor, "executor");
+    this.historyRetention =
+      Objects.requireNonNull(inHistoryRetention, "historyRetention");
+    this.journalRetention =
+      Objects.requireNonNull(inJournalRetention, "journalRetention");
     this.stores =
       Objects.requireNonNull(inStores, "stores");
-    this.store =
-      Objects.requireNonNull(inStore, "store");
     this.storePath =
       Objects.requireNonNull(path, "path");
+    this.storeType =
+      Objects.requireNonNull(type, "type");
+    this.eventSubject =
+      new SubmissionPublisher<>();
+    this.store =
+      this.notifying(Objects.requireNonNull(inStore, "store"));
+  }
+
+  private CSCertificateStoreType notifying(
+    final CSCertificateStoreType baseStore)
+  {
+    return new CSCertificateStoreNotifying(baseStore, this::publish);
+  }
+
+  private void publish(
+    final CSCertificateStoreEventType event)
+  {
+    if (!this.eventSubject.isClosed()) {
+      this.eventSubject.submit(event);
+    }
   }
 
   /**
@@ -67,7 +113,7 @@ public final class CSCertificateStoreService
    *
    * @param telemetry     The telemetry service
    * @param configuration The configuration service
-   * @param stores        The store factory
+   * @param stores        The available store factories
    *
    * @return A new service
    *
@@ -77,35 +123,129 @@ public final class CSCertificateStoreService
   public static CSCertificateStoreServiceType store(
     final CSTelemetryServiceType telemetry,
     final CSConfigurationServiceType configuration,
-    final CSCertificateStoreFactoryType stores)
+    final List<CSCertificateStoreFactoryType> stores)
     throws IOException
   {
     Objects.requireNonNull(telemetry, "telemetry");
     Objects.requireNonNull(configuration, "configuration");
     Objects.requireNonNull(stores, "stores");
 
-    final var path =
+    final var options =
       configuration.configuration()
-        .options()
-        .certificateStore()
+        .options();
+    final var path =
+      options.certificateStore()
         .toAbsolutePath();
 
+    final var type =
+      options.certificateStoreType();
     final var store =
-      stores.open(telemetry, path);
+      factoryFor(stores, type).open(telemetry, path);
+
+    final var executor =
+      Executors.newSingleThreadScheduledExecutor(r -> {
+        final var thread = new Thread(r);
+        thread.setDaemon(true);
+        thread.setName("com.io7m.certusine.store[%d]"
+                         .formatted(thread.getId()));
+        return thread;
+      });
 
     final var service =
-      new CSCertificateStoreService(telemetry, stores, store, path);
+      new CSCertificateStoreService(
+        telemetry,
+        executor,
+        stores,
+        store,
+        path,
+        type,
+        options.certificateHistory(),
+        options.eventJournal()
+      );
 
     configuration.events().subscribe(service);
+
+    final var period = MAINTENANCE_PERIOD.toSeconds();
+    executor.scheduleAtFixedRate(
+      service::maintain, period, period, TimeUnit.SECONDS);
     return service;
   }
 
+  private static CSCertificateStoreFactoryType factoryFor(
+    final List<CSCertificateStoreFactoryType> stores,
+    final String type)
+    throws IOException
+  {
+    return stores.stream()
+      .filter(factory -> Objects.equals(factory.name(), type))
+      .findFirst()
+      .orElseThrow(() -> {
+        return new IOException(
+          "No certificate store implementation named '%s' is available (available: %s)"
+            .formatted(
+              type,
+              stores.stream().map(CSCertificateStoreFactoryType::name).toList()
+            )
+        );
+      });
+  }
+
+  private void maintain()
+  {
+    this.pruneHistory();
+    this.pruneJournal();
+
+    try {
+      this.store.maintain();
+    } catch (final Exception e) {
+      LOG.error("Failed to perform certificate store maintenance: ", e);
+    }
+  }
+
+  private void pruneHistory()
+  {
+    final var retention = this.historyRetention;
+
+    try {
+      final var pruned =
+        this.store.historyPrune(
+          retention,
+          OffsetDateTime.now(Clock.systemUTC())
+        );
+      LOG.debug("pruned {} certificate history entries", Long.valueOf(pruned));
+    } catch (final Exception e) {
+      LOG.error("Failed to prune certificate history: ", e);
+    }
+  }
+
+  private void pruneJournal()
+  {
+    final var retention = this.journalRetention;
+
+    try {
+      final var pruned =
+        this.store.journalPrune(
+          OffsetDateTime.now(Clock.systemUTC())
+            .minus(retention.retainAge())
+        );
+      LOG.debug("pruned {} event journal entries", Long.valueOf(pruned));
+    } catch (final Exception e) {
+      LOG.error("Failed to prune event journal: ", e);
+    }
+  }
+
   @Override
   public CSCertificateStoreType store()
   {
     return this.store;
   }
 
+  @Override
+  public Flow.Publisher<CSCertificateStoreEventType> events()
+  {
+    return this.eventSubject;
+  }
+
   @Override
   public String description()
   {
@@ -116,8 +256,13 @@ public final class CSCertificateStoreService
   public void close()
     throws Exception
   {
+    this.executor.shutdown();
     this.store.close();
-    this.subscription.cancel();
+    final var currentSubscription = this.subscription;
+    if (currentSubscription != null) {
+      currentSubscription.cancel();
+    }
+    this.eventSubject.close();
   }
 
   @Override
@@ -134,6 +279,8 @@ public final class CSCertificateStoreService
   public void onNext(
     final CSConfiguration item)
   {
+    this.historyRetention = item.options().certificateHistory();
+    this.journalRetention = item.options().eventJournal();
     this.reloadStore(item);
   }
 
@@ -146,17 +293,25 @@ public final class CSCertificateStoreService
           .certificateStore()
           .toAbsolutePath();
 
-      if (newPath.equals(this.storePath)) {
+      final var newType =
+        item.options()
+          .certificateStoreType();
+
+      if (newPath.equals(this.storePath)
+          && newType.equals(this.storeType)) {
         return;
       }
 
       final var newStore =
-        this.stores.open(this.telemetry, item.options().certificateStore());
+        factoryFor(this.stores, newType)
+          .open(this.telemetry, item.options().certificateStore());
 
       final var oldStore = this.store;
-      this.store = newStore;
+      this.store = this.notifying(newStore);
       this.storePath = newPath;
+      this.storeType = newType;
       oldStore.close();
+      this.publish(new CSCertificateStoreEventReloaded(newPath));
     } catch (final IOException e) {
       LOG.error("Failed to open new certificate store: ", e);
     }
@@ -20,6 +20,8 @@ package com.io7m.certusine.vanilla.internal.store;
 import com.io7m.certusine.certstore.api.CSCertificateStoreType;
 import com.io7m.repetoir.core.RPServiceType;
 
+import java.util.concurrent.Flow;
+
 /**
  * A service that maintains a reference to a certificate store, and
  * reloads the store when the configuration changes.
@@ -33,4 +35,15 @@ public interface CSCertificateStoreServiceType
    */
 
   CSCertificateStoreType store();
+
+  /**
+   * The stream of changes made to the store. An event is published each time
+   * a certificate is successfully created, updated, or deleted via the store
+   * returned by {@link #store()}, and each time the store itself is replaced
+   * due to a configuration change.
+   *
+   * @return A stream of store changes
+   */
+
+  Flow.Publisher<CSCertificateStoreEventType> events();
 }
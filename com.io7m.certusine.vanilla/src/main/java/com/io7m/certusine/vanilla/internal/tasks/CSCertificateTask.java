@@ -19,6 +19,8 @@ package com.io7m.certusine.vanilla.internal.tasks;
 
 import com.io7m.certusine.api.CSDNSRecordNameType.CSDNSRecordNameAbsolute;
 import com.io7m.certusine.api.CSFaultInjectionConfiguration;
+import com.io7m.certusine.vanilla.CSRenewalPhase;
+import com.io7m.certusine.vanilla.internal.jfr.CSJFRTaskEvent;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.StatusCode;
 import org.slf4j.MDC;
@@ -36,14 +38,18 @@ public abstract class CSCertificateTask
 {
   private final CSCertificateTaskContext context;
   private final String name;
+  private final CSRenewalPhase phase;
   private int retryAttempts;
 
   protected CSCertificateTask(
     final String inName,
+    final CSRenewalPhase inPhase,
     final CSCertificateTaskContext inContext)
   {
     this.name =
       Objects.requireNonNull(inName, "inName");
+    this.phase =
+      Objects.requireNonNull(inPhase, "phase");
     this.context =
       Objects.requireNonNull(inContext, "context");
     this.retryAttempts = 1;
@@ -54,6 +60,27 @@ public abstract class CSCertificateTask
     return this.context;
   }
 
+  /**
+   * @return The renewal phase to which this task belongs
+   */
+
+  public final CSRenewalPhase phase()
+  {
+    return this.phase;
+  }
+
+  /**
+   * Record time spent waiting before this task could be executed.
+   *
+   * @param nanos The elapsed time
+   */
+
+  public final void recordWait(
+    final long nanos)
+  {
+    this.context.timings().addWait(this.phase, nanos);
+  }
+
   abstract CSCertificateTaskStatusType executeActual()
     throws InterruptedException;
 
@@ -74,6 +101,54 @@ public abstract class CSCertificateTask
 
   public final CSCertificateTaskStatusType execute()
     throws InterruptedException
+  {
+    final var event = new CSJFRTaskEvent();
+    event.begin();
+
+    final var timings = this.context.timings();
+    final var nestedBefore = timings.nestedNanos();
+    final var timeThen = System.nanoTime();
+
+    final var attempt = this.retryAttempts;
+    String status = null;
+    try {
+      final var result = this.executeTraced();
+      status = result.getClass().getSimpleName();
+      switch (result) {
+        case final CSCertificateTaskFailedButCanBeRetried ignored -> {
+          timings.addRetry();
+        }
+        case final CSCertificateTaskFailedAndRestart ignored -> {
+          timings.addRetry();
+        }
+        case final CSCertificateTaskFailedPermanently ignored -> {
+          timings.markFailed();
+        }
+        case final CSCertificateTaskCompleted ignored -> {
+          // Nothing to record.
+        }
+        case final CSCertificateTaskInProgress ignored -> {
+          // Nothing to record.
+        }
+      }
+      return result;
+    } catch (final InterruptedException e) {
+      status = "Interrupted";
+      throw e;
+    } finally {
+      timings.addTask(this.phase, System.nanoTime() - timeThen, nestedBefore);
+      event.commitWith(
+        this.context.domain().domain(),
+        this.context.certificate().name().value(),
+        this.name,
+        attempt,
+        status
+      );
+    }
+  }
+
+  private CSCertificateTaskStatusType executeTraced()
+    throws InterruptedException
   {
     final var span =
       this.context.telemetry()
@@ -120,7 +195,14 @@ public abstract class CSCertificateTask
           ));
       }
 
-      final var result = this.executeActual();
+      final CSCertificateTaskStatusType result;
+      final var timeThen = System.nanoTime();
+      try {
+        result = this.executeActual();
+      } finally {
+        this.context.metrics().recordTaskDuration(this.name, timeThen);
+      }
+
       return switch (result) {
         case final CSCertificateTaskCompleted ignored0 -> {
           span.setStatus(StatusCode.OK);
@@ -17,6 +17,7 @@
 
 package com.io7m.certusine.vanilla.internal.tasks;
 
+import com.io7m.certusine.vanilla.CSRenewalPhase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,6 +41,7 @@ public final class CSCertificateTaskAuthorizeDNSCheckRecords
     LoggerFactory.getLogger(CSCertificateTaskAuthorizeDNSCheckRecords.class);
 
   private final Map<String, String> expectedTXTRecords;
+  private final long timeCreated;
 
   /**
    * A certificate task that checks if DNS records have been created.
@@ -52,10 +54,18 @@ public final class CSCertificateTaskAuthorizeDNSCheckRecords
     final CSCertificateTaskContext inContext,
     final Map<String, String> inExpectedTXTRecords)
   {
-    super("AuthorizeDNSCheckRecords", inContext);
+    super("AuthorizeDNSCheckRecords", CSRenewalPhase.PROPAGATION_WAIT, inContext);
 
     this.expectedTXTRecords =
       Objects.requireNonNull(inExpectedTXTRecords, "expectedTXTRecords");
+
+    /*
+     * This task is created immediately after the TXT records are created,
+     * so the propagation time is measured from here.
+     */
+
+    this.timeCreated =
+      System.nanoTime();
   }
 
   @Override
@@ -129,6 +139,12 @@ public final class CSCertificateTaskAuthorizeDNSCheckRecords
 
     if (foundAll) {
       LOG.debug("All required TXT records were located");
+      context.metrics()
+        .recordDNSPropagationDuration(
+          context.domain().domain(),
+          context.certificate().name(),
+          this.timeCreated
+        );
       return new CSCertificateTaskCompleted(
         OptionalLong.empty(),
         Optional.of(
@@ -17,6 +17,7 @@
 
 package com.io7m.certusine.vanilla.internal.tasks;
 
+import com.io7m.certusine.vanilla.CSRenewalPhase;
 import com.io7m.certusine.vanilla.internal.events.CSEventCertificateRenewalSucceeded;
 import com.io7m.jdeferthrow.core.ExceptionTracker;
 import io.opentelemetry.api.trace.Span;
@@ -58,7 +59,7 @@ public final class CSCertificateTaskAuthorizeDNSHandleChallenges
   public CSCertificateTaskAuthorizeDNSHandleChallenges(
     final CSCertificateTaskContext inContext)
   {
-    super("AuthorizeDNSHandleChallenges", inContext);
+    super("AuthorizeDNSHandleChallenges", CSRenewalPhase.CHALLENGE, inContext);
   }
 
   @Override
@@ -219,7 +220,13 @@ public final class CSCertificateTaskAuthorizeDNSHandleChallenges
             LOG.debug(
               "Triggering challenge for authorization {}",
               auth.getIdentifier().getDomain());
-            challenge.trigger();
+            final var timeThen = System.nanoTime();
+            try {
+              challenge.trigger();
+            } finally {
+              context.metrics()
+                .recordAcmeRequestDuration("challenge.trigger", timeThen);
+            }
           }
 
         }
@@ -286,7 +293,14 @@ public final class CSCertificateTaskAuthorizeDNSHandleChallenges
         case PENDING, UNKNOWN, PROCESSING, READY -> {
           try {
             LOG.debug("Fetching challenge status.");
-            final var waitUntilOpt = challenge.fetch();
+            final var timeThen = System.nanoTime();
+            final Optional<Instant> waitUntilOpt;
+            try {
+              waitUntilOpt = challenge.fetch();
+            } finally {
+              context.metrics()
+                .recordAcmeRequestDuration("challenge.fetch", timeThen);
+            }
 
             final Instant waitUntil;
             if (waitUntilOpt.isPresent()) {
@@ -17,6 +17,8 @@
 package com.io7m.certusine.vanilla.internal.tasks;
 
 import com.io7m.certusine.api.CSFaultInjectionConfiguration;
+import com.io7m.certusine.vanilla.CSRenewalPhase;
+import com.io7m.certusine.vanilla.internal.jfr.CSJFRDNSProviderRequestEvent;
 import io.opentelemetry.api.trace.Span;
 import org.shredzone.acme4j.Authorization;
 import org.shredzone.acme4j.Order;
@@ -58,7 +60,7 @@ public final class CSCertificateTaskAuthorizeDNSInitial
   public CSCertificateTaskAuthorizeDNSInitial(
     final CSCertificateTaskContext inContext)
   {
-    super("AuthorizeDNSInitial", inContext);
+    super("AuthorizeDNSInitial", CSRenewalPhase.DNS_PUBLISH, inContext);
   }
 
   @Override
@@ -265,18 +267,39 @@ public final class CSCertificateTaskAuthorizeDNSInitial
       final var recordText =
         injectFault(context, challenge.getDigest());
 
-      try {
-        LOG.info("Creating required DNS TXT records");
+      final var configurator =
         this.context()
           .domain()
-          .dnsConfigurator()
-          .createTXTRecord(
-            this.context().telemetry(),
-            recordName,
-            recordText
-          );
+          .dnsConfigurator();
+
+      final var event = new CSJFRDNSProviderRequestEvent();
+      event.begin();
+
+      final var timeThen = System.nanoTime();
+      var succeeded = false;
+      try {
+        LOG.info("Creating required DNS TXT records");
+        configurator.createTXTRecord(
+          this.context().telemetry(),
+          recordName,
+          recordText
+        );
+        succeeded = true;
       } catch (final IOException e) {
         throw new CSCertificateTaskException(e, true);
+      } finally {
+        event.commitWith(
+          configurator.getClass().getSimpleName(),
+          "createTXTRecord",
+          recordName.name(),
+          succeeded
+        );
+        context.metrics()
+          .recordDNSRequestDuration(
+            configurator.getClass().getSimpleName(),
+            "createTXTRecord",
+            timeThen
+          );
       }
 
       return Map.entry(domainName, recordText);
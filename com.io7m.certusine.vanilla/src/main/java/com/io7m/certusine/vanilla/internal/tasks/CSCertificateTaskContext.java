@@ -21,11 +21,13 @@ import com.io7m.certusine.api.CSCertificate;
 import com.io7m.certusine.api.CSDomain;
 import com.io7m.certusine.api.CSOptions;
 import com.io7m.certusine.api.CSTelemetryServiceType;
+import com.io7m.certusine.vanilla.CSRenewalPhase;
 import com.io7m.certusine.vanilla.internal.CSStrings;
 import com.io7m.certusine.vanilla.internal.dns.CSDNSQueriesFactoryType;
 import com.io7m.certusine.vanilla.internal.dns.CSDNSTXTRecord;
 import com.io7m.certusine.vanilla.internal.events.CSEventServiceType;
 import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreServiceType;
+import com.io7m.certusine.vanilla.internal.telemetry.CSMetricsServiceType;
 import org.shredzone.acme4j.Account;
 import org.shredzone.acme4j.Order;
 import org.shredzone.acme4j.Problem;
@@ -51,6 +53,7 @@ public final class CSCertificateTaskContext
   private final CSStrings strings;
   private final CSEventServiceType events;
   private final CSTelemetryServiceType telemetry;
+  private final CSMetricsServiceType metrics;
   private final CSOptions options;
   private final CSCertificateStoreServiceType certificateStores;
   private final Clock clock;
@@ -60,6 +63,7 @@ public final class CSCertificateTaskContext
   private final ArrayList<CSDNSTXTRecord> dnsRecords;
   private final CSDNSQueriesFactoryType dnsQueries;
   private final Account account;
+  private final CSCertificateTaskTimings timings;
   private boolean failed;
   private Order order;
 
@@ -69,6 +73,7 @@ public final class CSCertificateTaskContext
    * @param inStrings           The string resources
    * @param inEvents            The event service
    * @param inTelemetry         The telemetry service
+   * @param inMetrics           The metrics service
    * @param inClock             The clock
    * @param inCertificateStores The certificate stores
    * @param inAccount           The account
@@ -83,6 +88,7 @@ public final class CSCertificateTaskContext
     final CSStrings inStrings,
     final CSEventServiceType inEvents,
     final CSTelemetryServiceType inTelemetry,
+    final CSMetricsServiceType inMetrics,
     final CSOptions inOptions,
     final CSCertificateStoreServiceType inCertificateStores,
     final Clock inClock,
@@ -98,6 +104,8 @@ public final class CSCertificateTaskContext
       Objects.requireNonNull(inEvents, "inEvents");
     this.telemetry =
       Objects.requireNonNull(inTelemetry, "inTelemetry");
+    this.metrics =
+      Objects.requireNonNull(inMetrics, "inMetrics");
     this.options =
       Objects.requireNonNull(inOptions, "options");
     this.certificateStores =
@@ -117,6 +125,17 @@ public final class CSCertificateTaskContext
       inRetryAttemptsMax;
     this.dnsRecords =
       new ArrayList<>();
+    this.timings =
+      new CSCertificateTaskTimings();
+  }
+
+  /**
+   * @return The timings accumulated for this certificate
+   */
+
+  public CSCertificateTaskTimings timings()
+  {
+    return this.timings;
   }
 
   /**
@@ -128,6 +147,15 @@ public final class CSCertificateTaskContext
     return this.telemetry;
   }
 
+  /**
+   * @return The metrics service
+   */
+
+  public CSMetricsServiceType metrics()
+  {
+    return this.metrics;
+  }
+
   /**
    * @return The certificate store used during execution
    */
@@ -302,6 +330,7 @@ public final class CSCertificateTaskContext
     final Exception exception)
   {
     this.failed = true;
+    this.timings.markFailed();
     return new CSCertificateTaskFailedPermanently(exception);
   }
 
@@ -328,9 +357,18 @@ public final class CSCertificateTaskContext
       final var orderBuilder =
         this.account.newOrder();
 
-      this.order =
-        orderBuilder.domains(fullyQualifiedDomainNames)
-          .create();
+      final var timeThen = System.nanoTime();
+      try {
+        this.order =
+          orderBuilder.domains(fullyQualifiedDomainNames)
+            .create();
+      } finally {
+        this.metrics.recordAcmeRequestDuration("order.create", timeThen);
+        this.timings.addNested(
+          CSRenewalPhase.ORDER,
+          System.nanoTime() - timeThen
+        );
+      }
     }
     return this.order;
   }
@@ -16,6 +16,8 @@
 
 package com.io7m.certusine.vanilla.internal.tasks;
 
+import com.io7m.certusine.vanilla.CSRenewalPhase;
+
 import java.util.Optional;
 import java.util.OptionalLong;
 
@@ -34,7 +36,7 @@ public final class CSCertificateTaskEnd extends CSCertificateTask
   public CSCertificateTaskEnd(
     final CSCertificateTaskContext inContext)
   {
-    super("End", inContext);
+    super("End", CSRenewalPhase.OUTPUT, inContext);
   }
 
   @Override
@@ -17,6 +17,7 @@
 
 package com.io7m.certusine.vanilla.internal.tasks;
 
+import com.io7m.certusine.vanilla.CSRenewalPhase;
 import com.io7m.certusine.vanilla.internal.events.CSEventCertificateSigningFailed;
 
 /**
@@ -30,14 +31,16 @@ public abstract class CSCertificateTaskSignCertificate
    * The base type of certificate signing tasks.
    *
    * @param inName    The task name
+   * @param inPhase   The renewal phase to which the task belongs
    * @param inContext The task context
    */
 
   public CSCertificateTaskSignCertificate(
     final String inName,
+    final CSRenewalPhase inPhase,
     final CSCertificateTaskContext inContext)
   {
-    super(inName, inContext);
+    super(inName, inPhase, inContext);
   }
 
   /**
@@ -21,6 +21,7 @@ import com.io7m.certusine.api.CSCertificate;
 import com.io7m.certusine.api.CSDomain;
 import com.io7m.certusine.api.CSFaultInjectionConfiguration;
 import com.io7m.certusine.certstore.api.CSCertificateStoreType;
+import com.io7m.certusine.vanilla.CSRenewalPhase;
 import io.opentelemetry.api.trace.Span;
 import org.shredzone.acme4j.exception.AcmeException;
 import org.shredzone.acme4j.util.CSRBuilder;
@@ -55,7 +56,7 @@ public final class CSCertificateTaskSignCertificateInitial
   public CSCertificateTaskSignCertificateInitial(
     final CSCertificateTaskContext inContext)
   {
-    super("SignCertificateInitial", inContext);
+    super("SignCertificateInitial", CSRenewalPhase.FINALIZE, inContext);
   }
 
   /**
@@ -137,7 +138,14 @@ public final class CSCertificateTaskSignCertificateInitial
         final var csrb = new CSRBuilder();
         csrb.addDomains(certificate.fullyQualifiedHostNames(domain));
         csrb.sign(certificate.keyPair());
-        order.execute(csrb.getEncoded());
+
+        final var timeThen = System.nanoTime();
+        try {
+          order.execute(csrb.getEncoded());
+        } finally {
+          context.metrics()
+            .recordAcmeRequestDuration("order.execute", timeThen);
+        }
 
         return new CSCertificateTaskCompleted(
           ACME_UPDATE_PAUSE_TIME,
@@ -151,6 +159,7 @@ public final class CSCertificateTaskSignCertificateInitial
        */
 
       LOG.info("Certificates do not require reissuing");
+      context.timings().markFresh();
       return new CSCertificateTaskCompleted(
         OptionalLong.empty(),
         Optional.of(
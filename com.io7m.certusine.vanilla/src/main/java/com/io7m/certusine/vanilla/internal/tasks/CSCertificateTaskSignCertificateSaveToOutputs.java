@@ -17,24 +17,55 @@
 package com.io7m.certusine.vanilla.internal.tasks;
 
 import com.io7m.certusine.api.CSCertificateOutputData;
+import com.io7m.certusine.api.CSCertificateOutputType;
+import com.io7m.certusine.certstore.api.CSCertificateOutputDigest;
+import com.io7m.certusine.certstore.api.CSCertificateStoreType;
+import com.io7m.certusine.vanilla.CSRenewalPhase;
+import com.io7m.certusine.vanilla.internal.CSCertificateOutputDigests;
+import com.io7m.certusine.vanilla.internal.delivery.CSOutputDeliveries;
 import com.io7m.certusine.vanilla.internal.events.CSEventCertificateStoreFailed;
-import com.io7m.certusine.vanilla.internal.events.CSEventCertificateStored;
 import com.io7m.jdeferthrow.core.ExceptionTracker;
+import io.opentelemetry.context.Context;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 
 import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
 
 import static com.io7m.certusine.api.CSTelemetryServiceType.recordExceptionAndSetError;
-import static com.io7m.certusine.vanilla.internal.CSCertificateIO.encodePrivateKey;
-import static com.io7m.certusine.vanilla.internal.CSCertificateIO.encodePublicKey;
 import static com.io7m.certusine.vanilla.internal.tasks.CSDurations.IO_RETRY_PAUSE_TIME;
+import static com.io7m.certusine.vanilla.internal.tasks.CSDurations.OUTPUT_REFRESH_INTERVAL;
+import static com.io7m.certusine.vanilla.internal.tasks.CSDurations.OUTPUT_WRITE_TIMEOUT;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 /**
- * A task that saves signed certificates.
+ * A task that saves signed certificates. Certificates are only written to
+ * outputs when the data to be written differs from the data most recently
+ * written to each output, or when the data has not been written for
+ * {@link CSDurations#OUTPUT_REFRESH_INTERVAL} and the output accepts
+ * periodic rewrites.
+ *
+ * Certificates are written to all outputs concurrently, and each write is
+ * abandoned if it does not complete within
+ * {@link CSDurations#OUTPUT_WRITE_TIMEOUT}. Failed writes do not hold up the
+ * renewal; they are recorded as pending deliveries in the certificate store
+ * and retried in the background by the output delivery service. The task is
+ * only retried if a pending delivery cannot be recorded, and then only the
+ * outputs that failed are written again. Outputs that defer writes until the
+ * end of the renewal pass have their results recorded at that point instead.
  */
 
 public final class CSCertificateTaskSignCertificateSaveToOutputs
@@ -44,6 +75,7 @@ public final class CSCertificateTaskSignCertificateSaveToOutputs
     LoggerFactory.getLogger(CSCertificateTaskSignCertificateSaveToOutputs.class);
 
   private final HashSet<String> outputsFailed;
+  private final HashSet<String> outputsSucceeded;
 
   /**
    * A task that saves signed certificates.
@@ -54,9 +86,18 @@ public final class CSCertificateTaskSignCertificateSaveToOutputs
   public CSCertificateTaskSignCertificateSaveToOutputs(
     final CSCertificateTaskContext inContext)
   {
-    super("SignCertificateSaveToOutputs", inContext);
+    super("SignCertificateSaveToOutputs", CSRenewalPhase.OUTPUT, inContext);
 
     this.outputsFailed = new HashSet<String>();
+    this.outputsSucceeded = new HashSet<String>();
+  }
+
+  private record PendingWrite(
+    CSCertificateOutputType output,
+    String digest,
+    Future<Void> future)
+  {
+
   }
 
   @Override
@@ -74,14 +115,17 @@ public final class CSCertificateTaskSignCertificateSaveToOutputs
       context.domain();
     final var certificate =
       context.certificate();
-    final var keyPair =
-      certificate.keyPair();
+
+    final var executor =
+      Executors.newVirtualThreadPerTaskExecutor();
 
     try {
-      final var storedCertificate =
+      final var store =
         context.certificateStores()
-          .store()
-          .find(domain.domain(), certificate.name())
+          .store();
+
+      final var storedCertificate =
+        store.find(domain.domain(), certificate.name())
           .orElseThrow(() -> {
             return new IllegalStateException(
               "Certificate %s/%s is not present in the local store"
@@ -90,39 +134,17 @@ public final class CSCertificateTaskSignCertificateSaveToOutputs
           });
 
       final var outputData =
-        new CSCertificateOutputData(
-          domain.domain(),
-          certificate.name(),
-          encodePublicKey(keyPair.getPublic()),
-          encodePrivateKey(keyPair.getPrivate()),
-          storedCertificate.pemEncodedCertificate(),
-          storedCertificate.pemEncodedCertificateFullChain()
-        );
+        CSOutputDeliveries.outputDataOf(domain, certificate, storedCertificate);
 
-      for (final var output : domain.outputs().values()) {
-        try {
-          LOG.info(
-            "saving certificate to output {}:{}",
-            output.type(),
-            output.name()
-          );
-          output.write(this.context().telemetry(), outputData);
-
-          context.events()
-            .emit(new CSEventCertificateStored(
-              domain,
-              certificate.name(),
-              output.name()
-            ));
-
-          this.outputsFailed.remove(output.name());
-        } catch (final IOException e) {
-          this.outputsFailed.add(output.name());
-          tracker.addException(e);
-        }
-      }
+      final var timeNow = context.now();
+      final var writes =
+        this.startWrites(store, executor, outputData, timeNow, tracker);
+
+      this.awaitWrites(store, writes, timeNow, tracker);
     } catch (final IOException e) {
       tracker.addException(e);
+    } finally {
+      executor.shutdownNow();
     }
 
     try {
@@ -139,6 +161,245 @@ public final class CSCertificateTaskSignCertificateSaveToOutputs
     );
   }
 
+  /**
+   * Start writes to all outputs that have not already succeeded, and that
+   * do not already have the current certificate.
+   */
+
+  private List<PendingWrite> startWrites(
+    final CSCertificateStoreType store,
+    final ExecutorService executor,
+    final CSCertificateOutputData outputData,
+    final OffsetDateTime timeNow,
+    final ExceptionTracker<IOException> tracker)
+  {
+    final var context =
+      this.context();
+    final var domain =
+      context.domain();
+    final var certificate =
+      context.certificate();
+
+    final var writes = new ArrayList<PendingWrite>();
+    for (final var output : domain.outputs().values()) {
+      if (this.outputsSucceeded.contains(output.name())) {
+        continue;
+      }
+
+      try {
+        final var digest =
+          CSCertificateOutputDigests.digestOf(output, outputData);
+        final var digestPrevious =
+          store.outputDigest(domain.domain(), certificate.name(), output.name());
+
+        if (isUnchanged(output, timeNow, digestPrevious, digest)) {
+          LOG.info(
+            "certificate is unchanged for output {}:{}, not saving",
+            output.type(),
+            output.name()
+          );
+          this.outputSucceeded(output);
+          continue;
+        }
+
+        LOG.info(
+          "saving certificate to output {}:{}",
+          output.type(),
+          output.name()
+        );
+
+        writes.add(
+          new PendingWrite(
+            output,
+            digest,
+            executor.submit(this.writeTask(output, outputData))
+          )
+        );
+      } catch (final IOException e) {
+        this.outputsFailed.add(output.name());
+        tracker.addException(e);
+      }
+    }
+    return writes;
+  }
+
+  /**
+   * Wait for each write to complete. All writes started at approximately
+   * the same time, and so they all share a deadline.
+   */
+
+  private void awaitWrites(
+    final CSCertificateStoreType store,
+    final List<PendingWrite> writes,
+    final OffsetDateTime timeNow,
+    final ExceptionTracker<IOException> tracker)
+    throws InterruptedException
+  {
+    final var context =
+      this.context();
+    final var domain =
+      context.domain();
+    final var certificate =
+      context.certificate();
+
+    final var deadline =
+      System.nanoTime() + OUTPUT_WRITE_TIMEOUT.toNanos();
+
+    for (final var write : writes) {
+      final var output = write.output();
+      try {
+        write.future()
+          .get(Math.max(0L, deadline - System.nanoTime()), NANOSECONDS);
+
+        /*
+         * Deferred writes are recorded when the output reports their
+         * results at the end of the pass.
+         */
+
+        if (output.writesDeferred()) {
+          LOG.info(
+            "certificate queued for output {}:{}",
+            output.type(),
+            output.name()
+          );
+          this.outputSucceeded(output);
+          continue;
+        }
+
+        CSOutputDeliveries.delivered(
+          store,
+          context.events(),
+          domain,
+          certificate.name(),
+          output,
+          write.digest(),
+          timeNow
+        );
+        this.outputSucceeded(output);
+      } catch (final TimeoutException e) {
+        write.future().cancel(true);
+        this.outputFailed(store, output, timeNow, tracker, new IOException(
+          "Writing to output %s:%s did not complete within %s"
+            .formatted(output.type(), output.name(), OUTPUT_WRITE_TIMEOUT)
+        ));
+      } catch (final ExecutionException e) {
+        this.outputFailed(
+          store, output, timeNow, tracker, writeFailure(e.getCause()));
+      } catch (final IOException e) {
+        this.outputsFailed.add(output.name());
+        tracker.addException(e);
+      }
+    }
+  }
+
+  /**
+   * Schedule a failed write to be retried by the delivery service. The
+   * output is considered to be handled if the retry could be scheduled,
+   * and the task is only retried otherwise.
+   */
+
+  private void outputFailed(
+    final CSCertificateStoreType store,
+    final CSCertificateOutputType output,
+    final OffsetDateTime timeNow,
+    final ExceptionTracker<IOException> tracker,
+    final IOException cause)
+  {
+    final var context = this.context();
+
+    try {
+      final var retry =
+        CSOutputDeliveries.failed(
+          store,
+          context.events(),
+          context.domain(),
+          context.certificate().name(),
+          output,
+          1,
+          timeNow
+        );
+
+      LOG.error(
+        "failed to save certificate to output {}:{} (retrying at {}): ",
+        output.type(),
+        output.name(),
+        retry.nextAttempt(),
+        cause
+      );
+      this.outputSucceeded(output);
+    } catch (final IOException e) {
+      e.addSuppressed(cause);
+      this.outputsFailed.add(output.name());
+      tracker.addException(e);
+    }
+  }
+
+  private void outputSucceeded(
+    final CSCertificateOutputType output)
+  {
+    this.outputsFailed.remove(output.name());
+    this.outputsSucceeded.add(output.name());
+  }
+
+  /**
+   * Create a task that writes to the given output on another thread. The
+   * telemetry context and logging context of the current thread are
+   * propagated to the new thread.
+   */
+
+  private Callable<Void> writeTask(
+    final CSCertificateOutputType output,
+    final CSCertificateOutputData outputData)
+  {
+    final var telemetry =
+      this.context().telemetry();
+    final var logContext =
+      MDC.getCopyOfContextMap();
+
+    final Callable<Void> task = () -> {
+      if (logContext != null) {
+        MDC.setContextMap(logContext);
+      }
+      output.write(telemetry, outputData);
+      return null;
+    };
+
+    return Context.current().wrap(task);
+  }
+
+  private static IOException writeFailure(
+    final Throwable cause)
+  {
+    return switch (cause) {
+      case final IOException e -> e;
+      case final RuntimeException e -> throw e;
+      case final Error e -> throw e;
+      default -> new IOException(cause);
+    };
+  }
+
+  private static boolean isUnchanged(
+    final CSCertificateOutputType output,
+    final OffsetDateTime timeNow,
+    final Optional<CSCertificateOutputDigest> digestPrevious,
+    final String digest)
+  {
+    if (digestPrevious.isEmpty()) {
+      return false;
+    }
+
+    final var previous = digestPrevious.get();
+    if (!output.writesRefreshed()) {
+      return Objects.equals(previous.digest(), digest);
+    }
+
+    final var refreshTime =
+      previous.writtenOn().plus(OUTPUT_REFRESH_INTERVAL);
+
+    return Objects.equals(previous.digest(), digest)
+           && timeNow.isBefore(refreshTime);
+  }
+
   @Override
   void executeOnTaskCompletelyFailed()
   {
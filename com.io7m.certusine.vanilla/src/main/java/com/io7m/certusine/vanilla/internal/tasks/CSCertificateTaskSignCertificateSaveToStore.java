@@ -18,6 +18,7 @@ package com.io7m.certusine.vanilla.internal.tasks;
 
 import com.io7m.certusine.api.CSDomain;
 import com.io7m.certusine.certstore.api.CSCertificateStored;
+import com.io7m.certusine.vanilla.CSRenewalPhase;
 import com.io7m.certusine.vanilla.internal.CSCertificateIO;
 import com.io7m.certusine.vanilla.internal.events.CSEventCertificateStoreFailed;
 import com.io7m.certusine.vanilla.internal.events.CSEventCertificateStored;
@@ -27,6 +28,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.security.cert.X509Certificate;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.util.Objects;
@@ -59,7 +61,7 @@ public final class CSCertificateTaskSignCertificateSaveToStore
     final CSCertificateTaskContext inContext,
     final Order inOrder)
   {
-    super("SignCertificateSaveToStore", inContext);
+    super("SignCertificateSaveToStore", CSRenewalPhase.STORE, inContext);
     this.order = Objects.requireNonNull(inOrder, "order");
   }
 
@@ -113,8 +115,16 @@ public final class CSCertificateTaskSignCertificateSaveToStore
       this.context();
     final var createdOn =
       OffsetDateTime.now(context.clock());
-    final var x509Certificate =
-      issuedCertificate.getCertificate();
+
+    final var timeThen = System.nanoTime();
+    final X509Certificate x509Certificate;
+    try {
+      x509Certificate = issuedCertificate.getCertificate();
+    } finally {
+      context.metrics()
+        .recordAcmeRequestDuration("certificate.download", timeThen);
+    }
+
     final var expiresOn =
       OffsetDateTime.ofInstant(
         x509Certificate.getNotAfter().toInstant(),
@@ -16,6 +16,7 @@
 
 package com.io7m.certusine.vanilla.internal.tasks;
 
+import com.io7m.certusine.vanilla.CSRenewalPhase;
 import org.shredzone.acme4j.Order;
 import org.shredzone.acme4j.exception.AcmeException;
 import org.slf4j.Logger;
@@ -54,7 +55,7 @@ public final class CSCertificateTaskSignCertificateUpdate
     final CSCertificateTaskContext inContext,
     final Order inOrder)
   {
-    super("SignCertificateUpdate", inContext);
+    super("SignCertificateUpdate", CSRenewalPhase.FINALIZE, inContext);
     this.order = Objects.requireNonNull(inOrder, "order");
   }
 
@@ -64,13 +65,6 @@ public final class CSCertificateTaskSignCertificateUpdate
   {
     LOG.debug("updating certificate signing order");
 
-    final var issued =
-      this.context()
-        .telemetry()
-        .meter()
-        .counterBuilder("certusine_certificates_issued")
-        .build();
-
     /*
      * If the order status is valid, then move to writing out certificates.
      */
@@ -86,12 +80,15 @@ public final class CSCertificateTaskSignCertificateUpdate
      * Otherwise, update the order.
      */
 
+    final var timeThen = System.nanoTime();
     try {
       this.order.update();
     } catch (final AcmeException e) {
       recordExceptionAndSetError(e);
       return new CSCertificateTaskFailedButCanBeRetried(
         ACME_UPDATE_PAUSE_TIME, e);
+    } finally {
+      context.metrics().recordAcmeRequestDuration("order.update", timeThen);
     }
 
     return switch (this.order.getStatus()) {
@@ -100,7 +97,7 @@ public final class CSCertificateTaskSignCertificateUpdate
       }
 
       case VALID -> {
-        issued.add(1L);
+        context.metrics().certificatesIssued().add(1L);
         yield new CSCertificateTaskCompleted(OptionalLong.empty(), Optional.of(
           new CSCertificateTaskSignCertificateSaveToStore(context, this.order)
         ));
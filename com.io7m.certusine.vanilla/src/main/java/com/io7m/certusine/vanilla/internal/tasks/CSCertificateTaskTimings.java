@@ -0,0 +1,179 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.vanilla.internal.tasks;
+
+import com.io7m.certusine.vanilla.CSRenewalCertificateReport;
+import com.io7m.certusine.vanilla.CSRenewalOutcome;
+import com.io7m.certusine.vanilla.CSRenewalPhase;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Objects;
+
+/**
+ * The accumulated wall time spent in each renewal phase for a single
+ * certificate. Instances are confined to the thread executing the domain.
+ */
+
+public final class CSCertificateTaskTimings
+{
+  private final long[] phaseNanos;
+  private long nestedNanos;
+  private long totalNanos;
+  private int retries;
+  private boolean fresh;
+  private boolean failed;
+
+  /**
+   * The accumulated wall time spent in each renewal phase.
+   */
+
+  public CSCertificateTaskTimings()
+  {
+    this.phaseNanos = new long[CSRenewalPhase.values().length];
+  }
+
+  /**
+   * @return The total time recorded in nested sections so far
+   *
+   * @see #addNested(CSRenewalPhase, long)
+   */
+
+  public long nestedNanos()
+  {
+    return this.nestedNanos;
+  }
+
+  /**
+   * Record time spent in a section nested inside a task that belongs to a
+   * different phase than the task itself.
+   *
+   * @param phase The phase
+   * @param nanos The elapsed time
+   */
+
+  public void addNested(
+    final CSRenewalPhase phase,
+    final long nanos)
+  {
+    this.phaseNanos[phase.ordinal()] += nanos;
+    this.nestedNanos += nanos;
+    this.totalNanos += nanos;
+  }
+
+  /**
+   * Record the execution of a task. Any time recorded with
+   * {@link #addNested(CSRenewalPhase, long)} since {@code nestedBefore} was
+   * sampled is excluded from the task's own phase.
+   *
+   * @param phase        The phase of the task
+   * @param nanos        The elapsed time of the task
+   * @param nestedBefore The value of {@link #nestedNanos()} when the task
+   *                     started
+   */
+
+  public void addTask(
+    final CSRenewalPhase phase,
+    final long nanos,
+    final long nestedBefore)
+  {
+    final var own =
+      Math.max(0L, nanos - (this.nestedNanos - nestedBefore));
+    this.phaseNanos[phase.ordinal()] += own;
+    this.totalNanos += own;
+  }
+
+  /**
+   * Record time spent waiting before a task of the given phase could run.
+   *
+   * @param phase The phase
+   * @param nanos The elapsed time
+   */
+
+  public void addWait(
+    final CSRenewalPhase phase,
+    final long nanos)
+  {
+    this.phaseNanos[phase.ordinal()] += nanos;
+    this.totalNanos += nanos;
+  }
+
+  /**
+   * Record that a task was retried.
+   */
+
+  public void addRetry()
+  {
+    ++this.retries;
+  }
+
+  /**
+   * Record that the stored certificate did not require renewal.
+   */
+
+  public void markFresh()
+  {
+    this.fresh = true;
+  }
+
+  /**
+   * Record that the renewal failed permanently.
+   */
+
+  public void markFailed()
+  {
+    this.failed = true;
+  }
+
+  /**
+   * Produce a report from the accumulated timings.
+   *
+   * @param certificate The certificate name
+   *
+   * @return A report
+   */
+
+  public CSRenewalCertificateReport report(
+    final String certificate)
+  {
+    Objects.requireNonNull(certificate, "certificate");
+
+    final var phases = new EnumMap<CSRenewalPhase, Duration>(CSRenewalPhase.class);
+    for (final var phase : CSRenewalPhase.values()) {
+      phases.put(phase, Duration.ofNanos(this.phaseNanos[phase.ordinal()]));
+    }
+
+    final CSRenewalOutcome outcome;
+    if (this.failed) {
+      outcome = CSRenewalOutcome.FAILED;
+    } else if (this.fresh) {
+      outcome = CSRenewalOutcome.SKIPPED_FRESH;
+    } else {
+      outcome = CSRenewalOutcome.ISSUED;
+    }
+
+    return new CSRenewalCertificateReport(
+      certificate,
+      outcome,
+      Duration.ofNanos(this.totalNanos),
+      phases,
+      this.retries
+    );
+  }
+}
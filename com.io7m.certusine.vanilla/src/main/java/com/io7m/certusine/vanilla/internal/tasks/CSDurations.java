@@ -17,6 +17,7 @@
 
 package com.io7m.certusine.vanilla.internal.tasks;
 
+import java.time.Duration;
 import java.util.OptionalLong;
 
 /**
@@ -39,6 +40,40 @@ public final class CSDurations
   public static final OptionalLong IO_RETRY_PAUSE_TIME =
     OptionalLong.of(1_000L);
 
+  /**
+   * The maximum time that an unchanged certificate can go without being
+   * written to an output. Unchanged certificates are periodically written
+   * again so that external systems that have lost their certificates (for
+   * example, by being destroyed and recreated) eventually receive them.
+   * Outputs that do not accept periodic rewrites are never refreshed.
+   *
+   * @see com.io7m.certusine.api.CSCertificateOutputType#writesRefreshed()
+   */
+
+  public static final Duration OUTPUT_REFRESH_INTERVAL =
+    Duration.ofDays(1L);
+
+  /**
+   * The maximum time allowed for a certificate to be written to an output.
+   */
+
+  public static final Duration OUTPUT_WRITE_TIMEOUT =
+    Duration.ofMinutes(2L);
+
+  /**
+   * The delay before the first retry of a failed delivery to an output.
+   */
+
+  public static final Duration OUTPUT_RETRY_DELAY_INITIAL =
+    Duration.ofMinutes(1L);
+
+  /**
+   * The maximum delay between retries of a failed delivery to an output.
+   */
+
+  public static final Duration OUTPUT_RETRY_DELAY_MAXIMUM =
+    Duration.ofHours(1L);
+
   private CSDurations()
   {
 
@@ -0,0 +1,539 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.vanilla.internal.telemetry;
+
+import com.io7m.certusine.api.CSCertificateName;
+import com.io7m.certusine.api.CSConfiguration;
+import com.io7m.certusine.api.CSConfigurationServiceType;
+import com.io7m.certusine.api.CSTelemetryServiceType;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+
+/**
+ * The default metrics service.
+ */
+
+public final class CSMetricsService
+  implements CSMetricsServiceType, Flow.Subscriber<CSConfiguration>
+{
+  /**
+   * The histogram bucket boundaries (in seconds) used for individual
+   * requests to external services.
+   */
+
+  public static final List<Double> REQUEST_BUCKETS =
+    List.of(
+      Double.valueOf(0.005),
+      Double.valueOf(0.01),
+      Double.valueOf(0.025),
+      Double.valueOf(0.05),
+      Double.valueOf(0.1),
+      Double.valueOf(0.25),
+      Double.valueOf(0.5),
+      Double.valueOf(1.0),
+      Double.valueOf(2.5),
+      Double.valueOf(5.0),
+      Double.valueOf(10.0),
+      Double.valueOf(30.0),
+      Double.valueOf(60.0)
+    );
+
+  /**
+   * The histogram bucket boundaries (in seconds) used for renewal phases,
+   * which may include waiting for DNS propagation.
+   */
+
+  public static final List<Double> PHASE_BUCKETS =
+    List.of(
+      Double.valueOf(0.1),
+      Double.valueOf(0.5),
+      Double.valueOf(1.0),
+      Double.valueOf(5.0),
+      Double.valueOf(10.0),
+      Double.valueOf(30.0),
+      Double.valueOf(60.0),
+      Double.valueOf(120.0),
+      Double.valueOf(300.0),
+      Double.valueOf(600.0),
+      Double.valueOf(1200.0),
+      Double.valueOf(1800.0),
+      Double.valueOf(3600.0)
+    );
+
+  private static final AttributeKey<String> TASK =
+    stringKey("task");
+  private static final AttributeKey<String> OPERATION =
+    stringKey("operation");
+  private static final AttributeKey<String> PROVIDER =
+    stringKey("provider");
+
+  private final LongCounter tasksExecuted;
+  private final LongCounter tasksSucceeded;
+  private final LongCounter tasksFailed;
+  private final LongCounter tasksRetried;
+  private final LongCounter certificatesIssued;
+  private final LongCounter dnsChallengeFailures;
+  private final LongCounter signingFailures;
+  private final LongCounter renewalFailures;
+  private final LongCounter renewalSuccesses;
+  private final LongCounter certificatesStored;
+  private final LongCounter certificateStoreFailures;
+  private final LongCounter eventsDropped;
+  private final DoubleHistogram taskTime;
+  private final DoubleHistogram acmeRequestTime;
+  private final DoubleHistogram dnsRequestTime;
+  private final DoubleHistogram dnsPropagationTime;
+  private final ConcurrentHashMap<String, Attributes> taskAttributes;
+  private final ConcurrentHashMap<String, Attributes> acmeAttributes;
+  private final ConcurrentHashMap<String, ConcurrentHashMap<String, Attributes>> dnsAttributes;
+  private final ConcurrentHashMap<String, ConcurrentHashMap<CSCertificateName, CertificateAttributes>> attributes;
+  private volatile Flow.Subscription subscription;
+
+  private CSMetricsService(
+    final Meter meter)
+  {
+    Objects.requireNonNull(meter, "meter");
+
+    this.attributes =
+      new ConcurrentHashMap<>();
+    this.taskAttributes =
+      new ConcurrentHashMap<>();
+    this.acmeAttributes =
+      new ConcurrentHashMap<>();
+    this.dnsAttributes =
+      new ConcurrentHashMap<>();
+
+    this.tasksExecuted =
+      meter.counterBuilder("certusine_tasks_executed")
+        .setDescription("Certificate tasks that executed.")
+        .build();
+
+    this.tasksSucceeded =
+      meter.counterBuilder("certusine_tasks_succeeded")
+        .setDescription("Certificate tasks that executed and succeeded.")
+        .build();
+
+    this.tasksFailed =
+      meter.counterBuilder("certusine_tasks_failed")
+        .setDescription("Certificate tasks that executed and failed.")
+        .build();
+
+    this.tasksRetried =
+      meter.counterBuilder("certusine_tasks_retried")
+        .setDescription("Certificate tasks that had to be retried.")
+        .build();
+
+    this.certificatesIssued =
+      meter.counterBuilder("certusine_certificates_issued")
+        .build();
+
+    this.dnsChallengeFailures =
+      meter.counterBuilder("certusine_dns_challenge_failures")
+        .setDescription("Certificate DNS challenge failures.")
+        .build();
+
+    this.signingFailures =
+      meter.counterBuilder("certusine_signing_failures")
+        .setDescription("Certificate signing failures.")
+        .build();
+
+    this.renewalFailures =
+      meter.counterBuilder("certusine_renewal_failures")
+        .setDescription("Certificate renewal failures.")
+        .build();
+
+    this.renewalSuccesses =
+      meter.counterBuilder("certusine_renewal_successes")
+        .setDescription("Certificate renewal successes.")
+        .build();
+
+    this.certificatesStored =
+      meter.counterBuilder("certusine_certificates_stored")
+        .setDescription("The number of times certificates have been stored.")
+        .build();
+
+    this.certificateStoreFailures =
+      meter.counterBuilder("certusine_certificates_store_failures")
+        .setDescription(
+          "The number of times certificates have failed to store.")
+        .build();
+
+    this.eventsDropped =
+      meter.counterBuilder("certusine_events_dropped")
+        .setDescription(
+          "The number of events discarded because the event queue was full.")
+        .build();
+
+    this.taskTime =
+      meter.histogramBuilder("certusine_task_duration")
+        .setDescription("The time taken to execute certificate tasks.")
+        .setUnit("s")
+        .setExplicitBucketBoundariesAdvice(PHASE_BUCKETS)
+        .build();
+
+    this.acmeRequestTime =
+      meter.histogramBuilder("certusine_acme_request_duration")
+        .setDescription("The time taken by requests to ACME servers.")
+        .setUnit("s")
+        .setExplicitBucketBoundariesAdvice(REQUEST_BUCKETS)
+        .build();
+
+    this.dnsRequestTime =
+      meter.histogramBuilder("certusine_dns_request_duration")
+        .setDescription("The time taken by requests to DNS providers.")
+        .setUnit("s")
+        .setExplicitBucketBoundariesAdvice(REQUEST_BUCKETS)
+        .build();
+
+    this.dnsPropagationTime =
+      meter.histogramBuilder("certusine_dns_propagation_duration")
+        .setDescription(
+          "The time taken for DNS records to become visible on the authoritative nameservers.")
+        .setUnit("s")
+        .setExplicitBucketBoundariesAdvice(PHASE_BUCKETS)
+        .build();
+  }
+
+  /**
+   * Determine the number of seconds elapsed since the given time.
+   *
+   * @param timeStarted A value of {@link System#nanoTime()}
+   *
+   * @return The number of seconds elapsed
+   */
+
+  public static double secondsSince(
+    final long timeStarted)
+  {
+    return (double) (System.nanoTime() - timeStarted) / 1_000_000_000.0;
+  }
+
+  /**
+   * Create a new metrics service.
+   *
+   * @param configuration The configuration service
+   * @param telemetry     The telemetry service
+   *
+   * @return A new metrics service
+   */
+
+  public static CSMetricsServiceType create(
+    final CSConfigurationServiceType configuration,
+    final CSTelemetryServiceType telemetry)
+  {
+    Objects.requireNonNull(configuration, "configuration");
+    Objects.requireNonNull(telemetry, "telemetry");
+
+    final var service = new CSMetricsService(telemetry.meter());
+    configuration.events().subscribe(service);
+    return service;
+  }
+
+  @Override
+  public LongCounter tasksExecuted()
+  {
+    return this.tasksExecuted;
+  }
+
+  @Override
+  public LongCounter tasksSucceeded()
+  {
+    return this.tasksSucceeded;
+  }
+
+  @Override
+  public LongCounter tasksFailed()
+  {
+    return this.tasksFailed;
+  }
+
+  @Override
+  public LongCounter tasksRetried()
+  {
+    return this.tasksRetried;
+  }
+
+  @Override
+  public LongCounter certificatesIssued()
+  {
+    return this.certificatesIssued;
+  }
+
+  @Override
+  public LongCounter dnsChallengeFailures()
+  {
+    return this.dnsChallengeFailures;
+  }
+
+  @Override
+  public LongCounter signingFailures()
+  {
+    return this.signingFailures;
+  }
+
+  @Override
+  public LongCounter renewalFailures()
+  {
+    return this.renewalFailures;
+  }
+
+  @Override
+  public LongCounter renewalSuccesses()
+  {
+    return this.renewalSuccesses;
+  }
+
+  @Override
+  public LongCounter certificatesStored()
+  {
+    return this.certificatesStored;
+  }
+
+  @Override
+  public LongCounter certificateStoreFailures()
+  {
+    return this.certificateStoreFailures;
+  }
+
+  @Override
+  public LongCounter eventsDropped()
+  {
+    return this.eventsDropped;
+  }
+
+  private CertificateAttributes certificate(
+    final String domain,
+    final CSCertificateName certificate)
+  {
+    Objects.requireNonNull(domain, "domain");
+    Objects.requireNonNull(certificate, "certificate");
+
+    /*
+     * The attributes are looked up without capturing lambdas, so that
+     * nothing is allocated unless the attributes have not yet been cached.
+     */
+
+    var byName = this.attributes.get(domain);
+    if (byName == null) {
+      byName = this.attributes.computeIfAbsent(
+        domain, ignored -> new ConcurrentHashMap<>());
+    }
+
+    var cached = byName.get(certificate);
+    if (cached == null) {
+      cached = byName.computeIfAbsent(
+        certificate, name -> new CertificateAttributes(domain, name));
+    }
+    return cached;
+  }
+
+  @Override
+  public Attributes certificateAttributes(
+    final String domain,
+    final CSCertificateName certificate)
+  {
+    return this.certificate(domain, certificate).attributes;
+  }
+
+  @Override
+  public Attributes certificateTargetAttributes(
+    final String domain,
+    final CSCertificateName certificate,
+    final String target)
+  {
+    Objects.requireNonNull(target, "target");
+
+    final var cached = this.certificate(domain, certificate);
+    final var existing = cached.targets.get(target);
+    if (existing != null) {
+      return existing;
+    }
+    return cached.targets.computeIfAbsent(target, cached::withTarget);
+  }
+
+  @Override
+  public void recordTaskDuration(
+    final String task,
+    final long timeStarted)
+  {
+    this.taskTime.record(
+      secondsSince(timeStarted),
+      this.taskAttributes.computeIfAbsent(task, t -> Attributes.of(TASK, t))
+    );
+  }
+
+  @Override
+  public void recordAcmeRequestDuration(
+    final String operation,
+    final long timeStarted)
+  {
+    this.acmeRequestTime.record(
+      secondsSince(timeStarted),
+      this.acmeAttributes.computeIfAbsent(
+        operation, o -> Attributes.of(OPERATION, o))
+    );
+  }
+
+  @Override
+  public void recordDNSRequestDuration(
+    final String provider,
+    final String operation,
+    final long timeStarted)
+  {
+    Objects.requireNonNull(provider, "provider");
+    Objects.requireNonNull(operation, "operation");
+
+    var byOperation = this.dnsAttributes.get(provider);
+    if (byOperation == null) {
+      byOperation = this.dnsAttributes.computeIfAbsent(
+        provider, ignored -> new ConcurrentHashMap<>());
+    }
+
+    var cached = byOperation.get(operation);
+    if (cached == null) {
+      cached = byOperation.computeIfAbsent(
+        operation, o -> Attributes.of(PROVIDER, provider, OPERATION, o));
+    }
+
+    this.dnsRequestTime.record(secondsSince(timeStarted), cached);
+  }
+
+  @Override
+  public void recordDNSPropagationDuration(
+    final String domain,
+    final CSCertificateName certificate,
+    final long timeStarted)
+  {
+    this.dnsPropagationTime.record(
+      secondsSince(timeStarted),
+      this.certificateAttributes(domain, certificate)
+    );
+  }
+
+  @Override
+  public String description()
+  {
+    return "Metrics service.";
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[CSMetricsService 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+
+  @Override
+  public void close()
+  {
+    final var currentSubscription = this.subscription;
+    if (currentSubscription != null) {
+      currentSubscription.cancel();
+    }
+  }
+
+  @Override
+  public void onSubscribe(
+    final Flow.Subscription newSubscription)
+  {
+    this.subscription =
+      Objects.requireNonNull(newSubscription, "subscription");
+
+    this.subscription.request(Long.MAX_VALUE);
+  }
+
+  @Override
+  public void onNext(
+    final CSConfiguration item)
+  {
+    Objects.requireNonNull(item, "item");
+
+    /*
+     * Domains and certificates may have been removed from the configuration,
+     * so the attributes of certificates that no longer exist are discarded
+     * rather than accumulated forever. The configuration is reloaded
+     * periodically even when nothing has changed, and so the attributes of
+     * certificates that still exist are retained.
+     */
+
+    final var domains = item.domains();
+    for (final var entry : this.attributes.entrySet()) {
+      final var domain = domains.get(entry.getKey());
+      if (domain == null) {
+        this.attributes.remove(entry.getKey(), entry.getValue());
+        continue;
+      }
+
+      final var certificates = domain.certificates();
+      entry.getValue()
+        .keySet()
+        .removeIf(name -> !certificates.containsKey(name.value()));
+    }
+  }
+
+  @Override
+  public void onError(
+    final Throwable throwable)
+  {
+
+  }
+
+  @Override
+  public void onComplete()
+  {
+
+  }
+
+  private static final class CertificateAttributes
+  {
+    private final Attributes attributes;
+    private final ConcurrentHashMap<String, Attributes> targets;
+
+    CertificateAttributes(
+      final String domain,
+      final CSCertificateName certificate)
+    {
+      this.attributes =
+        Attributes.builder()
+          .put("domain", domain)
+          .put("certificate", certificate.value())
+          .build();
+      this.targets =
+        new ConcurrentHashMap<>();
+    }
+
+    Attributes withTarget(
+      final String target)
+    {
+      return this.attributes.toBuilder()
+        .put("target", target)
+        .build();
+    }
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.vanilla.internal.telemetry;
+
+import com.io7m.certusine.api.CSCertificateName;
+import com.io7m.repetoir.core.RPServiceType;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongCounter;
+
+/**
+ * A metrics service. The service creates every metric instrument exactly
+ * once, and caches the attributes used to label measurements for each
+ * certificate so that recording a measurement does not allocate. Cached
+ * attributes are discarded whenever the configuration changes.
+ */
+
+public interface CSMetricsServiceType extends RPServiceType, AutoCloseable
+{
+  /**
+   * @return The number of certificate tasks executed
+   */
+
+  LongCounter tasksExecuted();
+
+  /**
+   * @return The number of certificate tasks that succeeded
+   */
+
+  LongCounter tasksSucceeded();
+
+  /**
+   * @return The number of certificate tasks that failed permanently
+   */
+
+  LongCounter tasksFailed();
+
+  /**
+   * @return The number of certificate tasks that failed and were retried
+   */
+
+  LongCounter tasksRetried();
+
+  /**
+   * @return The number of certificates issued
+   */
+
+  LongCounter certificatesIssued();
+
+  /**
+   * @return The number of certificate DNS challenge failures
+   */
+
+  LongCounter dnsChallengeFailures();
+
+  /**
+   * @return The number of certificate signing failures
+   */
+
+  LongCounter signingFailures();
+
+  /**
+   * @return The number of certificate renewal failures
+   */
+
+  LongCounter renewalFailures();
+
+  /**
+   * @return The number of certificate renewal successes
+   */
+
+  LongCounter renewalSuccesses();
+
+  /**
+   * @return The number of times certificates have been stored
+   */
+
+  LongCounter certificatesStored();
+
+  /**
+   * @return The number of times certificates have failed to store
+   */
+
+  LongCounter certificateStoreFailures();
+
+  /**
+   * @return The number of events discarded because the event queue was full
+   */
+
+  LongCounter eventsDropped();
+
+  /**
+   * Obtain the attributes that identify the given certificate.
+   *
+   * @param domain      The domain
+   * @param certificate The certificate name
+   *
+   * @return The attributes
+   */
+
+  Attributes certificateAttributes(
+    String domain,
+    CSCertificateName certificate);
+
+  /**
+   * Obtain the attributes that identify the given certificate and the target
+   * to which it was written.
+   *
+   * @param domain      The domain
+   * @param certificate The certificate name
+   * @param target      The target
+   *
+   * @return The attributes
+   */
+
+  Attributes certificateTargetAttributes(
+    String domain,
+    CSCertificateName certificate,
+    String target);
+
+  /**
+   * Record the time taken to execute a certificate task.
+   *
+   * @param task        The task name
+   * @param timeStarted The value of {@link System#nanoTime()} when the task
+   *                    started
+   */
+
+  void recordTaskDuration(
+    String task,
+    long timeStarted);
+
+  /**
+   * Record the time taken by a request to an ACME server.
+   *
+   * @param operation   The operation name
+   * @param timeStarted The value of {@link System#nanoTime()} when the request
+   *                    started
+   */
+
+  void recordAcmeRequestDuration(
+    String operation,
+    long timeStarted);
+
+  /**
+   * Record the time taken by a request to a DNS provider.
+   *
+   * @param provider    The DNS provider name
+   * @param operation   The operation name
+   * @param timeStarted The value of {@link System#nanoTime()} when the request
+   *                    started
+   */
+
+  void recordDNSRequestDuration(
+    String provider,
+    String operation,
+    long timeStarted);
+
+  /**
+   * Record the time taken for the DNS records created for a certificate to
+   * become visible on the authoritative nameservers.
+   *
+   * @param domain      The domain
+   * @param certificate The certificate name
+   * @param timeStarted The value of {@link System#nanoTime()} when the
+   *                    records were created
+   */
+
+  void recordDNSPropagationDuration(
+    String domain,
+    CSCertificateName certificate,
+    long timeStarted);
+}
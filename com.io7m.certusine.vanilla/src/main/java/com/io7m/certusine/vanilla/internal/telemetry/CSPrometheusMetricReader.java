@@ -0,0 +1,101 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.vanilla.internal.telemetry;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.metrics.InstrumentType;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.export.CollectionRegistration;
+import io.opentelemetry.sdk.metrics.export.MetricReader;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A pull-based metric reader. Metrics are collected only when
+ * {@link #collect()} is called, and so the reader requires no background
+ * threads.
+ */
+
+public final class CSPrometheusMetricReader
+  implements MetricReader
+{
+  private volatile CollectionRegistration registration;
+
+  /**
+   * A pull-based metric reader.
+   */
+
+  public CSPrometheusMetricReader()
+  {
+
+  }
+
+  /**
+   * Collect all metrics now.
+   *
+   * @return The current metric values
+   */
+
+  public Collection<MetricData> collect()
+  {
+    final var current = this.registration;
+    if (current == null) {
+      return List.of();
+    }
+    return current.collectAllMetrics();
+  }
+
+  @Override
+  public void register(
+    final CollectionRegistration newRegistration)
+  {
+    this.registration =
+      Objects.requireNonNull(newRegistration, "registration");
+  }
+
+  @Override
+  public CompletableResultCode forceFlush()
+  {
+    return CompletableResultCode.ofSuccess();
+  }
+
+  @Override
+  public CompletableResultCode shutdown()
+  {
+    this.registration = null;
+    return CompletableResultCode.ofSuccess();
+  }
+
+  @Override
+  public AggregationTemporality getAggregationTemporality(
+    final InstrumentType instrumentType)
+  {
+    return AggregationTemporality.CUMULATIVE;
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[CSPrometheusMetricReader 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.vanilla.internal.telemetry;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Objects;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * An HTTP server that serves metrics in the Prometheus text format at
+ * {@code /metrics}. Metrics are collected each time the endpoint is scraped.
+ */
+
+public final class CSPrometheusServer implements AutoCloseable
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(CSPrometheusServer.class);
+
+  private static final int THREADS_MAXIMUM = 8;
+
+  private final Server server;
+  private final ServerConnector connector;
+
+  private CSPrometheusServer(
+    final Server inServer,
+    final ServerConnector inConnector)
+  {
+    this.server =
+      Objects.requireNonNull(inServer, "server");
+    this.connector =
+      Objects.requireNonNull(inConnector, "connector");
+  }
+
+  /**
+   * Create and start a server.
+   *
+   * @param address The address on which to listen
+   * @param reader  The metric reader
+   *
+   * @return A running server
+   *
+   * @throws IOException On errors
+   */
+
+  public static CSPrometheusServer create(
+    final InetSocketAddress address,
+    final CSPrometheusMetricReader reader)
+    throws IOException
+  {
+    Objects.requireNonNull(address, "address");
+    Objects.requireNonNull(reader, "reader");
+
+    final var threadPool = new QueuedThreadPool(THREADS_MAXIMUM, 1);
+    threadPool.setDaemon(true);
+    threadPool.setReservedThreads(0);
+    threadPool.setName("com.io7m.certusine.prometheus");
+
+    final var server = new Server(threadPool);
+    final var connector = new ServerConnector(server, 1, 1);
+    connector.setHost(address.getHostString());
+    connector.setPort(address.getPort());
+    server.addConnector(connector);
+    server.setHandler(new MetricsHandler(reader));
+
+    try {
+      server.start();
+    } catch (final Exception e) {
+      throw new IOException(e);
+    }
+
+    LOG.info(
+      "metrics are available at http://{}:{}/metrics",
+      address.getHostString(),
+      Integer.valueOf(connector.getLocalPort())
+    );
+    return new CSPrometheusServer(server, connector);
+  }
+
+  /**
+   * @return The port on which the server is listening
+   */
+
+  public int port()
+  {
+    return this.connector.getLocalPort();
+  }
+
+  @Override
+  public void close()
+    throws Exception
+  {
+    this.server.stop();
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[CSPrometheusServer 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+
+  private static final class MetricsHandler extends AbstractHandler
+  {
+    private final CSPrometheusMetricReader reader;
+
+    MetricsHandler(
+      final CSPrometheusMetricReader inReader)
+    {
+      this.reader =
+        Objects.requireNonNull(inReader, "reader");
+    }
+
+    @Override
+    public void handle(
+      final String target,
+      final Request baseRequest,
+      final HttpServletRequest request,
+      final HttpServletResponse response)
+      throws IOException
+    {
+      baseRequest.setHandled(true);
+
+      if (!"/metrics".equals(target)) {
+        response.setStatus(404);
+        return;
+      }
+
+      if (!"GET".equals(request.getMethod())) {
+        response.setStatus(405);
+        return;
+      }
+
+      final var data =
+        CSPrometheusTextFormat.format(this.reader.collect())
+          .getBytes(UTF_8);
+
+      response.setStatus(200);
+      response.setContentType(CSPrometheusTextFormat.CONTENT_TYPE);
+      response.setContentLength(data.length);
+      try (var output = response.getOutputStream()) {
+        output.write(data);
+      }
+    }
+  }
+}
@@ -0,0 +1,379 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.vanilla.internal.telemetry;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.metrics.data.DoublePointData;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Objects;
+
+/**
+ * Functions to format metrics in the Prometheus text exposition format.
+ */
+
+public final class CSPrometheusTextFormat
+{
+  /**
+   * The content type of the text exposition format.
+   */
+
+  public static final String CONTENT_TYPE =
+    "text/plain; version=0.0.4; charset=utf-8";
+
+  private CSPrometheusTextFormat()
+  {
+
+  }
+
+  /**
+   * Format the given metrics.
+   *
+   * @param metrics The metrics
+   *
+   * @return The formatted text
+   */
+
+  public static String format(
+    final Collection<MetricData> metrics)
+  {
+    Objects.requireNonNull(metrics, "metrics");
+
+    /*
+     * All samples of a metric family must appear together, so metrics with
+     * the same name (from different instrumentation scopes) are written
+     * adjacently, and the family metadata is written only once.
+     */
+
+    final var sorted = new ArrayList<>(metrics);
+    sorted.sort(Comparator.comparing(CSPrometheusTextFormat::familyName));
+
+    final var text = new StringBuilder(4096);
+    final var written = new HashSet<String>();
+    for (final var metric : sorted) {
+      formatMetric(text, written, metric);
+    }
+    return text.toString();
+  }
+
+  private static void formatMetric(
+    final StringBuilder text,
+    final HashSet<String> written,
+    final MetricData metric)
+  {
+    final var name = familyName(metric);
+
+    switch (metric.getType()) {
+      case LONG_SUM -> formatLongSum(text, written, name, metric);
+      case DOUBLE_SUM -> formatDoubleSum(text, written, name, metric);
+      case LONG_GAUGE -> formatLongGauge(text, written, name, metric);
+      case DOUBLE_GAUGE -> formatDoubleGauge(text, written, name, metric);
+      case HISTOGRAM -> formatHistogram(text, written, name, metric);
+      case SUMMARY, EXPONENTIAL_HISTOGRAM -> {
+        // Not produced by any instruments, and so not supported.
+      }
+    }
+  }
+
+  private static void formatLongSum(
+    final StringBuilder text,
+    final HashSet<String> written,
+    final String name,
+    final MetricData metric)
+  {
+    final var data = metric.getLongSumData();
+    final var counter = data.isMonotonic();
+    final var sample = counter ? name + "_total" : name;
+    writeHeader(text, written, name, metric, counter ? "counter" : "gauge");
+    for (final var point : data.getPoints()) {
+      writeLong(text, sample, point);
+    }
+  }
+
+  private static void formatDoubleSum(
+    final StringBuilder text,
+    final HashSet<String> written,
+    final String name,
+    final MetricData metric)
+  {
+    final var data = metric.getDoubleSumData();
+    final var counter = data.isMonotonic();
+    final var sample = counter ? name + "_total" : name;
+    writeHeader(text, written, name, metric, counter ? "counter" : "gauge");
+    for (final var point : data.getPoints()) {
+      writeDouble(text, sample, point);
+    }
+  }
+
+  private static void formatLongGauge(
+    final StringBuilder text,
+    final HashSet<String> written,
+    final String name,
+    final MetricData metric)
+  {
+    writeHeader(text, written, name, metric, "gauge");
+    for (final var point : metric.getLongGaugeData().getPoints()) {
+      writeLong(text, name, point);
+    }
+  }
+
+  private static void formatDoubleGauge(
+    final StringBuilder text,
+    final HashSet<String> written,
+    final String name,
+    final MetricData metric)
+  {
+    writeHeader(text, written, name, metric, "gauge");
+    for (final var point : metric.getDoubleGaugeData().getPoints()) {
+      writeDouble(text, name, point);
+    }
+  }
+
+  private static void formatHistogram(
+    final StringBuilder text,
+    final HashSet<String> written,
+    final String name,
+    final MetricData metric)
+  {
+    writeHeader(text, written, name, metric, "histogram");
+    for (final var point : metric.getHistogramData().getPoints()) {
+      writeHistogram(text, name, point);
+    }
+  }
+
+  private static String familyName(
+    final MetricData metric)
+  {
+    final var name = sanitize(metric.getName());
+    final var unit = unitSuffix(metric.getUnit());
+    if (unit.isEmpty() || name.endsWith("_" + unit)) {
+      return name;
+    }
+    return name + "_" + unit;
+  }
+
+  private static String unitSuffix(
+    final String unit)
+  {
+    return switch (unit) {
+      case "s" -> "seconds";
+      case "ms" -> "milliseconds";
+      case "By" -> "bytes";
+      default -> {
+        if (unit.isEmpty() || unit.startsWith("{") || "1".equals(unit)) {
+          yield "";
+        }
+        yield sanitize(unit);
+      }
+    };
+  }
+
+  private static String sanitize(
+    final String name)
+  {
+    final var text = new StringBuilder(name.length());
+    for (int index = 0; index < name.length(); ++index) {
+      final var c = name.charAt(index);
+      text.append(isValidNameChar(c, index) ? c : '_');
+    }
+    return text.toString();
+  }
+
+  private static boolean isValidNameChar(
+    final char c,
+    final int index)
+  {
+    if (c >= 'a' && c <= 'z') {
+      return true;
+    }
+    if (c >= 'A' && c <= 'Z') {
+      return true;
+    }
+    if (c >= '0' && c <= '9') {
+      return index > 0;
+    }
+    return c == '_' || c == ':';
+  }
+
+  private static void writeHeader(
+    final StringBuilder text,
+    final HashSet<String> written,
+    final String name,
+    final MetricData metric,
+    final String type)
+  {
+    if (!written.add(name)) {
+      return;
+    }
+
+    final var description = metric.getDescription();
+    if (!description.isEmpty()) {
+      text.append("# HELP ");
+      text.append(name);
+      text.append(' ');
+      text.append(
+        description.replace("\\", "\\\\")
+          .replace("\n", "\\n")
+      );
+      text.append('\n');
+    }
+
+    text.append("# TYPE ");
+    text.append(name);
+    text.append(' ');
+    text.append(type);
+    text.append('\n');
+  }
+
+  private static void writeLong(
+    final StringBuilder text,
+    final String name,
+    final LongPointData point)
+  {
+    text.append(name);
+    writeLabels(text, point.getAttributes(), null);
+    text.append(' ');
+    text.append(point.getValue());
+    text.append('\n');
+  }
+
+  private static void writeDouble(
+    final StringBuilder text,
+    final String name,
+    final DoublePointData point)
+  {
+    text.append(name);
+    writeLabels(text, point.getAttributes(), null);
+    text.append(' ');
+    text.append(formatDouble(point.getValue()));
+    text.append('\n');
+  }
+
+  private static void writeHistogram(
+    final StringBuilder text,
+    final String name,
+    final HistogramPointData point)
+  {
+    final var attributes = point.getAttributes();
+    final var boundaries = point.getBoundaries();
+    final var counts = point.getCounts();
+
+    /*
+     * OpenTelemetry bucket counts are per-bucket, whereas Prometheus bucket
+     * counts are cumulative.
+     */
+
+    long cumulative = 0L;
+    for (int index = 0; index < counts.size(); ++index) {
+      cumulative += counts.get(index).longValue();
+
+      final String bound;
+      if (index < boundaries.size()) {
+        bound = formatDouble(boundaries.get(index).doubleValue());
+      } else {
+        bound = "+Inf";
+      }
+
+      text.append(name);
+      text.append("_bucket");
+      writeLabels(text, attributes, bound);
+      text.append(' ');
+      text.append(cumulative);
+      text.append('\n');
+    }
+
+    text.append(name);
+    text.append("_sum");
+    writeLabels(text, attributes, null);
+    text.append(' ');
+    text.append(formatDouble(point.getSum()));
+    text.append('\n');
+
+    text.append(name);
+    text.append("_count");
+    writeLabels(text, attributes, null);
+    text.append(' ');
+    text.append(point.getCount());
+    text.append('\n');
+  }
+
+  private static void writeLabels(
+    final StringBuilder text,
+    final Attributes attributes,
+    final String bound)
+  {
+    if (attributes.isEmpty() && bound == null) {
+      return;
+    }
+
+    text.append('{');
+    final var first = new boolean[]{true};
+    attributes.forEach((key, value) -> {
+      if (!first[0]) {
+        text.append(',');
+      }
+      first[0] = false;
+      writeLabel(text, sanitize(key.getKey()), String.valueOf(value));
+    });
+
+    if (bound != null) {
+      if (!first[0]) {
+        text.append(',');
+      }
+      writeLabel(text, "le", bound);
+    }
+    text.append('}');
+  }
+
+  private static void writeLabel(
+    final StringBuilder text,
+    final String name,
+    final String value)
+  {
+    text.append(name);
+    text.append("=\"");
+    text.append(
+      value.replace("\\", "\\\\")
+        .replace("\"", "\\\"")
+        .replace("\n", "\\n")
+    );
+    text.append('"');
+  }
+
+  private static String formatDouble(
+    final double value)
+  {
+    if (Double.isNaN(value)) {
+      return "NaN";
+    }
+    if (value == Double.POSITIVE_INFINITY) {
+      return "+Inf";
+    }
+    if (value == Double.NEGATIVE_INFINITY) {
+      return "-Inf";
+    }
+    return Double.toString(value);
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.vanilla.internal.telemetry;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A sampler that records, but does not sample, every span that the
+ * delegate sampler would drop. Used in combination with
+ * {@link CSSpanExporterErrorsAlways} so that spans that end with an error
+ * can be exported even if they were not sampled.
+ */
+
+public final class CSSamplerErrorsAlways implements Sampler
+{
+  private static final SamplingResult RECORD_ONLY =
+    SamplingResult.recordOnly();
+
+  private final Sampler delegate;
+
+  /**
+   * A sampler that records every span that the delegate sampler would drop.
+   *
+   * @param inDelegate The delegate sampler
+   */
+
+  public CSSamplerErrorsAlways(
+    final Sampler inDelegate)
+  {
+    this.delegate =
+      Objects.requireNonNull(inDelegate, "delegate");
+  }
+
+  @Override
+  public SamplingResult shouldSample(
+    final Context parentContext,
+    final String traceId,
+    final String name,
+    final SpanKind spanKind,
+    final Attributes attributes,
+    final List<LinkData> parentLinks)
+  {
+    final var result =
+      this.delegate.shouldSample(
+        parentContext,
+        traceId,
+        name,
+        spanKind,
+        attributes,
+        parentLinks
+      );
+
+    if (result.getDecision() == SamplingDecision.DROP) {
+      return RECORD_ONLY;
+    }
+    return result;
+  }
+
+  @Override
+  public String getDescription()
+  {
+    return "CSSamplerErrorsAlways{%s}"
+      .formatted(this.delegate.getDescription());
+  }
+
+  @Override
+  public String toString()
+  {
+    return this.getDescription();
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.vanilla.internal.telemetry;
+
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * A span exporter that passes sampled spans, and unsampled spans that ended
+ * with an error status, to a delegate exporter. All other spans are
+ * discarded.
+ *
+ * @see CSSamplerErrorsAlways
+ */
+
+public final class CSSpanExporterErrorsAlways implements SpanExporter
+{
+  private final SpanExporter delegate;
+
+  /**
+   * A span exporter that passes sampled spans and error spans to a delegate.
+   *
+   * @param inDelegate The delegate exporter
+   */
+
+  public CSSpanExporterErrorsAlways(
+    final SpanExporter inDelegate)
+  {
+    this.delegate =
+      Objects.requireNonNull(inDelegate, "delegate");
+  }
+
+  private static boolean isExported(
+    final SpanData span)
+  {
+    return span.getSpanContext().isSampled()
+           || span.getStatus().getStatusCode() == StatusCode.ERROR;
+  }
+
+  @Override
+  public CompletableResultCode export(
+    final Collection<SpanData> spans)
+  {
+    final var exported = new ArrayList<SpanData>(spans.size());
+    for (final var span : spans) {
+      if (isExported(span)) {
+        exported.add(span);
+      }
+    }
+
+    if (exported.isEmpty()) {
+      return CompletableResultCode.ofSuccess();
+    }
+    return this.delegate.export(exported);
+  }
+
+  @Override
+  public CompletableResultCode flush()
+  {
+    return this.delegate.flush();
+  }
+
+  @Override
+  public CompletableResultCode shutdown()
+  {
+    return this.delegate.shutdown();
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[CSSpanExporterErrorsAlways %s]".formatted(this.delegate);
+  }
+}
@@ -17,6 +17,8 @@
 package com.io7m.certusine.vanilla.internal.telemetry;
 
 import com.io7m.certusine.api.CSTelemetryServiceType;
+import com.io7m.jmulticlose.core.CloseableCollectionType;
+import com.io7m.jmulticlose.core.ClosingResourceFailedException;
 import io.opentelemetry.api.logs.Logger;
 import io.opentelemetry.api.metrics.Meter;
 import io.opentelemetry.api.trace.Tracer;
@@ -28,24 +30,27 @@ import java.util.Objects;
  */
 
 public final class CSTelemetryService
-  implements CSTelemetryServiceType
+  implements CSTelemetryServiceType, AutoCloseable
 {
   private final Tracer tracer;
   private final Meter meter;
   private final Logger logger;
+  private final CloseableCollectionType<ClosingResourceFailedException> resources;
 
   /**
    * An OpenTelemetry service.
    *
-   * @param inTracer The tracer instance
-   * @param inMeter  The meter instance
-   * @param inLogger The logger instance
+   * @param inTracer    The tracer instance
+   * @param inMeter     The meter instance
+   * @param inLogger    The logger instance
+   * @param inResources The resources closed with the service
    */
 
   public CSTelemetryService(
     final Tracer inTracer,
     final Meter inMeter,
-    final Logger inLogger)
+    final Logger inLogger,
+    final CloseableCollectionType<ClosingResourceFailedException> inResources)
   {
     this.tracer =
       Objects.requireNonNull(inTracer, "tracer");
@@ -53,6 +58,8 @@ public final class CSTelemetryService
       Objects.requireNonNull(inMeter, "meter");
     this.logger =
       Objects.requireNonNull(inLogger, "logger");
+    this.resources =
+      Objects.requireNonNull(inResources, "resources");
   }
 
   @Override
@@ -86,4 +93,11 @@ public final class CSTelemetryService
   {
     return "Telemetry service.";
   }
+
+  @Override
+  public void close()
+    throws ClosingResourceFailedException
+  {
+    this.resources.close();
+  }
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+
+package com.io7m.certusine.vanilla.internal.telemetry;
+
+import com.io7m.certusine.api.CSOpenTelemetryConfiguration.CSTraceSampling;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.SpanLimits;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+
+import java.util.Objects;
+
+/**
+ * Functions to create tracer providers.
+ */
+
+public final class CSTracerProviders
+{
+  /**
+   * The maximum length of attribute values. Providers attach HTTP request
+   * and response bodies to spans, so attribute values are truncated to keep
+   * the memory held by unexported spans bounded.
+   */
+
+  public static final int ATTRIBUTE_VALUE_LENGTH_MAXIMUM = 4096;
+
+  /**
+   * The maximum number of attributes on a span, span event, or log record.
+   */
+
+  public static final int ATTRIBUTE_COUNT_MAXIMUM = 64;
+
+  /**
+   * The maximum number of events on a span.
+   */
+
+  public static final int SPAN_EVENT_COUNT_MAXIMUM = 64;
+
+  private static final SpanLimits SPAN_LIMITS =
+    SpanLimits.builder()
+      .setMaxAttributeValueLength(ATTRIBUTE_VALUE_LENGTH_MAXIMUM)
+      .setMaxNumberOfAttributes(ATTRIBUTE_COUNT_MAXIMUM)
+      .setMaxNumberOfAttributesPerEvent(ATTRIBUTE_COUNT_MAXIMUM)
+      .setMaxNumberOfEvents(SPAN_EVENT_COUNT_MAXIMUM)
+      .build();
+
+  private CSTracerProviders()
+  {
+
+  }
+
+  /**
+   * Create a tracer provider that samples spans according to the given
+   * sampling configuration, and exports them to the given exporter.
+   *
+   * @param resource The resource
+   * @param exporter The span exporter
+   * @param sampling The sampling configuration
+   *
+   * @return A tracer provider
+   */
+
+  public static SdkTracerProvider create(
+    final Resource resource,
+    final SpanExporter exporter,
+    final CSTraceSampling sampling)
+  {
+    Objects.requireNonNull(resource, "resource");
+    Objects.requireNonNull(exporter, "exporter");
+    Objects.requireNonNull(sampling, "sampling");
+
+    /*
+     * Spans that were recorded but not sampled only reach the exporter if
+     * the processor is told to export unsampled spans.
+     */
+
+    final var batchSpanProcessor =
+      BatchSpanProcessor.builder(
+          sampling.errorsAlways()
+            ? new CSSpanExporterErrorsAlways(exporter)
+            : exporter)
+        .setExportUnsampledSpans(sampling.errorsAlways())
+        .build();
+
+    return SdkTracerProvider.builder()
+      .addSpanProcessor(batchSpanProcessor)
+      .setSampler(createSampler(sampling))
+      .setSpanLimits(SPAN_LIMITS)
+      .setResource(resource)
+      .build();
+  }
+
+  private static Sampler createSampler(
+    final CSTraceSampling sampling)
+  {
+    var sampler = Sampler.traceIdRatioBased(sampling.ratio());
+    if (sampling.parentBased()) {
+      sampler = Sampler.parentBased(sampler);
+    }
+
+    /*
+     * Whether a span ends with an error is not known when the sampling
+     * decision is made, so all spans that would otherwise be dropped are
+     * recorded, and the exporter discards those that did not fail.
+     */
+
+    if (sampling.errorsAlways()) {
+      sampler = new CSSamplerErrorsAlways(sampler);
+    }
+    return sampler;
+  }
+}
@@ -18,6 +18,7 @@ import com.io7m.certusine.api.CSCertificateOutputProviderType;
 import com.io7m.certusine.api.CSDNSConfiguratorProviderType;
 import com.io7m.certusine.certstore.api.CSCertificateStoreFactoryType;
 import com.io7m.certusine.vanilla.CSCertificateOutputProviderDirectory;
+import com.io7m.certusine.vanilla.CSCertificateOutputProviderHook;
 import com.io7m.certusine.vanilla.internal.store.CSCertificateStoreSQLiteFactory;
 
 /**
@@ -57,6 +58,11 @@ module com.io7m.certusine.vanilla
   requires io.opentelemetry.semconv;
   requires com.io7m.trasco.api;
   requires com.io7m.trasco.vanilla;
+  requires java.net.http;
+  requires jdk.jfr;
+  requires jetty.servlet.api;
+  requires org.eclipse.jetty.server;
+  requires org.eclipse.jetty.util;
 
   exports com.io7m.certusine.vanilla;
 
@@ -65,7 +71,8 @@ module com.io7m.certusine.vanilla
   uses CSCertificateStoreFactoryType;
 
   provides CSCertificateOutputProviderType
-    with CSCertificateOutputProviderDirectory;
+    with CSCertificateOutputProviderDirectory,
+      CSCertificateOutputProviderHook;
 
   provides CSCertificateStoreFactoryType
     with CSCertificateStoreSQLiteFactory;
@@ -84,8 +91,12 @@ module com.io7m.certusine.vanilla
     to com.io7m.certusine.tests;
   exports com.io7m.certusine.vanilla.internal.dns
     to com.io7m.certusine.tests;
+  exports com.io7m.certusine.vanilla.internal.delivery
+    to com.io7m.certusine.tests;
   exports com.io7m.certusine.vanilla.internal.events
     to com.io7m.certusine.tests;
+  exports com.io7m.certusine.vanilla.internal.age
+    to com.io7m.certusine.tests;
 
   opens com.io7m.certusine.vanilla to
     com.io7m.jxtrand.vanilla;
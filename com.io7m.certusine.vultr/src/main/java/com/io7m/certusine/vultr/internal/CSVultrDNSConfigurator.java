@@ -18,7 +18,6 @@
 package com.io7m.certusine.vultr.internal;
 
 import tools.jackson.databind.json.JsonMapper;
-import tools.jackson.databind.module.SimpleDeserializers;
 import tools.jackson.databind.module.SimpleModule;
 import com.io7m.certusine.api.CSDNSConfiguratorType;
 import com.io7m.certusine.api.CSDNSRecordNameType;
@@ -54,9 +53,39 @@ public final class CSVultrDNSConfigurator implements CSDNSConfiguratorType
   private final String apiBase;
   private final String apiKey;
   private final String domain;
-  private final SimpleDeserializers serializers;
   private final JsonMapper mapper;
 
+  /**
+   * Create a JSON mapper that can decode Vultr API responses. Only the
+   * response types used by the configurator can be deserialized.
+   *
+   * @return A new mapper
+   */
+
+  public static JsonMapper createMapper()
+  {
+    final var serializers =
+      DmJsonRestrictedDeserializers.builder()
+        .allowClassName(
+          "java.util.List<com.io7m.certusine.vultr.internal.CSVultrDNSRecord>")
+        .allowClass(CSVultrDNSRecord.class)
+        .allowClass(CSVultrDNSResponse.class)
+        .allowClass(CSVultrPageLinks.class)
+        .allowClass(CSVultrPageMetadata.class)
+        .allowClass(List.class)
+        .allowClass(Optional.class)
+        .allowClass(String.class)
+        .allowClass(int.class)
+        .build();
+
+    final var simpleModule = new SimpleModule();
+    simpleModule.setDeserializers(serializers);
+
+    return JsonMapper.builder()
+      .addModule(simpleModule)
+      .build();
+  }
+
   /**
    * A Vultr DNS configurator.
    *
@@ -85,27 +114,8 @@ public final class CSVultrDNSConfigurator implements CSDNSConfiguratorType
     this.client =
       HttpClient.newHttpClient();
 
-    this.serializers =
-      DmJsonRestrictedDeserializers.builder()
-        .allowClassName(
-          "java.util.List<com.io7m.certusine.vultr.internal.CSVultrDNSRecord>")
-        .allowClass(CSVultrDNSRecord.class)
-        .allowClass(CSVultrDNSResponse.class)
-        .allowClass(CSVultrPageLinks.class)
-        .allowClass(CSVultrPageMetadata.class)
-        .allowClass(List.class)
-        .allowClass(Optional.class)
-        .allowClass(String.class)
-        .allowClass(int.class)
-        .build();
-
-    final var simpleModule = new SimpleModule();
-    simpleModule.setDeserializers(this.serializers);
-
     this.mapper =
-      JsonMapper.builder()
-        .addModule(simpleModule)
-        .build();
+      createMapper();
   }
 
   @Override